@@ -21,6 +21,14 @@ import groovy.transform.CompileStatic
 import groovy.transform.TypeCheckingMode
 import groovy.util.slurpersupport.GPathResult
 
+import java.security.MessageDigest
+import java.util.concurrent.Callable
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.Future
+
 import org.apache.maven.model.building.DefaultModelBuildingRequest
 import org.apache.maven.model.building.ModelBuilder
 import org.apache.maven.model.building.ModelBuildingResult
@@ -97,6 +105,7 @@ class AetherDependencyManager implements DependencyManager {
                                                              runtime:['compile', 'optional','runtime'],
                                                              test:['compile','provided', 'runtime', 'optional','test'],
                                                              provided:['provided']]
+    static final List<String> CACHED_SCOPES = ['build', 'compile', 'provided', 'runtime', 'test']
 
 
     protected Dependency jvmAgent
@@ -116,6 +125,11 @@ class AetherDependencyManager implements DependencyManager {
     boolean defaultDependenciesProvided
     boolean java5compatible
 
+    /**
+     * The directory the resolved artifacts of each scope are stored in, resolve results aren't cached when null
+     */
+    File resolveCacheDir
+
     Map<String, Closure> inheritedDependencies = [:]
 
     private DefaultRepositorySystemSession session  = (DefaultRepositorySystemSession)MavenRepositorySystemUtils.newSession()
@@ -126,6 +140,8 @@ class AetherDependencyManager implements DependencyManager {
 
     private ModelBuilder modelBuilder
 
+    private Map<String, DependencyReport> resolvedReports = new ConcurrentHashMap<String, DependencyReport>()
+
     GrailsConsoleLoggerManager loggerManager
 
     /**
@@ -319,14 +335,188 @@ class AetherDependencyManager implements DependencyManager {
     }
 
     /**
-     * Resolve dependencies for the given scope
+     * Resolve dependencies for the given scope. When the {@link #resolveCacheDir} is set and the dependencies,
+     * repositories and plugins haven't changed since a previous resolve, the stored result is used. Otherwise
+     * all scopes without a stored result are resolved in parallel.
+     *
      * @param scope The scope (defaults to 'runtime')
      * @return A DependencyReport instance
      */
     DependencyReport resolve(String scope = "runtime") {
+        if (resolveCacheDir == null || !CACHED_SCOPES.contains(scope)) {
+            return resolveScope(scope, true)
+        }
+        String digest = createResolveDigest(scope)
+        if (digest == null) {
+            return resolveScope(scope, true)
+        }
+
+        DependencyReport report = resolvedReports.remove(digest)
+        if (report == null) {
+            report = CachedDependencyReport.read(scope, getResolveCacheFile(scope, digest))
+        }
+        if (report != null) {
+            return report
+        }
+
+        Map<String, String> digests = [(scope): digest]
+        for (String otherScope in CACHED_SCOPES) {
+            if (otherScope != scope) {
+                String otherDigest = createResolveDigest(otherScope)
+                if (otherDigest != null && !resolvedReports.containsKey(otherDigest) && !getResolveCacheFile(otherScope, otherDigest).exists()) {
+                    digests[otherScope] = otherDigest
+                }
+            }
+        }
+
+        Map<String, DependencyReport> reports = resolveInParallel(digests.keySet())
+        for (Map.Entry<String, DependencyReport> entry in reports.entrySet()) {
+            String resolvedDigest = digests[entry.key]
+            DependencyReport resolved = entry.value
+            if (!resolved.hasError()) {
+                storeResolveResult(entry.key, resolvedDigest, resolved)
+            }
+            if (entry.key != scope) {
+                resolvedReports[resolvedDigest] = resolved
+            }
+        }
+        return reports[scope]
+    }
+
+    /**
+     * Resolves several scopes concurrently with the same session.
+     *
+     * @param scopes The scopes
+     * @return The reports by scope
+     */
+    protected Map<String, DependencyReport> resolveInParallel(Collection<String> scopes) {
+        Map<String, DependencyReport> reports = [:]
+        if (scopes.size() == 1) {
+            String scope = scopes.iterator().next()
+            reports[scope] = resolveScope(scope, true)
+            return reports
+        }
+
+        prepareSession()
+        final contextLoader = Thread.currentThread().getContextClassLoader()
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(scopes.size(), Runtime.getRuntime().availableProcessors()))
+        try {
+            Map<String, Future<DependencyReport>> futures = [:]
+            for (String scope in scopes) {
+                final String currentScope = scope
+                futures[currentScope] = executor.submit({
+                    Thread.currentThread().setContextClassLoader(contextLoader)
+                    resolveScope(currentScope, false)
+                } as Callable<DependencyReport>)
+            }
+            for (Map.Entry<String, Future<DependencyReport>> entry in futures.entrySet()) {
+                try {
+                    reports[entry.key] = entry.value.get()
+                }
+                catch (ExecutionException e) {
+                    throw e.cause
+                }
+            }
+        }
+        finally {
+            executor.shutdownNow()
+        }
+        return reports
+    }
+
+    /**
+     * Creates a digest of everything the resolve result of a scope depends on.
+     *
+     * @param scope The scope
+     * @return The digest or null if the result can't be cached, for example because of snapshot or dynamic versions
+     */
+    protected String createResolveDigest(String scope) {
+        if (readPom) {
+            // dependencies are added from the POM when resolving
+            return null
+        }
+        def input = new StringBuilder(scope)
+        for (Dependency dependency in (scope == 'build' ? buildDependencies : dependencies)) {
+            final artifact = dependency.artifact
+            if (isDynamicVersion(artifact.version)) {
+                return null
+            }
+            input.append('\n').append(artifact).append(' ').append(dependency.scope).append(' ').append(dependency.optional)
+            for (Exclusion exclusion in dependency.exclusions) {
+                input.append(' -').append(exclusion.groupId).append(':').append(exclusion.artifactId)
+                     .append(':').append(exclusion.classifier).append(':').append(exclusion.extension)
+            }
+        }
+        for (org.codehaus.groovy.grails.resolve.Dependency plugin in grailsPluginDependencies) {
+            input.append('\nplugin ').append(plugin.pattern).append(' ').append(plugin.transitive).append(' ').append(plugin.excludes)
+        }
+        for (RemoteRepository repository in repositories) {
+            input.append('\nrepository ').append(repository)
+        }
+        input.append('\n').append(localRepositoryPath).append(' ').append(checksumPolicy).append(' ')
+             .append(includeSource).append(' ').append(includeJavadoc)
+
+        byte[] digest = MessageDigest.getInstance("MD5").digest(input.toString().getBytes("UTF-8"))
+        return new BigInteger(1, digest).toString(16).padLeft(32, '0')
+    }
+
+    /**
+     * @return The path of the local repository artifacts are resolved to, the Maven settings are read if needed
+     */
+    protected String getLocalRepositoryPath() {
+        if (cacheDir) {
+            return cacheDir
+        }
+        if (settings == null) {
+            settings = buildSettings()
+        }
+        return settings.localRepository ?: DEFAULT_CACHE
+    }
+
+    protected Settings buildSettings() {
+        SettingsBuildingResult result = settingsBuilder.build(new DefaultSettingsBuildingRequest())
+        return result.getEffectiveSettings()
+    }
+
+    protected boolean isDynamicVersion(String version) {
+        !version || version.endsWith('SNAPSHOT') || version.startsWith('[') || version.startsWith('(') ||
+            version.contains(',') || version.startsWith('latest.') || version == 'LATEST' || version == 'RELEASE'
+    }
+
+    protected File getResolveCacheFile(String scope, String digest) {
+        new File(resolveCacheDir, "aether-${scope}-${digest}.resolve")
+    }
+
+    protected void storeResolveResult(String scope, String digest, DependencyReport report) {
+        final cacheFile = getResolveCacheFile(scope, digest)
+        try {
+            // results of previous versions of the dependencies are no longer needed
+            resolveCacheDir.listFiles()?.each { File f ->
+                if (f.name.startsWith("aether-${scope}-".toString()) && f != cacheFile) {
+                    f.delete()
+                }
+            }
+            CachedDependencyReport.write(report, cacheFile)
+        }
+        catch (IOException e) {
+            cacheFile.delete()
+        }
+    }
+
+    /**
+     * Resolves the given scope without using stored results.
+     *
+     * @param scope The scope
+     * @param prepare Whether the session needs to be prepared, it's only prepared once when resolving in parallel
+     * @return A DependencyReport instance
+     */
+    protected DependencyReport resolveScope(String scope, boolean prepare) {
         DependencyNode root
         try {
-            root = collectDependencies(scope)
+            if (prepare) {
+                prepareSession()
+            }
+            root = collectDependenciesForScope(scope)
             DependencyResult results = resolveToResult(root, scope)
 
             if (includeSource || includeJavadoc) {
@@ -421,8 +611,15 @@ class AetherDependencyManager implements DependencyManager {
     }
 
     protected DependencyNode collectDependencies(String scope) {
-        SettingsBuildingResult result = settingsBuilder.build(new DefaultSettingsBuildingRequest())
-        settings = result.getEffectiveSettings()
+        prepareSession()
+        return collectDependenciesForScope(scope)
+    }
+
+    /**
+     * Reads the Maven settings and configures the session. The session must not be changed while resolving.
+     */
+    protected void prepareSession() {
+        settings = buildSettings()
         final proxyHost = System.getProperty("http.proxyHost")
         final proxyPort = System.getProperty("http.proxyPort")
         if (proxyHost && proxyPort) {
@@ -440,7 +637,7 @@ class AetherDependencyManager implements DependencyManager {
         })
         session.setChecksumPolicy(checksumPolicy)
 
-        LocalRepository localRepo = new LocalRepository(cacheDir ?: settings.localRepository ?: DEFAULT_CACHE)
+        LocalRepository localRepo = new LocalRepository(localRepositoryPath)
         session.setLocalRepositoryManager(repositorySystem.newLocalRepositoryManager(session, localRepo))
 
         if (readPom) {
@@ -456,7 +653,9 @@ class AetherDependencyManager implements DependencyManager {
                 addDependency(dependency)
             }
         }
+    }
 
+    protected DependencyNode collectDependenciesForScope(String scope) {
         def collectRequest = new CollectRequest()
         if (scope == 'build') {
             collectRequest.setDependencies(buildDependencies)
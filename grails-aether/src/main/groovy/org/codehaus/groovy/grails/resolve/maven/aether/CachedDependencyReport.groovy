@@ -0,0 +1,121 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.resolve.maven.aether
+
+import groovy.transform.CompileStatic
+
+import org.codehaus.groovy.grails.resolve.Dependency
+import org.codehaus.groovy.grails.resolve.DependencyReport
+import org.codehaus.groovy.grails.resolve.ResolvedArtifactReport
+
+/**
+ * A {@link DependencyReport} for a resolve result that was stored by a previous build. Each line of the
+ * file contains the group, name, classifier, version and the file of a resolved artifact separated by tabs.
+ *
+ * @since 2.3
+ */
+@CompileStatic
+class CachedDependencyReport implements DependencyReport {
+
+    private static final String SEPARATOR = "\t"
+
+    String scope
+    List<ResolvedArtifactReport> resolvedArtifacts = []
+
+    CachedDependencyReport(String scope, List<ResolvedArtifactReport> resolvedArtifacts) {
+        this.scope = scope
+        this.resolvedArtifacts = resolvedArtifacts
+    }
+
+    /**
+     * Reads a report written by {@link #write(DependencyReport, File)}.
+     *
+     * @param scope The scope
+     * @param file The file
+     * @return The report or null if the file doesn't exist, can't be read or refers to artifacts that no longer exist
+     */
+    static CachedDependencyReport read(String scope, File file) {
+        if (!file.exists()) {
+            return null
+        }
+        List<ResolvedArtifactReport> artifacts = []
+        try {
+            for (String line in file.readLines("UTF-8")) {
+                if (!line) {
+                    continue
+                }
+                String[] tokens = line.split(SEPARATOR)
+                if (tokens.length != 5) {
+                    return null
+                }
+                def artifactFile = new File(tokens[4])
+                if (!artifactFile.exists()) {
+                    return null
+                }
+                def dependency = new Dependency(tokens[0], tokens[1], tokens[3])
+                dependency.classifier = tokens[2] ?: null
+                artifacts << new ResolvedArtifactReport(dependency, artifactFile)
+            }
+        }
+        catch (IOException e) {
+            return null
+        }
+        return new CachedDependencyReport(scope, artifacts)
+    }
+
+    /**
+     * Writes the resolved artifacts of a report that has no error.
+     *
+     * @param report The report
+     * @param file The file
+     */
+    static void write(DependencyReport report, File file) {
+        file.parentFile?.mkdirs()
+        def tmp = new File(file.parentFile, "${file.name}.tmp")
+        tmp.withWriter("UTF-8") { Writer writer ->
+            for (ResolvedArtifactReport artifact in report.resolvedArtifacts) {
+                def dependency = artifact.dependency
+                writer.write([dependency.group, dependency.name, dependency.classifier ?: '', dependency.version,
+                              artifact.file.absolutePath].join(SEPARATOR))
+                writer.write('\n')
+            }
+        }
+        if (!tmp.renameTo(file)) {
+            file.delete()
+            tmp.renameTo(file)
+        }
+    }
+
+    String getClasspath() {
+        jarFiles.join(File.pathSeparator)
+    }
+
+    List<File> getAllArtifacts() {
+        resolvedArtifacts.collect { ResolvedArtifactReport artifact -> artifact.file }
+    }
+
+    List<File> getJarFiles() {
+        allArtifacts.findAll { File f -> !f.name.endsWith(".zip") }
+    }
+
+    List<File> getPluginZips() {
+        allArtifacts.findAll { File f -> f.name.endsWith(".zip") }
+    }
+
+    boolean hasError() { false }
+
+    Throwable getResolveError() { null }
+}
@@ -15,9 +15,14 @@
  */
 package org.codehaus.groovy.grails.resolve.maven
 
+import org.apache.maven.settings.Settings
 import org.codehaus.groovy.grails.resolve.Dependency
+import org.codehaus.groovy.grails.resolve.DependencyReport
+import org.codehaus.groovy.grails.resolve.ResolvedArtifactReport
 import org.codehaus.groovy.grails.resolve.maven.aether.AetherDependencyManager
+import org.codehaus.groovy.grails.resolve.maven.aether.CachedDependencyReport
 import org.codehaus.groovy.grails.resolve.maven.aether.config.GrailsAetherCoreDependencies
+import org.eclipse.aether.RepositorySystem
 import org.eclipse.aether.repository.Authentication
 import org.eclipse.aether.repository.RemoteRepository
 import spock.lang.Ignore
@@ -480,4 +485,124 @@ class AetherDependencyManagerSpec extends Specification {
             dependencyManager.session.authenticationSelector.getAuthentication(repository) != null
     }
 
+    void "Test the resolve digest changes when the dependencies change"() {
+        given:"Two dependency managers with the same dependencies"
+            def createManager = { String version ->
+                def dependencyManager = new AetherDependencyManager()
+                dependencyManager.parseDependencies {
+                    repositories {
+                        mavenCentral()
+                    }
+                    dependencies {
+                        compile "mysql:mysql-connector-java:$version"
+                    }
+                }
+                dependencyManager
+            }
+
+        expect:"The digest only depends on the declared dependencies"
+            createManager('5.1.24').createResolveDigest('compile') == createManager('5.1.24').createResolveDigest('compile')
+            createManager('5.1.24').createResolveDigest('compile') != createManager('5.1.25').createResolveDigest('compile')
+            createManager('5.1.24').createResolveDigest('compile') != createManager('5.1.24').createResolveDigest('runtime')
+
+        and:"Snapshot versions are never cached"
+            createManager('5.1.24-SNAPSHOT').createResolveDigest('compile') == null
+    }
+
+    void "Test the resolve digest uses the local repository of the Maven settings"() {
+        given:"Dependency managers using different local repositories"
+            def createManager = { String cacheDir, String localRepository ->
+                def dependencyManager = new AetherDependencyManager()
+                dependencyManager.cacheDir = cacheDir
+                dependencyManager.settings = new Settings(localRepository: localRepository)
+                dependencyManager.parseDependencies {
+                    dependencies {
+                        compile "mysql:mysql-connector-java:5.1.24"
+                    }
+                }
+                dependencyManager
+            }
+
+        expect:"The digest changes with the local repository that is actually used"
+            createManager(null, '/repo/a').createResolveDigest('compile') != createManager(null, '/repo/b').createResolveDigest('compile')
+            createManager(null, '/repo/a').createResolveDigest('compile') == createManager('/repo/a', '/repo/b').createResolveDigest('compile')
+    }
+
+    void "Test a second resolve with the same dependencies is answered from the stored result"() {
+        given:"A resolve result stored by a previous run"
+            def dir = File.createTempDir()
+            def jar = new File(dir, "mysql-connector-java-5.1.24.jar")
+            jar.text = ''
+            def dependencies = {
+                dependencies {
+                    compile "mysql:mysql-connector-java:5.1.24"
+                }
+            }
+            def previous = new StubResolveDependencyManager(artifact: jar)
+            previous.cacheDir = new File(dir, "repository").path
+            previous.resolveCacheDir = dir
+            previous.parseDependencies dependencies
+            previous.resolve('compile')
+
+        and:"A dependency manager with the same dependencies"
+            def repositorySystem = Mock(RepositorySystem)
+            def dependencyManager = new AetherDependencyManager()
+            dependencyManager.@repositorySystem = repositorySystem
+            dependencyManager.cacheDir = previous.cacheDir
+            dependencyManager.resolveCacheDir = dir
+            dependencyManager.parseDependencies dependencies
+
+        when:"The dependencies are resolved"
+            def report = dependencyManager.resolve('compile')
+
+        then:"The stored result is used without the repository system"
+            previous.resolvedScopes.contains('compile')
+            report.jarFiles == [jar.absoluteFile]
+            0 * repositorySystem._
+
+        cleanup:
+            dir?.deleteDir()
+    }
+
+    void "Test a stored resolve result can be read"() {
+        given:"A stored result"
+            def dir = File.createTempDir()
+            def jar = new File(dir, "mysql-connector-java-5.1.24.jar")
+            jar.text = ''
+            def zip = new File(dir, "feeds-1.6.zip")
+            zip.text = ''
+            def dependency = new Dependency("mysql", "mysql-connector-java", "5.1.24")
+            def plugin = new Dependency("org.grails.plugins", "feeds", "1.6")
+            def cacheFile = new File(dir, "aether-compile-test.resolve")
+            CachedDependencyReport.write(new CachedDependencyReport("compile",
+                [new ResolvedArtifactReport(dependency, jar), new ResolvedArtifactReport(plugin, zip)]), cacheFile)
+
+        when:"The result is read"
+            def report = CachedDependencyReport.read("compile", cacheFile)
+
+        then:"The artifacts are the same"
+            report.jarFiles == [jar.absoluteFile]
+            report.pluginZips == [zip.absoluteFile]
+            report.resolvedArtifacts*.dependency == [dependency, plugin]
+
+        when:"An artifact no longer exists"
+            jar.delete()
+
+        then:"The result can't be used"
+            CachedDependencyReport.read("compile", cacheFile) == null
+
+        cleanup:
+            dir?.deleteDir()
+    }
+}
+
+class StubResolveDependencyManager extends AetherDependencyManager {
+    File artifact
+    List<String> resolvedScopes = Collections.synchronizedList([])
+
+    @Override
+    protected DependencyReport resolveScope(String scope, boolean prepare) {
+        resolvedScopes << scope
+        new CachedDependencyReport(scope, [new ResolvedArtifactReport(new Dependency("mysql", "mysql-connector-java", "5.1.24"), artifact)])
+    }
 }
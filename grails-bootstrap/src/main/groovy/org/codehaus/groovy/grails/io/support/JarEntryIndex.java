@@ -0,0 +1,251 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.io.support;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * The entry names of a jar file, read once per process and shared by all class loaders, so that
+ * resolving many patterns against the same jars doesn't read each jar again for every pattern.
+ *
+ * When the system property {@value #INDEX_DIR_PROPERTY} names a directory the indexes are also stored
+ * there and reused by later processes for as long as the size and the modification time of the jar are unchanged.
+ *
+ * @since 2.3
+ */
+public final class JarEntryIndex {
+
+    public static final String INDEX_DIR_PROPERTY = "grails.classpath.index.dir";
+
+    private static final Log LOG = LogFactory.getLog(JarEntryIndex.class);
+    private static final String ENCODING = "UTF-8";
+    private static final Map<String, SoftReference<JarEntryIndex>> CACHE =
+            new ConcurrentHashMap<String, SoftReference<JarEntryIndex>>();
+
+    private final String key;
+    // the entries in the order of the jar, and their positions sorted by name
+    private final String[] entries;
+    private final int[] sorted;
+
+    private JarEntryIndex(String key, final String[] entries) {
+        this.key = key;
+        this.entries = entries;
+        Integer[] positions = new Integer[entries.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = i;
+        }
+        Arrays.sort(positions, new Comparator<Integer>() {
+            public int compare(Integer a, Integer b) {
+                return entries[a].compareTo(entries[b]);
+            }
+        });
+        sorted = new int[positions.length];
+        for (int i = 0; i < positions.length; i++) {
+            sorted[i] = positions[i];
+        }
+    }
+
+    /**
+     * Obtains the index of a jar file, reading the jar only if it changed since it was last indexed.
+     *
+     * @param jarFile The jar file
+     * @return The index
+     * @throws IOException If the jar can't be read
+     */
+    public static JarEntryIndex forJar(File jarFile) throws IOException {
+        String path = jarFile.getAbsolutePath();
+        String key = path + '|' + jarFile.length() + '|' + jarFile.lastModified();
+
+        SoftReference<JarEntryIndex> reference = CACHE.get(path);
+        JarEntryIndex index = reference == null ? null : reference.get();
+        if (index != null && index.key.equals(key)) {
+            return index;
+        }
+
+        File indexFile = getIndexFile(path);
+        if (indexFile != null) {
+            index = load(indexFile, key);
+        }
+        if (index == null) {
+            index = read(jarFile, key);
+            if (indexFile != null) {
+                store(index, indexFile);
+            }
+        }
+        CACHE.put(path, new SoftReference<JarEntryIndex>(index));
+        return index;
+    }
+
+    /**
+     * Removes the indexes kept in memory.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Finds the entries below a directory of the jar matching a pattern. The entries below the directory
+     * are found with a binary search, only they are matched against the pattern.
+     *
+     * @param rootEntryPath The directory, empty or ending with a slash
+     * @param subPattern The pattern, relative to the directory
+     * @param pathMatcher The matcher
+     * @return The paths of the matching entries relative to the directory, in the order of the jar
+     */
+    public List<String> findMatchingEntries(String rootEntryPath, String subPattern, AntPathMatcher pathMatcher) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (entries[sorted[middle]].compareTo(rootEntryPath) < 0) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+
+        int[] matches = new int[8];
+        int count = 0;
+        for (int i = low; i < sorted.length && entries[sorted[i]].startsWith(rootEntryPath); i++) {
+            String relativePath = entries[sorted[i]].substring(rootEntryPath.length());
+            if (pathMatcher.match(subPattern, relativePath)) {
+                if (count == matches.length) {
+                    matches = Arrays.copyOf(matches, count * 2);
+                }
+                matches[count++] = sorted[i];
+            }
+        }
+
+        // in the order of the jar, like a scan of the entries would return them
+        Arrays.sort(matches, 0, count);
+        List<String> result = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(entries[matches[i]].substring(rootEntryPath.length()));
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of entries
+     */
+    public int size() {
+        return entries.length;
+    }
+
+    private static JarEntryIndex read(File file, String key) throws IOException {
+        JarFile jarFile = new JarFile(file);
+        try {
+            List<String> names = new ArrayList<String>();
+            for (Enumeration<JarEntry> jarEntries = jarFile.entries(); jarEntries.hasMoreElements();) {
+                names.add(jarEntries.nextElement().getName());
+            }
+            return new JarEntryIndex(key, names.toArray(new String[names.size()]));
+        }
+        finally {
+            jarFile.close();
+        }
+    }
+
+    private static File getIndexFile(String path) {
+        String indexDir = System.getProperty(INDEX_DIR_PROPERTY);
+        if (indexDir == null || indexDir.length() == 0) {
+            return null;
+        }
+        String name = new File(path).getName();
+        return new File(indexDir, name + '-' + Integer.toHexString(path.hashCode()) + ".idx");
+    }
+
+    private static JarEntryIndex load(File indexFile, String key) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(indexFile), ENCODING));
+            try {
+                // indexes of other versions of the jar, or of jars with the same file name hash, are read again
+                if (!key.equals(reader.readLine())) {
+                    return null;
+                }
+                List<String> names = new ArrayList<String>();
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    names.add(line);
+                }
+                return new JarEntryIndex(key, names.toArray(new String[names.size()]));
+            }
+            finally {
+                reader.close();
+            }
+        }
+        catch (IOException e) {
+            LOG.debug("Cannot read jar index [" + indexFile + "]", e);
+            return null;
+        }
+    }
+
+    private static void store(JarEntryIndex index, File indexFile) {
+        File dir = indexFile.getParentFile();
+        try {
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                return;
+            }
+            // written to a temporary file first, other processes may be reading the index
+            File tempFile = File.createTempFile(indexFile.getName(), ".tmp", dir);
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(tempFile), ENCODING));
+            try {
+                writer.write(index.key);
+                writer.newLine();
+                for (String entry : index.entries) {
+                    writer.write(entry);
+                    writer.newLine();
+                }
+            }
+            finally {
+                writer.close();
+            }
+            if (!tempFile.renameTo(indexFile)) {
+                indexFile.delete();
+                if (!tempFile.renameTo(indexFile)) {
+                    tempFile.delete();
+                }
+            }
+        }
+        catch (IOException e) {
+            LOG.debug("Cannot store jar index [" + indexFile + "]", e);
+        }
+    }
+}
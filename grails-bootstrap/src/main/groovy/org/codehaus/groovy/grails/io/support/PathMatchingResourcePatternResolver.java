@@ -154,6 +154,8 @@ public class PathMatchingResourcePatternResolver {
 
     private AntPathMatcher pathMatcher = new AntPathMatcher();
 
+    private boolean useJarEntryIndex = true;
+
     /**
      * Create a new PathMatchingResourcePatternResolver with a DefaultResourceLoader.
      * <p>ClassLoader access will happen via the thread context class loader.
@@ -212,6 +214,22 @@ public class PathMatchingResourcePatternResolver {
         return pathMatcher;
     }
 
+    /**
+     * Set whether the entries of jar files in the file system are looked up in
+     * a {@link JarEntryIndex}, which reads each jar file once per process
+     * instead of once per pattern. Default is <code>true</code>.
+     */
+    public void setUseJarEntryIndex(boolean useJarEntryIndex) {
+        this.useJarEntryIndex = useJarEntryIndex;
+    }
+
+    /**
+     * Return whether the entries of jar files are looked up in a {@link JarEntryIndex}.
+     */
+    public boolean isUseJarEntryIndex() {
+        return useJarEntryIndex;
+    }
+
     public Resource getResource(String location) {
         return getResourceLoader().getResource(location);
     }
@@ -363,6 +381,13 @@ public class PathMatchingResourcePatternResolver {
     protected Set<Resource> doFindPathMatchingJarResources(Resource rootDirResource, String subPattern)
             throws IOException {
 
+        if (useJarEntryIndex) {
+            Set<Resource> result = doFindPathMatchingIndexedJarResources(rootDirResource, subPattern);
+            if (result != null) {
+                return result;
+            }
+        }
+
         URLConnection con = rootDirResource.getURL().openConnection();
         JarFile jarFile;
         String jarFileUrl;
@@ -429,6 +454,55 @@ public class PathMatchingResourcePatternResolver {
         }
     }
 
+    /**
+     * Find all resources in a jar file in the file system that match the given
+     * location pattern, using the {@link JarEntryIndex} of the jar file.
+     * @param rootDirResource the root directory as Resource
+     * @param subPattern the sub pattern to match (below the root directory)
+     * @return the Set of matching Resource instances, or <code>null</code> if the
+     * jar file is not in the file system
+     * @throws IOException in case of I/O errors
+     * @see JarEntryIndex
+     */
+    protected Set<Resource> doFindPathMatchingIndexedJarResources(Resource rootDirResource, String subPattern)
+            throws IOException {
+
+        String urlFile = rootDirResource.getURL().getFile();
+        int separatorIndex = urlFile.indexOf(GrailsResourceUtils.JAR_URL_SEPARATOR);
+        if (separatorIndex == -1) {
+            return null;
+        }
+        String jarFileUrl = urlFile.substring(0, separatorIndex);
+        String rootEntryPath = urlFile.substring(separatorIndex + GrailsResourceUtils.JAR_URL_SEPARATOR.length());
+        // nested jars and encoded entry paths are left to the JarURLConnection
+        if (!jarFileUrl.startsWith(GrailsResourceUtils.FILE_URL_PREFIX) ||
+                rootEntryPath.indexOf(GrailsResourceUtils.JAR_URL_SEPARATOR) > -1 || rootEntryPath.indexOf('%') > -1) {
+            return null;
+        }
+        File jarFile;
+        try {
+            jarFile = new File(GrailsResourceUtils.toURI(jarFileUrl).getSchemeSpecificPart());
+        }
+        catch (URISyntaxException ex) {
+            jarFile = new File(jarFileUrl.substring(GrailsResourceUtils.FILE_URL_PREFIX.length()));
+        }
+        if (!jarFile.isFile()) {
+            return null;
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Looking for matching resources in the index of jar file [" + jarFileUrl + "]");
+        }
+        if (!"".equals(rootEntryPath) && !rootEntryPath.endsWith("/")) {
+            rootEntryPath = rootEntryPath + "/";
+        }
+        Set<Resource> result = new LinkedHashSet<Resource>(8);
+        for (String relativePath : JarEntryIndex.forJar(jarFile).findMatchingEntries(rootEntryPath, subPattern, getPathMatcher())) {
+            result.add(rootDirResource.createRelative(relativePath));
+        }
+        return result;
+    }
+
     /**
      * Resolve the given jar file URL into a JarFile object.
      */
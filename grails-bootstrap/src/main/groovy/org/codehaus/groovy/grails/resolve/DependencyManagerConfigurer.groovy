@@ -104,6 +104,10 @@ class DependencyManagerConfigurer {
     private static void prepareAetherDependencies(aetherDependencyManager, BuildSettings buildSettings, coreDeps) {
         aetherDependencyManager.includeJavadoc = buildSettings.includeJavadoc
         aetherDependencyManager.includeSource = buildSettings.includeSource
+        if (!buildSettings.modified && buildSettings.projectWorkDir) {
+            // resolve results are removed with the other cached resolves when the dependencies are refreshed
+            aetherDependencyManager.resolveCacheDir = buildSettings.projectWorkDir
+        }
 
         aetherDependencyManager.inheritedDependencies.global = coreDeps.createDeclaration()
 
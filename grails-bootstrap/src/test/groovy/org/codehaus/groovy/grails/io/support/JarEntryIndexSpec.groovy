@@ -0,0 +1,103 @@
+package org.codehaus.groovy.grails.io.support
+
+import java.util.jar.JarEntry
+import java.util.jar.JarOutputStream
+
+import spock.lang.Specification
+
+class JarEntryIndexSpec extends Specification {
+
+    File jar
+
+    void setup() {
+        JarEntryIndex.clearCache()
+        jar = File.createTempFile('index-test', '.jar')
+        jar.withOutputStream { out ->
+            def jarOut = new JarOutputStream(out)
+            ['META-INF/', 'META-INF/grails-plugin.xml', 'grails-app/', 'grails-app/i18n/',
+             'grails-app/i18n/messages_de.properties', 'grails-app/i18n/messages.properties',
+             'grails-app/i18n/sub/', 'grails-app/i18n/sub/other.properties', 'grails-app/views/index.gsp'].each {
+                jarOut.putNextEntry(new JarEntry(it))
+                jarOut.closeEntry()
+            }
+            jarOut.close()
+        }
+    }
+
+    void cleanup() {
+        System.clearProperty(JarEntryIndex.INDEX_DIR_PROPERTY)
+        JarEntryIndex.clearCache()
+        jar.delete()
+    }
+
+    void "Test entries matching a pattern are found in the order of the jar"() {
+        when:
+        def index = JarEntryIndex.forJar(jar)
+
+        then:
+        index.size() == 9
+        index.findMatchingEntries('grails-app/i18n/', '*.properties', new AntPathMatcher()) ==
+            ['messages_de.properties', 'messages.properties']
+        index.findMatchingEntries('grails-app/i18n/', '**/*.properties', new AntPathMatcher()) ==
+            ['messages_de.properties', 'messages.properties', 'sub/other.properties']
+        index.findMatchingEntries('', '**/*.gsp', new AntPathMatcher()) == ['grails-app/views/index.gsp']
+        index.findMatchingEntries('grails-app/conf/', '**/*', new AntPathMatcher()) == []
+    }
+
+    void "Test the index is read once"() {
+        expect:
+        JarEntryIndex.forJar(jar).is(JarEntryIndex.forJar(jar))
+    }
+
+    void "Test the index is stored and reused while the jar is unchanged"() {
+        given:
+        File indexDir = File.createTempFile('index-dir', '')
+        indexDir.delete()
+        System.setProperty(JarEntryIndex.INDEX_DIR_PROPERTY, indexDir.absolutePath)
+
+        when:
+        JarEntryIndex.forJar(jar)
+        def indexFiles = indexDir.listFiles()
+
+        then:
+        indexFiles.size() == 1
+        indexFiles[0].readLines().size() == 10
+
+        when:"the stored index is changed"
+        JarEntryIndex.clearCache()
+        indexFiles[0] << 'grails-app/i18n/stored.properties\n'
+
+        then:"it is used instead of the jar"
+        JarEntryIndex.forJar(jar).findMatchingEntries('grails-app/i18n/', 'stored.properties', new AntPathMatcher()) ==
+            ['stored.properties']
+
+        when:"the jar is changed"
+        JarEntryIndex.clearCache()
+        jar.setLastModified(jar.lastModified() - 10000)
+
+        then:"the jar is read again"
+        JarEntryIndex.forJar(jar).findMatchingEntries('grails-app/i18n/', 'stored.properties', new AntPathMatcher()) == []
+
+        cleanup:
+        indexDir.deleteDir()
+    }
+
+    void "Test resolving patterns with the index finds the same resources as scanning the jar"() {
+        given:
+        def classLoader = new URLClassLoader([jar.toURI().toURL()] as URL[], (ClassLoader)null)
+        def indexed = new PathMatchingResourcePatternResolver(classLoader)
+        def scanned = new PathMatchingResourcePatternResolver(classLoader)
+        scanned.useJarEntryIndex = false
+
+        expect:
+        indexed.getResources(pattern)*.URL == scanned.getResources(pattern)*.URL
+        indexed.getResources(pattern).size() == count
+
+        where:
+        pattern                                        | count
+        'classpath*:grails-app/i18n/*.properties'      | 2
+        'classpath*:grails-app/**/*.properties'        | 3
+        'classpath*:META-INF/*.xml'                    | 1
+        'classpath*:grails-app/views/**/*.groovy'      | 0
+    }
+}
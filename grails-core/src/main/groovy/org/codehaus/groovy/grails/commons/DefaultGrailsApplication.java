@@ -32,6 +32,11 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -76,6 +81,12 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
     protected static final Pattern ISCLASS_PATTERN = Pattern.compile("(is)(\\w+)(Class)");
     protected static final Pattern GETCLASS_PATTERN = Pattern.compile("(get)(\\w+)Class");
 
+    /**
+     * When true the independent per class work of loading artefacts (property introspection and domain class
+     * creation on load, constraint evaluation on refresh) is spread over several threads.
+     */
+    public static final String CONFIG_PARALLEL_INITIALIZATION = "grails.domain.parallelInitialization";
+
     protected ClassLoader cl;
 
     protected Class<?>[] allClasses = new Class[0];
@@ -237,9 +248,14 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
         allArtefactClassesArray = null;
         allClasses = classes;
 
+        boolean warDeployed = Environment.isWarDeployed();
+        Map<Class<?>, GrailsClass> preparedArtefacts = Collections.emptyMap();
+        if (isParallelInitialization()) {
+            preparedArtefacts = prepareArtefactsInParallel(classes, warDeployed);
+        }
+
         // first load the domain classes
         log.debug("Going to inspect artefact classes.");
-        boolean warDeployed = Environment.isWarDeployed();
         for (final Class<?> theClass : classes) {
             log.debug("Inspecting [" + theClass.getName() + "]");
             // start fresh
@@ -251,18 +267,22 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
             }
 
             // check what kind of artefact it is and add to corrent data structure
-            for (ArtefactHandler artefactHandler : artefactHandlers) {
-                if (artefactHandler.isArtefact(theClass)) {
-                    log.debug("Adding artefact " + theClass + " of kind " + artefactHandler.getType());
-                    GrailsClass gclass = addArtefact(artefactHandler.getType(), theClass);
-                    // Also maintain set of all artefacts (!= all classes loaded)
-                    allArtefactClasses.add(theClass);
-
-                    // Update per-artefact cache
-                    DefaultArtefactInfo info = getArtefactInfo(artefactHandler.getType(), true);
-                    info.addGrailsClass(gclass);
-                    break;
+            ArtefactHandler artefactHandler = findArtefactHandler(theClass);
+            if (artefactHandler != null) {
+                log.debug("Adding artefact " + theClass + " of kind " + artefactHandler.getType());
+                GrailsClass gclass = preparedArtefacts.get(theClass);
+                if (gclass == null) {
+                    gclass = addArtefact(artefactHandler.getType(), theClass);
+                }
+                else {
+                    registerArtefact(artefactHandler.getType(), theClass, gclass, false);
                 }
+                // Also maintain set of all artefacts (!= all classes loaded)
+                allArtefactClasses.add(theClass);
+
+                // Update per-artefact cache
+                DefaultArtefactInfo info = getArtefactInfo(artefactHandler.getType(), true);
+                info.addGrailsClass(gclass);
             }
         }
 
@@ -276,6 +296,118 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
         }
     }
 
+    /**
+     * Creates the domain GrailsClass instances and warms up the ClassPropertyFetcher cache of the other
+     * artefact classes using one thread per processor. Relationships between domain classes are still
+     * established afterwards, once all classes are known, by {@link DomainClassArtefactHandler#initialize(ArtefactInfo)}.
+     *
+     * @param classes The classes to prepare
+     * @param warDeployed Whether the application is deployed as a WAR, in which case meta classes are left as they are
+     * @return The prepared domain GrailsClass instances keyed by class
+     */
+    protected Map<Class<?>, GrailsClass> prepareArtefactsInParallel(Class<?>[] classes, boolean warDeployed) {
+        final Map<Class<?>, Callable<GrailsClass>> tasks = new LinkedHashMap<Class<?>, Callable<GrailsClass>>();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        for (final Class<?> theClass : classes) {
+            if (tasks.containsKey(theClass)) {
+                continue;
+            }
+            final ArtefactHandler artefactHandler = findArtefactHandler(theClass);
+            if (artefactHandler != null) {
+                final boolean domainClass = DomainClassArtefactHandler.TYPE.equals(artefactHandler.getType());
+                if (domainClass && !warDeployed) {
+                    GroovySystem.getMetaClassRegistry().removeMetaClass(theClass);
+                }
+                tasks.put(theClass, new Callable<GrailsClass>() {
+                    public GrailsClass call() {
+                        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+                        Thread.currentThread().setContextClassLoader(contextClassLoader);
+                        try {
+                            if (domainClass) {
+                                return artefactHandler.newArtefactClass(theClass);
+                            }
+                            ClassPropertyFetcher.forClass(theClass);
+                            return null;
+                        }
+                        finally {
+                            Thread.currentThread().setContextClassLoader(previous);
+                        }
+                    }
+                });
+            }
+        }
+
+        Map<Class<?>, GrailsClass> prepared = new HashMap<Class<?>, GrailsClass>();
+        List<Class<?>> taskClasses = new ArrayList<Class<?>>(tasks.keySet());
+        List<Future<GrailsClass>> results = invokeInParallel(new ArrayList<Callable<GrailsClass>>(tasks.values()));
+        for (int i = 0; i < results.size(); i++) {
+            GrailsClass gclass = getResult(results.get(i));
+            if (gclass != null) {
+                prepared.put(taskClasses.get(i), gclass);
+            }
+        }
+        return prepared;
+    }
+
+    /**
+     * Finds the ArtefactHandler for the given class, the first registered handler that accepts the class.
+     *
+     * @param theClass The class
+     * @return The handler or null if the class isn't an artefact
+     */
+    protected ArtefactHandler findArtefactHandler(Class<?> theClass) {
+        for (ArtefactHandler artefactHandler : artefactHandlers) {
+            if (artefactHandler.isArtefact(theClass)) {
+                return artefactHandler;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Whether {@link #CONFIG_PARALLEL_INITIALIZATION} is enabled
+     */
+    protected boolean isParallelInitialization() {
+        Map<String, Object> flat = getFlatConfig();
+        Object value = flat == null ? null : flat.get(CONFIG_PARALLEL_INITIALIZATION);
+        return value instanceof Boolean ? (Boolean)value : value != null && Boolean.valueOf(value.toString());
+    }
+
+    private <T> List<Future<T>> invokeInParallel(List<Callable<T>> tasks) {
+        int threads = Math.min(Runtime.getRuntime().availableProcessors(), tasks.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(threads, 1));
+        try {
+            return executor.invokeAll(tasks);
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrailsConfigurationException("Interrupted while initializing artefacts", e);
+        }
+        finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> T getResult(Future<T> future) {
+        try {
+            return future.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrailsConfigurationException("Interrupted while initializing artefacts", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new GrailsConfigurationException(cause.getMessage(), cause);
+        }
+    }
+
     /**
      * Tell all our artefact info objects to update their internal state after we've added a bunch of classes.
      */
@@ -394,6 +526,29 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
     public void refreshConstraints() {
         ArtefactInfo info = getArtefactInfo(DomainClassArtefactHandler.TYPE, true);
         GrailsClass[] domainClasses = info.getGrailsClasses();
+        if (domainClasses.length > 1 && isParallelInitialization()) {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>(domainClasses.length);
+            final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+            for (final GrailsClass domainClass : domainClasses) {
+                tasks.add(new Callable<Object>() {
+                    public Object call() {
+                        ClassLoader previous = Thread.currentThread().getContextClassLoader();
+                        Thread.currentThread().setContextClassLoader(contextClassLoader);
+                        try {
+                            ((GrailsDomainClass) domainClass).refreshConstraints();
+                            return null;
+                        }
+                        finally {
+                            Thread.currentThread().setContextClassLoader(previous);
+                        }
+                    }
+                });
+            }
+            for (Future<Object> result : invokeInParallel(tasks)) {
+                getResult(result);
+            }
+            return;
+        }
         for (GrailsClass domainClass : domainClasses) {
             ((GrailsDomainClass) domainClass).refreshConstraints();
         }
@@ -808,28 +963,31 @@ public class DefaultGrailsApplication extends GroovyObjectSupport implements Gra
         ArtefactHandler handler = artefactHandlersByName.get(artefactType);
         if (handler.isArtefact(artefactClass)) {
             GrailsClass artefactGrailsClass = handler.newArtefactClass(artefactClass);
-            artefactGrailsClass.setGrailsApplication(this);
-
-            // Store the GrailsClass in cache
-            DefaultArtefactInfo info = getArtefactInfo(artefactType, true);
-            if (overrideable) {
-                info.addOverridableGrailsClass(artefactGrailsClass);
-            }
-            else {
-                info.addGrailsClass(artefactGrailsClass);
-            }
-            info.updateComplete();
-
-            addToLoaded(artefactClass);
-
-            if (isInitialised()) {
-                initializeArtefacts(artefactType);
-            }
-
+            registerArtefact(artefactType, artefactClass, artefactGrailsClass, overrideable);
             return artefactGrailsClass;
         }
 
         throw new GrailsConfigurationException("Cannot add " + artefactType + " class [" +
                 artefactClass + "]. It is not a " + artefactType + "!");
     }
+
+    private void registerArtefact(String artefactType, Class<?> artefactClass, GrailsClass artefactGrailsClass, boolean overrideable) {
+        artefactGrailsClass.setGrailsApplication(this);
+
+        // Store the GrailsClass in cache
+        DefaultArtefactInfo info = getArtefactInfo(artefactType, true);
+        if (overrideable) {
+            info.addOverridableGrailsClass(artefactGrailsClass);
+        }
+        else {
+            info.addGrailsClass(artefactGrailsClass);
+        }
+        info.updateComplete();
+
+        addToLoaded(artefactClass);
+
+        if (isInitialised()) {
+            initializeArtefacts(artefactType);
+        }
+    }
 }
@@ -34,6 +34,8 @@ import org.codehaus.groovy.grails.commons.ClassPropertyFetcher;
 import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.plugins.DefaultGrailsPluginManager;
 import org.codehaus.groovy.grails.plugins.GrailsPluginManager;
+import org.codehaus.groovy.grails.plugins.ProfilingGrailsPluginManager;
+import org.codehaus.groovy.grails.plugins.StartupTimeline;
 import org.springframework.beans.BeansException;
 import org.springframework.beans.factory.config.BeanDefinition;
 import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
@@ -103,7 +105,12 @@ public class GrailsRuntimeConfigurator implements ApplicationContextAware {
             pluginManager = Holders.getPluginManager();
         }
         if (pluginManager == null) {
-            pluginManager = new DefaultGrailsPluginManager("**/plugins/*/**GrailsPlugin.groovy", application);
+            if (ProfilingGrailsPluginManager.isStartupProfilingEnabled()) {
+                pluginManager = new ProfilingGrailsPluginManager("**/plugins/*/**GrailsPlugin.groovy", application);
+            }
+            else {
+                pluginManager = new DefaultGrailsPluginManager("**/plugins/*/**GrailsPlugin.groovy", application);
+            }
         }
         Holders.setPluginManager(pluginManager);
     }
@@ -166,7 +173,9 @@ public class GrailsRuntimeConfigurator implements ApplicationContextAware {
             application.setMainContext(webSpringConfig.getUnrefreshedApplicationContext());
 
             Environment.setInitializing(true);
+            StartupTimeline.Event refreshEvent = startPhase("Application context refresh");
             ctx = (WebApplicationContext) webSpringConfig.getApplicationContext();
+            endPhase(refreshEvent);
             Environment.setInitializing(false);
 
             pluginManager.setApplicationContext(ctx);
@@ -176,7 +185,13 @@ public class GrailsRuntimeConfigurator implements ApplicationContextAware {
 
             performPostProcessing(ctx);
 
+            StartupTimeline.Event constraintsEvent = startPhase("refreshConstraints");
             application.refreshConstraints();
+            endPhase(constraintsEvent);
+
+            if (pluginManager instanceof ProfilingGrailsPluginManager) {
+                ((ProfilingGrailsPluginManager)pluginManager).writeTimeline();
+            }
         }
         finally {
             ClassPropertyFetcher.clearClassPropertyFetcherCache();
@@ -185,6 +200,19 @@ public class GrailsRuntimeConfigurator implements ApplicationContextAware {
         return ctx;
     }
 
+    private StartupTimeline.Event startPhase(String name) {
+        if (pluginManager instanceof ProfilingGrailsPluginManager) {
+            return ((ProfilingGrailsPluginManager)pluginManager).startPhase(name);
+        }
+        return null;
+    }
+
+    private void endPhase(StartupTimeline.Event event) {
+        if (event != null && pluginManager instanceof ProfilingGrailsPluginManager) {
+            ((ProfilingGrailsPluginManager)pluginManager).endPhase(event);
+        }
+    }
+
     protected WebRuntimeSpringConfiguration createWebRuntimeSpringConfiguration(GrailsApplication app,
             ApplicationContext parentCtx, ClassLoader classLoader) {
         return new WebRuntimeSpringConfiguration(parentCtx, classLoader);
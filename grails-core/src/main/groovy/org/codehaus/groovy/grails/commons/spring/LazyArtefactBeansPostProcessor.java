@@ -0,0 +1,294 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.commons.spring;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.groovy.grails.commons.CodecArtefactHandler;
+import org.codehaus.groovy.grails.commons.ControllerArtefactHandler;
+import org.codehaus.groovy.grails.commons.GrailsApplication;
+import org.codehaus.groovy.grails.commons.GrailsClass;
+import org.codehaus.groovy.grails.commons.ServiceArtefactHandler;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.PropertyValue;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.config.ConstructorArgumentValues;
+import org.springframework.beans.factory.config.MethodInvokingFactoryBean;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+/**
+ * Marks the singleton beans of services, controllers and codecs lazy, so that they are created when first used
+ * instead of when the application context is refreshed. Tag libraries aren't made lazy, the tag library lookup
+ * creates all of them when the context starts.
+ *
+ * When a profile file is configured the beans used while the application runs are recorded to it when the
+ * context is closed, and on the next start the beans recorded are created by a background thread once the
+ * context is refreshed, so that the first requests don't pay for them. A bean created by that thread is only
+ * recorded again when a bean created outside of it was wired with it, so beans no longer used drop out of the
+ * profile. Enabled in Config.groovy with
+ * <pre>
+ * grails.spring.lazyInit.enabled = true
+ * grails.spring.lazyInit.profile = '/var/lib/myapp/bean-profile.txt'
+ * </pre>
+ *
+ * Beans that do work when they are created, such as scheduling jobs, should be made eager again with
+ * {@code lazyInit = false} in resources.groovy or listed in the profile.
+ *
+ * @since 2.3
+ */
+public class LazyArtefactBeansPostProcessor implements BeanFactoryPostProcessor, BeanPostProcessor, ApplicationListener<ApplicationEvent> {
+
+    public static final String BEAN_NAME = "lazyArtefactBeansPostProcessor";
+
+    private static final Log LOG = LogFactory.getLog(LazyArtefactBeansPostProcessor.class);
+    private static final List<String> ARTEFACT_TYPES = Arrays.asList(ServiceArtefactHandler.TYPE,
+            ControllerArtefactHandler.TYPE, CodecArtefactHandler.TYPE);
+
+    private final GrailsApplication application;
+    private final File profile;
+    private final Set<String> lazyBeanNames = new HashSet<String>();
+    private final Set<String> usedBeanNames = Collections.synchronizedSet(new LinkedHashSet<String>());
+    private final Set<String> warmedUpBeanNames = Collections.synchronizedSet(new LinkedHashSet<String>());
+    private ConfigurableListableBeanFactory beanFactory;
+    private volatile Future<?> warmUpFuture;
+    private volatile Thread warmUpThread;
+
+    /**
+     * @param application The application
+     * @param profile The file the beans used are recorded to or null to only make the beans lazy
+     */
+    public LazyArtefactBeansPostProcessor(GrailsApplication application, File profile) {
+        this.application = application;
+        this.profile = profile;
+    }
+
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory factory) throws BeansException {
+        beanFactory = factory;
+
+        Set<String> artefactClassNames = new HashSet<String>();
+        for (String type : ARTEFACT_TYPES) {
+            for (GrailsClass artefact : application.getArtefacts(type)) {
+                artefactClassNames.add(artefact.getClazz().getName());
+            }
+        }
+
+        for (String beanName : factory.getBeanDefinitionNames()) {
+            BeanDefinition beanDefinition = factory.getBeanDefinition(beanName);
+            if (beanDefinition.isAbstract() || !beanDefinition.isSingleton() || beanDefinition.isLazyInit()) {
+                continue;
+            }
+            if (isArtefactBean(beanDefinition, artefactClassNames)) {
+                beanDefinition.setLazyInit(true);
+                lazyBeanNames.add(beanName);
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Made " + lazyBeanNames.size() + " artefact beans lazy");
+        }
+        if (profile != null) {
+            factory.addBeanPostProcessor(this);
+        }
+        // registered as a singleton to receive the context events
+        factory.registerSingleton(BEAN_NAME, this);
+    }
+
+    protected boolean isArtefactBean(BeanDefinition beanDefinition, Set<String> artefactClassNames) {
+        String beanClassName = beanDefinition.getBeanClassName();
+        if (beanClassName == null) {
+            return false;
+        }
+        if (artefactClassNames.contains(beanClassName)) {
+            return true;
+        }
+
+        if (TypeSpecifyableTransactionProxyFactoryBean.class.getName().equals(beanClassName)) {
+            ConstructorArgumentValues.ValueHolder argument = beanDefinition.getConstructorArgumentValues().getArgumentValue(0, Class.class);
+            return argument != null && argument.getValue() instanceof Class &&
+                    artefactClassNames.contains(((Class<?>)argument.getValue()).getName());
+        }
+
+        if (MethodInvokingFactoryBean.class.getName().equals(beanClassName)) {
+            // the *ServiceClass beans that look up the artefacts
+            PropertyValue targetMethod = beanDefinition.getPropertyValues().getPropertyValue("targetMethod");
+            PropertyValue arguments = beanDefinition.getPropertyValues().getPropertyValue("arguments");
+            if (targetMethod != null && "getArtefact".equals(targetMethod.getValue()) &&
+                    arguments != null && arguments.getValue() instanceof List) {
+                List<?> argumentList = (List<?>)arguments.getValue();
+                return !argumentList.isEmpty() && ARTEFACT_TYPES.contains(argumentList.get(0));
+            }
+        }
+        return false;
+    }
+
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        return bean;
+    }
+
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (lazyBeanNames.contains(beanName)) {
+            if (Thread.currentThread() == warmUpThread) {
+                warmedUpBeanNames.add(beanName);
+            }
+            else {
+                usedBeanNames.add(beanName);
+            }
+        }
+        return bean;
+    }
+
+    public void onApplicationEvent(ApplicationEvent event) {
+        if (!(event.getSource() instanceof ConfigurableApplicationContext) ||
+                ((ConfigurableApplicationContext)event.getSource()).getBeanFactory() != beanFactory) {
+            // events of child contexts
+            return;
+        }
+        if (event instanceof ContextRefreshedEvent) {
+            warmUp();
+        }
+        else if (event instanceof ContextClosedEvent) {
+            writeProfile();
+        }
+    }
+
+    /**
+     * @return The names of the beans made lazy
+     */
+    public Set<String> getLazyBeanNames() {
+        return Collections.unmodifiableSet(lazyBeanNames);
+    }
+
+    /**
+     * @return The names of the lazy beans used so far: the beans created outside of the warm-up, in the order
+     * they were created, followed by the beans the warm-up created that a bean created outside of it was wired with
+     */
+    public List<String> getUsedBeanNames() {
+        List<String> beanNames;
+        synchronized (usedBeanNames) {
+            beanNames = new ArrayList<String>(usedBeanNames);
+        }
+        List<String> warmedUp;
+        synchronized (warmedUpBeanNames) {
+            warmedUp = new ArrayList<String>(warmedUpBeanNames);
+        }
+        warmedUp.removeAll(beanNames);
+
+        // a bean wired with a used bean is used too, so repeat until no more beans are found
+        boolean found = true;
+        while (found && !warmedUp.isEmpty()) {
+            found = false;
+            for (Iterator<String> i = warmedUp.iterator(); i.hasNext();) {
+                String beanName = i.next();
+                if (isWiredWithUsedBean(beanName, beanNames)) {
+                    beanNames.add(beanName);
+                    i.remove();
+                    found = true;
+                }
+            }
+        }
+        return beanNames;
+    }
+
+    private boolean isWiredWithUsedBean(String beanName, List<String> usedNames) {
+        for (String dependentName : beanFactory.getDependentBeans(beanName)) {
+            if (!lazyBeanNames.contains(dependentName) || usedNames.contains(dependentName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return The creation of the beans recorded in the profile, which completes once they are created,
+     * or null if no beans are created from a profile
+     */
+    public Future<?> getWarmUpFuture() {
+        return warmUpFuture;
+    }
+
+    protected void warmUp() {
+        if (profile == null || !profile.isFile()) {
+            return;
+        }
+
+        final List<String> beanNames = new ArrayList<String>();
+        try {
+            for (String line : FileUtils.readLines(profile, "UTF-8")) {
+                String beanName = line.trim();
+                if (lazyBeanNames.contains(beanName)) {
+                    beanNames.add(beanName);
+                }
+            }
+        }
+        catch (IOException e) {
+            LOG.warn("Error reading bean profile [" + profile + "]: " + e.getMessage());
+            return;
+        }
+
+        FutureTask<Object> task = new FutureTask<Object>(new Runnable() {
+            public void run() {
+                for (String beanName : beanNames) {
+                    try {
+                        beanFactory.getBean(beanName);
+                    }
+                    catch (BeansException e) {
+                        LOG.warn("Error creating bean [" + beanName + "] from profile: " + e.getMessage());
+                    }
+                }
+                LOG.debug("Created " + beanNames.size() + " beans from profile [" + profile + "]");
+            }
+        }, null);
+        warmUpFuture = task;
+        Thread thread = new Thread(task, "Grails bean warm-up");
+        thread.setDaemon(true);
+        warmUpThread = thread;
+        thread.start();
+    }
+
+    protected void writeProfile() {
+        List<String> beanNames = getUsedBeanNames();
+        if (profile == null || beanNames.isEmpty()) {
+            return;
+        }
+        try {
+            FileUtils.writeLines(profile, "UTF-8", beanNames);
+        }
+        catch (IOException e) {
+            LOG.warn("Error writing bean profile [" + profile + "]: " + e.getMessage());
+        }
+    }
+}
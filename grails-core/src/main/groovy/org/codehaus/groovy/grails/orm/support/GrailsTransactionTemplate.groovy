@@ -21,6 +21,7 @@ import org.springframework.transaction.PlatformTransactionManager
 import org.springframework.transaction.TransactionDefinition
 import org.springframework.transaction.TransactionException
 import org.springframework.transaction.TransactionStatus
+import org.springframework.transaction.TransactionSystemException
 import org.springframework.transaction.interceptor.DefaultTransactionAttribute
 import org.springframework.transaction.interceptor.TransactionAttribute
 import org.springframework.transaction.support.TransactionCallback
@@ -84,6 +85,33 @@ class GrailsTransactionTemplate {
         }
     }
 
+    /**
+     * Completes a transaction after the code executed in it has thrown an exception. The transaction is
+     * rolled back if the transaction attribute rolls back on the exception, otherwise it is committed.
+     *
+     * @param transactionManager The transaction manager that started the transaction
+     * @param status The status of the transaction
+     * @param transactionAttribute The transaction attribute
+     * @param e The exception
+     * @return The exception, to be rethrown by the caller
+     */
+    static Throwable completeAfterThrowing(PlatformTransactionManager transactionManager, TransactionStatus status,
+            TransactionAttribute transactionAttribute, Throwable e) {
+        if (transactionAttribute.rollbackOn(e)) {
+            try {
+                transactionManager.rollback(status)
+            }
+            catch (TransactionSystemException e2) {
+                e2.initApplicationException(e)
+                throw e2
+            }
+        }
+        else {
+            transactionManager.commit(status)
+        }
+        return e
+    }
+
     /**
      * Internal holder class for a Throwable, used as a return value
      * from a TransactionCallback (to be subsequently unwrapped again).
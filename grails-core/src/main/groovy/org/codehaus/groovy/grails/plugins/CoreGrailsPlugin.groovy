@@ -26,6 +26,7 @@ import org.codehaus.groovy.grails.commons.cfg.GrailsPlaceholderConfigurer
 import org.codehaus.groovy.grails.commons.cfg.MapBasedSmartPropertyOverrideConfigurer
 import org.codehaus.groovy.grails.commons.spring.DefaultRuntimeSpringConfiguration
 import org.codehaus.groovy.grails.commons.spring.GrailsRuntimeConfigurator
+import org.codehaus.groovy.grails.commons.spring.LazyArtefactBeansPostProcessor
 import org.codehaus.groovy.grails.commons.spring.RuntimeSpringConfiguration
 import org.codehaus.groovy.grails.core.io.DefaultResourceLocator
 import org.codehaus.groovy.grails.plugins.support.aware.GrailsApplicationAwareBeanPostProcessor
@@ -71,6 +72,12 @@ class CoreGrailsPlugin {
             "org.springframework.aop.config.internalAutoProxyCreator"(GroovyAwareAspectJAwareAdvisorAutoProxyCreator)
         }
 
+        // create artefact beans when first used, optionally warming up those recorded in a profile
+        if (springConfig.lazyInit.enabled) {
+            def profile = springConfig.lazyInit.profile ? new File(springConfig.lazyInit.profile.toString()) : null
+            addBeanFactoryPostProcessor(new LazyArtefactBeansPostProcessor(application, profile))
+        }
+
         // Allow the use of Spring annotated components
         context.'annotation-config'()
 
@@ -110,7 +110,12 @@ public class GrailsPluginManagerFactoryBean implements FactoryBean<GrailsPluginM
 
                 Class<?>[] loadedPlugins = classes.toArray(new Class[classes.size()]);
 
-                pluginManager = new DefaultGrailsPluginManager(loadedPlugins, application);
+                if (ProfilingGrailsPluginManager.isStartupProfilingEnabled()) {
+                    pluginManager = new ProfilingGrailsPluginManager(loadedPlugins, application);
+                }
+                else {
+                    pluginManager = new DefaultGrailsPluginManager(loadedPlugins, application);
+                }
                 pluginManager.setApplicationContext(applicationContext);
                 Holders.setPluginManager(pluginManager);
                 pluginManager.loadPlugins();
@@ -18,20 +18,42 @@ package org.codehaus.groovy.grails.plugins;
 import grails.build.logging.GrailsConsole;
 import groovy.lang.GroovySystem;
 import groovy.lang.MetaClassRegistry;
+
+import java.io.File;
+import java.io.IOException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.commons.spring.RuntimeSpringConfiguration;
 import org.codehaus.groovy.grails.plugins.exceptions.PluginException;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.core.io.Resource;
 
 /**
- * A GrailsPluginManager implementation that outputs profile data to a logger.
+ * A GrailsPluginManager implementation that outputs profile data to a logger and records
+ * per plugin and per phase timings in a {@link StartupTimeline}. Bean instantiation times are
+ * recorded with a {@link StartupTimelineBeanPostProcessor}.
+ *
+ * Enabled with the system property <code>grails.startup.profile=true</code>. The timeline is written
+ * to the file given by <code>grails.startup.profile.file</code> (defaults to
+ * grails-startup-timeline.json in the temp directory) once the application context has been configured.
  *
  * @author Graeme Rocher
  * @since 2.0
  */
 public class ProfilingGrailsPluginManager extends DefaultGrailsPluginManager {
 
+    public static final String PROFILE_PROPERTY = "grails.startup.profile";
+    public static final String PROFILE_FILE_PROPERTY = "grails.startup.profile.file";
+    private static final Log LOG = LogFactory.getLog(ProfilingGrailsPluginManager.class);
+
+    private final StartupTimeline timeline = new StartupTimeline();
+
     public ProfilingGrailsPluginManager(Class<?>[] plugins, GrailsApplication application) {
         super(plugins, application);
     }
@@ -48,20 +70,70 @@ public class ProfilingGrailsPluginManager extends DefaultGrailsPluginManager {
         super(pluginResources, application);
     }
 
+    /**
+     * @return true if startup profiling has been enabled with the grails.startup.profile system property
+     */
+    public static boolean isStartupProfilingEnabled() {
+        return Boolean.getBoolean(PROFILE_PROPERTY);
+    }
+
+    public StartupTimeline getTimeline() {
+        return timeline;
+    }
+
+    /**
+     * Starts timing a startup phase that isn't part of the plugin manager, for example the application context refresh.
+     */
+    public StartupTimeline.Event startPhase(String name) {
+        GrailsConsole.getInstance().addStatus(name + " started");
+        return timeline.start(StartupTimeline.CATEGORY_PHASE, name, null);
+    }
+
+    public void endPhase(StartupTimeline.Event event) {
+        long time = timeline.end(event);
+        GrailsConsole.getInstance().addStatus(event.getName() + " took " + time);
+    }
+
+    private StartupTimeline.Event startPluginPhase(String name, GrailsPlugin plugin) {
+        GrailsConsole.getInstance().addStatus(name + " for plugin [" + plugin.getName() + "] started");
+        return timeline.start(StartupTimeline.CATEGORY_PLUGIN, name + " [" + plugin.getName() + "]", plugin.getName());
+    }
+
+    private void endPluginPhase(StartupTimeline.Event event) {
+        long time = timeline.end(event);
+        GrailsConsole.getInstance().addStatus(event.getName() + " took " + time);
+    }
+
+    /**
+     * Writes the recorded timeline to the configured file.
+     *
+     * @return The file written to or null if writing failed
+     */
+    public File writeTimeline() {
+        File file = new File(System.getProperty(PROFILE_FILE_PROPERTY,
+                new File(System.getProperty("java.io.tmpdir"), "grails-startup-timeline.json").getPath()));
+        try {
+            timeline.writeTo(file);
+            GrailsConsole.getInstance().addStatus("Startup timeline written to " + file.getAbsolutePath());
+            return file;
+        }
+        catch (IOException e) {
+            LOG.error("Unable to write startup timeline to " + file.getAbsolutePath() + ": " + e.getMessage(), e);
+            return null;
+        }
+    }
+
     @Override
     public void loadPlugins() throws PluginException {
-        GrailsConsole console = GrailsConsole.getInstance();
-        long time = System.currentTimeMillis();
-        console.addStatus("Loading plugins started");
+        StartupTimeline.Event event = startPhase("Loading plugins");
         super.loadPlugins();
-        console.addStatus("Loading plugins took " + (System.currentTimeMillis() - time));
+        endPhase(event);
     }
 
     @Override
     public void doDynamicMethods() {
-        long time = System.currentTimeMillis();
+        StartupTimeline.Event event = startPhase("doWithDynamicMethods");
         GrailsConsole console = GrailsConsole.getInstance();
-        console.addStatus("doWithDynamicMethods started");
         checkInitialised();
         // remove common meta classes just to be sure
         MetaClassRegistry registry = GroovySystem.getMetaClassRegistry();
@@ -70,64 +142,82 @@ public class ProfilingGrailsPluginManager extends DefaultGrailsPluginManager {
         }
         for (GrailsPlugin plugin : pluginList) {
             if (plugin.supportsCurrentScopeAndEnvironment()) {
+                StartupTimeline.Event pluginEvent = startPluginPhase("doWithDynamicMethods", plugin);
                 try {
-                    long pluginTime = System.currentTimeMillis();
-                    console.addStatus("doWithDynamicMethods for plugin [" + plugin.getName() + "] started");
-
                     plugin.doWithDynamicMethods(applicationContext);
-
-                    console.addStatus("doWithDynamicMethods for plugin [" + plugin.getName() + "] took " + (System.currentTimeMillis() - pluginTime));
                 }
                 catch (Throwable t) {
                     console.error(t);
                     console.error("Error configuring dynamic methods for plugin " + plugin + ": " + t.getMessage());
                 }
+                finally {
+                    endPluginPhase(pluginEvent);
+                }
             }
         }
-        console.addStatus("doWithDynamicMethods took " + (System.currentTimeMillis() - time));
+        endPhase(event);
     }
 
     @Override
     public void doRuntimeConfiguration(RuntimeSpringConfiguration springConfig) {
-        long time = System.currentTimeMillis();
-
-        GrailsConsole console = GrailsConsole.getInstance();
-        console.addStatus("doWithSpring started");
+        StartupTimeline.Event event = startPhase("doWithSpring");
         checkInitialised();
+        registerTimelineBeanPostProcessor(springConfig);
         for (GrailsPlugin plugin : pluginList) {
             if (plugin.supportsCurrentScopeAndEnvironment()) {
-                long pluginTime = System.currentTimeMillis();
-                console.addStatus("doWithSpring for plugin [" + plugin.getName() + "] started");
+                StartupTimeline.Event pluginEvent = startPluginPhase("doWithSpring", plugin);
                 plugin.doWithRuntimeConfiguration(springConfig);
-                console.addStatus("doWithSpring for plugin [" + plugin.getName() + "] took " + (System.currentTimeMillis() - pluginTime));
+                endPluginPhase(pluginEvent);
             }
         }
-        console.addStatus("doWithSpring took " + (System.currentTimeMillis() - time));
+        endPhase(event);
+    }
+
+    private void registerTimelineBeanPostProcessor(RuntimeSpringConfiguration springConfig) {
+        ApplicationContext ctx = springConfig.getUnrefreshedApplicationContext();
+        if (!(ctx instanceof ConfigurableApplicationContext)) {
+            return;
+        }
+        // added before the other post processors are registered so that their own creation isn't excluded
+        ((ConfigurableApplicationContext)ctx).addBeanFactoryPostProcessor(new BeanFactoryPostProcessor() {
+            public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+                beanFactory.addBeanPostProcessor(new StartupTimelineBeanPostProcessor(timeline));
+            }
+        });
     }
 
     @Override
     public void doPostProcessing(ApplicationContext ctx) {
-        long time = System.currentTimeMillis();
-        GrailsConsole console = GrailsConsole.getInstance();
-        console.addStatus("doWithApplicationContext started");
+        StartupTimeline.Event event = startPhase("doWithApplicationContext");
         checkInitialised();
         for (GrailsPlugin plugin : pluginList) {
             if (plugin.supportsCurrentScopeAndEnvironment()) {
-                long pluginTime = System.currentTimeMillis();
-                console.addStatus("doWithApplicationContext for plugin [" + plugin.getName() + "] started");
+                StartupTimeline.Event pluginEvent = startPluginPhase("doWithApplicationContext", plugin);
                 plugin.doWithApplicationContext(ctx);
-                console.addStatus("doWithApplicationContext for plugin [" + plugin.getName() + "] took " + (System.currentTimeMillis() - pluginTime));
+                endPluginPhase(pluginEvent);
             }
         }
-        console.addStatus("doWithApplicationContext took " + (System.currentTimeMillis() - time));
+        endPhase(event);
     }
 
     @Override
     public void doArtefactConfiguration() {
-        GrailsConsole console = GrailsConsole.getInstance();
-        long time = System.currentTimeMillis();
-        console.addStatus("doArtefactConfiguration started");
-        super.doArtefactConfiguration();
-        console.addStatus("doArtefactConfiguration took " + (System.currentTimeMillis() - time));
+        StartupTimeline.Event event = startPhase("doArtefactConfiguration");
+        checkInitialised();
+        for (GrailsPlugin plugin : pluginList) {
+            if (plugin.supportsCurrentScopeAndEnvironment()) {
+                StartupTimeline.Event pluginEvent = startPluginPhase("doArtefactConfiguration", plugin);
+                plugin.doArtefactConfiguration();
+                endPluginPhase(pluginEvent);
+            }
+        }
+        endPhase(event);
+    }
+
+    @Override
+    public void registerProvidedArtefacts(GrailsApplication app) {
+        StartupTimeline.Event event = startPhase("registerProvidedArtefacts");
+        super.registerProvidedArtefacts(app);
+        endPhase(event);
     }
 }
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the timings of the startup phases (per plugin and per bean) and writes them as a
+ * JSON file in the Chrome trace event format, which can be opened with chrome://tracing or
+ * any tool that understands that format.
+ *
+ * @see ProfilingGrailsPluginManager
+ * @since 2.3
+ */
+public class StartupTimeline {
+
+    public static final String CATEGORY_PHASE = "phase";
+    public static final String CATEGORY_PLUGIN = "plugin";
+    public static final String CATEGORY_BEAN = "bean";
+
+    private final long startNanos = System.nanoTime();
+    private final List<Event> events = new ArrayList<Event>();
+
+    /**
+     * Starts timing an event. The returned event must be passed to {@link #end(Event)}.
+     *
+     * @param category The category (phase, plugin or bean)
+     * @param name The name of the event, for example "doWithSpring"
+     * @param plugin The plugin name or null
+     * @return The started event
+     */
+    public Event start(String category, String name, String plugin) {
+        return new Event(category, name, plugin, Thread.currentThread(), System.nanoTime());
+    }
+
+    /**
+     * Ends and records the given event.
+     *
+     * @param event The event returned by {@link #start(String, String, String)}
+     * @return The duration in milliseconds
+     */
+    public long end(Event event) {
+        event.endNanos = System.nanoTime();
+        synchronized (events) {
+            events.add(event);
+        }
+        return event.getDurationMillis();
+    }
+
+    public List<Event> getEvents() {
+        synchronized (events) {
+            return new ArrayList<Event>(events);
+        }
+    }
+
+    /**
+     * Writes the recorded events as JSON (Chrome trace event format).
+     *
+     * @param out The writer
+     * @throws IOException When writing fails
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write("{\"traceEvents\":[");
+        boolean first = true;
+        for (Event event : getEvents()) {
+            if (!first) {
+                out.write(",\n");
+            }
+            first = false;
+            out.write("{\"name\":");
+            writeString(out, event.name);
+            out.write(",\"cat\":");
+            writeString(out, event.category);
+            out.write(",\"ph\":\"X\",\"pid\":1,\"tid\":");
+            out.write(String.valueOf(event.threadId));
+            out.write(",\"ts\":");
+            out.write(String.valueOf((event.startNanos - startNanos) / 1000L));
+            out.write(",\"dur\":");
+            out.write(String.valueOf((event.endNanos - event.startNanos) / 1000L));
+            out.write(",\"args\":{\"thread\":");
+            writeString(out, event.threadName);
+            if (event.plugin != null) {
+                out.write(",\"plugin\":");
+                writeString(out, event.plugin);
+            }
+            out.write("}}");
+        }
+        out.write("],\"displayTimeUnit\":\"ms\"}");
+        out.flush();
+    }
+
+    /**
+     * Writes the recorded events to the given file, creating parent directories when needed.
+     *
+     * @param file The target file
+     * @throws IOException When writing fails
+     */
+    public void writeTo(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists()) {
+            parent.mkdirs();
+        }
+        Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+        try {
+            writeTo(writer);
+        }
+        finally {
+            writer.close();
+        }
+    }
+
+    private static void writeString(Writer out, String str) throws IOException {
+        out.write('"');
+        for (int i = 0, n = str.length(); i < n; i++) {
+            char c = str.charAt(i);
+            switch (c) {
+                case '"':  out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int)c));
+                    }
+                    else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+
+    /**
+     * A timed startup event.
+     */
+    public static class Event {
+        private final String category;
+        private final String name;
+        private final String plugin;
+        private final long threadId;
+        private final String threadName;
+        private final long startNanos;
+        private long endNanos;
+
+        Event(String category, String name, String plugin, Thread thread, long startNanos) {
+            this.category = category;
+            this.name = name;
+            this.plugin = plugin;
+            this.threadId = thread.getId();
+            this.threadName = thread.getName();
+            this.startNanos = startNanos;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getPlugin() {
+            return plugin;
+        }
+
+        public long getDurationMillis() {
+            return (endNanos - startNanos) / 1000000L;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+
+/**
+ * Records the time from instantiation to the end of initialization of each bean in a {@link StartupTimeline}.
+ * Time spent creating dependencies of a bean is included in the bean's time, the timeline shows them as nested events.
+ *
+ * @since 2.3
+ */
+public class StartupTimelineBeanPostProcessor extends InstantiationAwareBeanPostProcessorAdapter {
+
+    private final StartupTimeline timeline;
+    private final ThreadLocal<Map<String, StartupTimeline.Event>> eventsInProgress = new ThreadLocal<Map<String, StartupTimeline.Event>>() {
+        @Override
+        protected Map<String, StartupTimeline.Event> initialValue() {
+            return new HashMap<String, StartupTimeline.Event>();
+        }
+    };
+
+    public StartupTimelineBeanPostProcessor(StartupTimeline timeline) {
+        this.timeline = timeline;
+    }
+
+    @Override
+    public Object postProcessBeforeInstantiation(Class<?> beanClass, String beanName) throws BeansException {
+        if (beanName != null) {
+            eventsInProgress.get().put(beanName, timeline.start(StartupTimeline.CATEGORY_BEAN, beanName, null));
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        StartupTimeline.Event event = beanName == null ? null : eventsInProgress.get().remove(beanName);
+        if (event != null) {
+            timeline.end(event);
+        }
+        return bean;
+    }
+}
@@ -29,6 +29,7 @@ import org.codehaus.groovy.grails.plugins.DefaultGrailsPluginManager
 import org.codehaus.groovy.grails.plugins.GrailsPlugin
 import org.codehaus.groovy.grails.plugins.GrailsPluginManager
 import org.codehaus.groovy.grails.plugins.GrailsPluginUtils
+import org.codehaus.groovy.grails.plugins.ProfilingGrailsPluginManager
 
 /**
  * Loads the PluginManager and sets appropriate state
@@ -77,12 +78,12 @@ class GrailsProjectPluginLoader extends BaseSettingsApi {
                         Holders.grailsApplication = grailsApplication
                     }
 
-//                    if (isEnableProfile()) {
-//                        pluginManager = new ProfilingGrailsPluginManager(pluginClasses as Class[], grailsApplication)
-//                    }
-//                    else {
+                    if (ProfilingGrailsPluginManager.isStartupProfilingEnabled()) {
+                        pluginManager = new ProfilingGrailsPluginManager(pluginClasses as Class[], grailsApplication)
+                    }
+                    else {
                         pluginManager = new DefaultGrailsPluginManager(pluginClasses as Class[], grailsApplication)
-//                    }
+                    }
 
                     pluginSettings.pluginManager = pluginManager
                 }
@@ -0,0 +1,138 @@
+package org.codehaus.groovy.grails.commons.spring
+
+import grails.spring.BeanBuilder
+
+import java.util.concurrent.TimeUnit
+
+import org.codehaus.groovy.grails.commons.DefaultGrailsApplication
+
+import spock.lang.Specification
+
+class LazyArtefactBeansPostProcessorSpec extends Specification {
+
+    DefaultGrailsApplication application
+
+    void setup() {
+        application = new DefaultGrailsApplication([LazyInitTestService, LazyInitOtherService, LazyInitTestTagLib] as Class[], getClass().classLoader)
+        application.initialise()
+        LazyInitTestService.created = 0
+        LazyInitTestTagLib.created = false
+    }
+
+    void "Test artefact beans are created when first used"() {
+        given:
+        def processor = new LazyArtefactBeansPostProcessor(application, null)
+
+        when:
+        def applicationContext = createContext(processor)
+
+        then:
+        processor.lazyBeanNames == ['lazyInitTestService', 'lazyInitOtherService'] as Set
+        processor.warmUpFuture == null
+        LazyInitTestBean.created
+        LazyInitTestTagLib.created
+        LazyInitTestService.created == 0
+
+        when:
+        applicationContext.getBean('lazyInitTestService')
+
+        then:
+        LazyInitTestService.created == 1
+    }
+
+    void "Test the beans used are recorded and created on the next start"() {
+        given:
+        File profile = File.createTempFile('bean-profile', '.txt')
+        profile.delete()
+
+        when:
+        def applicationContext = createContext(new LazyArtefactBeansPostProcessor(application, profile))
+        applicationContext.getBean('lazyInitTestService')
+        applicationContext.close()
+
+        then:
+        profile.readLines() == ['lazyInitTestService']
+
+        when:
+        LazyInitTestService.created = 0
+        def processor = new LazyArtefactBeansPostProcessor(application, profile)
+        createContext(processor)
+        processor.warmUpFuture.get(10, TimeUnit.SECONDS)
+
+        then:
+        LazyInitTestService.created == 1
+
+        cleanup:
+        profile.delete()
+    }
+
+    void "Test the beans created from the profile are only recorded again when used"() {
+        given:
+        File profile = File.createTempFile('bean-profile', '.txt')
+        profile.text = 'lazyInitTestService\nlazyInitOtherService\n'
+        def processor = new LazyArtefactBeansPostProcessor(application, profile)
+
+        when:
+        def applicationContext = createContext(processor)
+        processor.warmUpFuture.get(10, TimeUnit.SECONDS)
+
+        then:
+        processor.usedBeanNames.isEmpty()
+
+        when:
+        applicationContext.getBean('lazyInitConsumer')
+        applicationContext.close()
+
+        then:
+        profile.readLines() == ['lazyInitTestService']
+
+        cleanup:
+        profile.delete()
+    }
+
+    private createContext(LazyArtefactBeansPostProcessor processor) {
+        def bb = new BeanBuilder()
+        bb.beans {
+            addBeanFactoryPostProcessor(processor)
+            lazyInitTestService(LazyInitTestService)
+            lazyInitOtherService(LazyInitOtherService)
+            lazyInitTestTagLib(LazyInitTestTagLib)
+            otherBean(LazyInitTestBean)
+            lazyInitConsumer(LazyInitTestConsumer) { bean ->
+                bean.scope = 'prototype'
+                bean.autowire = 'byName'
+            }
+        }
+        bb.createApplicationContext()
+    }
+}
+
+class LazyInitTestService {
+    static int created
+
+    LazyInitTestService() {
+        created++
+    }
+}
+
+class LazyInitOtherService {}
+
+class LazyInitTestTagLib {
+    static boolean created
+
+    LazyInitTestTagLib() {
+        created = true
+    }
+}
+
+class LazyInitTestConsumer {
+    def lazyInitTestService
+}
+
+class LazyInitTestBean {
+    static boolean created
+
+    LazyInitTestBean() {
+        created = true
+    }
+}
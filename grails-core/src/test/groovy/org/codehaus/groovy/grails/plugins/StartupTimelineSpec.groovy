@@ -0,0 +1,48 @@
+package org.codehaus.groovy.grails.plugins
+
+import groovy.json.JsonSlurper
+
+import spock.lang.Specification
+
+class StartupTimelineSpec extends Specification {
+
+    void "Test recorded events are written in trace event format"() {
+        given:"A timeline with a phase and a plugin event"
+            def timeline = new StartupTimeline()
+            def phase = timeline.start(StartupTimeline.CATEGORY_PHASE, "doWithSpring", null)
+            def plugin = timeline.start(StartupTimeline.CATEGORY_PLUGIN, 'doWithSpring [core "1"]', "core")
+            timeline.end(plugin)
+            timeline.end(phase)
+
+        when:"The timeline is written as JSON"
+            def sw = new StringWriter()
+            timeline.writeTo(sw)
+            def json = new JsonSlurper().parseText(sw.toString())
+
+        then:"Both events are written as complete events"
+            json.traceEvents.size() == 2
+            json.traceEvents[0].name == 'doWithSpring [core "1"]'
+            json.traceEvents[0].cat == "plugin"
+            json.traceEvents[0].ph == "X"
+            json.traceEvents[0].args.plugin == "core"
+            json.traceEvents[1].name == "doWithSpring"
+            json.traceEvents[1].cat == "phase"
+            json.traceEvents[1].args.plugin == null
+            json.traceEvents[1].dur >= json.traceEvents[0].dur
+    }
+
+    void "Test bean post processor records bean creation"() {
+        given:
+            def timeline = new StartupTimeline()
+            def processor = new StartupTimelineBeanPostProcessor(timeline)
+
+        when:
+            processor.postProcessBeforeInstantiation(String, "myBean")
+            processor.postProcessAfterInitialization("bean", "myBean")
+
+        then:
+            timeline.events.size() == 1
+            timeline.events[0].name == "myBean"
+            timeline.events[0].category == StartupTimeline.CATEGORY_BEAN
+    }
+}
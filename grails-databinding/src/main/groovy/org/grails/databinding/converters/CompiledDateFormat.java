@@ -0,0 +1,207 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.converters;
+
+import java.text.DateFormat;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, thread-safe {@link SimpleDateFormat} pattern. The pattern is checked once and reduced to
+ * a shape, the sequence of digit runs, letter runs and separators a matching value consists of, so that the
+ * formats a value can't match are skipped without parsing. Parsing never throws a {@link java.text.ParseException},
+ * null is returned instead, and the formatters are cached per thread and locale.
+ *
+ * @since 2.3
+ */
+public final class CompiledDateFormat {
+
+    static final char DIGITS = 'd';
+    static final char LETTERS = 'a';
+
+    private static final int MAX_CACHED_PATTERNS = 256;
+    private static final Map<String, CompiledDateFormat> CACHE = new ConcurrentHashMap<String, CompiledDateFormat>();
+
+    private final String pattern;
+    private final String shape;
+    private final ThreadLocal<Map<Locale, DateFormat>> formatters = new ThreadLocal<Map<Locale, DateFormat>>() {
+        @Override
+        protected Map<Locale, DateFormat> initialValue() {
+            return new HashMap<Locale, DateFormat>();
+        }
+    };
+
+    /**
+     * @param pattern A pattern compatible with {@link SimpleDateFormat}
+     * @throws IllegalArgumentException If the pattern is invalid
+     */
+    public CompiledDateFormat(String pattern) {
+        // fail early for invalid patterns
+        new SimpleDateFormat(pattern);
+        this.pattern = pattern;
+        shape = shapeOfPattern(pattern);
+    }
+
+    /**
+     * Obtains the compiled format for the pattern, shared with the other callers using the same pattern.
+     *
+     * @param pattern A pattern compatible with {@link SimpleDateFormat}
+     * @return The compiled format
+     */
+    public static CompiledDateFormat forPattern(String pattern) {
+        CompiledDateFormat format = CACHE.get(pattern);
+        if (format == null) {
+            format = new CompiledDateFormat(pattern);
+            if (CACHE.size() < MAX_CACHED_PATTERNS) {
+                CACHE.put(pattern, format);
+            }
+        }
+        return format;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * @return The shape of the values matching the pattern or null if it can't be told from the pattern,
+     * for example for time zones
+     */
+    public String getShape() {
+        return shape;
+    }
+
+    /**
+     * Parses the beginning of the text, like {@link DateFormat#parse(String)} does.
+     *
+     * @param text The text
+     * @param locale The locale of the text
+     * @return The date or null if the text doesn't start with a date in this format
+     */
+    public Date parse(String text, Locale locale) {
+        Map<Locale, DateFormat> localeFormatters = formatters.get();
+        DateFormat formatter = localeFormatters.get(locale);
+        if (formatter == null) {
+            formatter = new SimpleDateFormat(pattern, locale);
+            localeFormatters.put(locale, formatter);
+        }
+        // new formatters use the current default time zone, so should the cached ones
+        formatter.setTimeZone(TimeZone.getDefault());
+        return formatter.parse(text, new ParsePosition(0));
+    }
+
+    /**
+     * Computes the shape of a value in a single pass, each run of digits is reduced to {@value #DIGITS}
+     * and each run of letters to {@value #LETTERS}.
+     *
+     * @param text The value
+     * @return The shape
+     */
+    public static String shapeOf(CharSequence text) {
+        StringBuilder shape = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            appendLiteral(shape, text.charAt(i));
+        }
+        return shape.toString();
+    }
+
+    private static String shapeOfPattern(String pattern) {
+        StringBuilder shape = new StringBuilder(pattern.length());
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                    appendLiteral(shape, c);
+                    i += 2;
+                    continue;
+                }
+                i++;
+                while (i < pattern.length()) {
+                    char quoted = pattern.charAt(i);
+                    if (quoted == '\'') {
+                        if (i + 1 < pattern.length() && pattern.charAt(i + 1) == '\'') {
+                            appendLiteral(shape, quoted);
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    appendLiteral(shape, quoted);
+                    i++;
+                }
+                i++;
+            }
+            else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int count = 1;
+                while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                    count++;
+                }
+                char field = fieldShape(c, count);
+                if (field == 0) {
+                    return null;
+                }
+                appendRun(shape, field);
+                i += count;
+            }
+            else {
+                appendLiteral(shape, c);
+                i++;
+            }
+        }
+        return shape.toString();
+    }
+
+    private static char fieldShape(char letter, int count) {
+        switch (letter) {
+            case 'M':
+            case 'L':
+                return count < 3 ? DIGITS : LETTERS;
+            case 'y': case 'Y': case 'w': case 'W': case 'D': case 'd': case 'F': case 'u':
+            case 'H': case 'k': case 'K': case 'h': case 'm': case 's': case 'S':
+                return DIGITS;
+            case 'G': case 'E': case 'a':
+                return LETTERS;
+            default:
+                // time zones mix signs, digits and letters
+                return 0;
+        }
+    }
+
+    private static void appendLiteral(StringBuilder shape, char c) {
+        if (Character.isDigit(c)) {
+            appendRun(shape, DIGITS);
+        }
+        else if (Character.isLetter(c)) {
+            appendRun(shape, LETTERS);
+        }
+        else {
+            shape.append(c);
+        }
+    }
+
+    private static void appendRun(StringBuilder shape, char run) {
+        if (shape.length() == 0 || shape.charAt(shape.length() - 1) != run) {
+            shape.append(run);
+        }
+    }
+}
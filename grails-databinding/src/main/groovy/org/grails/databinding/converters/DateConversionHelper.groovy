@@ -17,6 +17,7 @@ package org.grails.databinding.converters
 
 import groovy.transform.CompileStatic
 
+import java.text.ParseException
 import java.text.SimpleDateFormat
 
 /**
@@ -26,31 +27,27 @@ import java.text.SimpleDateFormat
 @CompileStatic
 class DateConversionHelper implements ValueConverter {
 
+    private DateParser dateParser = new DateParser(['yyyy-MM-dd HH:mm:ss.S',"yyyy-MM-dd'T'hh:mm:ss'Z'","yyyy-MM-dd HH:mm:ss.S z"])
+
     /**
      * A List of String which represent date formats compatible with {@link SimpleDateFormat}.  When
      * This converter attempts to convert a String to a Date, these formats will be tried in
      * the order in which they appear in the List.
      */
-    List<String> formatStrings = ['yyyy-MM-dd HH:mm:ss.S',"yyyy-MM-dd'T'hh:mm:ss'Z'","yyyy-MM-dd HH:mm:ss.S z"]
+    List<String> getFormatStrings() {
+        dateParser.patterns
+    }
 
-    protected final Map<String, SimpleDateFormat> formatters = [:].withDefault { String formatString -> new SimpleDateFormat(formatString) }
+    void setFormatStrings(List<String> formatStrings) {
+        dateParser = new DateParser(formatStrings)
+    }
 
     Object convert(value) {
         Date dateValue
         if (value instanceof String) {
-            def firstException
-            formatStrings.each { String format ->
-                if (dateValue == null) {
-                    def formatter = formatters.get(format)
-                    try {
-                        dateValue = formatter.parse(value)
-                    } catch (Exception e) {
-                        firstException = firstException ?: e
-                    }
-                }
-            }
-            if(dateValue == null && firstException) {
-                throw firstException
+            dateValue = dateParser.parse(value, Locale.default)
+            if (dateValue == null && dateParser.patterns) {
+                throw new ParseException('Unparseable date: "' + value + '"', 0)
             }
         }
         dateValue
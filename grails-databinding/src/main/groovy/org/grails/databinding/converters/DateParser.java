@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.converters;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses dates in one of several formats. The formats are compiled once, the instance is immutable and
+ * can be shared between threads.
+ *
+ * The formats whose shape matches the shape of the value are tried first, in the order they were given.
+ * If none of them parses the value the remaining formats are tried in order, because a {@link java.text.SimpleDateFormat}
+ * also accepts values that only start with a date or have fields of unexpected widths.
+ *
+ * @since 2.3
+ */
+public final class DateParser {
+
+    private final List<String> patterns;
+    private final List<CompiledDateFormat> formats;
+    private final Map<String, List<CompiledDateFormat>> formatsByShape;
+
+    /**
+     * @param patterns Patterns compatible with {@link java.text.SimpleDateFormat}
+     * @throws IllegalArgumentException If a pattern is invalid
+     */
+    public DateParser(Collection<?> patterns) {
+        List<String> patternList = new ArrayList<String>(patterns.size());
+        List<CompiledDateFormat> formatList = new ArrayList<CompiledDateFormat>(patterns.size());
+        Map<String, List<CompiledDateFormat>> byShape = new LinkedHashMap<String, List<CompiledDateFormat>>();
+        for (Object pattern : patterns) {
+            CompiledDateFormat format = CompiledDateFormat.forPattern(String.valueOf(pattern));
+            patternList.add(format.getPattern());
+            formatList.add(format);
+            if (format.getShape() != null) {
+                List<CompiledDateFormat> sameShape = byShape.get(format.getShape());
+                if (sameShape == null) {
+                    sameShape = new ArrayList<CompiledDateFormat>(1);
+                    byShape.put(format.getShape(), sameShape);
+                }
+                sameShape.add(format);
+            }
+        }
+        this.patterns = Collections.unmodifiableList(patternList);
+        formats = formatList;
+        formatsByShape = byShape;
+    }
+
+    /**
+     * @return The patterns in the order they are tried
+     */
+    public List<String> getPatterns() {
+        return patterns;
+    }
+
+    /**
+     * @param text The text
+     * @param locale The locale of the text
+     * @return The date or null if the text isn't a date in any of the formats
+     */
+    public Date parse(String text, Locale locale) {
+        List<CompiledDateFormat> candidates = formatsByShape.isEmpty() ? null :
+            formatsByShape.get(CompiledDateFormat.shapeOf(text));
+        if (candidates != null) {
+            for (CompiledDateFormat format : candidates) {
+                Date date = format.parse(text, locale);
+                if (date != null) {
+                    return date;
+                }
+            }
+        }
+        for (CompiledDateFormat format : formats) {
+            if (candidates != null && candidates.contains(format)) {
+                continue;
+            }
+            Date date = format.parse(text, locale);
+            if (date != null) {
+                return date;
+            }
+        }
+        return null;
+    }
+}
@@ -17,7 +17,7 @@ package org.grails.databinding.converters
 
 import groovy.transform.CompileStatic
 
-import java.text.SimpleDateFormat
+import java.text.ParseException
 
 /**
  * @author Jeff Brown
@@ -27,7 +27,11 @@ import java.text.SimpleDateFormat
 class FormattedDateValueConverter implements FormattedValueConverter {
 
     def convert(value, String format) {
-        new SimpleDateFormat(format).parse((String)value)
+        def date = CompiledDateFormat.forPattern(format).parse((String)value, Locale.default)
+        if (date == null) {
+            throw new ParseException('Unparseable date: "' + value + '"', 0)
+        }
+        date
     }
 
     Class<?> getTargetType() {
@@ -0,0 +1,325 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.databinding.xml;
+
+import java.io.Reader;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.grails.databinding.CollectionDataBindingSource;
+import org.grails.databinding.DataBindingSource;
+import org.grails.databinding.SimpleMapDataBindingSource;
+
+/**
+ * A CollectionDataBindingSource that reads the child elements of the root element
+ * with StAX as they are iterated, so only the element currently being bound is held in memory.
+ *
+ * Each child element is converted to a Map following the same rules as {@link GPathResultMap}:
+ * an id attribute becomes the id property, repeated elements become a List and elements
+ * without children become their text (or a Map containing the id when they have an id attribute).
+ *
+ * The list returned by {@link #getDataBindingSources()} can be iterated once. Calling size() or get(int)
+ * before iterating reads all remaining elements into memory.
+ *
+ * The document is read as it is iterated, so malformed XML is reported when the element containing the
+ * error is read, after the preceding elements have been bound. The exception is created by
+ * {@link #createReadException(XMLStreamException)}.
+ *
+ * @since 2.3
+ * @see GPathResultCollectionDataBindingSource
+ */
+public class StaxCollectionDataBindingSource implements CollectionDataBindingSource {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = createXMLInputFactory();
+
+    protected final XMLStreamReader xmlStreamReader;
+    private final List<DataBindingSource> dataBindingSources = new StreamingDataBindingSourceList();
+    private boolean endOfCollection;
+
+    public StaxCollectionDataBindingSource(Reader reader) throws XMLStreamException {
+        this(XML_INPUT_FACTORY.createXMLStreamReader(reader));
+    }
+
+    public StaxCollectionDataBindingSource(XMLStreamReader xmlStreamReader) throws XMLStreamException {
+        this.xmlStreamReader = xmlStreamReader;
+        // position the reader on the root element so that malformed documents fail early
+        while (xmlStreamReader.hasNext() && xmlStreamReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+            xmlStreamReader.next();
+        }
+        if (xmlStreamReader.getEventType() != XMLStreamConstants.START_ELEMENT) {
+            close();
+        }
+    }
+
+    public List<DataBindingSource> getDataBindingSources() {
+        return dataBindingSources;
+    }
+
+    /**
+     * Reads the element the reader is positioned on, including its children, into a Map. On return
+     * the reader is positioned on the end element.
+     *
+     * @param reader A reader positioned on a start element
+     * @return The Map representing the element
+     * @throws XMLStreamException If the XML isn't well formed
+     */
+    public static Map<String, Object> readElementAsMap(XMLStreamReader reader) throws XMLStreamException {
+        return toMap(readElement(reader));
+    }
+
+    /**
+     * Reads the next child element of the root element.
+     *
+     * @return The binding source for the element or null if there are no more elements
+     */
+    protected DataBindingSource readNext() {
+        if (endOfCollection) {
+            return null;
+        }
+        try {
+            while (xmlStreamReader.hasNext()) {
+                int event = xmlStreamReader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    return new SimpleMapDataBindingSource(readElementAsMap(xmlStreamReader));
+                }
+                if (event == XMLStreamConstants.END_ELEMENT) {
+                    break;
+                }
+            }
+            close();
+            return null;
+        }
+        catch (XMLStreamException e) {
+            close();
+            throw createReadException(e);
+        }
+    }
+
+    /**
+     * Creates the exception thrown when the document turns out to be malformed while it is iterated.
+     *
+     * @param e The error reported by the reader
+     * @return The exception to throw
+     */
+    protected RuntimeException createReadException(XMLStreamException e) {
+        return new IllegalStateException("Error reading XML binding source: " + e.getMessage(), e);
+    }
+
+    protected void close() {
+        endOfCollection = true;
+        try {
+            xmlStreamReader.close();
+        }
+        catch (XMLStreamException e) {
+            // ignore
+        }
+    }
+
+    private static XMLInputFactory createXMLInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+        // request bodies are untrusted, DTDs and external entities could read local files or expand without bound
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        return factory;
+    }
+
+    private static Element readElement(XMLStreamReader reader) throws XMLStreamException {
+        String id = reader.getAttributeValue(null, "id");
+        Element element = new Element(reader.getLocalName(), id == null || id.length() == 0 ? null : id);
+        StringBuilder text = null;
+        while (reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    element.appendText(text);
+                    text = null;
+                    element.addChild(readElement(reader));
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    if (text == null) {
+                        text = new StringBuilder();
+                    }
+                    text.append(reader.getText());
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    element.appendText(text);
+                    return element;
+                default:
+                    break;
+            }
+        }
+        return element;
+    }
+
+    private static Map<String, Object> toMap(Element element) {
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        if (element.children != null) {
+            Map<String, List<Element>> childrenByName = new LinkedHashMap<String, List<Element>>();
+            for (Element child : element.children) {
+                List<Element> named = childrenByName.get(child.name);
+                if (named == null) {
+                    named = new ArrayList<Element>(1);
+                    childrenByName.put(child.name, named);
+                }
+                named.add(child);
+            }
+            for (Map.Entry<String, List<Element>> entry : childrenByName.entrySet()) {
+                List<Element> named = entry.getValue();
+                if (named.size() > 1) {
+                    List<Object> values = new ArrayList<Object>(named.size());
+                    for (Element child : named) {
+                        values.add(child.id != null || child.children != null ? toMap(child) : child.getText());
+                    }
+                    map.put(entry.getKey(), values);
+                }
+                else {
+                    Element child = named.get(0);
+                    if (child.children != null) {
+                        map.put(entry.getKey(), toMap(child));
+                    }
+                    else if (child.id != null) {
+                        Map<String, Object> idMap = new LinkedHashMap<String, Object>();
+                        idMap.put("id", child.id);
+                        map.put(entry.getKey(), idMap);
+                    }
+                    else {
+                        map.put(entry.getKey(), child.getText());
+                    }
+                }
+            }
+        }
+        if (element.id != null) {
+            map.put("id", element.id);
+        }
+        return map;
+    }
+
+    /**
+     * The parts of an element needed for binding.
+     */
+    private static class Element {
+        final String name;
+        final String id;
+        List<Element> children;
+        StringBuilder text;
+
+        Element(String name, String id) {
+            this.name = name;
+            this.id = id;
+        }
+
+        void addChild(Element child) {
+            if (children == null) {
+                children = new ArrayList<Element>();
+            }
+            children.add(child);
+            appendText(child.text);
+        }
+
+        void appendText(CharSequence chars) {
+            // whitespace only text is ignored, as it is by XmlSlurper
+            if (chars == null || chars.toString().trim().length() == 0) {
+                return;
+            }
+            if (text == null) {
+                text = new StringBuilder();
+            }
+            text.append(chars);
+        }
+
+        String getText() {
+            return text == null ? "" : text.toString();
+        }
+    }
+
+    private class StreamingDataBindingSourceList extends AbstractList<DataBindingSource> {
+        private List<DataBindingSource> buffered;
+        private boolean iterated;
+
+        @Override
+        public Iterator<DataBindingSource> iterator() {
+            if (buffered != null) {
+                return buffered.iterator();
+            }
+            if (iterated) {
+                throw new IllegalStateException("The XML binding source can only be iterated once");
+            }
+            iterated = true;
+            return new Iterator<DataBindingSource>() {
+                private DataBindingSource next;
+
+                public boolean hasNext() {
+                    if (next == null) {
+                        next = readNext();
+                    }
+                    return next != null;
+                }
+
+                public DataBindingSource next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    DataBindingSource current = next;
+                    next = null;
+                    return current;
+                }
+
+                public void remove() {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public DataBindingSource get(int index) {
+            return buffer().get(index);
+        }
+
+        @Override
+        public int size() {
+            return buffer().size();
+        }
+
+        private List<DataBindingSource> buffer() {
+            if (buffered == null) {
+                if (iterated) {
+                    throw new IllegalStateException("The XML binding source has already been iterated");
+                }
+                List<DataBindingSource> sources = new ArrayList<DataBindingSource>();
+                DataBindingSource source;
+                while ((source = readNext()) != null) {
+                    sources.add(source);
+                }
+                buffered = sources;
+            }
+            return buffered;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.grails.databinding.converters
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+
+import spock.lang.Specification
+
+class DateParserSpec extends Specification {
+
+    void 'Test the shape of patterns and values'() {
+        expect:
+        CompiledDateFormat.forPattern(pattern).shape == shape
+        CompiledDateFormat.shapeOf(value) == shape
+
+        where:
+        pattern                                 | value                            | shape
+        'yyyy-MM-dd HH:mm:ss.S'                 | '2013-04-15 21:26:31.973'        | 'd-d-d d:d:d.d'
+        "yyyy-MM-dd'T'hh:mm:ss'Z'"              | '2011-03-12T09:24:22Z'           | 'd-d-dad:d:da'
+        'MMddyyyy'                              | '11151969'                       | 'd'
+        "'Month: 'MM', Day: 'dd', Year: 'yyyy"  | 'Month: 04, Day: 07, Year: 1984' | 'a: d, a: d, a: d'
+        "dd MMM yyyy 'o''clock'"                | "15 Apr 2013 o'clock"            | "d a d a'a"
+    }
+
+    void 'Test patterns with time zones have no shape'() {
+        expect:
+        CompiledDateFormat.forPattern('yyyy-MM-dd HH:mm:ss.S z').shape == null
+        CompiledDateFormat.forPattern('yyyy-MM-dd HH:mm Z').shape == null
+    }
+
+    void 'Test the format matching the shape of the value is used'() {
+        given:
+        def parser = new DateParser(['dd/MM/yyyy', 'yyyy-MM-dd', 'dd MMM yyyy'])
+
+        when:
+        def date = parser.parse('2013-04-15', Locale.ENGLISH)
+
+        then:
+        Calendar.APRIL == date.month
+        15 == date.date
+        113 == date.year
+
+        when:
+        date = parser.parse('07 Nov 1984', Locale.ENGLISH)
+
+        then:
+        Calendar.NOVEMBER == date.month
+        7 == date.date
+        84 == date.year
+    }
+
+    void 'Test values only starting with a date are parsed like SimpleDateFormat does'() {
+        given:
+        def parser = new DateParser(['yyyy-MM-dd HH:mm:ss.S', 'yyyy-MM-dd HH:mm:ss.S z'])
+
+        when:
+        def date = parser.parse('2013-04-15 21:26:31.973 and more', Locale.ENGLISH)
+
+        then:
+        Calendar.APRIL == date.month
+        21 == date.hours
+    }
+
+    void 'Test values which are not dates'() {
+        given:
+        def parser = new DateParser(['yyyy-MM-dd', 'dd MMM yyyy'])
+
+        expect:
+        parser.parse(value, Locale.ENGLISH) == null
+
+        where:
+        value << ['', 'some bogus value', '--']
+    }
+
+    void 'Test the formatters are cached per locale'() {
+        given:
+        def parser = new DateParser(['dd MMMM yyyy'])
+
+        when:
+        def english = parser.parse('07 November 1984', Locale.ENGLISH)
+        def german = parser.parse('07 November 1984', Locale.GERMAN)
+        def french = parser.parse('07 novembre 1984', Locale.FRENCH)
+
+        then:
+        english == german
+        english == french
+        parser.parse('07 novembre 1984', Locale.ENGLISH) == null
+    }
+
+    void 'Test parsing from several threads'() {
+        given:
+        def parser = new DateParser(['yyyy-MM-dd HH:mm:ss.S', 'dd/MM/yyyy'])
+        def expected = parser.parse('2013-04-15 21:26:31.973', Locale.ENGLISH)
+        def executor = Executors.newFixedThreadPool(8)
+        def task = { -> (1..500).collect { parser.parse('2013-04-15 21:26:31.973', Locale.ENGLISH) } } as Callable
+
+        when:
+        def results = executor.invokeAll([task] * 8)*.get().flatten()
+
+        then:
+        results.size() == 4000
+        results.every { it == expected }
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    void 'Test invalid patterns are rejected when compiled'() {
+        when:
+        new DateParser(['yyyy-MM-dd', 'not a pattern'])
+
+        then:
+        thrown IllegalArgumentException
+    }
+}
@@ -0,0 +1,120 @@
+package org.grails.databinding.xml
+
+import org.grails.databinding.DataBindingSource
+
+import spock.lang.Specification
+
+class StaxCollectionDataBindingSourceSpec extends Specification {
+
+    static final String PEOPLE = '''
+<list>
+    <person id="42">
+        <firstName>Peter</firstName>
+        <lastName>Gabriel</lastName>
+        <band id="1"/>
+        <album>So</album>
+        <album>Us</album>
+    </person>
+    <person>
+        <firstName>Tony</firstName>
+        <lastName>Banks</lastName>
+        <address>
+            <city>Chiddingfold</city>
+        </address>
+    </person>
+</list>
+'''
+
+    void 'Test iterating child elements'() {
+        when:
+        def source = new StaxCollectionDataBindingSource(new StringReader(PEOPLE))
+        def dataBindingSources = source.dataBindingSources.iterator().collect { it }
+
+        then:
+        dataBindingSources.size() == 2
+        dataBindingSources[0] instanceof DataBindingSource
+        dataBindingSources[0]['id'] == '42'
+        dataBindingSources[0]['firstName'] == 'Peter'
+        dataBindingSources[0]['lastName'] == 'Gabriel'
+        dataBindingSources[0]['band'] == [id: '1']
+        dataBindingSources[0]['album'] == ['So', 'Us']
+        dataBindingSources[1]['firstName'] == 'Tony'
+        dataBindingSources[1]['address'] == [city: 'Chiddingfold']
+        !dataBindingSources[1].containsProperty('id')
+    }
+
+    void 'Test elements are read as they are iterated'() {
+        given:
+        def source = new StaxCollectionDataBindingSource(new StringReader(
+            '<list><item><a>1</a></item><item><a>2</a></item><item><a>3<b></item></list>'))
+        def iterator = source.dataBindingSources.iterator()
+
+        expect: 'elements before the malformed one are read'
+        iterator.next()['a'] == '1'
+        iterator.next()['a'] == '2'
+
+        when:
+        iterator.next()
+
+        then:
+        thrown IllegalStateException
+    }
+
+    void 'Test the exception for malformed XML can be replaced'() {
+        given:
+        def source = new StaxCollectionDataBindingSource(new StringReader(
+            '<list><item><a>1</a></item><item><a>3<b></item></list>')) {
+            protected RuntimeException createReadException(javax.xml.stream.XMLStreamException e) {
+                new IllegalArgumentException('malformed', e)
+            }
+        }
+        def iterator = source.dataBindingSources.iterator()
+
+        expect:
+        iterator.next()['a'] == '1'
+
+        when:
+        iterator.next()
+
+        then:
+        IllegalArgumentException e = thrown()
+        e.cause instanceof javax.xml.stream.XMLStreamException
+        !iterator.hasNext()
+    }
+
+    void 'Test external entities are not resolved'() {
+        given:
+        File secret = File.createTempFile('secret', '.txt')
+        secret.text = 'secret'
+
+        when:
+        def source = new StaxCollectionDataBindingSource(new StringReader("""<!DOCTYPE list [<!ENTITY xxe SYSTEM "${secret.toURI()}">]>
+<list><item><a>&xxe;</a></item></list>"""))
+        def values = []
+        try {
+            source.dataBindingSources.iterator().each { values << it['a'] }
+        }
+        catch (IllegalStateException ignored) {
+            // the undeclared entity may be reported as an error
+        }
+
+        then:
+        !values.any { it?.toString()?.contains('secret') }
+
+        cleanup:
+        secret.delete()
+    }
+
+    void 'Test the same properties as the GPathResult binding source'() {
+        when:
+        def stax = new StaxCollectionDataBindingSource(new StringReader(PEOPLE)).dataBindingSources
+        def gpath = new GPathResultCollectionDataBindingSource(new XmlSlurper().parseText(PEOPLE)).dataBindingSources
+
+        then:
+        stax.size() == gpath.size()
+        (0..<stax.size()).every { i ->
+            stax[i].propertyNames == gpath[i].propertyNames &&
+                stax[i].propertyNames.every { name -> stax[i][name] == gpath[i][name] }
+        }
+    }
+}
@@ -18,6 +18,7 @@ import grails.doc.filters.HeaderFilter
 import grails.doc.filters.LinkTestFilter
 import grails.doc.filters.ListFilter
 
+import java.util.concurrent.ConcurrentHashMap
 import java.util.regex.Pattern
 
 import org.radeox.api.engine.WikiRenderEngine
@@ -50,8 +51,8 @@ class DocEngine extends BaseRenderEngine implements WikiRenderEngine {
     static final API_CONTEXT_PATH = "apiContextPath"
     static final RESOURCES_CONTEXT_PATH = "resourcesContextPath"
 
-    static EXTERNAL_DOCS = [:]
-    static ALIAS = [:]
+    static EXTERNAL_DOCS = new ConcurrentHashMap()
+    static ALIAS = new ConcurrentHashMap()
 
     private basedir
     private macroFilter
@@ -233,7 +234,7 @@ class DocEngine extends BaseRenderEngine implements WikiRenderEngine {
      * @param name The property name to convert
      * @return The converted property name
      */
-    static final nameCache = [:]
+    static final nameCache = new ConcurrentHashMap()
 
     String getNaturalName(String name) {
         if (nameCache[name]) {
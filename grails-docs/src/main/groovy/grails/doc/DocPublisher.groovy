@@ -19,6 +19,16 @@ import grails.doc.internal.*
 import groovy.io.FileType
 import groovy.text.Template
 
+import java.lang.reflect.Modifier
+import java.security.MessageDigest
+import java.util.concurrent.BlockingQueue
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.ThreadFactory
+
 import org.apache.commons.logging.LogFactory
 import org.radeox.engine.context.BaseInitialRenderContext
 import org.yaml.snakeyaml.Yaml
@@ -33,6 +43,8 @@ import org.yaml.snakeyaml.Yaml
  */
 class DocPublisher {
     static final String TOC_FILENAME = "toc.yml"
+    static final String MANIFEST_FILENAME = "manifest.properties"
+    private static final String CONTENT_MARKER = "<!--grails-doc-content-->"
     static final LOG = LogFactory.getLog(this)
 
     /** The source directory of the documentation */
@@ -81,10 +93,24 @@ class DocPublisher {
     /** Properties used to configure the DocEngine */
     Properties engineProperties
 
+    /** The number of threads rendering the guide sections and reference pages. Defaults to the number of processors */
+    int threads = Runtime.runtime.availableProcessors()
+    /**
+     * Whether the pages whose sources, templates and link targets haven't changed
+     * since the last run into the same target are kept. Defaults to false
+     */
+    boolean incremental = false
+
     def output
     private context
     private engine
     private customMacros = []
+    private BlockingQueue renderers
+    private ExecutorService executor
+    private File cacheDir
+    private String publishKey
+    private Properties previousManifest
+    private Properties manifest
 
     DocPublisher() {
         this(null, null)
@@ -114,6 +140,11 @@ class DocPublisher {
     /**
      * Registers a custom Radeox macro. If the macro has an 'initialContext'
      * property, it is set to the render context before first use.
+     *
+     * Each render engine gets its own copy of the macro when several threads
+     * publish the guide: an instance created with the no-argument constructor of
+     * the macro's class, with the writable properties of the registered macro.
+     * The guide is rendered by a single thread if a macro has no such constructor.
      */
     void registerMacro(macro) {
         customMacros << macro
@@ -248,8 +279,6 @@ class DocPublisher {
                     sections: f.listFiles().findAll { it.name.endsWith(".gdoc") }.sort())
         }
 
-        def fullToc = new StringBuilder()
-
         def pathToRoot = ".."
         def vars = [
             encoding: encoding,
@@ -272,182 +301,466 @@ class DocPublisher {
             legacyLinks: legacyLinks
         ]
 
-        // Build the user guide sections first.
-        def template = templateEngine.createTemplate(new File("${docResources}/style/guideItem.html").newReader(encoding))
-        def sectionTemplate = templateEngine.createTemplate(new File("${docResources}/style/section.html").newReader(encoding))
-        def fullContents = new StringBuilder()
-
-        def chapterVars
-        def chapters = guide.children
-        chapters.eachWithIndex{ chapter, i ->
-            chapterVars = [*:vars, chapterNumber: i + 1]
-            if (i != 0) {
-                chapterVars['prev'] = chapters[i - 1]
+        // The rendered sections are kept on disk, both to build the pages
+        // containing several sections without holding them in memory and to
+        // reuse them on the next run.
+        cacheDir = new File(workDir, "doc-cache/${hash(new File(refDocsDir).absolutePath)}")
+        ant.mkdir(dir: "${cacheDir}/guide")
+        loadManifest()
+        publishKey = hash(
+                docResourcesKey("${docResources}/style"),
+                new TreeMap(engineProperties ?: [:]),
+                [encoding, language, title, subtitle, footer, authors, translators, version, copyright, license, logo, sponsorLogo],
+                tocKey(guide),
+                refCategories.collect { [it.name, it.sections*.name] },
+                legacyLinks,
+                sourcesKey(),
+                customMacros.collect { it.getClass().name },
+                DocEngine.protectionDomain.codeSource?.location)
+
+        renderers = new LinkedBlockingQueue()
+        renderers << [engine: engine, context: context]
+        if (threads > 1 && canCopyMacros()) {
+            for (int i = 1; i < threads; i++) {
+                renderers << createRenderer()
             }
-            if (i != (chapters.size() - 1)) {
-                chapterVars['next'] = chapters[i + 1]
-            }
-            chapterVars.sectionNumber = (i + 1).toString()
-            writeChapter(chapter, template, sectionTemplate, guideSrcDir, refGuideDir.path, fullContents, chapterVars)
+            executor = createExecutor()
         }
 
-        files = new File("${src}/ref").listFiles()?.toList()?.sort() ?: []
-        def reference = [:]
-        template = templateEngine.createTemplate(new File("${docResources}/style/referenceItem.html").newReader(encoding))
+        try {
+            // Build the user guide sections first.
+            def template = templateEngine.createTemplate(new File("${docResources}/style/guideItem.html").newReader(encoding))
+            def sectionTemplate = templateEngine.createTemplate(new File("${docResources}/style/section.html").newReader(encoding))
+
+            def pages = []
+            def chapterVars
+            def chapters = guide.children
+            chapters.eachWithIndex{ chapter, i ->
+                chapterVars = [*:vars, chapterNumber: i + 1]
+                if (i != 0) {
+                    chapterVars['prev'] = chapters[i - 1]
+                }
+                if (i != (chapters.size() - 1)) {
+                    chapterVars['next'] = chapters[i + 1]
+                }
+                chapterVars.sectionNumber = (i + 1).toString()
+                collectPages(chapter, "", "..", 0, chapterVars, pages)
+            }
+
+            runAll(pages.collect { page -> { -> writeSection(page, sectionTemplate, guideSrcDir) } })
+            runAll(pages.collect { page -> { -> writePage(page, template, refGuideDir.path) } })
 
-        pathToRoot = "../.."
-        vars.logo = injectPath(logo, pathToRoot)
-        vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
-        vars.path = pathToRoot
-        vars.resourcesPath = calculatePathToResources(pathToRoot)
+            files = new File("${src}/ref").listFiles()?.toList()?.sort() ?: []
+            template = templateEngine.createTemplate(new File("${docResources}/style/referenceItem.html").newReader(encoding))
 
-        // Generate the reference section of the guide.
-        for (f in files) {
-            if (f.directory && !f.name.startsWith(".")) {
+            pathToRoot = "../.."
+            vars.logo = injectPath(logo, pathToRoot)
+            vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
+            vars.path = pathToRoot
+            vars.resourcesPath = calculatePathToResources(pathToRoot)
+
+            // Generate the reference section of the guide.
+            def referencePages = []
+            files.findAll { it.directory && !it.name.startsWith(".") }.each { f ->
                 def section = f.name
-                vars.section = section
+                def sectionVars = [*:vars, section: section]
 
                 new File("${refDocsDir}/ref/${section}").mkdirs()
                 def textiles = f.listFiles().findAll { it.name.endsWith(".gdoc")}.sort()
                 def usageFile = new File("${src}/ref/${section}.gdoc")
                 if (usageFile.exists()) {
-                    def data = usageFile.text
-                    context.set(DocEngine.SOURCE_FILE, usageFile)
-                    context.set(DocEngine.CONTEXT_PATH, pathToRoot)
-                    context.set(DocEngine.API_CONTEXT_PATH, vars.resourcesPath)
-                    vars.content = engine.render(data, context)
-
-                    new File("${refDocsDir}/ref/${section}/Usage.html").withWriter(encoding) {out ->
-                        template.make(vars).writeTo(out)
+                    referencePages << { ->
+                        writeReferencePage(usageFile, usageFile, new File("${refDocsDir}/ref/${section}/Usage.html"),
+                                template, sectionVars)
                     }
                 }
-                for (txt in textiles) {
+                textiles.each { txt ->
                     def name = txt.name[0..-6]
-                    def data = txt.text
-                    context.set(DocEngine.SOURCE_FILE, txt.name)
-                    context.set(DocEngine.CONTEXT_PATH, pathToRoot)
-                    context.set(DocEngine.API_CONTEXT_PATH, vars.resourcesPath)
-                    vars.content = engine.render(data, context)
-
-                    new File("${refDocsDir}/ref/${section}/${name}.html").withWriter(encoding) {out ->
-                        template.make(vars).writeTo(out)
+                    referencePages << { ->
+                        writeReferencePage(txt, txt.name, new File("${refDocsDir}/ref/${section}/${name}.html"),
+                                template, sectionVars)
                     }
                 }
             }
-        }
+            runAll(referencePages)
+
+            vars.remove("section")
+            vars.single = true
+
+            pathToRoot = ".."
+            vars.logo = injectPath(logo, pathToRoot)
+            vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
+            vars.path = pathToRoot
+            vars.resourcesPath = calculatePathToResources(pathToRoot)
+
+            template = templateEngine.createTemplate(new File("${docResources}/style/layout.html").newReader(encoding))
+            def singleFile = new File("${refGuideDir}/single.html")
+            def singleKey = hash(publishKey, pages*.key)
+            if (!isUpToDate("single", singleKey, singleFile)) {
+                writeLayout(template, vars, pages*.fragment, singleFile)
+                recordOutput("single", singleKey)
+            }
 
-        vars.remove("section")
-        vars.content = fullContents.toString()
-        vars.single = true
+            vars.content = ""
+            vars.single = false
+            new File("${refGuideDir}/index.html").withWriter(encoding) {out ->
+                template.make(vars).writeTo(out)
+            }
 
-        pathToRoot = ".."
-        vars.logo = injectPath(logo, pathToRoot)
-        vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
-        vars.path = pathToRoot
-        vars.resourcesPath = calculatePathToResources(pathToRoot)
+            pathToRoot = "."
+            vars.logo = injectPath(logo, pathToRoot)
+            vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
+            vars.path = pathToRoot
+            vars.resourcesPath = calculatePathToResources(pathToRoot)
 
-        template = templateEngine.createTemplate(new File("${docResources}/style/layout.html").newReader(encoding))
-        new File("${refGuideDir}/single.html").withWriter(encoding) {out ->
-            template.make(vars).writeTo(out)
-        }
+            new File("${refDocsDir}/index.html").withWriter(encoding) {out ->
+                template.make(vars).writeTo(out)
+            }
 
-        vars.content = ""
-        vars.single = false
-        new File("${refGuideDir}/index.html").withWriter(encoding) {out ->
-            template.make(vars).writeTo(out)
+            storeManifest()
         }
-
-        pathToRoot = "."
-        vars.logo = injectPath(logo, pathToRoot)
-        vars.sponsorLogo = injectPath(sponsorLogo, pathToRoot)
-        vars.path = pathToRoot
-        vars.resourcesPath = calculatePathToResources(pathToRoot)
-
-        new File("${refDocsDir}/index.html").withWriter(encoding) {out ->
-            template.make(vars).writeTo(out)
+        finally {
+            executor?.shutdownNow()
+            executor = null
+            renderers = null
         }
 
         ant.echo "Built user manual at ${refDocsDir}/index.html"
     }
 
-    void writeChapter(
-            section,
-            Template layoutTemplate,
-            Template sectionTemplate,
-            File guideSrcDir,
-            String targetDir,
-            fullContents,
-            vars) {
-        fullContents << writePage(section, layoutTemplate, sectionTemplate, guideSrcDir, targetDir, "", "..", 0, vars)
-    }
-
-    String writePage(
-            section,
-            Template layoutTemplate,
-            Template sectionTemplate,
-            File guideSrcDir,
-            String targetDir,
-            String subDir,
-            path,
-            level,
-            vars) {
-        def sourceFile = new File(guideSrcDir, section.file)
-        context.set(DocEngine.SOURCE_FILE, sourceFile)
-        context.set(DocEngine.CONTEXT_PATH, path)
-
+    /**
+     * Flattens a section and its sub-sections into the list of pages, in the
+     * order they appear in the guide.
+     */
+    protected Map collectPages(section, String subDir, path, int level, Map vars, List pages) {
         def varsCopy = [*:vars]
         varsCopy.name = section.name
         varsCopy.title = section.title
         varsCopy.path = path
         varsCopy.level = level
         varsCopy.sectionToc = section.children
-        varsCopy.content = engine.render(sourceFile.text, context)
-
-        // First create the section content, which usually consists of a header
-        // and the translated gdoc content.
-        def sectionContent = new StringWriter()
-        sectionTemplate.make(varsCopy).writeTo(sectionContent)
 
-        // Aggregate the section content and sub-sections.
-        def accumulatedContent = new StringBuilder()
-        accumulatedContent << sectionContent.toString()
+        def page = [section: section, subDir: subDir, vars: varsCopy, children: [],
+                    fragment: new File(cacheDir, "guide/${section.name}.html")]
+        pages << page
 
-        // Create the sub-section pages.
-        level++
         final sectionNumber = varsCopy.sectionNumber
         int subSectionNumber = 1
         for (s in section.children) {
-            varsCopy.sectionNumber = "$sectionNumber.$subSectionNumber"
-            accumulatedContent << writePage(s, layoutTemplate, sectionTemplate, guideSrcDir, targetDir, "pages", path, level, varsCopy)
+            def childVars = [*:varsCopy, sectionNumber: "$sectionNumber.$subSectionNumber"]
+            page.children << collectPages(s, "pages", path, level + 1, childVars, pages)
             subSectionNumber++
         }
+        return page
+    }
+
+    /**
+     * Renders the content of a section, which usually consists of a header and
+     * the translated gdoc content, to its fragment file.
+     */
+    protected void writeSection(Map page, Template sectionTemplate, File guideSrcDir) {
+        def section = page.section
+        def sourceFile = new File(guideSrcDir, section.file)
+        def text = sourceFile.text
+        page.key = hash(publishKey, text, page.vars.subMap(["name", "title", "path", "level", "sectionNumber"]),
+                section.children.collect { [it.name, it.title] }, linkTargetsKey(text))
+        if (isUpToDate("section.${section.name}", page.key, page.fragment)) {
+            return
+        }
+
+        def varsCopy = [*:page.vars]
+        withRenderer { engine, context ->
+            context.set(DocEngine.SOURCE_FILE, sourceFile)
+            context.set(DocEngine.CONTEXT_PATH, varsCopy.path)
+            context.set(DocEngine.API_CONTEXT_PATH, calculatePathToResources(".."))
+            varsCopy.content = engine.render(text, context)
+        }
+        page.fragment.withWriter(encoding) { writer ->
+            sectionTemplate.make(varsCopy).writeTo(writer)
+        }
+        recordOutput("section.${section.name}", page.key)
+    }
 
-        // Reset the section number in the template vars.
-        varsCopy.sectionNumber = sectionNumber
+    /**
+     * Writes the HTML page of a section, which includes the content from all the
+     * sub-sections too.
+     */
+    protected void writePage(Map page, Template layoutTemplate, String targetDir) {
+        def fragments = []
+        def keys = []
+        collectFragments(page, fragments, keys)
 
         // TODO PAL - I don't see why these pages are necessary, plus there seems
         // to be no way to get embedded images to display properly (since the path
         // passed to the Wiki rendering engine is wrong for pages written to a
         // 'pages' subdirectory). Keeping them in case someone, somewhere depends
         // on them.
-        //
-        // Create the HTML page for this section, which includes the content
-        // from all the sub-sections too.
+        def varsCopy = [*:page.vars]
+        String subDir = page.subDir
         if (subDir) {
             if (subDir.endsWith('/')) subDir = subDir[0..-2]
             targetDir = "$targetDir/$subDir"
 
-            varsCopy.path = "../${path}"
+            varsCopy.path = "../${varsCopy.path}"
             varsCopy.logo = injectPath(logo, varsCopy.path)
             varsCopy.sponsorLogo = injectPath(sponsorLogo, varsCopy.path)
         }
 
-        new File("${targetDir}/${section.name}.html").withWriter(encoding) { writer ->
-            varsCopy.content = accumulatedContent.toString()
-            layoutTemplate.make(varsCopy).writeTo(writer)
+        def file = new File("${targetDir}/${page.section.name}.html")
+        def key = hash(keys, varsCopy.path)
+        if (!isUpToDate("page.${page.section.name}", key, file)) {
+            writeLayout(layoutTemplate, varsCopy, fragments, file)
+            recordOutput("page.${page.section.name}", key)
+        }
+    }
+
+    private void collectFragments(Map page, List fragments, List keys) {
+        fragments << page.fragment
+        keys << page.key
+        for (child in page.children) {
+            collectFragments(child, fragments, keys)
+        }
+    }
+
+    /**
+     * Renders a page of the reference section.
+     */
+    protected void writeReferencePage(File sourceFile, sourceFileValue, File target, Template template, Map vars) {
+        def text = sourceFile.text
+        def key = hash(publishKey, text, vars.section, linkTargetsKey(text))
+        def id = "ref.${vars.section}.${target.name}"
+        if (isUpToDate(id, key, target)) {
+            return
+        }
+
+        def varsCopy = [*:vars]
+        withRenderer { engine, context ->
+            context.set(DocEngine.SOURCE_FILE, sourceFileValue)
+            context.set(DocEngine.CONTEXT_PATH, varsCopy.path)
+            context.set(DocEngine.API_CONTEXT_PATH, varsCopy.resourcesPath)
+            varsCopy.content = engine.render(text, context)
+        }
+        target.withWriter(encoding) { out ->
+            template.make(varsCopy).writeTo(out)
         }
+        recordOutput(id, key)
+    }
 
-        return varsCopy.content
+    /**
+     * Writes a layout with the given fragments as content. The layout is rendered
+     * with a marker as content, which is then replaced by the fragments, so the
+     * content doesn't need to be held in memory.
+     */
+    protected void writeLayout(Template template, Map vars, List<File> fragments, File target) {
+        def layout = new StringWriter()
+        template.make([*:vars, content: CONTENT_MARKER]).writeTo(layout)
+        String text = layout.toString()
+        int markerIndex = text.indexOf(CONTENT_MARKER)
+
+        target.withWriter(encoding) { out ->
+            if (markerIndex < 0 || text.indexOf(CONTENT_MARKER, markerIndex + 1) > -1) {
+                // the layout doesn't insert the content exactly once as is
+                def content = new StringBuilder()
+                for (fragment in fragments) {
+                    content << fragment.getText(encoding)
+                }
+                template.make([*:vars, content: content.toString()]).writeTo(out)
+                return
+            }
+
+            out.write(text, 0, markerIndex)
+            char[] buffer = new char[8192]
+            for (fragment in fragments) {
+                fragment.withReader(encoding) { reader ->
+                    int count
+                    while ((count = reader.read(buffer)) != -1) {
+                        out.write(buffer, 0, count)
+                    }
+                }
+            }
+            int contentEnd = markerIndex + CONTENT_MARKER.length()
+            out.write(text, contentEnd, text.length() - contentEnd)
+        }
+    }
+
+    /**
+     * Runs the tasks with the publishing threads and waits for all of them to complete.
+     */
+    private void runAll(List<Closure> tasks) {
+        if (executor == null || tasks.size() < 2) {
+            for (task in tasks) {
+                task.call()
+            }
+            return
+        }
+
+        def futures = tasks.collect { task ->
+            executor.submit({ ->
+                // the templates and the engine use the methods added to String
+                use(StringEscapeCategory) {
+                    task.call()
+                }
+            } as Callable)
+        }
+        try {
+            for (future in futures) {
+                future.get()
+            }
+        }
+        catch (ExecutionException e) {
+            throw e.cause
+        }
+    }
+
+    private ExecutorService createExecutor() {
+        // Radeox loads its bundles off the context class loader
+        def classLoader = Thread.currentThread().contextClassLoader
+        int threadNumber = 0
+        Executors.newFixedThreadPool(threads, { Runnable runnable ->
+            def thread = new Thread(runnable, "DocPublisher-${++threadNumber}")
+            thread.daemon = true
+            thread.contextClassLoader = classLoader
+            thread
+        } as ThreadFactory)
+    }
+
+    /**
+     * Calls the closure with a render engine and context that no other thread uses
+     * in the meantime.
+     */
+    private withRenderer(Closure callable) {
+        def renderer = renderers.take()
+        try {
+            callable.call(renderer.engine, renderer.context)
+        }
+        finally {
+            renderers.put(renderer)
+        }
+    }
+
+    private Map createRenderer() {
+        def renderContext = new BaseInitialRenderContext()
+        initContext(renderContext, "..")
+
+        def renderEngine = new DocEngine(renderContext)
+        renderEngine.engineProperties = engineProperties
+        renderContext.renderEngine = renderEngine
+
+        // The macros may keep state between calls, each engine has its own ones
+        for (m in customMacros) {
+            addMacro(renderEngine, renderContext, copyMacro(m))
+        }
+        return [engine: renderEngine, context: renderContext]
+    }
+
+    private boolean canCopyMacros() {
+        def macro = customMacros.find { m ->
+            !m.getClass().constructors.any { it.parameterTypes.length == 0 }
+        }
+        if (macro) {
+            output.warn "Rendering with a single thread as the macro ${macro.getClass().name} has no no-argument constructor"
+            return false
+        }
+        return true
+    }
+
+    private copyMacro(macro) {
+        def copy = macro.getClass().newInstance()
+        for (mp in macro.metaClass.properties) {
+            if (mp instanceof MetaBeanProperty && mp.getter && mp.setter && !Modifier.isStatic(mp.modifiers) &&
+                    !(mp.name in ["initialContext", "metaClass"])) {
+                copy[mp.name] = macro[mp.name]
+            }
+        }
+        return copy
+    }
+
+    private void addMacro(renderEngine, renderContext, macro) {
+        if (macro.metaClass.hasProperty(macro, "initialContext")) {
+            macro.initialContext = renderContext
+        }
+        renderEngine.addMacro(macro)
+    }
+
+    private boolean isUpToDate(String id, String key, File target) {
+        if (!incremental || previousManifest.getProperty(id) != key || !target.exists()) {
+            return false
+        }
+        recordOutput(id, key)
+        return true
+    }
+
+    private void recordOutput(String id, String key) {
+        manifest.setProperty(id, key)
+    }
+
+    private void loadManifest() {
+        previousManifest = new Properties()
+        manifest = new Properties()
+        def manifestFile = new File(cacheDir, MANIFEST_FILENAME)
+        if (incremental && manifestFile.exists()) {
+            manifestFile.withInputStream { previousManifest.load(it) }
+        }
+    }
+
+    private void storeManifest() {
+        new File(cacheDir, MANIFEST_FILENAME).withOutputStream { manifest.store(it, null) }
+    }
+
+    private String hash(Object... parts) {
+        def digest = MessageDigest.getInstance("SHA-1")
+        for (part in parts) {
+            digest.update(String.valueOf(part).getBytes("UTF-8"))
+            digest.update((byte)0)
+        }
+        return new BigInteger(1, digest.digest()).toString(16)
+    }
+
+    private String docResourcesKey(String dir) {
+        def contents = []
+        new File(dir).eachFileRecurse(FileType.FILES) { contents << "${it.path}=${hash(it.getText(encoding))}" }
+        return hash(contents.sort())
+    }
+
+    private String tocKey(node) {
+        def key = new StringBuilder()
+        appendTocKey(node, key)
+        return key.toString()
+    }
+
+    private void appendTocKey(node, StringBuilder key) {
+        key << node.name << '|' << node.title << '|' << node.file << '['
+        for (child in node.children) {
+            appendTocKey(child, key)
+        }
+        key << ']'
+    }
+
+    /**
+     * The gdoc files, which are the targets of the guide and reference links.
+     */
+    private String sourcesKey() {
+        def paths = []
+        for (dir in [new File(src, "guide"), new File(src, "ref")]) {
+            if (dir.exists()) {
+                dir.eachFileRecurse(FileType.FILES) { paths << it.path }
+            }
+        }
+        return hash(paths.sort())
+    }
+
+    /**
+     * The API pages an API link of the gdoc text links to, which depend on the
+     * documentation that exists.
+     */
+    private String linkTargetsKey(String text) {
+        def targets = new TreeSet()
+        def matcher = text =~ /api:([\w.]+)/
+        while (matcher.find()) {
+            def path = matcher.group(1).replace('.' as char, '/' as char) + ".html"
+            targets << path + '=' + (["api", "gapi"].find { dir -> new File("${apiDir}/${dir}/${path}").exists() } ?: "")
+        }
+        return targets.join(',')
     }
 
     protected void initialize() {
@@ -484,10 +797,7 @@ class DocPublisher {
 
         // Add any custom macros registered with this publisher to the engine.
         for (m in customMacros) {
-            if (m.metaClass.hasProperty(m, "initialContext")) {
-                m.initialContext = context
-            }
-            engine.addMacro(m)
+            addMacro(engine, context, m)
         }
     }
 
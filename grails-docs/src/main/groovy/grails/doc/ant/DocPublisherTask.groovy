@@ -78,6 +78,20 @@ class DocPublisherTask extends Task {
         publisher.workDir = workDir
     }
 
+    /**
+     * The number of threads rendering the pages (optional)
+     */
+    void setThreads(int threads) {
+        publisher.threads = threads
+    }
+
+    /**
+     * Whether unchanged pages are kept from the previous run (optional)
+     */
+    void setIncremental(boolean incremental) {
+        publisher.incremental = incremental
+    }
+
     /**
      * A properties file containing the title, author etc.
      */
@@ -32,6 +32,8 @@ class PublishGuide extends DefaultTask {
 
     Collection macros = []
     File workDir = project.buildDir as File
+    int threads = Runtime.runtime.availableProcessors()
+    boolean incremental = false
 
     @TaskAction
     def publishGuide() {
@@ -50,6 +52,8 @@ class PublishGuide extends DefaultTask {
         def publisher = new DocPublisher(sourceDir, targetDir)
         publisher.ant = project.ant
         publisher.workDir = workDir
+        publisher.threads = threads
+        publisher.incremental = incremental
         publisher.apiDir = "${project.outputDir}" as File
         publisher.language = language ?: ''
         publisher.images = project.file("${resourcesDir}/img")
@@ -9,7 +9,10 @@ import org.radeox.util.Encoder
 
 class GspTagSourceMacro extends BaseMacro {
 
-    List baseDirs
+    List baseDirs = []
+
+    GspTagSourceMacro() {
+    }
 
     GspTagSourceMacro(basedir) {
         if (!(basedir instanceof Collection || basedir.class.array)) basedir = [ basedir ]
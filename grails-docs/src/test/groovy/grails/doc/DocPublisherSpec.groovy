@@ -0,0 +1,128 @@
+package grails.doc
+
+import org.radeox.api.engine.context.InitialRenderContext
+import org.radeox.macro.BaseMacro
+import org.radeox.macro.parameter.MacroParameter
+
+import spock.lang.Specification
+
+class DocPublisherSpec extends Specification {
+
+    File baseDir
+    File src
+    File target
+    File workDir
+
+    def setup() {
+        baseDir = File.createTempFile("doc-publisher", "")
+        baseDir.delete()
+        src = new File(baseDir, "src")
+        target = new File(baseDir, "target")
+        workDir = new File(baseDir, "work")
+        workDir.mkdirs()
+
+        writeSource "guide/toc.yml", """\
+                intro:
+                  title: Introduction
+                  details: Details
+                usage: Usage
+                """.stripIndent()
+        writeSource "guide/intro.gdoc", "Intro text"
+        writeSource "guide/intro/details.gdoc", "Details text"
+        writeSource "guide/usage.gdoc", "Usage text"
+        StampMacro.contexts.clear()
+    }
+
+    def cleanup() {
+        baseDir.deleteDir()
+    }
+
+    def "the single page contains all the sections"() {
+        when:
+        createPublisher().publish()
+
+        then:
+        def single = new File(target, "guide/single.html").text
+        single.contains("Intro text")
+        single.contains("Details text")
+        single.contains("Usage text")
+        single.indexOf("Intro text") < single.indexOf("Details text")
+        single.indexOf("Details text") < single.indexOf("Usage text")
+        new File(target, "guide/intro.html").text.contains("Details text")
+        new File(target, "guide/pages/details.html").text.contains("Details text")
+    }
+
+    def "unchanged pages are kept on an incremental run"() {
+        given:
+        createPublisher().publish()
+        long past = (System.currentTimeMillis() - 3600000L).intdiv(1000L) * 1000L
+        def outputs = ["guide/intro.html", "guide/pages/details.html", "guide/usage.html", "guide/single.html"]
+        for (path in outputs) {
+            new File(target, path).lastModified = past
+        }
+        writeSource "guide/usage.gdoc", "Changed usage text"
+
+        when:
+        createPublisher().publish()
+
+        then:
+        new File(target, "guide/intro.html").lastModified() == past
+        new File(target, "guide/pages/details.html").lastModified() == past
+        new File(target, "guide/usage.html").lastModified() != past
+        new File(target, "guide/usage.html").text.contains("Changed usage text")
+        new File(target, "guide/single.html").lastModified() != past
+        new File(target, "guide/single.html").text.contains("Changed usage text")
+    }
+
+    def "each render engine has its own copy of the custom macros"() {
+        given:
+        writeSource "guide/intro.gdoc", "Intro {stamp}"
+        writeSource "guide/intro/details.gdoc", "Details {stamp}"
+        writeSource "guide/usage.gdoc", "Usage {stamp}"
+        def publisher = createPublisher()
+        publisher.threads = 3
+        publisher.registerMacro(new StampMacro(stamp: "copied"))
+
+        when:
+        publisher.publish()
+
+        then:
+        def single = new File(target, "guide/single.html").text
+        single.contains("Intro [copied]")
+        single.contains("Details [copied]")
+        single.contains("Usage [copied]")
+        StampMacro.contexts.size() == 3
+        StampMacro.contexts.collect { System.identityHashCode(it) }.unique().size() == 3
+    }
+
+    private DocPublisher createPublisher() {
+        def publisher = new DocPublisher(src, target)
+        publisher.workDir = workDir
+        publisher.incremental = true
+        publisher.threads = 1
+        return publisher
+    }
+
+    private void writeSource(String path, String text) {
+        def file = new File(src, path)
+        file.parentFile.mkdirs()
+        file.text = text
+    }
+}
+
+class StampMacro extends BaseMacro {
+    static List contexts = Collections.synchronizedList([])
+
+    String stamp
+
+    String getName() { "stamp" }
+
+    void setInitialContext(InitialRenderContext context) {
+        super.setInitialContext(context)
+        contexts << context
+    }
+
+    void execute(Writer out, MacroParameter params) {
+        out << '[' << stamp << ']'
+    }
+}
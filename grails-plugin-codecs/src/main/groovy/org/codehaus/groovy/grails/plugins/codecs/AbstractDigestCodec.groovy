@@ -0,0 +1,39 @@
+/*
+ * Copyright 2004-2005 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins.codecs
+
+/**
+ * Base class for the codecs that return the digest as a hex string. Implements
+ * {@link StreamingByteEncoder} so that large sources can be digested without
+ * reading them in to memory.
+ *
+ * @since 2.3
+ */
+abstract class AbstractDigestCodec implements StreamingByteEncoder {
+
+    protected abstract String getAlgorithm()
+
+    void encodeToStream(Object source, OutputStream out) throws IOException {
+        byte[] digest = DigestUtils.digest(getAlgorithm(), source)
+        if (digest != null) {
+            out.write(StreamingCodecSupport.encodeHex(digest).getBytes("US-ASCII"))
+        }
+    }
+
+    void encodeToWriter(Object source, Writer out) throws IOException {
+        StreamingCodecSupport.encodeDigestAsHex(getAlgorithm(), source, out)
+    }
+}
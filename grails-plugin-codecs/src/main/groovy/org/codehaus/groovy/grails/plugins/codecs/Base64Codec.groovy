@@ -15,15 +15,16 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-import org.codehaus.groovy.runtime.DefaultGroovyMethods
 import org.apache.commons.codec.binary.Base64
 
 /**
  * A codec that encodes and decodes Objects using Base64 encoding.
  *
+ * Streams, buffers and uploaded files are encoded in blocks, see {@link StreamingCodecSupport}.
+ *
  * @author Drew Varner
  */
-class Base64Codec {
+class Base64Codec implements StreamingByteEncoder {
 
     static encode = { theTarget ->
         if (theTarget == null) {
@@ -34,7 +35,14 @@ class Base64Codec {
             return new String(Base64.encodeBase64(theTarget))
         }
 
-        return new String(Base64.encodeBase64(theTarget.toString().bytes))
+        theTarget = toByteSource(theTarget)
+        if (theTarget instanceof String) {
+            return new String(Base64.encodeBase64(theTarget.getBytes(StreamingCodecSupport.DEFAULT_CHARSET)))
+        }
+
+        def writer = new StringWriter()
+        StreamingCodecSupport.encodeBase64(theTarget, writer)
+        return writer.toString()
     }
 
     static decode = { theTarget ->
@@ -46,6 +54,29 @@ class Base64Codec {
             return Base64.decodeBase64(theTarget)
         }
 
-        return Base64.decodeBase64(theTarget.toString().getBytes())
+        theTarget = toByteSource(theTarget)
+        if (theTarget instanceof String) {
+            return Base64.decodeBase64(theTarget.getBytes(StreamingCodecSupport.DEFAULT_CHARSET))
+        }
+
+        def out = new ByteArrayOutputStream()
+        StreamingCodecSupport.decodeBase64(theTarget, out)
+        return out.toByteArray()
+    }
+
+    void encodeToStream(Object source, OutputStream out) throws IOException {
+        StreamingCodecSupport.encodeBase64(toByteSource(source), out)
+    }
+
+    void encodeToWriter(Object source, Writer out) throws IOException {
+        StreamingCodecSupport.encodeBase64(toByteSource(source), out)
+    }
+
+    // lists and arrays other than byte arrays are encoded as their string form, not as lists of numbers
+    private static toByteSource(source) {
+        if (source instanceof Collection || (source != null && source.getClass().isArray() && !(source instanceof byte[]) && !(source instanceof Byte[]))) {
+            return source.toString()
+        }
+        source
     }
 }
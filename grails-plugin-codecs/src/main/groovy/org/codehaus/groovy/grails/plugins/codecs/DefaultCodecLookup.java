@@ -48,6 +48,7 @@ public class DefaultCodecLookup implements GrailsApplicationAware, InitializingB
     protected GrailsApplication grailsApplication;
     protected Map<String, Encoder> encoders;
     protected Map<String, Decoder> decoders;
+    protected Map<String, StreamingByteEncoder> streamingByteEncoders;
     public static final Encoder NONE_ENCODER = new NoneEncoder();
     static {
         DefaultEncodingStateRegistry.NONE_ENCODER = NONE_ENCODER;
@@ -69,6 +70,17 @@ public class DefaultCodecLookup implements GrailsApplicationAware, InitializingB
         return lookupCodec(codecName, decoders, Decoder.class);
     }
 
+    /**
+     * Looks up a codec that can encode byte sources (streams, buffers, uploaded files) without
+     * reading them in to memory, for example "Base64", "Hex" or "SHA256".
+     *
+     * @param codecName the codec name
+     * @return the streaming encoder or null if the codec doesn't support streaming
+     */
+    public StreamingByteEncoder lookupStreamingByteEncoder(String codecName) {
+        return lookupCodec(codecName, streamingByteEncoders, StreamingByteEncoder.class);
+    }
+
     @SuppressWarnings("unchecked")
     private <T> T lookupCodec(String codecName, Map<String, T> map, Class<T> returnType) {
         if (codecName != null && codecName.length() > 0) {
@@ -90,6 +102,7 @@ public class DefaultCodecLookup implements GrailsApplicationAware, InitializingB
 
         encoders = new HashMap<String, Encoder>();
         decoders = new HashMap<String, Decoder>();
+        streamingByteEncoders = new HashMap<String, StreamingByteEncoder>();
 
         for (GrailsClass grailsClass : codecs) {
             registerCodec((GrailsCodecClass)grailsClass);
@@ -106,6 +119,10 @@ public class DefaultCodecLookup implements GrailsApplicationAware, InitializingB
         if (decoder != null) {
             registerWithNameVaritions(decoders, decoder);
         }
+        Object codecInstance = grailsClass.getReferenceInstance();
+        if (codecInstance instanceof StreamingByteEncoder) {
+            registerVariationsOfName(streamingByteEncoders, (StreamingByteEncoder)codecInstance, grailsClass.getName());
+        }
     }
 
     private <T extends CodecIdentifierProvider> void registerWithNameVaritions(Map<String, T> destinationMap, T target) {
@@ -119,7 +136,7 @@ public class DefaultCodecLookup implements GrailsApplicationAware, InitializingB
         }
     }
 
-    private <T extends CodecIdentifierProvider> void registerVariationsOfName(Map<String, T> destinationMap, T target,
+    private <T> void registerVariationsOfName(Map<String, T> destinationMap, T target,
             String name) {
         destinationMap.put(name, target);
         destinationMap.put(name.toLowerCase(), target);
@@ -15,29 +15,11 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-import java.security.MessageDigest
-
 abstract class DigestUtils {
 
-    // Digest byte[], any list/array or string into a byte[]
+    // Digest byte[], any list/array, stream, buffer or string into a byte[]
+    // MessageDigest instances are reused per thread and the data is read in blocks
     static digest(String algorithm, data) {
-        if (data == null) {
-            return null
-        }
-
-        def md = MessageDigest.getInstance(algorithm)
-        def src
-        if (data instanceof Byte[] || data instanceof byte[]) {
-            src = data
-        }
-        else if (data instanceof List || data.getClass().isArray()) {
-            src = new byte[data.size()]
-            data.eachWithIndex { v, i -> src[i] = v }
-        }
-        else {
-            src = data.toString().getBytes("UTF-8")
-        }
-        md.update(src) // This probably needs to use the thread's Locale encoding
-        return md.digest()
+        StreamingCodecSupport.digest(algorithm, data)
     }
 }
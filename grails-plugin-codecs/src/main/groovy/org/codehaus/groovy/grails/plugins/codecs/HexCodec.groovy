@@ -15,25 +15,23 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-class HexCodec {
+class HexCodec implements StreamingByteEncoder {
 
     static HEXDIGITS = '0123456789abcdef'
 
-    // Expects an array/list of numbers
+    // Expects an array/list of numbers, a byte source (stream, buffer) or a string
     static encode = { theTarget ->
         if (theTarget == null) {
             return null
         }
 
-        def result = new StringBuilder()
-        if (theTarget instanceof String) {
-            theTarget = theTarget.bytes
+        if (theTarget instanceof byte[] || theTarget instanceof String || theTarget instanceof List) {
+            return StreamingCodecSupport.encodeHex(StreamingCodecSupport.toByteArray(theTarget))
         }
-        theTarget.each() {
-            result << HexCodec.HEXDIGITS[(it & 0xF0) >> 4]
-            result << HexCodec.HEXDIGITS[it & 0x0F]
-        }
-        return result.toString()
+
+        def writer = new StringWriter()
+        StreamingCodecSupport.encodeHex(theTarget, writer)
+        return writer.toString()
     }
 
     static decode = { theTarget ->
@@ -61,4 +59,14 @@ class HexCodec {
         output.eachWithIndex { v, i -> result[i] = v }
         return result
     }
+
+    void encodeToStream(Object source, OutputStream out) throws IOException {
+        def writer = new OutputStreamWriter(out, "US-ASCII")
+        StreamingCodecSupport.encodeHex(source, writer)
+        writer.flush()
+    }
+
+    void encodeToWriter(Object source, Writer out) throws IOException {
+        StreamingCodecSupport.encodeHex(source, out)
+    }
 }
@@ -15,7 +15,7 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-class MD5Codec {
+class MD5Codec extends AbstractDigestCodec {
     // Returns the byte[] of the digest, taken from UTF-8 of the string representation
     // or the raw data coerced to bytes
     static encode = { theTarget ->
@@ -25,4 +25,8 @@ class MD5Codec {
     static decode = { theTarget ->
         throw new UnsupportedOperationException("Cannot decode MD5 hashes")
     }
+
+    protected String getAlgorithm() {
+        "MD5"
+    }
 }
@@ -15,7 +15,7 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-class SHA1Codec{
+class SHA1Codec extends AbstractDigestCodec {
     // Returns the byte[] of the digest
     static encode = { theTarget ->
         HexCodec.encode(SHA1BytesCodec.encode(theTarget))
@@ -24,4 +24,8 @@ class SHA1Codec{
     static decode = { theTarget ->
         throw new UnsupportedOperationException("Cannot decode SHA-1 hashes")
     }
+
+    protected String getAlgorithm() {
+        "SHA-1"
+    }
 }
@@ -15,9 +15,7 @@
  */
 package org.codehaus.groovy.grails.plugins.codecs
 
-import java.security.MessageDigest
-
-class SHA256Codec extends DigestUtils {
+class SHA256Codec extends AbstractDigestCodec {
     // Returns the byte[] of the digest
     static encode = { theTarget ->
         HexCodec.encode(SHA256BytesCodec.encode(theTarget))
@@ -26,4 +24,8 @@ class SHA256Codec extends DigestUtils {
     static decode = { theTarget ->
         throw new UnsupportedOperationException("Cannot decode SHA-256 hashes")
     }
+
+    protected String getAlgorithm() {
+        "SHA-256"
+    }
 }
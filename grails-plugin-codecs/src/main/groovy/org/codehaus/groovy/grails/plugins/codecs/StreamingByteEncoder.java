@@ -0,0 +1,47 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins.codecs;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+
+/**
+ * Implemented by byte oriented codecs that can encode a source without
+ * reading it fully in to memory. Instances are registered in {@link DefaultCodecLookup}
+ * and can be looked up with {@link DefaultCodecLookup#lookupStreamingByteEncoder(String)}.
+ *
+ * @see StreamingCodecSupport
+ * @since 2.3
+ */
+public interface StreamingByteEncoder {
+
+    /**
+     * Encodes the source and writes the encoded bytes to the given stream.
+     *
+     * @param source the source (byte[], InputStream, ByteBuffer, StreamCharBuffer, ...)
+     * @param out the target stream, isn't closed
+     */
+    void encodeToStream(Object source, OutputStream out) throws IOException;
+
+    /**
+     * Encodes the source and writes the encoded characters to the given writer.
+     *
+     * @param source the source (byte[], InputStream, ByteBuffer, StreamCharBuffer, ...)
+     * @param out the target writer, isn't closed
+     */
+    void encodeToWriter(Object source, Writer out) throws IOException;
+}
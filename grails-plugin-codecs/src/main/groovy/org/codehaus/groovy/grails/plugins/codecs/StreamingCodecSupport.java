@@ -0,0 +1,410 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins.codecs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.codec.binary.Base64OutputStream;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+import org.springframework.core.io.InputStreamSource;
+
+/**
+ * Byte oriented helpers for the Base64, Hex and digest codecs.
+ *
+ * Sources are streamed in fixed size blocks instead of being materialized as a single
+ * byte array. Supported sources are byte[], Byte[], {@link ByteBuffer}, {@link InputStream},
+ * {@link InputStreamSource} (for example uploaded files), {@link StreamCharBuffer},
+ * collections and arrays of numbers and any other object, which is converted with
+ * toString() and encoded as UTF-8.
+ *
+ * @since 2.3
+ */
+public final class StreamingCodecSupport {
+    public static final String DEFAULT_CHARSET = "UTF-8";
+    private static final int BUFFER_SIZE = 8192;
+    private static final char[] HEXDIGITS = "0123456789abcdef".toCharArray();
+    // line separator is ignored since Base64 output isn't chunked (line length 0)
+    private static final byte[] CHUNK_SEPARATOR = new byte[] { '\r', '\n' };
+
+    private static final ThreadLocal<Map<String, MessageDigest>> messageDigests = new ThreadLocal<Map<String, MessageDigest>>() {
+        @Override
+        protected Map<String, MessageDigest> initialValue() {
+            return new HashMap<String, MessageDigest>();
+        }
+    };
+
+    private StreamingCodecSupport() {
+        // static methods only
+    }
+
+    /**
+     * Writes the bytes of the source to the given stream.
+     *
+     * @param source the source object
+     * @param out the target stream
+     * @throws IOException when reading the source or writing to the target fails
+     */
+    public static void writeBytes(Object source, OutputStream out) throws IOException {
+        if (source == null) {
+            return;
+        }
+        if (source instanceof byte[]) {
+            out.write((byte[])source);
+        }
+        else if (source instanceof ByteBuffer) {
+            writeByteBuffer((ByteBuffer)source, out);
+        }
+        else if (source instanceof InputStream) {
+            copy((InputStream)source, out);
+        }
+        else if (source instanceof InputStreamSource) {
+            InputStream input = ((InputStreamSource)source).getInputStream();
+            try {
+                copy(input, out);
+            }
+            finally {
+                input.close();
+            }
+        }
+        else if (source instanceof StreamCharBuffer) {
+            Writer writer = new OutputStreamWriter(new NonClosingOutputStream(out), DEFAULT_CHARSET);
+            ((StreamCharBuffer)source).writeTo(writer);
+            writer.flush();
+        }
+        else if (source instanceof Collection) {
+            for (Object element : (Collection<?>)source) {
+                out.write(((Number)element).byteValue());
+            }
+        }
+        else if (source.getClass().isArray()) {
+            for (int i = 0, n = Array.getLength(source); i < n; i++) {
+                out.write(((Number)Array.get(source, i)).byteValue());
+            }
+        }
+        else {
+            out.write(source.toString().getBytes(DEFAULT_CHARSET));
+        }
+    }
+
+    /**
+     * Returns the bytes of the source. byte[] instances are returned as such.
+     *
+     * @param source the source object
+     * @return the bytes or null when the source is null
+     */
+    public static byte[] toByteArray(Object source) {
+        if (source == null) {
+            return null;
+        }
+        if (source instanceof byte[]) {
+            return (byte[])source;
+        }
+        if (source instanceof CharSequence && !(source instanceof StreamCharBuffer)) {
+            return getBytes(source.toString());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            writeBytes(source, out);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to read bytes from " + source.getClass().getName(), e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Calculates the digest of the source with a MessageDigest instance that is reused
+     * by the current thread.
+     *
+     * @param algorithm the digest algorithm, for example "SHA-256"
+     * @param source the source object
+     * @return the digest or null when the source is null
+     */
+    public static byte[] digest(String algorithm, Object source) {
+        if (source == null) {
+            return null;
+        }
+        MessageDigest md = borrowMessageDigest(algorithm);
+        try {
+            if (source instanceof byte[]) {
+                md.update((byte[])source);
+            }
+            else if (source instanceof ByteBuffer) {
+                md.update(((ByteBuffer)source).duplicate());
+            }
+            else if (source instanceof CharSequence && !(source instanceof StreamCharBuffer)) {
+                md.update(getBytes(source.toString()));
+            }
+            else {
+                writeBytes(source, new MessageDigestOutputStream(md));
+            }
+            return md.digest();
+        }
+        catch (IOException e) {
+            throw new IllegalStateException("Unable to read bytes from " + source.getClass().getName(), e);
+        }
+        finally {
+            releaseMessageDigest(algorithm, md);
+        }
+    }
+
+    /**
+     * Writes the Base64 encoding of the source to the given stream.
+     */
+    public static void encodeBase64(Object source, OutputStream out) throws IOException {
+        Base64OutputStream base64Out = new Base64OutputStream(new NonClosingOutputStream(out), true, 0, CHUNK_SEPARATOR);
+        writeBytes(source, base64Out);
+        // flushes the final block and padding, the target stream is left open
+        base64Out.close();
+    }
+
+    /**
+     * Writes the Base64 encoding of the source to the given writer.
+     */
+    public static void encodeBase64(Object source, Writer out) throws IOException {
+        encodeBase64(source, new AsciiWriterOutputStream(out));
+    }
+
+    /**
+     * Decodes Base64 encoded input to the given stream.
+     */
+    public static void decodeBase64(Object source, OutputStream out) throws IOException {
+        if (source instanceof InputStream) {
+            copy(new Base64InputStream((InputStream)source, false), out);
+        }
+        else {
+            Base64OutputStream base64Out = new Base64OutputStream(new NonClosingOutputStream(out), false);
+            writeBytes(source, base64Out);
+            base64Out.close();
+        }
+    }
+
+    /**
+     * Writes the bytes of the source as lower case hex digits to the given writer.
+     */
+    public static void encodeHex(Object source, Writer out) throws IOException {
+        HexWriterOutputStream hexOut = new HexWriterOutputStream(out);
+        writeBytes(source, hexOut);
+        hexOut.flush();
+    }
+
+    /**
+     * Returns the bytes as a lower case hex string.
+     */
+    public static String encodeHex(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0, j = 0; i < bytes.length; i++) {
+            chars[j++] = HEXDIGITS[(bytes[i] & 0xF0) >> 4];
+            chars[j++] = HEXDIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Calculates the digest of the source and writes it as lower case hex digits to the given writer.
+     */
+    public static void encodeDigestAsHex(String algorithm, Object source, Writer out) throws IOException {
+        byte[] digest = digest(algorithm, source);
+        if (digest != null) {
+            out.write(encodeHex(digest));
+        }
+    }
+
+    private static MessageDigest borrowMessageDigest(String algorithm) {
+        MessageDigest md = messageDigests.get().remove(algorithm);
+        if (md != null) {
+            return md;
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        }
+        catch (NoSuchAlgorithmException e) {
+            throw new IllegalArgumentException("Unsupported digest algorithm " + algorithm, e);
+        }
+    }
+
+    private static void releaseMessageDigest(String algorithm, MessageDigest md) {
+        md.reset();
+        messageDigests.get().put(algorithm, md);
+    }
+
+    private static byte[] getBytes(String str) {
+        try {
+            return str.getBytes(DEFAULT_CHARSET);
+        }
+        catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeByteBuffer(ByteBuffer source, OutputStream out) throws IOException {
+        ByteBuffer buffer = source.duplicate();
+        if (buffer.hasArray()) {
+            out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+            return;
+        }
+        byte[] bytes = new byte[Math.min(BUFFER_SIZE, buffer.remaining())];
+        while (buffer.hasRemaining()) {
+            int len = Math.min(bytes.length, buffer.remaining());
+            buffer.get(bytes, 0, len);
+            out.write(bytes, 0, len);
+        }
+    }
+
+    private static void copy(InputStream input, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int len;
+        while ((len = input.read(buffer)) != -1) {
+            out.write(buffer, 0, len);
+        }
+    }
+
+    private static final class MessageDigestOutputStream extends OutputStream {
+        private final MessageDigest md;
+
+        MessageDigestOutputStream(MessageDigest md) {
+            this.md = md;
+        }
+
+        @Override
+        public void write(int b) {
+            md.update((byte)b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            md.update(b, off, len);
+        }
+    }
+
+    private static final class NonClosingOutputStream extends OutputStream {
+        private final OutputStream out;
+
+        NonClosingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Writes ASCII bytes (Base64 output) as chars.
+     */
+    private static final class AsciiWriterOutputStream extends OutputStream {
+        private final Writer out;
+        private final char[] chars = new char[BUFFER_SIZE];
+
+        AsciiWriterOutputStream(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write((char)(b & 0xFF));
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            while (len > 0) {
+                int chunk = Math.min(len, chars.length);
+                for (int i = 0; i < chunk; i++) {
+                    chars[i] = (char)(b[off + i] & 0xFF);
+                }
+                out.write(chars, 0, chunk);
+                off += chunk;
+                len -= chunk;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+
+    private static final class HexWriterOutputStream extends OutputStream {
+        private final Writer out;
+        private final char[] chars = new char[BUFFER_SIZE];
+        private int pos;
+
+        HexWriterOutputStream(Writer out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (pos + 2 > chars.length) {
+                flushChars();
+            }
+            chars[pos++] = HEXDIGITS[(b & 0xF0) >> 4];
+            chars[pos++] = HEXDIGITS[b & 0x0F];
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = off, n = off + len; i < n; i++) {
+                write(b[i]);
+            }
+        }
+
+        private void flushChars() throws IOException {
+            if (pos > 0) {
+                out.write(chars, 0, pos);
+                pos = 0;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushChars();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import javax.servlet.http.HttpServletRequest
+
+import org.codehaus.groovy.grails.web.servlet.FlashScope
+import org.codehaus.groovy.grails.web.servlet.FlashScopeStorage
+import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes
+import org.codehaus.groovy.grails.web.servlet.GrailsFlashScope
+
+/**
+ * Keeps the values of the flash scope for the next request in an encrypted cookie, so that no HTTP session
+ * is needed and any node can serve the next request.
+ *
+ * The cookie is written each time a value is added, so values have to be added before the response is
+ * committed. The request filter holds the cookie back until the response is redirected or its body is written,
+ * so that a single cookie with all the values is sent. Validation errors stored with flash values aren't kept, they are re-associated only when
+ * the flash scope is stored in the session.
+ *
+ * @since 2.3
+ */
+class CookieFlashScopeStorage implements FlashScopeStorage {
+
+    static final String DEFAULT_COOKIE_NAME = "GRAILS_FLASH"
+
+    EncryptedCookieSerializer serializer
+    String cookieName = DEFAULT_COOKIE_NAME
+
+    FlashScope getFlashScope(HttpServletRequest request) {
+        FlashScope flashScope = (FlashScope)request.getAttribute(GrailsApplicationAttributes.FLASH_SCOPE)
+        if (flashScope != null) {
+            return flashScope
+        }
+
+        GrailsFlashScope grailsFlashScope = new GrailsFlashScope(this)
+        request.setAttribute(GrailsApplicationAttributes.FLASH_SCOPE, grailsFlashScope)
+
+        def values = serializer.readCookie(request, cookieName)
+        if (values instanceof Map) {
+            grailsFlashScope.restore((Map)values)
+            // the values are only for this request, the cookie is written again if values are added
+            serializer.writeCookie(request, cookieName, null)
+        }
+        return grailsFlashScope
+    }
+
+    void store(HttpServletRequest request, FlashScope flashScope) {
+        Map now = flashScope.getNow()
+        HashMap next = [:]
+        for (key in flashScope.keySet()) {
+            if (!now.containsKey(key) && !key.toString().startsWith(GrailsFlashScope.ERRORS_PREFIX)) {
+                next[key] = flashScope.get(key)
+            }
+        }
+        serializer.writeCookie(request, cookieName, next ? next : null)
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensHolder
+
+/**
+ * A tokens holder that records when each token was issued, so that tokens kept by the client expire.
+ *
+ * @since 2.3
+ */
+class CookieSynchronizerTokensHolder extends SynchronizerTokensHolder {
+
+    Map<UUID, Long> issueTimes = [:]
+
+    @Override
+    String generateToken(String url) {
+        String token = super.generateToken(url)
+        issueTimes[UUID.fromString(token)] = System.currentTimeMillis()
+        return token
+    }
+
+    @Override
+    void resetToken(String url) {
+        Set<UUID> tokens = currentTokens[url]
+        if (tokens) {
+            issueTimes.keySet().removeAll(tokens)
+        }
+        super.resetToken(url)
+    }
+
+    @Override
+    void resetToken(String url, String token) {
+        super.resetToken(url, token)
+        try {
+            issueTimes.remove(UUID.fromString(token))
+        }
+        catch (IllegalArgumentException ignored) {}
+    }
+
+    /**
+     * @param token The token
+     * @return The time in milliseconds the token was issued at or null if the token isn't known
+     */
+    Long getIssueTime(String token) {
+        try {
+            issueTimes[UUID.fromString(token)]
+        }
+        catch (IllegalArgumentException e) {
+            null
+        }
+    }
+
+    /**
+     * Removes the tokens issued before the given time.
+     *
+     * @param time The time in milliseconds
+     */
+    void removeIssuedBefore(long time) {
+        Set<UUID> expired = issueTimes.findAll { UUID uuid, Long issued -> issued < time }.keySet()
+        if (!expired) {
+            return
+        }
+        for (Iterator<Map.Entry<String, Set<UUID>>> i = currentTokens.entrySet().iterator(); i.hasNext();) {
+            Set<UUID> tokens = i.next().value
+            tokens.removeAll(expired)
+            if (tokens.isEmpty()) {
+                i.remove()
+            }
+        }
+        issueTimes.keySet().removeAll(expired)
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import javax.servlet.http.HttpServletRequest
+
+import org.codehaus.groovy.grails.web.servlet.mvc.InMemoryUsedSynchronizerTokensRegistry
+import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensHolder
+import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensStore
+import org.codehaus.groovy.grails.web.servlet.mvc.UsedSynchronizerTokensRegistry
+
+/**
+ * Keeps the tokens used to handle double-submits in an encrypted cookie instead of the HTTP session.
+ *
+ * The client can send a cookie it was given earlier again, or the same cookie in concurrent requests, so the
+ * tokens that were accepted are also recorded in a {@link UsedSynchronizerTokensRegistry} and only accepted once.
+ * The cookie records when each token was issued and tokens older than {@link #tokenTimeToLive} are rejected, so
+ * the registry only has to remember the tokens used within that time. With several nodes the registry must be
+ * backed by a store the nodes share, the default registry only sees the requests of this node.
+ *
+ * The cookie is written when the g:form tag generates a token, so the form must be rendered before the response
+ * is committed. Saving tokens fails with an IllegalStateException when the cookie can't be written.
+ *
+ * @since 2.3
+ */
+class CookieSynchronizerTokensStore implements SynchronizerTokensStore {
+
+    static final String DEFAULT_COOKIE_NAME = "GRAILS_TOKENS"
+    static final long DEFAULT_TOKEN_TIME_TO_LIVE = 60 * 60 * 1000L
+
+    private static final String HOLDER_ATTRIBUTE = CookieSynchronizerTokensStore.name + ".HOLDER"
+
+    EncryptedCookieSerializer serializer
+    String cookieName = DEFAULT_COOKIE_NAME
+    UsedSynchronizerTokensRegistry usedTokensRegistry = new InMemoryUsedSynchronizerTokensRegistry()
+    /** The time in milliseconds a token is accepted for after it was issued */
+    long tokenTimeToLive = DEFAULT_TOKEN_TIME_TO_LIVE
+
+    SynchronizerTokensHolder load(HttpServletRequest request) {
+        def tokensHolder = request.getAttribute(HOLDER_ATTRIBUTE)
+        if (tokensHolder == null) {
+            tokensHolder = serializer.readCookie(request, cookieName)
+            if (!(tokensHolder instanceof CookieSynchronizerTokensHolder)) {
+                return null
+            }
+            ((CookieSynchronizerTokensHolder)tokensHolder).removeIssuedBefore(System.currentTimeMillis() - tokenTimeToLive)
+            request.setAttribute(HOLDER_ATTRIBUTE, tokensHolder)
+        }
+        return (SynchronizerTokensHolder)tokensHolder
+    }
+
+    SynchronizerTokensHolder loadOrCreate(HttpServletRequest request) {
+        SynchronizerTokensHolder tokensHolder = load(request)
+        if (tokensHolder == null) {
+            tokensHolder = new CookieSynchronizerTokensHolder()
+            request.setAttribute(HOLDER_ATTRIBUTE, tokensHolder)
+        }
+        return tokensHolder
+    }
+
+    void save(HttpServletRequest request, SynchronizerTokensHolder tokensHolder) {
+        if (!serializer.writeCookie(request, cookieName, tokensHolder.isEmpty() ? null : tokensHolder)) {
+            // a form with a token that isn't stored could never be submitted
+            throw new IllegalStateException("Form tokens can't be stored in cookie [$cookieName], the response is " +
+                "already committed or the tokens are larger than the maximum cookie size")
+        }
+    }
+
+    boolean useToken(HttpServletRequest request, SynchronizerTokensHolder tokensHolder, String url, String token) {
+        boolean valid = tokensHolder.isValid(url, token)
+        Long issued = tokensHolder instanceof CookieSynchronizerTokensHolder ?
+            ((CookieSynchronizerTokensHolder)tokensHolder).getIssueTime(token) : null
+        tokensHolder.resetToken(url, token)
+        save(request, tokensHolder)
+        if (!valid || issued == null) {
+            return false
+        }
+        long expiresAt = issued + tokenTimeToLive
+        return expiresAt >= System.currentTimeMillis() && usedTokensRegistry.markUsed(token, expiresAt)
+    }
+}
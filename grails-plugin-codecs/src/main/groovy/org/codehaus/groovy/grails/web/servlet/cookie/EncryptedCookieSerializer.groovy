@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import java.security.GeneralSecurityException
+import java.security.MessageDigest
+import java.security.SecureRandom
+
+import javax.crypto.Cipher
+import javax.crypto.Mac
+import javax.crypto.spec.IvParameterSpec
+import javax.crypto.spec.SecretKeySpec
+import javax.servlet.http.Cookie
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+
+import org.apache.commons.codec.binary.Base64
+import org.apache.commons.logging.Log
+import org.apache.commons.logging.LogFactory
+import org.codehaus.groovy.grails.plugins.codecs.SHA256BytesCodec
+import org.codehaus.groovy.grails.web.servlet.DeferredCookieResponseWrapper
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.codehaus.groovy.grails.web.util.WebUtils
+
+/**
+ * Serializes values to cookies that the client can neither read nor modify. Values are encrypted with AES
+ * and signed with HMAC-SHA256, both keys are derived from a server side secret shared by all nodes.
+ *
+ * A value that doesn't fit in {@link #maxSize} characters is not written, browsers drop cookies larger than 4KB.
+ *
+ * @since 2.3
+ */
+class EncryptedCookieSerializer {
+
+    static final int DEFAULT_MAX_SIZE = 4000
+
+    private static final Log LOG = LogFactory.getLog(EncryptedCookieSerializer)
+    private static final String CIPHER = "AES/CBC/PKCS5Padding"
+    private static final String MAC = "HmacSHA256"
+    private static final int IV_LENGTH = 16
+    private static final int MAC_LENGTH = 32
+
+    private final SecretKeySpec encryptionKey
+    private final SecretKeySpec signatureKey
+    private final SecureRandom random = new SecureRandom()
+
+    int maxSize = DEFAULT_MAX_SIZE
+    boolean secure
+
+    /**
+     * @param secret The secret the keys are derived from
+     */
+    EncryptedCookieSerializer(String secret) {
+        if (!secret) {
+            throw new IllegalArgumentException("A secret is required to encrypt cookies")
+        }
+        byte[] encryptionDigest = SHA256BytesCodec.encode(secret + ":encryption")
+        encryptionKey = new SecretKeySpec(encryptionDigest, 0, 16, "AES")
+        signatureKey = new SecretKeySpec(SHA256BytesCodec.encode(secret + ":signature"), MAC)
+    }
+
+    /**
+     * @param value The value
+     * @return The encrypted and signed value or null if it can't be serialized or is larger than {@link #maxSize}
+     */
+    String serialize(Serializable value) {
+        byte[] serialized
+        try {
+            def bytes = new ByteArrayOutputStream()
+            bytes.withObjectOutputStream { ObjectOutputStream out -> out.writeObject(value) }
+            serialized = bytes.toByteArray()
+        }
+        catch (IOException e) {
+            LOG.warn("Value can't be stored in a cookie: ${e.message}")
+            return null
+        }
+
+        byte[] iv = new byte[IV_LENGTH]
+        random.nextBytes(iv)
+        Cipher cipher = Cipher.getInstance(CIPHER)
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new IvParameterSpec(iv))
+        byte[] encrypted = cipher.doFinal(serialized)
+
+        byte[] message = new byte[IV_LENGTH + encrypted.length + MAC_LENGTH]
+        System.arraycopy(iv, 0, message, 0, IV_LENGTH)
+        System.arraycopy(encrypted, 0, message, IV_LENGTH, encrypted.length)
+        System.arraycopy(sign(message, IV_LENGTH + encrypted.length), 0, message, IV_LENGTH + encrypted.length, MAC_LENGTH)
+
+        String encoded = Base64.encodeBase64URLSafeString(message)
+        if (encoded.length() > maxSize) {
+            LOG.warn("Value of ${encoded.length()} characters is larger than the maximum cookie size of $maxSize, it won't be stored")
+            return null
+        }
+        return encoded
+    }
+
+    /**
+     * @param value The encrypted and signed value
+     * @return The value or null if the signature doesn't match or the value can't be read
+     */
+    Object deserialize(String value) {
+        if (!value || value.length() > maxSize) {
+            return null
+        }
+
+        byte[] message = Base64.decodeBase64(value)
+        int encryptedLength = message.length - IV_LENGTH - MAC_LENGTH
+        if (encryptedLength <= 0) {
+            return null
+        }
+        byte[] signature = new byte[MAC_LENGTH]
+        System.arraycopy(message, IV_LENGTH + encryptedLength, signature, 0, MAC_LENGTH)
+        if (!MessageDigest.isEqual(signature, sign(message, IV_LENGTH + encryptedLength))) {
+            LOG.debug("Ignoring cookie with an invalid signature")
+            return null
+        }
+
+        try {
+            Cipher cipher = Cipher.getInstance(CIPHER)
+            cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new IvParameterSpec(message, 0, IV_LENGTH))
+            byte[] serialized = cipher.doFinal(message, IV_LENGTH, encryptedLength)
+            return new ByteArrayInputStream(serialized).withObjectInputStream(Thread.currentThread().contextClassLoader) { ObjectInputStream input ->
+                input.readObject()
+            }
+        }
+        catch (GeneralSecurityException e) {
+            LOG.debug("Ignoring cookie that can't be decrypted: ${e.message}")
+        }
+        catch (IOException e) {
+            LOG.debug("Ignoring cookie that can't be read: ${e.message}")
+        }
+        catch (ClassNotFoundException e) {
+            LOG.debug("Ignoring cookie that can't be read: ${e.message}")
+        }
+        return null
+    }
+
+    /**
+     * @param request The request
+     * @param name The name of the cookie
+     * @return The value of the cookie or null if there is no valid cookie
+     */
+    Object readCookie(HttpServletRequest request, String name) {
+        Cookie cookie = request.cookies?.find { Cookie c -> c.name == name }
+        return cookie ? deserialize(cookie.value) : null
+    }
+
+    /**
+     * Adds the cookie to the response of the request, unless the response is committed. The cookie is
+     * removed when the value can't be stored. When the response is wrapped in a {@link DeferredCookieResponseWrapper}
+     * only the last value written in the request is sent.
+     *
+     * @param request The request
+     * @param name The name of the cookie
+     * @param value The value or null to remove the cookie
+     * @return Whether the value was stored
+     */
+    boolean writeCookie(HttpServletRequest request, String name, Serializable value) {
+        HttpServletResponse response = GrailsWebRequest.lookup(request)?.currentResponse
+        if (response == null || response.committed) {
+            LOG.warn("Cookie [$name] can't be written, the response is already committed")
+            return false
+        }
+
+        String serialized = value == null ? null : serialize(value)
+        Cookie cookie = new Cookie(name, serialized ?: "")
+        cookie.path = request.contextPath ?: "/"
+        cookie.httpOnly = true
+        cookie.secure = secure
+        if (serialized == null) {
+            cookie.maxAge = 0
+        }
+        DeferredCookieResponseWrapper cookieResponse = WebUtils.getNativeResponse(response, DeferredCookieResponseWrapper)
+        if (cookieResponse != null) {
+            cookieResponse.deferCookie(cookie)
+        }
+        else {
+            response.addCookie(cookie)
+        }
+        return serialized != null || value == null
+    }
+
+    private byte[] sign(byte[] message, int length) {
+        Mac mac = Mac.getInstance(MAC)
+        mac.init(signatureKey)
+        mac.update(message, 0, length)
+        return mac.doFinal()
+    }
+}
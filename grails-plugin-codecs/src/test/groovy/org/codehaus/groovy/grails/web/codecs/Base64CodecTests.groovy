@@ -46,6 +46,43 @@ class Base64CodecTests extends GroovyTestCase {
         assertNull codec.decode(null)
     }
 
+    void testEncodeStreamingSources() {
+        def expectedResult = codec.encode(dataPrimitive)
+
+        assertEquals(expectedResult, codec.encode(new ByteArrayInputStream(dataPrimitive)))
+        assertEquals(expectedResult, codec.encode(java.nio.ByteBuffer.wrap(dataPrimitive)))
+        assertEquals(expectedResult, codec.encode(new ByteArrayResource(dataPrimitive)))
+
+        def out = new ByteArrayOutputStream()
+        codec.encodeToStream(new ByteArrayInputStream(dataPrimitive), out)
+        assertEquals(expectedResult, new String(out.toByteArray(), 'US-ASCII'))
+
+        def writer = new StringWriter()
+        codec.encodeToWriter(dataPrimitive, writer)
+        assertEquals(expectedResult, writer.toString())
+    }
+
+    void testEncodeListsAndArraysAsStrings() {
+        assertEquals(codec.encode('[1, 2, 3]'), codec.encode([1, 2, 3]))
+        assertEquals(codec.encode('[a, b]'), codec.encode(['a', 'b']))
+        assertEquals(codec.encode('[a, b]'), codec.encode(['a', 'b'] as String[]))
+        assertEquals(codec.encode('[1, 2]'), codec.encode([1, 2] as int[]))
+
+        def writer = new StringWriter()
+        codec.encodeToWriter(['a', 'b'], writer)
+        assertEquals(codec.encode('[a, b]'), writer.toString())
+    }
+
+    void testDecodeListOfStrings() {
+        // the brackets of the string form aren't Base64 characters and are skipped
+        assertEquals('what', new String(codec.decode(['d2hhdA==']), 'US-ASCII'))
+    }
+
+    void testDecodeStream() {
+        byte[] result = codec.decode(new ByteArrayInputStream('d2hhdA=='.getBytes('US-ASCII')))
+        assertEquals('what', new String(result, 'US-ASCII'))
+    }
+
     void testRountrip() {
         assertEquals(dataPrimitive, codec.decode(codec.encode(dataPrimitive)))
         assertEquals(dataWrapper, codec.decode(codec.encode(dataWrapper)))
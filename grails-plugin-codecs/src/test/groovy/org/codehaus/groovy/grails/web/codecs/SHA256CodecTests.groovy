@@ -21,6 +21,21 @@ class SHA256CodecTests extends GroovyTestCase {
         assertNull codec.encode(null)
     }
 
+    void testEncodeStreamingSources() {
+        def expectedResult = '7f83b1657ff1fc53b92dc18148a1d65dfc2d4b1fa3d677284addd200126d9069'
+        byte[] data = 'Hello World!'.getBytes('UTF-8')
+
+        assertEquals(expectedResult, codec.encode(new ByteArrayInputStream(data)))
+        assertEquals(expectedResult, codec.encode(java.nio.ByteBuffer.wrap(data)))
+
+        def writer = new StringWriter()
+        codec.encodeToWriter(new ByteArrayInputStream(data), writer)
+        assertEquals(expectedResult, writer.toString())
+
+        // the per-thread MessageDigest is reset between calls
+        assertEquals(expectedResult, codec.encode(data))
+    }
+
     void testDecode() {
         shouldFail {
             codec.decode [1,2,3,4,5]
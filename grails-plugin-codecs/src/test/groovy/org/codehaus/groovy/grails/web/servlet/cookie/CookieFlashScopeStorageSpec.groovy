@@ -0,0 +1,104 @@
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import javax.servlet.http.HttpServletResponse
+
+import org.codehaus.groovy.grails.web.servlet.DeferredCookieResponseWrapper
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.codehaus.groovy.grails.web.util.WebUtils
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.mock.web.MockServletContext
+
+import spock.lang.Specification
+
+class CookieFlashScopeStorageSpec extends Specification {
+
+    EncryptedCookieSerializer serializer = new EncryptedCookieSerializer("secret")
+    CookieFlashScopeStorage storage = new CookieFlashScopeStorage(serializer: serializer)
+
+    void cleanup() {
+        WebUtils.clearGrailsWebRequest()
+    }
+
+    void "Test values are serialized and deserialized"() {
+        when:
+        String value = serializer.serialize([message: 'Saved'])
+
+        then:
+        serializer.deserialize(value) == [message: 'Saved']
+        new EncryptedCookieSerializer("other").deserialize(value) == null
+    }
+
+    void "Test a modified value is rejected"() {
+        given:
+        String value = serializer.serialize([message: 'Saved'])
+        String modified = value.substring(0, 10) + (value[10] == 'A' ? 'B' : 'A') + value.substring(11)
+
+        expect:
+        serializer.deserialize(modified) == null
+    }
+
+    void "Test a value larger than the maximum size isn't serialized"() {
+        given:
+        serializer.maxSize = 100
+
+        expect:
+        serializer.serialize([message: 'x' * 200]) == null
+    }
+
+    void "Test flash values are available in the next request"() {
+        given:
+        def request = new MockHttpServletRequest()
+        def response = bindRequest(request)
+
+        when:
+        def flash = storage.getFlashScope(request)
+        flash.next()
+        flash.message = 'Saved'
+
+        then:
+        response.getCookie(CookieFlashScopeStorage.DEFAULT_COOKIE_NAME)
+
+        when:
+        WebUtils.clearGrailsWebRequest()
+        request = new MockHttpServletRequest()
+        request.setCookies(response.getCookie(CookieFlashScopeStorage.DEFAULT_COOKIE_NAME))
+        def nextResponse = bindRequest(request)
+        flash = storage.getFlashScope(request)
+        flash.next()
+
+        then:
+        flash.message == 'Saved'
+        nextResponse.getCookie(CookieFlashScopeStorage.DEFAULT_COOKIE_NAME).maxAge == 0
+    }
+
+    void "Test the cookie is sent once when several values are added"() {
+        given:
+        def request = new MockHttpServletRequest()
+        def response = new MockHttpServletResponse()
+        def cookieResponse = new DeferredCookieResponseWrapper(response)
+        bindRequest(request, cookieResponse)
+
+        when:
+        def flash = storage.getFlashScope(request)
+        flash.next()
+        flash.message = 'Saved'
+        flash.title = 'Book'
+
+        then:
+        response.cookies.length == 0
+
+        when:
+        cookieResponse.sendRedirect('/book/list')
+
+        then:
+        response.cookies*.name == [CookieFlashScopeStorage.DEFAULT_COOKIE_NAME]
+        serializer.deserialize(response.cookies[0].value) == [message: 'Saved', title: 'Book']
+    }
+
+    private HttpServletResponse bindRequest(MockHttpServletRequest request, HttpServletResponse response = new MockHttpServletResponse()) {
+        def webRequest = new GrailsWebRequest(request, response, new MockServletContext())
+        WebUtils.storeGrailsWebRequest(webRequest)
+        return response
+    }
+}
@@ -0,0 +1,125 @@
+package org.codehaus.groovy.grails.web.servlet.cookie
+
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.codehaus.groovy.grails.web.servlet.mvc.InMemoryUsedSynchronizerTokensRegistry
+import org.codehaus.groovy.grails.web.util.WebUtils
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.mock.web.MockServletContext
+
+import spock.lang.Specification
+
+class CookieSynchronizerTokensStoreSpec extends Specification {
+
+    EncryptedCookieSerializer serializer = new EncryptedCookieSerializer("secret")
+    InMemoryUsedSynchronizerTokensRegistry registry = new InMemoryUsedSynchronizerTokensRegistry()
+    CookieSynchronizerTokensStore store = new CookieSynchronizerTokensStore(serializer: serializer, usedTokensRegistry: registry)
+
+    void cleanup() {
+        WebUtils.clearGrailsWebRequest()
+    }
+
+    void "Test a token is only accepted once when the cookie is sent again"() {
+        given:
+        def (String token, cookie) = issueToken()
+
+        when: "the form is submitted"
+        def submit = submitRequest(cookie)
+
+        then:
+        store.useToken(submit, store.load(submit), '/book/save', token)
+
+        when: "the form is submitted again, concurrently or later, with the same cookie"
+        WebUtils.clearGrailsWebRequest()
+        def replay = submitRequest(cookie)
+
+        then:
+        store.load(replay).isValid('/book/save', token)
+        !store.useToken(replay, store.load(replay), '/book/save', token)
+        registry.size() == 1
+    }
+
+    void "Test a token used on one node is rejected by another node sharing the registry"() {
+        given:
+        def otherNode = new CookieSynchronizerTokensStore(serializer: new EncryptedCookieSerializer("secret"), usedTokensRegistry: registry)
+        def (String token, cookie) = issueToken()
+
+        when:
+        def submit = submitRequest(cookie)
+
+        then:
+        store.useToken(submit, store.load(submit), '/book/save', token)
+
+        when:
+        WebUtils.clearGrailsWebRequest()
+        def replay = submitRequest(cookie)
+
+        then:
+        otherNode.load(replay).isValid('/book/save', token)
+        !otherNode.useToken(replay, otherNode.load(replay), '/book/save', token)
+    }
+
+    void "Test an expired token is rejected"() {
+        given: "a token issued longer ago than the time to live"
+        store.tokenTimeToLive = 60000
+        def request = new MockHttpServletRequest()
+        def response = bindRequest(request)
+        def tokensHolder = (CookieSynchronizerTokensHolder)store.loadOrCreate(request)
+        String token = tokensHolder.generateToken('/book/save')
+        tokensHolder.issueTimes[UUID.fromString(token)] = System.currentTimeMillis() - 120000
+
+        expect:
+        !store.useToken(request, tokensHolder, '/book/save', token)
+
+        when: "the cookie with the token is sent"
+        String otherToken = tokensHolder.generateToken('/book/save')
+        tokensHolder.issueTimes[UUID.fromString(otherToken)] = System.currentTimeMillis() - 120000
+        store.save(request, tokensHolder)
+        WebUtils.clearGrailsWebRequest()
+        def submit = submitRequest(response.getCookie(CookieSynchronizerTokensStore.DEFAULT_COOKIE_NAME))
+
+        then: "the token is removed when the cookie is read"
+        store.load(submit).isEmpty()
+        !store.useToken(submit, store.load(submit), '/book/save', otherToken)
+        registry.size() == 0
+    }
+
+    private List issueToken() {
+        def request = new MockHttpServletRequest()
+        def response = bindRequest(request)
+        def tokensHolder = store.loadOrCreate(request)
+        String token = tokensHolder.generateToken('/book/save')
+        store.save(request, tokensHolder)
+        WebUtils.clearGrailsWebRequest()
+        return [token, response.getCookie(CookieSynchronizerTokensStore.DEFAULT_COOKIE_NAME)]
+    }
+
+    void "Test saving tokens fails when the response is committed"() {
+        given:
+        def request = new MockHttpServletRequest()
+        def response = bindRequest(request)
+        def tokensHolder = store.loadOrCreate(request)
+        tokensHolder.generateToken('/book/save')
+        response.setCommitted(true)
+
+        when:
+        store.save(request, tokensHolder)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    private MockHttpServletRequest submitRequest(cookie) {
+        def request = new MockHttpServletRequest()
+        request.setCookies(cookie)
+        bindRequest(request)
+        return request
+    }
+
+    private MockHttpServletResponse bindRequest(MockHttpServletRequest request) {
+        def response = new MockHttpServletResponse()
+        def webRequest = new GrailsWebRequest(request, response, new MockServletContext())
+        WebUtils.storeGrailsWebRequest(webRequest)
+        return response
+    }
+}
@@ -29,11 +29,20 @@ import org.codehaus.groovy.grails.web.errors.GrailsExceptionResolver
 import org.codehaus.groovy.grails.web.filters.HiddenHttpMethodFilter
 import org.codehaus.groovy.grails.web.metaclass.RedirectDynamicMethod
 import org.codehaus.groovy.grails.web.multipart.ContentLengthAwareCommonsMultipartResolver
+import org.codehaus.groovy.grails.web.multipart.StreamingMultipartResolver
+import org.codehaus.groovy.grails.web.servlet.FlashScopeStorage
 import org.codehaus.groovy.grails.web.servlet.GrailsControllerHandlerMapping
+import org.codehaus.groovy.grails.web.servlet.InMemoryFlashScopeStorage
+import org.codehaus.groovy.grails.web.servlet.cookie.CookieFlashScopeStorage
+import org.codehaus.groovy.grails.web.servlet.cookie.CookieSynchronizerTokensStore
+import org.codehaus.groovy.grails.web.servlet.cookie.EncryptedCookieSerializer
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequestFilter
+import org.codehaus.groovy.grails.web.servlet.mvc.InMemoryUsedSynchronizerTokensRegistry
 import org.codehaus.groovy.grails.web.servlet.mvc.MixedGrailsControllerHelper
 import org.codehaus.groovy.grails.web.servlet.mvc.RedirectEventListener
 import org.codehaus.groovy.grails.web.servlet.mvc.SimpleGrailsController
+import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensStore
+import org.codehaus.groovy.grails.web.servlet.mvc.UsedSynchronizerTokensRegistry
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
 import org.springframework.context.ApplicationContext
 import org.springframework.web.servlet.mvc.SimpleControllerHandlerAdapter
@@ -65,7 +74,21 @@ class ControllersGrailsPlugin {
         }
 
         if (!application.config.grails.disableCommonsMultipart) {
-            multipartResolver(ContentLengthAwareCommonsMultipartResolver)
+            def multipartConfig = application.config.grails.web.multipart
+            if (multipartConfig.streaming) {
+                multipartResolver(StreamingMultipartResolver) {
+                    if (multipartConfig.maxFileSize) {
+                        maxUploadSizePerFile = multipartConfig.maxFileSize
+                    }
+                    if (multipartConfig.maxRequestSize) {
+                        maxUploadSize = multipartConfig.maxRequestSize
+                    }
+                    resolveLazily = multipartConfig.resolveLazily ? true : false
+                }
+            }
+            else {
+                multipartResolver(ContentLengthAwareCommonsMultipartResolver)
+            }
         }
 
         grailsControllerHelper(MixedGrailsControllerHelper) { bean->
@@ -91,6 +114,40 @@ class ControllersGrailsPlugin {
             stripLeadingSlash = false
         }
 
+        def webConfig = application.config.grails.web
+        String flashStorage = webConfig.flash.storage ?: null
+        String tokensStorage = webConfig.synchronizerTokens.storage ?: null
+
+        if (flashStorage == 'cookie' || tokensStorage == 'cookie') {
+            String secret = webConfig.cookie.secret ?: null
+            if (!secret) {
+                throw new IllegalStateException("Cookie storage requires a secret, set grails.web.cookie.secret in Config.groovy")
+            }
+            grailsCookieSerializer(EncryptedCookieSerializer, secret) {
+                maxSize = webConfig.cookie.maxSize ?: EncryptedCookieSerializer.DEFAULT_MAX_SIZE
+                secure = webConfig.cookie.secure ? true : false
+            }
+        }
+
+        if (flashStorage == 'cookie') {
+            "${FlashScopeStorage.BEAN_NAME}"(CookieFlashScopeStorage) {
+                serializer = ref('grailsCookieSerializer')
+            }
+        }
+        else if (flashStorage == 'memory') {
+            "${FlashScopeStorage.BEAN_NAME}"(InMemoryFlashScopeStorage)
+        }
+
+        if (tokensStorage == 'cookie') {
+            // with several nodes, redefine the registry with a store the nodes share
+            "${UsedSynchronizerTokensRegistry.BEAN_NAME}"(InMemoryUsedSynchronizerTokensRegistry)
+            "${SynchronizerTokensStore.BEAN_NAME}"(CookieSynchronizerTokensStore) {
+                serializer = ref('grailsCookieSerializer')
+                usedTokensRegistry = ref(UsedSynchronizerTokensRegistry.BEAN_NAME)
+                tokenTimeToLive = webConfig.synchronizerTokens.timeToLive ?: CookieSynchronizerTokensStore.DEFAULT_TOKEN_TIME_TO_LIVE
+            }
+        }
+
         def defaultScope = application.config.grails.controllers.defaultScope ?: 'prototype'
         final pluginManager = manager
 
@@ -251,6 +308,9 @@ class ControllersGrailsPlugin {
             // register the necessary beans with the given app ctx
             beanDefinitions.registerBeans(event.ctx)
             controllerClass.initialize()
+            if (context.containsBean('grailsControllerHelper')) {
+                context.getBean('grailsControllerHelper').resetControllerInstanceFactory()
+            }
         }
     }
 }
@@ -19,6 +19,7 @@ import javax.servlet.http.HttpServletRequest
 import org.codehaus.groovy.grails.web.servlet.mvc.AbstractTokenResponseHandler
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
 import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensHolder
+import org.codehaus.groovy.grails.web.servlet.mvc.SynchronizerTokensStore
 import org.codehaus.groovy.grails.web.servlet.mvc.TokenResponseHandler
 
 /**
@@ -47,8 +48,7 @@ class WithFormMethod {
      */
     TokenResponseHandler withForm(GrailsWebRequest webRequest, Closure callable) {
         TokenResponseHandler handler
-        if (isTokenValid(webRequest)) {
-            resetToken(webRequest)
+        if (isTokenValid(webRequest) && resetToken(webRequest)) {
             handler = new ValidResponseHandler(callable?.call())
         }
         else {
@@ -66,7 +66,7 @@ class WithFormMethod {
      */
     protected synchronized boolean isTokenValid(GrailsWebRequest webRequest) {
         final request = webRequest.getCurrentRequest()
-        SynchronizerTokensHolder tokensHolderInSession = request.getSession(false)?.getAttribute(SynchronizerTokensHolder.HOLDER)
+        SynchronizerTokensHolder tokensHolderInSession = SynchronizerTokensHolder.lookupStore(request).load(request)
         if (!tokensHolderInSession) return false
 
         String tokenInRequest = webRequest.params[SynchronizerTokensHolder.TOKEN_KEY]
@@ -85,17 +85,20 @@ class WithFormMethod {
 
     /**
      * Resets the token in the request
+     *
+     * @return Whether the token hadn't been used by another request
      */
-    protected synchronized resetToken(GrailsWebRequest webRequest) {
+    protected synchronized boolean resetToken(GrailsWebRequest webRequest) {
         final request = webRequest.getCurrentRequest()
-        SynchronizerTokensHolder tokensHolderInSession = request.getSession(false)?.getAttribute(SynchronizerTokensHolder.HOLDER)
+        SynchronizerTokensStore store = SynchronizerTokensHolder.lookupStore(request)
+        SynchronizerTokensHolder tokensHolderInSession = store.load(request)
+        if (!tokensHolderInSession) return false
+
         String urlInRequest = webRequest.params[SynchronizerTokensHolder.TOKEN_URI]
         String tokenInRequest = webRequest.params[SynchronizerTokensHolder.TOKEN_KEY]
+        if (!urlInRequest || !tokenInRequest) return false
 
-        if (urlInRequest && tokenInRequest) {
-            tokensHolderInSession.resetToken(urlInRequest, tokenInRequest)
-        }
-        if (tokensHolderInSession.isEmpty()) request.getSession(false)?.removeAttribute(SynchronizerTokensHolder.HOLDER)
+        return store.useToken(request, tokensHolderInSession, urlInRequest, tokenInRequest)
     }
 }
 
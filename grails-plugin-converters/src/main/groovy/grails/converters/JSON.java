@@ -186,7 +186,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
                 writer.value(o);
             }
             else {
-                if (referenceStack.contains(o)) {
+                if (isOnReferenceStack(o)) {
                     handleCircularRelationship(o);
                 }
                 else {
@@ -208,6 +208,24 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
         }
     }
 
+    /**
+     * Checks whether the object is currently being converted. Uses identity rather than equals() so that
+     * equal but distinct objects aren't treated as circular references and no equals() implementations
+     * (which may initialize lazy associations) are invoked.
+     */
+    protected boolean isOnReferenceStack(Object o) {
+        return indexOfReference(o) > -1;
+    }
+
+    protected int indexOfReference(Object o) {
+        for (int i = referenceStack.size() - 1; i >= 0; i--) {
+            if (referenceStack.get(i) == o) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
     public ObjectMarshaller<JSON> lookupObjectMarshaller(Object target) {
         return config.getMarshaller(target);
     }
@@ -372,7 +390,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
                     Map<String, Object> props = new HashMap<String, Object>();
                     props.put("class", o.getClass());
                     StringBuilder ref = new StringBuilder();
-                    int idx = referenceStack.indexOf(o);
+                    int idx = indexOfReference(o);
                     for (int i = referenceStack.size() - 1; i > idx; i--) {
                         ref.append("../");
                     }
@@ -388,7 +406,7 @@ public class JSON extends AbstractConverter<JSONWriter> implements IncludeExclud
             case PATH:
                 Map<String, Object> props = new HashMap<String, Object>();
                 props.put("class", o.getClass());
-                int idx = referenceStack.indexOf(o);
+                int idx = indexOfReference(o);
                 PathCapturingJSONWriterWrapper pcWriter = (PathCapturingJSONWriterWrapper) writer;
                 props.put("ref", String.format("root%s", pcWriter.getStackReference(idx)));
                 value(props);
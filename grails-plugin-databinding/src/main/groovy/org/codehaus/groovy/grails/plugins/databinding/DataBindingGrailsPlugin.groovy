@@ -82,10 +82,17 @@ class DataBindingGrailsPlugin {
 
         "${DataBindingSourceRegistry.BEAN_NAME}"(DefaultDataBindingSourceRegistry)
 
-        xmlDataBindingSourceCreator(XmlDataBindingSourceCreator)
+        // streamingXmlCollections defaults to FALSE
+        def streamingXmlCollections = Boolean.TRUE.equals(databindingConfig?.streamingXmlCollections)
+
+        xmlDataBindingSourceCreator(XmlDataBindingSourceCreator) {
+            streamingCollectionBinding = streamingXmlCollections
+        }
         jsonDataBindingSourceCreator(JsonDataBindingSourceCreator)
         halJsonDataBindingSourceCreator(HalJsonDataBindingSourceCreator)
-        halXmlDataBindingSourceCreator(HalXmlDataBindingSourceCreator)
+        halXmlDataBindingSourceCreator(HalXmlDataBindingSourceCreator) {
+            streamingCollectionBinding = streamingXmlCollections
+        }
         
         if(Boolean.TRUE.equals(databindingConfig?.enableSpringEventAdapter)) {
             grailsBindEventListenerAdapter(BindEventListenerAdapter)
@@ -158,11 +158,63 @@ class DataSourceGrailsPlugin {
 
         Class dsClass = pooled ? TomcatDataSource : readOnly ? ReadOnlyDriverManagerDataSource : DriverManagerDataSource
 
-        def bean = "$unproxiedName"(dsClass, parentConfig)
+        // with replicas the configured data source is the primary target of a routing data source
+        def replicaConfigs = ds.replicas
+        boolean routed = replicaConfigs instanceof Map && replicaConfigs
+        String targetName = routed ? "dataSourcePrimary$suffix" : unproxiedName
+
+        def bean = "$targetName"(dsClass, parentConfig)
         if (pooled) {
             bean.destroyMethod = "close"
         }
 
+        if (routed) {
+            def replicaRefs = [:]
+            replicaConfigs.each { String replicaName, rds ->
+                if (!(rds instanceof Map)) {
+                    return
+                }
+                if (!rds.url) {
+                    throw new GrailsConfigurationException(
+                        "No url specified for replica [$replicaName] of $desc in DataSource.groovy")
+                }
+
+                String replicaBeanName = "dataSourceReplica${suffix}_$replicaName"
+                log.info "[RuntimeConfiguration] Configuring replica [$replicaName] of $desc"
+
+                String replicaPassword
+                if (rds.password) {
+                    replicaPassword = resolvePassword([password: rds.password,
+                        passwordEncryptionCodec: rds.passwordEncryptionCodec ?: ds.passwordEncryptionCodec], application)
+                }
+
+                "$replicaBeanName"(TomcatDataSource) { replicaBean ->
+                    replicaBean.parent = 'abstractGrailsDataSourceBean' + suffix
+                    replicaBean.destroyMethod = "close"
+                    url = rds.url
+                    defaultReadOnly = true
+                    if (rds.username) {
+                        username = rds.username
+                    }
+                    if (replicaPassword != null) {
+                        password = replicaPassword
+                    }
+                    if (rds.properties instanceof Map) {
+                        for (entry in rds.properties) {
+                            delegate."${entry.key}" = entry.value
+                        }
+                    }
+                }
+                replicaRefs[replicaName] = ref(replicaBeanName)
+            }
+
+            "$unproxiedName"(ReadReplicaRoutingDataSource) {
+                primary = ref(targetName)
+                replicas = replicaRefs
+                balancing = ds.replicaBalancing ?: ReadReplicaRoutingDataSource.ROUND_ROBIN
+            }
+        }
+
         "$lazyName"(LazyConnectionDataSourceProxy, ref(unproxiedName))
         "$datasourceName"(TransactionAwareDataSourceProxy, ref(lazyName))
     }
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins.datasource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sql.DataSource;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.tomcat.jdbc.pool.DataSourceProxy;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Routes connections for read-only transactions to one of a group of replica DataSources and all other
+ * connections to the primary DataSource.
+ *
+ * The read-only flag of the current transaction is only known once the transaction has been started, so
+ * this DataSource should be wrapped by a LazyConnectionDataSourceProxy as the DataSource plugin does.
+ * If a replica connection can't be obtained the connection is taken from the primary DataSource.
+ *
+ * @since 2.3
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements InitializingBean {
+
+    public static final String ROUND_ROBIN = "roundRobin";
+    public static final String LEAST_ACTIVE = "leastActive";
+    public static final String PRIMARY_NAME = "primary";
+
+    private static final Log LOG = LogFactory.getLog(ReadReplicaRoutingDataSource.class);
+
+    private DataSource primary;
+    private Map<String, DataSource> replicas = new LinkedHashMap<String, DataSource>();
+    private String balancing = ROUND_ROBIN;
+
+    private Target primaryTarget;
+    private Target[] replicaTargets;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public void afterPropertiesSet() {
+        Assert.notNull(primary, "Property [primary] is required");
+        Assert.isTrue(ROUND_ROBIN.equals(balancing) || LEAST_ACTIVE.equals(balancing),
+                "Property [balancing] must be '" + ROUND_ROBIN + "' or '" + LEAST_ACTIVE + "' but was '" + balancing + "'");
+
+        primaryTarget = new Target(PRIMARY_NAME, primary);
+        replicaTargets = new Target[replicas.size()];
+        int i = 0;
+        for (Map.Entry<String, DataSource> entry : replicas.entrySet()) {
+            replicaTargets[i++] = new Target(entry.getKey(), entry.getValue());
+        }
+    }
+
+    public Connection getConnection() throws SQLException {
+        return getConnection(null, null, false);
+    }
+
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(username, password, true);
+    }
+
+    protected Connection getConnection(String username, String password, boolean useCredentials) throws SQLException {
+        if (isReadOnlyTransaction()) {
+            Target replica = selectReplica();
+            if (replica != null) {
+                try {
+                    return replica.getConnection(username, password, useCredentials);
+                }
+                catch (SQLException e) {
+                    LOG.warn("Unable to obtain a connection from replica [" + replica.name +
+                            "], using the primary data source: " + e.getMessage());
+                }
+            }
+        }
+        return primaryTarget.getConnection(username, password, useCredentials);
+    }
+
+    /**
+     * @return whether the current connection request is for a read-only transaction
+     */
+    protected boolean isReadOnlyTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive() &&
+                TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    /**
+     * @return the replica the next read-only connection is taken from or null if there are no replicas
+     */
+    protected Target selectReplica() {
+        Target[] targets = replicaTargets;
+        if (targets.length == 0) {
+            return null;
+        }
+        int start = (nextReplica.getAndIncrement() & Integer.MAX_VALUE) % targets.length;
+        if (!LEAST_ACTIVE.equals(balancing)) {
+            return targets[start];
+        }
+
+        // start at the round robin position so that replicas with equal load are used in turn
+        Target selected = null;
+        int selectedActive = Integer.MAX_VALUE;
+        for (int i = 0; i < targets.length; i++) {
+            Target target = targets[(start + i) % targets.length];
+            int active = target.getActive();
+            if (active < selectedActive) {
+                selected = target;
+                selectedActive = active;
+            }
+        }
+        return selected;
+    }
+
+    /**
+     * Returns statistics for the primary and each replica, keyed by the target name. The statistics contain
+     * the number of connections obtained and failed attempts, and the active and idle connections of pooled targets.
+     *
+     * @return the statistics
+     */
+    public Map<String, Map<String, Number>> getStatistics() {
+        Map<String, Map<String, Number>> statistics = new LinkedHashMap<String, Map<String, Number>>();
+        statistics.put(primaryTarget.name, primaryTarget.getStatistics());
+        for (Target target : replicaTargets) {
+            statistics.put(target.name, target.getStatistics());
+        }
+        return statistics;
+    }
+
+    public DataSource getPrimary() {
+        return primary;
+    }
+
+    public void setPrimary(DataSource primary) {
+        this.primary = primary;
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(Map<String, DataSource> replicas) {
+        this.replicas = replicas;
+    }
+
+    public String getBalancing() {
+        return balancing;
+    }
+
+    public void setBalancing(String balancing) {
+        this.balancing = balancing;
+    }
+
+    /**
+     * A DataSource connections are routed to and its usage counts.
+     */
+    protected static class Target {
+        final String name;
+        final DataSource dataSource;
+        final AtomicLong connections = new AtomicLong();
+        final AtomicLong failures = new AtomicLong();
+
+        Target(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        Connection getConnection(String username, String password, boolean useCredentials) throws SQLException {
+            try {
+                Connection connection = useCredentials ?
+                        dataSource.getConnection(username, password) : dataSource.getConnection();
+                connections.incrementAndGet();
+                return connection;
+            }
+            catch (SQLException e) {
+                failures.incrementAndGet();
+                throw e;
+            }
+        }
+
+        /**
+         * @return the active connections of a Tomcat pool, 0 for other DataSources
+         */
+        int getActive() {
+            return dataSource instanceof DataSourceProxy ? ((DataSourceProxy)dataSource).getActive() : 0;
+        }
+
+        Map<String, Number> getStatistics() {
+            Map<String, Number> statistics = new LinkedHashMap<String, Number>();
+            statistics.put("connections", connections.get());
+            statistics.put("failures", failures.get());
+            if (dataSource instanceof DataSourceProxy) {
+                DataSourceProxy pool = (DataSourceProxy)dataSource;
+                statistics.put("active", pool.getActive());
+                statistics.put("idle", pool.getIdle());
+            }
+            return statistics;
+        }
+    }
+}
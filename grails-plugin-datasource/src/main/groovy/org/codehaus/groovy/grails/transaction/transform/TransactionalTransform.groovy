@@ -25,8 +25,14 @@ import java.lang.reflect.Modifier
 import org.codehaus.groovy.ast.*
 import org.codehaus.groovy.ast.expr.*
 import org.codehaus.groovy.ast.stmt.BlockStatement
+import org.codehaus.groovy.ast.stmt.CatchStatement
+import org.codehaus.groovy.ast.stmt.EmptyStatement
 import org.codehaus.groovy.ast.stmt.ExpressionStatement
+import org.codehaus.groovy.ast.stmt.IfStatement
 import org.codehaus.groovy.ast.stmt.ReturnStatement
+import org.codehaus.groovy.ast.stmt.Statement
+import org.codehaus.groovy.ast.stmt.ThrowStatement
+import org.codehaus.groovy.ast.stmt.TryCatchStatement
 import org.codehaus.groovy.control.CompilePhase
 import org.codehaus.groovy.control.SourceUnit
 import org.codehaus.groovy.grails.compiler.injection.GrailsASTUtils
@@ -42,10 +48,13 @@ import org.springframework.transaction.TransactionStatus
 import org.springframework.transaction.interceptor.NoRollbackRuleAttribute
 import org.springframework.transaction.interceptor.RollbackRuleAttribute
 import org.springframework.transaction.interceptor.RuleBasedTransactionAttribute
+import org.springframework.transaction.support.CallbackPreferringPlatformTransactionManager
 
 /**
  * This AST transform reads the {@link grails.transaction.Transactional} annotation and transforms method calls by
- * wrapping the body of the method in an execution of {@link GrailsTransactionTemplate}.
+ * wrapping the body of the method in a transaction. The transaction attribute of each annotation is held in a static
+ * field, and the transaction is started and completed inline unless the transaction manager requires a callback,
+ * in which case {@link GrailsTransactionTemplate} is used.
  *
  *
  * @author Graeme Rocher
@@ -57,6 +66,12 @@ class TransactionalTransform implements ASTTransformation{
     public static final ClassNode MY_TYPE = new ClassNode(Transactional)
     private static final String PROPERTY_TRANSACTION_MANAGER = "transactionManager"
     private static final String METHOD_EXECUTE = "execute"
+    private static final String METHOD_GET_TRANSACTION = "getTransaction"
+    private static final String METHOD_COMMIT = "commit"
+    private static final String METHOD_COMPLETE_AFTER_THROWING = "completeAfterThrowing"
+    private static final String METHOD_CREATE_TRANSACTION_ATTRIBUTE = '$tt__createTransactionAttribute'
+    private static final String FIELD_TRANSACTION_ATTRIBUTE = '$tt__transactionAttribute'
+    private static final String TRANSACTION_ATTRIBUTE_FIELD = TransactionalTransform.name + ".transactionAttributeField"
 
     @Override
     void visit(ASTNode[] astNodes, SourceUnit source) {
@@ -122,56 +137,168 @@ class TransactionalTransform implements ASTTransformation{
         
         BlockStatement methodBody = new BlockStatement()
 
-        final transactionAttributeClassNode = ClassHelper.make(RuleBasedTransactionAttribute)
-        final transactionAttributeVar = new VariableExpression('$transactionAttribute', transactionAttributeClassNode)
+        // the attribute is created once per annotation when the class is initialized instead of on every call
+        final transactionAttributeField = getTransactionAttributeField(source, classNode, annotationNode)
+        final transactionAttributeExpression = new FieldExpression(transactionAttributeField)
+
+        // remove possible @CS & @TC SKIP annotation from original method node
+        removeCompileStaticAnnotations(methodNode)
+        // add @CS annotation to original method node
+        addCompileStaticAnnotation(methodNode)
+
+        final transactionManagerClassNode = ClassHelper.make(PlatformTransactionManager)
+        final transactionManagerVar = new VariableExpression('$transactionManager', transactionManagerClassNode)
         methodBody.addStatement(
             new ExpressionStatement(
                 new DeclarationExpression(
-                    transactionAttributeVar,
+                    transactionManagerVar,
                     GrailsASTUtils.ASSIGNMENT_OPERATOR,
-                    new ConstructorCallExpression(transactionAttributeClassNode, GrailsASTUtils.ZERO_ARGUMENTS)
+                    new PropertyExpression(buildThisExpression(), PROPERTY_TRANSACTION_MANAGER)
                 )
             )
         )
-        // remove possible @CS & @TC SKIP annotation from original method node
-        removeCompileStaticAnnotations(methodNode)
-        // add @CS annotation to original method node
-        addCompileStaticAnnotation(methodNode)
-        
-        applyTransactionalAttributeSettings(annotationNode, transactionAttributeVar, methodBody)
-        
-        final executeMethodParameterTypes = [new Parameter(ClassHelper.make(TransactionStatus), "transactionStatus")] as Parameter[]
-        final callCallExpression = new ClosureExpression(executeMethodParameterTypes, new ExpressionStatement(originalMethodCall))
 
-        final constructorArgs = new ArgumentListExpression()
-        constructorArgs.addExpression(new PropertyExpression(buildThisExpression(), PROPERTY_TRANSACTION_MANAGER))
-        constructorArgs.addExpression(transactionAttributeVar)
-        final transactionTemplateClassNode = ClassHelper.make(GrailsTransactionTemplate)
-        final transactionTemplateVar = new VariableExpression('$transactionTemplate', transactionTemplateClassNode)
+        methodBody.addStatement(
+            new IfStatement(
+                new BooleanExpression(new BinaryExpression(transactionManagerVar, Token.newSymbol(Types.KEYWORD_INSTANCEOF, 0, 0),
+                    new ClassExpression(ClassHelper.make(CallbackPreferringPlatformTransactionManager)))),
+                buildTransactionTemplateExecution(methodNode, originalMethodCall, transactionManagerVar, transactionAttributeExpression),
+                new EmptyStatement()
+            )
+        )
+
+        final transactionStatusClassNode = ClassHelper.make(TransactionStatus)
+        final transactionStatusVar = new VariableExpression('$transactionStatus', transactionStatusClassNode)
+        final getTransactionArgs = new ArgumentListExpression(transactionAttributeExpression)
         methodBody.addStatement(
             new ExpressionStatement(
                 new DeclarationExpression(
-                    transactionTemplateVar,
+                    transactionStatusVar,
                     GrailsASTUtils.ASSIGNMENT_OPERATOR,
-                    new ConstructorCallExpression(transactionTemplateClassNode, constructorArgs)
+                    new MethodCallExpression(transactionManagerVar, METHOD_GET_TRANSACTION, getTransactionArgs)
                 )
             )
         )
 
+        final inlineCallArgs = new ArgumentListExpression()
+        for (Parameter parameter in methodNode.getParameters()) {
+            inlineCallArgs.addExpression(new VariableExpression(parameter))
+        }
+        inlineCallArgs.addExpression(transactionStatusVar)
+        final inlineMethodCall = new MethodCallExpression(new VariableExpression("this"), originalMethodCall.getMethodAsString(), inlineCallArgs)
+        inlineMethodCall.setImplicitThis(false)
+        inlineMethodCall.setMethodTarget(originalMethodCall.getMethodTarget())
+
+        final boolean returnsValue = methodNode.getReturnType() != ClassHelper.VOID_TYPE
+        final resultVar = new VariableExpression('$result', ClassHelper.OBJECT_TYPE)
+        final tryBlock = new BlockStatement()
+        if (returnsValue) {
+            methodBody.addStatement(new ExpressionStatement(new DeclarationExpression(resultVar, GrailsASTUtils.ASSIGNMENT_OPERATOR, ConstantExpression.NULL)))
+            tryBlock.addStatement(new ExpressionStatement(new BinaryExpression(resultVar, GrailsASTUtils.ASSIGNMENT_OPERATOR, inlineMethodCall)))
+        } else {
+            tryBlock.addStatement(new ExpressionStatement(inlineMethodCall))
+        }
+
+        final exceptionParameter = new Parameter(ClassHelper.make(Throwable), '$e')
+        final completeArgs = new ArgumentListExpression()
+        completeArgs.addExpression(transactionManagerVar)
+        completeArgs.addExpression(transactionStatusVar)
+        completeArgs.addExpression(transactionAttributeExpression)
+        completeArgs.addExpression(new VariableExpression(exceptionParameter))
+        final catchBlock = new BlockStatement()
+        catchBlock.addStatement(new ThrowStatement(
+            new StaticMethodCallExpression(ClassHelper.make(GrailsTransactionTemplate), METHOD_COMPLETE_AFTER_THROWING, completeArgs)))
+
+        final tryCatchStatement = new TryCatchStatement(tryBlock, new EmptyStatement())
+        tryCatchStatement.addCatch(new CatchStatement(exceptionParameter, catchBlock))
+        methodBody.addStatement(tryCatchStatement)
+
+        methodBody.addStatement(new ExpressionStatement(
+            new MethodCallExpression(transactionManagerVar, METHOD_COMMIT, new ArgumentListExpression(transactionStatusVar))))
+
+        if (returnsValue) {
+            methodBody.addStatement(new ReturnStatement(new CastExpression(methodNode.getReturnType(), resultVar)))
+        }
+
+        methodNode.setCode(methodBody)
+        processVariableScopes(source, classNode, methodNode)
+    }
+
+    /**
+     * Builds the execution of the original method with {@link GrailsTransactionTemplate}, which is used for transaction
+     * managers that need to run the method in a callback.
+     */
+    protected Statement buildTransactionTemplateExecution(MethodNode methodNode, MethodCallExpression originalMethodCall,
+            VariableExpression transactionManagerVar, Expression transactionAttributeExpression) {
+        final executeMethodParameterTypes = [new Parameter(ClassHelper.make(TransactionStatus), "transactionStatus")] as Parameter[]
+        final callCallExpression = new ClosureExpression(executeMethodParameterTypes, new ExpressionStatement(originalMethodCall))
+
+        final constructorArgs = new ArgumentListExpression()
+        constructorArgs.addExpression(transactionManagerVar)
+        constructorArgs.addExpression(transactionAttributeExpression)
+        final transactionTemplateClassNode = ClassHelper.make(GrailsTransactionTemplate)
+
         final methodArgs = new ArgumentListExpression()
         methodArgs.addExpression(callCallExpression)
-        final executeMethodCallExpression = new MethodCallExpression(transactionTemplateVar, METHOD_EXECUTE, methodArgs)
+        final executeMethodCallExpression = new MethodCallExpression(
+            new ConstructorCallExpression(transactionTemplateClassNode, constructorArgs), METHOD_EXECUTE, methodArgs)
         final executeMethodNode = transactionTemplateClassNode.getMethod("execute", executeMethodParameterTypes)
         executeMethodCallExpression.setMethodTarget(executeMethodNode)
-        
+
+        final block = new BlockStatement()
         if(methodNode.getReturnType() != ClassHelper.VOID_TYPE) {
-            methodBody.addStatement(new ReturnStatement(new CastExpression(methodNode.getReturnType(), executeMethodCallExpression)))
+            block.addStatement(new ReturnStatement(new CastExpression(methodNode.getReturnType(), executeMethodCallExpression)))
         } else {
-            methodBody.addStatement(new ExpressionStatement(executeMethodCallExpression));
+            block.addStatement(new ExpressionStatement(executeMethodCallExpression))
+            block.addStatement(ReturnStatement.RETURN_NULL_OR_VOID)
         }
-        
-        methodNode.setCode(methodBody)
-        processVariableScopes(source, classNode, methodNode)
+        block
+    }
+
+    /**
+     * Returns the static field holding the transaction attribute for the annotation, adding the field and the
+     * method that creates the attribute to the class if they don't exist yet.
+     */
+    protected FieldNode getTransactionAttributeField(SourceUnit source, ClassNode classNode, AnnotationNode annotationNode) {
+        FieldNode field = (FieldNode)annotationNode.getNodeMetaData(TRANSACTION_ATTRIBUTE_FIELD)
+        if (field != null) {
+            if (field.getOwner() == classNode) {
+                return field
+            }
+            annotationNode.removeNodeMetaData(TRANSACTION_ATTRIBUTE_FIELD)
+        }
+
+        int index = 0
+        while (classNode.getDeclaredField(FIELD_TRANSACTION_ATTRIBUTE + index) != null) {
+            index++
+        }
+
+        final transactionAttributeClassNode = ClassHelper.make(RuleBasedTransactionAttribute)
+        final transactionAttributeVar = new VariableExpression('$transactionAttribute', transactionAttributeClassNode)
+        final factoryBody = new BlockStatement()
+        factoryBody.addStatement(
+            new ExpressionStatement(
+                new DeclarationExpression(
+                    transactionAttributeVar,
+                    GrailsASTUtils.ASSIGNMENT_OPERATOR,
+                    new ConstructorCallExpression(transactionAttributeClassNode, GrailsASTUtils.ZERO_ARGUMENTS)
+                )
+            )
+        )
+        applyTransactionalAttributeSettings(annotationNode, transactionAttributeVar, factoryBody)
+        factoryBody.addStatement(new ReturnStatement(transactionAttributeVar))
+
+        final factoryMethod = new MethodNode(METHOD_CREATE_TRANSACTION_ATTRIBUTE + index,
+            Modifier.PRIVATE | Modifier.STATIC, transactionAttributeClassNode,
+            Parameter.EMPTY_ARRAY, ClassNode.EMPTY_ARRAY, factoryBody)
+        classNode.addMethod(factoryMethod)
+        processVariableScopes(source, classNode, factoryMethod)
+
+        field = classNode.addField(FIELD_TRANSACTION_ATTRIBUTE + index,
+            Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL, transactionAttributeClassNode,
+            new StaticMethodCallExpression(classNode, factoryMethod.getName(), GrailsASTUtils.ZERO_ARGUMENTS))
+        annotationNode.setNodeMetaData(TRANSACTION_ATTRIBUTE_FIELD, field)
+        field
     }
 
     protected applyTransactionalAttributeSettings(AnnotationNode annotationNode, VariableExpression transactionAttributeVar, BlockStatement methodBody) {
@@ -18,11 +18,18 @@ package grails.transaction
 
 import org.springframework.jdbc.datasource.DataSourceTransactionManager
 import org.springframework.jdbc.datasource.DriverManagerDataSource
+import org.springframework.transaction.PlatformTransactionManager
+import org.springframework.transaction.TransactionDefinition
+import org.springframework.transaction.TransactionStatus
+import org.springframework.transaction.interceptor.TransactionAttribute
 import org.springframework.transaction.support.DefaultTransactionStatus
 import spock.lang.Issue
 import spock.lang.Specification
 import org.codehaus.groovy.grails.orm.support.TransactionManagerAware
 
+import java.lang.reflect.Field
+import java.lang.reflect.Modifier
+
 import javax.sql.DataSource
 
 /**
@@ -364,6 +371,50 @@ new BookService()
             transactionManager.transactionRolledBack == true
     }
 
+    void "Test the transaction attribute is created once for each annotation"() {
+        when:"A new instance of a class with @Transactional methods is created"
+            def bookService = new GroovyShell().evaluate('''
+import grails.transaction.*
+import org.springframework.transaction.annotation.Propagation
+
+@Transactional(readOnly = true)
+class BookService {
+
+    void listBooks() {}
+
+    int countBooks() { 2 }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    void updateBook() {}
+}
+
+new BookService()
+''')
+            def transactionManager = new RecordingTransactionManager(getPlatformTransactionManager())
+            bookService.transactionManager = transactionManager
+
+        then:"The class has one static transaction attribute for each annotation"
+            bookService.getClass().declaredFields.findAll { Field f ->
+                Modifier.isStatic(f.modifiers) && TransactionAttribute.isAssignableFrom(f.type)
+            }.size() == 2
+
+        when:"The transactional methods are called"
+            bookService.listBooks()
+            bookService.listBooks()
+            def count = bookService.countBooks()
+            bookService.updateBook()
+
+        then:"The methods share the attribute of the class annotation"
+            count == 2
+            transactionManager.definitions.size() == 4
+            transactionManager.definitions[0].is(transactionManager.definitions[1])
+            transactionManager.definitions[0].is(transactionManager.definitions[2])
+            transactionManager.definitions[0].readOnly
+            !transactionManager.definitions[3].is(transactionManager.definitions[0])
+            transactionManager.definitions[3].propagationBehavior == TransactionDefinition.PROPAGATION_REQUIRES_NEW
+            !transactionManager.definitions[3].readOnly
+    }
+
     TestTransactionManager getPlatformTransactionManager() {
         def dataSource =  new DriverManagerDataSource("jdbc:h2:mem:${TransactionalTransformSpec.name};MVCC=TRUE;LOCK_TIMEOUT=10000", "sa", "")
         
@@ -394,6 +445,20 @@ class TestTransactionManager extends DataSourceTransactionManager {
     }
 }
 
+class RecordingTransactionManager implements PlatformTransactionManager {
+    @Delegate PlatformTransactionManager transactionManager
+    List<TransactionDefinition> definitions = []
+
+    RecordingTransactionManager(PlatformTransactionManager transactionManager) {
+        this.transactionManager = transactionManager
+    }
+
+    TransactionStatus getTransaction(TransactionDefinition definition) {
+        definitions << definition
+        transactionManager.getTransaction(definition)
+    }
+}
+
 class TestTransactionRuntimeException extends RuntimeException {
 }
 
@@ -49,6 +49,7 @@ import org.codehaus.groovy.grails.web.pages.FilteringCodecsByContentTypeSettings
 import org.codehaus.groovy.grails.web.pages.GroovyPageResourceLoader
 import org.codehaus.groovy.grails.web.pages.GroovyPagesTemplateEngine
 import org.codehaus.groovy.grails.web.pages.GroovyPagesTemplateRenderer
+import org.codehaus.groovy.grails.web.pages.RenderedFragmentCache
 import org.codehaus.groovy.grails.web.pages.TagLibraryLookup
 import org.codehaus.groovy.grails.web.pages.discovery.CachingGrailsConventionGroovyPageLocator
 import org.codehaus.groovy.grails.web.pages.discovery.CachingGroovyPageStaticResourceLocator
@@ -195,6 +196,9 @@ class GroovyPagesGrailsPlugin {
 
         groovyPagesTemplateRenderer(GroovyPagesTemplateRenderer) { bean ->
             bean.autowire = true
+            fragmentCacheMaxSize = application.flatConfig[GroovyPagesTemplateRenderer.CONFIG_FRAGMENT_CACHE_MAX_SIZE] ?: RenderedFragmentCache.DEFAULT_MAX_SIZE
+            fragmentCacheTimeToLive = application.flatConfig[GroovyPagesTemplateRenderer.CONFIG_FRAGMENT_CACHE_TIME_TO_LIVE] ?: 0
+            parallelRenderingThreads = application.flatConfig[GroovyPagesTemplateRenderer.CONFIG_PARALLEL_RENDERING_THREADS] ?: 0
         }
 
         groovyPageLayoutFinder(GroovyPageLayoutFinder) {
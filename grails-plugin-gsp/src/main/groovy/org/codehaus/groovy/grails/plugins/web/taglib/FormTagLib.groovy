@@ -407,9 +407,12 @@ class FormTagLib implements ApplicationContextAware, InitializingBean {
         }
 
         if (useToken) {
-            def tokensHolder = SynchronizerTokensHolder.store(session)
+            def tokensStore = SynchronizerTokensHolder.lookupStore(request)
+            def tokensHolder = tokensStore.loadOrCreate(request)
+            def token = tokensHolder.generateToken(request.forwardURI)
+            tokensStore.save(request, tokensHolder)
             writer.println()
-            hiddenFieldImpl(writer, [name: SynchronizerTokensHolder.TOKEN_KEY, value: tokensHolder.generateToken(request.forwardURI)])
+            hiddenFieldImpl(writer, [name: SynchronizerTokensHolder.TOKEN_KEY, value: token])
             writer.println()
             hiddenFieldImpl(writer, [name: SynchronizerTokensHolder.TOKEN_URI, value: request.forwardURI])
         }
@@ -577,6 +577,9 @@ class RenderTagLib implements RequestConstants {
      * @attr collection A collection of model objects to apply the template to
      * @attr var The variable name of the bean to be referenced in the template
      * @attr plugin The plugin to look for the template in
+     * @attr cacheKey Caches the output of the template with this key
+     * @attr cache If true caches the output of the template for the same model, bean, collection and var
+     * @attr parallel If true renders the elements of the collection concurrently when grails.gsp.parallelRendering.threads is set
      */
     Closure render = { attrs, body ->
         groovyPagesTemplateRenderer.render(getWebRequest(), getPageScope(), attrs, body, getOut())
@@ -37,6 +37,7 @@ import org.apache.log4j.jdbc.JDBCAppender
 import org.apache.log4j.varia.NullAppender
 import org.apache.log4j.xml.XMLLayout
 import org.codehaus.groovy.grails.plugins.log4j.appenders.GrailsConsoleAppender
+import org.codehaus.groovy.grails.plugins.log4j.appenders.RingBufferAsyncAppender
 
 /**
  * Encapsulates the configuration of Log4j.
@@ -338,6 +339,34 @@ log4j = {
         }
     }
 
+    /**
+     * Defines a {@link RingBufferAsyncAppender} that appends to the appenders named by the 'appender' argument,
+     * which is a name or a list of names of appenders defined before it.
+     */
+    def async(Map args) {
+        Map asyncArgs = new LinkedHashMap(args)
+        def targets = asyncArgs.remove('appender')
+        def appender = new RingBufferAsyncAppender()
+        populate appender, asyncArgs
+        if (!appender.name) {
+            LogLog.error "Appender of type async doesn't define a name attribute, and hence is ignored."
+            return null
+        }
+
+        for (target in (targets instanceof Collection ? targets : [targets])) {
+            def targetAppender = target instanceof Appender ? target : appenders[target?.toString()]
+            if (targetAppender) {
+                appender.addAppender targetAppender
+            }
+            else {
+                LogLog.error "Appender $target not found configuring async appender ${appender.name}"
+            }
+        }
+        appenders[appender.name] = appender
+        appender.activateOptions()
+        return appender
+    }
+
     def off(Map appenderAndPackages) {
         setLogLevelForAppenderToPackageMap(appenderAndPackages, Level.OFF)
     }
@@ -0,0 +1,424 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.plugins.log4j.appenders;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+import org.apache.log4j.Appender;
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.helpers.AppenderAttachableImpl;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.AppenderAttachable;
+import org.apache.log4j.spi.Filter;
+import org.apache.log4j.spi.LoggingEvent;
+
+/**
+ * An appender that hands events to a bounded lock-free ring buffer and appends them to the attached appenders
+ * in batches from a single background thread, so that logging threads don't wait for the attached appenders.
+ *
+ * When the buffer is full the overflow policy decides what happens to an event:
+ * <ul>
+ *   <li>{@value #BLOCK} - the logging thread waits until there is space in the buffer (the default)</li>
+ *   <li>{@value #DROP} - the event is dropped</li>
+ *   <li>{@value #DISCARD} - events below the discard threshold are dropped, other events wait</li>
+ * </ul>
+ *
+ * Configured in the log4j DSL with
+ * <pre>
+ * appenders {
+ *     file name: 'file', file: '/var/log/app.log'
+ *     async name: 'asyncFile', appender: 'file', bufferSize: 4096, overflowPolicy: 'discard', discardThreshold: 'info'
+ * }
+ * </pre>
+ *
+ * @since 2.3
+ */
+public class RingBufferAsyncAppender extends AppenderSkeleton implements AppenderAttachable {
+
+    public static final String BLOCK = "block";
+    public static final String DROP = "drop";
+    public static final String DISCARD = "discard";
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    private static final long IDLE_PARK_NANOS = 10000000L;
+    private static final long BLOCKED_PARK_NANOS = 100000L;
+
+    private final AppenderAttachableImpl appenders = new AppenderAttachableImpl();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong dispatchedCount = new AtomicLong();
+
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private String overflowPolicy = BLOCK;
+    private Level discardThreshold = Level.INFO;
+    private boolean locationInfo;
+
+    private volatile RingBuffer buffer;
+    private volatile Thread dispatcher;
+    private volatile boolean dispatcherIdle;
+    private volatile boolean stopped;
+
+    @Override
+    public void activateOptions() {
+        if (dispatcher != null) {
+            return;
+        }
+        if (!BLOCK.equals(overflowPolicy) && !DROP.equals(overflowPolicy) && !DISCARD.equals(overflowPolicy)) {
+            LogLog.warn("Unknown overflow policy [" + overflowPolicy + "] for appender [" + name + "], using [" + BLOCK + "]");
+            overflowPolicy = BLOCK;
+        }
+        buffer = new RingBuffer(bufferSize);
+        Thread thread = new Thread(new Dispatcher(), "Grails async appender [" + name + "]");
+        thread.setDaemon(true);
+        dispatcher = thread;
+        thread.start();
+    }
+
+    /**
+     * Unlike {@link AppenderSkeleton#doAppend(LoggingEvent)} this isn't synchronized, logging threads only
+     * contend on the ring buffer.
+     */
+    @Override
+    public void doAppend(LoggingEvent event) {
+        if (stopped || !isAsSevereAsThreshold(event.getLevel())) {
+            return;
+        }
+        Filter filter = getFirstFilter();
+        while (filter != null) {
+            int decision = filter.decide(event);
+            if (decision == Filter.DENY) {
+                return;
+            }
+            filter = decision == Filter.ACCEPT ? null : filter.getNext();
+        }
+        append(event);
+    }
+
+    @Override
+    protected void append(LoggingEvent event) {
+        RingBuffer ringBuffer = buffer;
+        if (ringBuffer == null) {
+            LogLog.error("Appender [" + name + "] has not been activated");
+            return;
+        }
+
+        // capture the state of the logging thread before the event is handed over
+        event.getNDC();
+        event.getThreadName();
+        event.getMDCCopy();
+        event.getRenderedMessage();
+        event.getThrowableStrRep();
+        if (locationInfo) {
+            event.getLocationInformation();
+        }
+
+        if (!ringBuffer.offer(event) && !handleOverflow(ringBuffer, event)) {
+            droppedCount.incrementAndGet();
+            return;
+        }
+        if (dispatcherIdle) {
+            LockSupport.unpark(dispatcher);
+        }
+    }
+
+    private boolean handleOverflow(RingBuffer ringBuffer, LoggingEvent event) {
+        // events logged by the attached appenders are dropped, the dispatcher would wait for itself
+        if (DROP.equals(overflowPolicy) ||
+                (DISCARD.equals(overflowPolicy) && !event.getLevel().isGreaterOrEqual(discardThreshold)) ||
+                Thread.currentThread() == dispatcher) {
+            return false;
+        }
+
+        while (!ringBuffer.offer(event)) {
+            if (stopped) {
+                return false;
+            }
+            LockSupport.unpark(dispatcher);
+            LockSupport.parkNanos(this, BLOCKED_PARK_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Stops the dispatcher once the buffered events have been appended and closes the attached appenders.
+     */
+    public void close() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        closed = true;
+
+        Thread thread = dispatcher;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        synchronized (appenders) {
+            Enumeration<?> attached = appenders.getAllAppenders();
+            while (attached != null && attached.hasMoreElements()) {
+                ((Appender)attached.nextElement()).close();
+            }
+        }
+    }
+
+    public boolean requiresLayout() {
+        return false;
+    }
+
+    /**
+     * @return The number of events waiting in the buffer
+     */
+    public int getQueueDepth() {
+        RingBuffer ringBuffer = buffer;
+        return ringBuffer == null ? 0 : ringBuffer.size();
+    }
+
+    /**
+     * @return The number of events dropped because the buffer was full
+     */
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    /**
+     * @return The number of events appended to the attached appenders
+     */
+    public long getDispatchedCount() {
+        return dispatchedCount.get();
+    }
+
+    public void addAppender(Appender newAppender) {
+        synchronized (appenders) {
+            appenders.addAppender(newAppender);
+        }
+    }
+
+    public Enumeration<?> getAllAppenders() {
+        synchronized (appenders) {
+            return appenders.getAllAppenders();
+        }
+    }
+
+    public Appender getAppender(String appenderName) {
+        synchronized (appenders) {
+            return appenders.getAppender(appenderName);
+        }
+    }
+
+    public boolean isAttached(Appender appender) {
+        synchronized (appenders) {
+            return appenders.isAttached(appender);
+        }
+    }
+
+    public void removeAllAppenders() {
+        synchronized (appenders) {
+            appenders.removeAllAppenders();
+        }
+    }
+
+    public void removeAppender(Appender appender) {
+        synchronized (appenders) {
+            appenders.removeAppender(appender);
+        }
+    }
+
+    public void removeAppender(String appenderName) {
+        synchronized (appenders) {
+            appenders.removeAppender(appenderName);
+        }
+    }
+
+    /**
+     * @return The capacity of the buffer, rounded up to a power of two when the options are activated
+     */
+    public int getBufferSize() {
+        RingBuffer ringBuffer = buffer;
+        return ringBuffer == null ? bufferSize : ringBuffer.capacity();
+    }
+
+    public void setBufferSize(int bufferSize) {
+        this.bufferSize = Math.max(bufferSize, 1);
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    public String getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(String overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    public String getDiscardThreshold() {
+        return discardThreshold.toString();
+    }
+
+    /**
+     * @param discardThreshold The name of the level below which events are dropped by the {@value #DISCARD} policy
+     */
+    public void setDiscardThreshold(String discardThreshold) {
+        this.discardThreshold = Level.toLevel(discardThreshold, Level.INFO);
+    }
+
+    public boolean getLocationInfo() {
+        return locationInfo;
+    }
+
+    /**
+     * @param locationInfo Whether the location of the logging call is captured for the attached appenders
+     */
+    public void setLocationInfo(boolean locationInfo) {
+        this.locationInfo = locationInfo;
+    }
+
+    private class Dispatcher implements Runnable {
+        public void run() {
+            List<LoggingEvent> batch = new ArrayList<LoggingEvent>(batchSize);
+            RingBuffer ringBuffer = buffer;
+            while (true) {
+                LoggingEvent event;
+                while (batch.size() < batchSize && (event = ringBuffer.poll()) != null) {
+                    batch.add(event);
+                }
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                    batch.clear();
+                    continue;
+                }
+                if (stopped) {
+                    return;
+                }
+
+                dispatcherIdle = true;
+                if (ringBuffer.isEmpty() && !stopped) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                }
+                dispatcherIdle = false;
+            }
+        }
+
+        private void dispatch(List<LoggingEvent> batch) {
+            synchronized (appenders) {
+                for (LoggingEvent event : batch) {
+                    try {
+                        appenders.appendLoopOnAppenders(event);
+                    }
+                    catch (RuntimeException e) {
+                        LogLog.error("Error appending event in appender [" + name + "]", e);
+                    }
+                }
+            }
+            dispatchedCount.addAndGet(batch.size());
+        }
+    }
+
+    /**
+     * A bounded multi producer, single consumer queue. Each slot has a sequence that tells producers and
+     * the consumer whose turn it is, so neither side takes a lock.
+     */
+    private static final class RingBuffer {
+        private final AtomicReferenceArray<LoggingEvent> events;
+        private final AtomicLongArray sequences;
+        private final int mask;
+        private final AtomicLong tail = new AtomicLong();
+        private volatile long head;
+
+        RingBuffer(int requestedCapacity) {
+            int capacity = Integer.highestOneBit(requestedCapacity);
+            if (capacity < requestedCapacity) {
+                capacity <<= 1;
+            }
+            events = new AtomicReferenceArray<LoggingEvent>(capacity);
+            sequences = new AtomicLongArray(capacity);
+            for (int i = 0; i < capacity; i++) {
+                sequences.set(i, i);
+            }
+            mask = capacity - 1;
+        }
+
+        boolean offer(LoggingEvent event) {
+            long position = tail.get();
+            while (true) {
+                int index = (int)(position & mask);
+                long difference = sequences.get(index) - position;
+                if (difference == 0) {
+                    if (tail.compareAndSet(position, position + 1)) {
+                        events.set(index, event);
+                        sequences.set(index, position + 1);
+                        return true;
+                    }
+                    position = tail.get();
+                }
+                else if (difference < 0) {
+                    return false;
+                }
+                else {
+                    position = tail.get();
+                }
+            }
+        }
+
+        LoggingEvent poll() {
+            long position = head;
+            int index = (int)(position & mask);
+            if (sequences.get(index) != position + 1) {
+                return null;
+            }
+            LoggingEvent event = events.get(index);
+            events.set(index, null);
+            sequences.set(index, position + mask + 1);
+            head = position + 1;
+            return event;
+        }
+
+        boolean isEmpty() {
+            return sequences.get((int)(head & mask)) != head + 1;
+        }
+
+        int size() {
+            long size = tail.get() - head;
+            return (int)Math.max(0, Math.min(size, capacity()));
+        }
+
+        int capacity() {
+            return mask + 1;
+        }
+    }
+}
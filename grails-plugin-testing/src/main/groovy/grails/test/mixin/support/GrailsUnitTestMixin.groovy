@@ -46,6 +46,7 @@ import org.codehaus.groovy.runtime.ScriptBytecodeAdapter
 import org.grails.async.factory.SynchronousPromiseFactory
 import org.junit.After
 import org.junit.AfterClass
+import org.junit.Before
 import org.junit.BeforeClass
 import org.springframework.beans.CachedIntrospectionResults
 import org.springframework.beans.factory.annotation.AutowiredAnnotationBeanPostProcessor
@@ -74,6 +75,7 @@ class GrailsUnitTestMixin {
     static MessageSource messageSource
 
     private static MetaClassRegistryCleaner metaClassRegistryListener = MetaClassRegistryCleaner.createAndRegister()
+    private static TestApplicationContextCache sharedContext
 
     Map validationErrorsMap = new IdentityHashMap()
     Set loadedCodecs = []
@@ -85,7 +87,12 @@ class GrailsUnitTestMixin {
         binding.setVariable "application", grailsApplication
         bb.setBinding binding
         def beans = bb.beans(callable)
-        beans.registerBeans(applicationContext)
+        if (sharedContext != null) {
+            sharedContext.registerBeans(beans)
+        }
+        else {
+            beans.registerBeans(applicationContext)
+        }
     }
 
     @BeforeClass
@@ -95,12 +102,28 @@ class GrailsUnitTestMixin {
         CachedIntrospectionResults.clearClassLoader(GrailsUnitTestMixin.class.classLoader)
         registerMetaClassRegistryWatcher()
         Promises.promiseFactory = new SynchronousPromiseFactory()
+        if (applicationContext == null && TestApplicationContextCache.reuseEnabled) {
+            sharedContext = TestApplicationContextCache.take()
+            if (sharedContext != null) {
+                applicationContext = sharedContext.applicationContext
+                mainContext = sharedContext.mainContext
+                grailsApplication = sharedContext.grailsApplication
+                // recreated for each test class, see TestApplicationContextCache
+                messageSource = applicationContext.getBean("messageSource", MessageSource)
+                Holders.setServletContext sharedContext.servletContext
+                config = grailsApplication.config
+            }
+        }
         if (applicationContext == null) {
             ExpandoMetaClass.enableGlobally()
             applicationContext = new GrailsWebApplicationContext()
             final autowiringPostProcessor = new AutowiredAnnotationBeanPostProcessor()
             autowiringPostProcessor.setBeanFactory( applicationContext.autowireCapableBeanFactory )
             applicationContext.beanFactory.addBeanPostProcessor(autowiringPostProcessor)
+            if (TestApplicationContextCache.reuseEnabled) {
+                // records the beans every test class starts with, so that their instances are recreated
+                sharedContext = new TestApplicationContextCache(applicationContext)
+            }
 
             registerBeans()
             applicationContext.refresh()
@@ -120,6 +143,8 @@ class GrailsUnitTestMixin {
 
             grailsApplication.applicationContext = applicationContext
             config = grailsApplication.config
+
+            sharedContext?.contextInitialised(mainContext, grailsApplication, servletContext)
         }
     }
 
@@ -136,6 +161,12 @@ class GrailsUnitTestMixin {
         }
     }
 
+    @Before
+    @CompileStatic
+    void discardUnusedSharedBeans() {
+        sharedContext?.discardUnusedRegistrations()
+    }
+
     @After
     void resetGrailsApplication() {
         MockUtils.TEST_INSTANCES.clear()
@@ -263,7 +294,11 @@ class GrailsUnitTestMixin {
     @AfterClass
     @CompileStatic
     static void shutdownApplicationContext() {
-        if (applicationContext.isActive()) {
+        if (sharedContext != null) {
+            sharedContext.keep()
+            sharedContext = null
+        }
+        else if (applicationContext.isActive()) {
             if(grailsApplication.mainContext instanceof Closeable) {
                 ((Closeable)grailsApplication.mainContext).close()
             }
@@ -27,6 +27,7 @@ import org.codehaus.groovy.grails.commons.GrailsTagLibClass;
 import org.codehaus.groovy.grails.commons.TagLibArtefactHandler;
 import org.codehaus.groovy.grails.plugins.web.GroovyPagesGrailsPlugin;
 import org.codehaus.groovy.grails.web.pages.GroovyPage;
+import org.codehaus.groovy.grails.web.pages.TagDescriptor;
 import org.codehaus.groovy.grails.web.pages.TagLibraryLookup;
 import org.codehaus.groovy.grails.web.taglib.NamespacedTagDispatcher;
 import org.springframework.beans.factory.support.AbstractBeanDefinition;
@@ -122,6 +123,27 @@ public class LazyTagLibraryLookup extends TagLibraryLookup{
         tags.put(name, taglib.getFullName());
     }
 
+    @Override
+    protected TagDescriptor createTagDescriptor(String namespace, String tagName, GrailsTagLibClass taglib,
+            Object tagLibrary, boolean returnsObject, Map<String, Object> encodeAs) {
+        final String beanName = (String)tagLibrary;
+        return new TagDescriptor(namespace, tagName, null, returnsObject, encodeAs) {
+            @Override
+            public GroovyObject getTagLibrary() {
+                return applicationContext.getBean(beanName, GroovyObject.class);
+            }
+        };
+    }
+
+    @Override
+    public TagDescriptor lookupTagDescriptor(String namespace, String tagName) {
+        TagDescriptor descriptor = super.lookupTagDescriptor(namespace, tagName);
+        if (descriptor == null && lookupTagLibrary(namespace, tagName) != null) {
+            descriptor = super.lookupTagDescriptor(namespace, tagName);
+        }
+        return descriptor;
+    }
+
     @Override
     public void registerTagLib(GrailsTagLibClass taglib) {
         super.registerTagLib(taglib);
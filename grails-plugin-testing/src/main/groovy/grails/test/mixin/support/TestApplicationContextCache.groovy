@@ -0,0 +1,286 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.test.mixin.support
+
+import grails.spring.BeanBuilder
+import groovy.transform.CompileStatic
+
+import javax.servlet.ServletContext
+
+import org.codehaus.groovy.grails.commons.DefaultGrailsApplication
+import org.codehaus.groovy.grails.commons.GrailsApplication
+import org.codehaus.groovy.grails.commons.cfg.ConfigurationHelper
+import org.codehaus.groovy.grails.commons.spring.GrailsWebApplicationContext
+import org.springframework.beans.MutablePropertyValues
+import org.springframework.beans.PropertyValue
+import org.springframework.beans.factory.config.BeanDefinition
+import org.springframework.beans.factory.config.ConstructorArgumentValues
+import org.springframework.beans.factory.support.AbstractBeanDefinition
+import org.springframework.context.ApplicationListener
+import org.springframework.context.event.ApplicationEventMulticaster
+import org.springframework.context.support.AbstractApplicationContext
+
+/**
+ * Keeps the application context created by {@link GrailsUnitTestMixin} for the next test class, so that test
+ * classes with the same configuration don't each create and refresh a new context.
+ *
+ * The cache is created before the context is refreshed, so the beans every test class starts with, such as the
+ * messageSource and the pluginManager, are recorded like the beans of each {@link GrailsUnitTestMixin#defineBeans(Closure)}
+ * call. Each call is recorded with a fingerprint made of the bean definitions. While a test class defines the same
+ * beans in the same order as the previous one the existing bean definitions are kept. When the definitions differ the
+ * beans recorded from that point on are removed, the definitions they replaced are restored and the new beans are
+ * registered. The singleton instances of the recorded beans, except the grailsApplication which is cleared instead,
+ * are destroyed when the context is kept, so each test class gets new instances, free of the changes the previous
+ * test class made to them.
+ *
+ * Reuse is enabled with the system property {@value #REUSE_PROPERTY}. Values used in bean definitions are compared
+ * with equals, so beans configured with objects that are created for each test class are always registered again.
+ *
+ * @since 2.3
+ */
+@CompileStatic
+class TestApplicationContextCache {
+
+    public static final String REUSE_PROPERTY = "grails.test.unit.reuseApplicationContext"
+
+    private static TestApplicationContextCache cached
+
+    final GrailsWebApplicationContext applicationContext
+
+    private GrailsWebApplicationContext mainContext
+    private GrailsApplication grailsApplication
+    private ServletContext servletContext
+    private Set<ApplicationListener> initialListeners = Collections.emptySet()
+    private final List<BeanRegistration> registrations = []
+    private int baseRegistrations
+    private int position
+
+    /**
+     * @param applicationContext The context before its beans are registered
+     */
+    TestApplicationContextCache(GrailsWebApplicationContext applicationContext) {
+        this.applicationContext = applicationContext
+    }
+
+    /**
+     * Called once the context is refreshed. The beans registered so far are registered by every test class, they
+     * are kept as they are but their instances are recreated for each test class.
+     */
+    void contextInitialised(GrailsWebApplicationContext mainContext, GrailsApplication grailsApplication, ServletContext servletContext) {
+        this.mainContext = mainContext
+        this.grailsApplication = grailsApplication
+        this.servletContext = servletContext
+        initialListeners = new LinkedHashSet<ApplicationListener>(getApplicationListeners())
+        baseRegistrations = registrations.size()
+        position = baseRegistrations
+    }
+
+    GrailsWebApplicationContext getMainContext() {
+        mainContext
+    }
+
+    GrailsApplication getGrailsApplication() {
+        grailsApplication
+    }
+
+    ServletContext getServletContext() {
+        servletContext
+    }
+
+    static boolean isReuseEnabled() {
+        Boolean.getBoolean(REUSE_PROPERTY)
+    }
+
+    /**
+     * @return The context kept by the previous test class or null, the context is removed from the cache
+     */
+    static TestApplicationContextCache take() {
+        def context = cached
+        cached = null
+        if (context != null && !context.applicationContext.isActive()) {
+            return null
+        }
+        if (context != null) {
+            context.position = context.baseRegistrations
+        }
+        context
+    }
+
+    /**
+     * Registers the beans unless the same beans were registered at the same point by the previous test class.
+     *
+     * @param beans The beans
+     */
+    void registerBeans(BeanBuilder beans) {
+        Map<String, BeanDefinition> definitions = new TreeMap<String, BeanDefinition>(beans.beanDefinitions)
+        List<Object> fingerprint = createFingerprint(definitions)
+
+        if (position < registrations.size()) {
+            if (registrations[position].fingerprint == fingerprint) {
+                position++
+                return
+            }
+            discardRegistrations(position)
+        }
+
+        def registration = new BeanRegistration(fingerprint)
+        for (String name in definitions.keySet()) {
+            if (applicationContext.containsBeanDefinition(name)) {
+                registration.replaced[name] = applicationContext.getBeanDefinition(name)
+            }
+            else {
+                registration.added << name
+            }
+        }
+        beans.registerBeans(applicationContext)
+        registrations << registration
+        position = registrations.size()
+    }
+
+    /**
+     * Removes the beans the previous test class registered after the point reached by the current test class.
+     * Called before each test, once the test class has defined its beans.
+     */
+    void discardUnusedRegistrations() {
+        if (position < registrations.size()) {
+            discardRegistrations(position)
+        }
+    }
+
+    /**
+     * Resets the state changed by the test class and keeps the context for the next test class.
+     */
+    void keep() {
+        // the config is reloaded by the next test class, changes made by tests don't carry over
+        ConfigurationHelper.clearCachedConfigs()
+        if (grailsApplication instanceof DefaultGrailsApplication) {
+            def application = (DefaultGrailsApplication)grailsApplication
+            application.clear()
+            application.config = null
+        }
+
+        Collection<ApplicationListener> listeners = getApplicationListeners()
+        def multicaster = applicationContext.getBean(AbstractApplicationContext.APPLICATION_EVENT_MULTICASTER_BEAN_NAME,
+            ApplicationEventMulticaster)
+        for (ApplicationListener listener in new ArrayList<ApplicationListener>(listeners)) {
+            if (!initialListeners.contains(listener)) {
+                listeners.remove(listener)
+                multicaster.removeApplicationListener(listener)
+            }
+        }
+
+        destroyRegisteredSingletons()
+
+        if (cached != null && !cached.is(this)) {
+            cached.close()
+        }
+        cached = this
+    }
+
+    void close() {
+        if (applicationContext.isActive()) {
+            mainContext.close()
+            applicationContext.close()
+        }
+    }
+
+    protected Collection<ApplicationListener> getApplicationListeners() {
+        (Collection<ApplicationListener>)applicationContext.applicationListeners
+    }
+
+    /**
+     * Destroys the singleton instances of the recorded beans, they are created again when the next test class uses them.
+     * The grailsApplication is kept, it is referenced by the main context and cleared by {@link #keep()}.
+     */
+    protected void destroyRegisteredSingletons() {
+        def beanFactory = applicationContext.defaultListableBeanFactory
+        for (BeanRegistration registration in registrations) {
+            Set<String> names = new LinkedHashSet<String>(registration.added)
+            names.addAll(registration.replaced.keySet())
+            names.remove(GrailsApplication.APPLICATION_ID)
+            for (String name in names) {
+                beanFactory.destroySingleton(name)
+            }
+        }
+    }
+
+    protected void discardRegistrations(int fromIndex) {
+        for (int i = registrations.size() - 1; i >= fromIndex; i--) {
+            BeanRegistration registration = registrations.remove(i)
+            for (String name in registration.added) {
+                if (applicationContext.containsBeanDefinition(name)) {
+                    applicationContext.removeBeanDefinition(name)
+                }
+            }
+            for (Map.Entry<String, BeanDefinition> entry in registration.replaced.entrySet()) {
+                applicationContext.registerBeanDefinition(entry.key, entry.value)
+            }
+        }
+    }
+
+    protected static List<Object> createFingerprint(Map<String, BeanDefinition> definitions) {
+        List<Object> fingerprint = []
+        for (Map.Entry<String, BeanDefinition> entry in definitions.entrySet()) {
+            fingerprint << entry.key
+            fingerprint << createFingerprint(entry.value)
+        }
+        fingerprint
+    }
+
+    protected static List<Object> createFingerprint(BeanDefinition definition) {
+        List<Object> fingerprint = [definition.beanClassName, definition.scope, definition.lazyInit, definition.abstract,
+            definition.parentName, definition.factoryBeanName, definition.factoryMethodName]
+        if (definition instanceof AbstractBeanDefinition) {
+            def beanDefinition = (AbstractBeanDefinition)definition
+            fingerprint << beanDefinition.autowireMode << beanDefinition.initMethodName << beanDefinition.destroyMethodName
+        }
+
+        ConstructorArgumentValues constructorArguments = definition.constructorArgumentValues
+        for (Map.Entry<Integer, ConstructorArgumentValues.ValueHolder> entry in constructorArguments.indexedArgumentValues.entrySet()) {
+            fingerprint << entry.key << createFingerprint(entry.value)
+        }
+        for (ConstructorArgumentValues.ValueHolder holder in constructorArguments.genericArgumentValues) {
+            fingerprint << createFingerprint(holder)
+        }
+
+        MutablePropertyValues propertyValues = definition.propertyValues
+        for (PropertyValue propertyValue in propertyValues.propertyValues) {
+            fingerprint << propertyValue.name << fingerprintValue(propertyValue.value)
+        }
+        fingerprint
+    }
+
+    protected static List<Object> createFingerprint(ConstructorArgumentValues.ValueHolder holder) {
+        [holder.name, holder.type, fingerprintValue(holder.value)]
+    }
+
+    protected static Object fingerprintValue(Object value) {
+        value instanceof BeanDefinition ? createFingerprint((BeanDefinition)value) : value
+    }
+
+    /**
+     * The beans registered by one defineBeans call.
+     */
+    private static class BeanRegistration {
+        final List<Object> fingerprint
+        final List<String> added = []
+        final Map<String, BeanDefinition> replaced = [:]
+
+        BeanRegistration(List<Object> fingerprint) {
+            this.fingerprint = fingerprint
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package grails.test.mixin.support
+
+import grails.spring.BeanBuilder
+
+import org.codehaus.groovy.grails.commons.spring.GrailsWebApplicationContext
+import org.springframework.context.support.StaticMessageSource
+
+import spock.lang.Specification
+
+class TestApplicationContextCacheSpec extends Specification {
+
+    GrailsWebApplicationContext applicationContext
+    TestApplicationContextCache cache
+
+    void setup() {
+        applicationContext = new GrailsWebApplicationContext()
+        applicationContext.refresh()
+        cache = new TestApplicationContextCache(applicationContext)
+        cache.contextInitialised(applicationContext, null, null)
+    }
+
+    void cleanup() {
+        TestApplicationContextCache.take()
+        applicationContext.close()
+    }
+
+    void "Test beans are kept when the next test class defines the same beans"() {
+        given:"A test class that defines beans"
+            cache.registerBeans(beans { one(ArrayList) })
+            cache.registerBeans(beans { two(HashMap) })
+            def one = applicationContext.getBeanDefinition('one')
+            def two = applicationContext.getBeanDefinition('two')
+
+        when:"The next test class defines the same beans"
+            cache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList) })
+            next.registerBeans(beans { two(HashMap) })
+            next.discardUnusedRegistrations()
+
+        then:"The context and the bean definitions are reused"
+            next.is(cache)
+            applicationContext.getBeanDefinition('one').is(one)
+            applicationContext.getBeanDefinition('two').is(two)
+    }
+
+    void "Test the next test class gets new instances of the kept beans"() {
+        given:"A test class that changes a bean"
+            cache.registerBeans(beans { one(ArrayList) })
+            def one = applicationContext.getBean('one')
+            one << 'changed'
+
+        when:"The next test class defines the same bean"
+            cache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList) })
+            next.discardUnusedRegistrations()
+
+        then:"The bean is a new instance without the changes"
+            next.is(cache)
+            !applicationContext.getBean('one').is(one)
+            applicationContext.getBean('one').isEmpty()
+    }
+
+    void "Test beans are registered again when the next test class defines different beans"() {
+        given:"A test class that defines beans"
+            cache.registerBeans(beans { one(ArrayList) })
+            cache.registerBeans(beans { two(HashMap) })
+            def one = applicationContext.getBeanDefinition('one')
+
+        when:"The next test class defines other beans after the first ones"
+            cache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList) })
+            next.registerBeans(beans { three(LinkedList) })
+
+        then:"The beans of the previous test class that differ are removed"
+            applicationContext.getBeanDefinition('one').is(one)
+            applicationContext.getBean('three') instanceof LinkedList
+            !applicationContext.containsBeanDefinition('two')
+    }
+
+    void "Test beans the next test class doesn't define are removed"() {
+        given:"A test class that replaces a bean"
+            cache.registerBeans(beans { one(ArrayList) })
+            cache.registerBeans(beans { one(LinkedList); two(HashMap) })
+
+        when:"The next test class only defines the first beans"
+            cache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList) })
+            next.discardUnusedRegistrations()
+
+        then:"The replaced definition is restored"
+            applicationContext.getBean('one') instanceof ArrayList
+            !applicationContext.containsBeanDefinition('two')
+    }
+
+    void "Test bean definitions with different values aren't reused"() {
+        given:"A test class that defines a bean with a value"
+            cache.registerBeans(beans { one(ArrayList, [1, 2]) })
+            def one = applicationContext.getBeanDefinition('one')
+
+        when:"The next test class defines the bean with another value"
+            cache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList, [3]) })
+
+        then:"The bean is registered again"
+            !applicationContext.getBeanDefinition('one').is(one)
+            applicationContext.getBean('one') == [3]
+    }
+
+    void "Test a message added in one test class is gone in the next"() {
+        given:"A context with a messageSource registered before it was refreshed"
+            def context = new GrailsWebApplicationContext()
+            def baseCache = new TestApplicationContextCache(context)
+            baseCache.registerBeans(beans { messageSource(StaticMessageSource) })
+            context.refresh()
+            baseCache.contextInitialised(context, null, null)
+            def messageSource = context.getBean('messageSource', StaticMessageSource)
+            messageSource.addMessage('greeting', Locale.ENGLISH, 'Hello')
+
+        when:"The next test class defines its own beans"
+            baseCache.keep()
+            def next = TestApplicationContextCache.take()
+            next.registerBeans(beans { one(ArrayList) })
+            next.discardUnusedRegistrations()
+            def nextMessageSource = context.getBean('messageSource', StaticMessageSource)
+
+        then:"The messageSource is kept but is a new instance without the message"
+            next.is(baseCache)
+            !nextMessageSource.is(messageSource)
+            nextMessageSource.getMessage('greeting', null, null, Locale.ENGLISH) == null
+
+        cleanup:
+            context.close()
+    }
+
+    private BeanBuilder beans(Closure callable) {
+        new BeanBuilder().beans(callable)
+    }
+}
@@ -29,6 +29,7 @@ import org.codehaus.groovy.grails.web.mapping.LinkGenerator
 import org.codehaus.groovy.grails.web.mapping.UrlMappings
 import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolder
 import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolderFactoryBean
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsReloadedEvent
 import org.codehaus.groovy.grails.web.mapping.filter.UrlMappingsFilter
 import org.codehaus.groovy.grails.web.servlet.ErrorHandlingServlet
 import org.springframework.aop.framework.ProxyFactoryBean
@@ -60,7 +61,17 @@ class UrlMappingsGrailsPlugin {
         if (!(cacheUrls instanceof Boolean)) {
             cacheUrls = true
         }
-        grailsLinkGenerator(cacheUrls ? CachingLinkGenerator : DefaultLinkGenerator, serverURL)
+        if (cacheUrls) {
+            def useLinkTemplates = application.config?.grails?.web?.linkGenerator?.useTemplates
+            grailsLinkGenerator(CachingLinkGenerator, serverURL) {
+                if (useLinkTemplates instanceof Boolean) {
+                    useTemplates = useLinkTemplates
+                }
+            }
+        }
+        else {
+            grailsLinkGenerator(DefaultLinkGenerator, serverURL)
+        }
 
         if (Environment.isDevelopmentMode() || Environment.current.isReloadEnabled()) {
             "org.grails.internal.URL_MAPPINGS_HOLDER"(UrlMappingsHolderFactoryBean) { bean ->
@@ -171,6 +182,8 @@ class UrlMappingsGrailsPlugin {
         if (linkGenerator instanceof CachingLinkGenerator) {
             linkGenerator.clearCache()
         }
+
+        ctx.publishEvent(new UrlMappingsReloadedEvent(urlMappingsHolder))
     }
 
     private UrlMappingsHolder createUrlMappingsHolder(GrailsApplication application, WebApplicationContext applicationContext, GrailsPluginManager pluginManager) {
@@ -20,10 +20,12 @@ import grails.util.Metadata;
 import grails.web.UrlConverter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,6 +42,7 @@ import org.codehaus.groovy.grails.commons.ControllerArtefactHandler;
 import org.codehaus.groovy.grails.commons.GrailsApplication;
 import org.codehaus.groovy.grails.commons.GrailsClass;
 import org.codehaus.groovy.grails.commons.GrailsClassUtils;
+import org.codehaus.groovy.grails.commons.GrailsControllerClass;
 import org.codehaus.groovy.grails.commons.cfg.GrailsConfig;
 import org.codehaus.groovy.grails.commons.metaclass.DynamicMethodInvocation;
 import org.codehaus.groovy.grails.compiler.GrailsProjectWatcher;
@@ -58,22 +61,35 @@ import org.codehaus.groovy.grails.web.pages.exceptions.GroovyPagesException;
 import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes;
 import org.codehaus.groovy.grails.web.servlet.HttpHeaders;
 import org.codehaus.groovy.grails.web.servlet.WrappedResponseHolder;
+import org.codehaus.groovy.grails.web.servlet.mvc.AbstractGrailsControllerHelper;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsParameterMap;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+import org.codehaus.groovy.grails.web.servlet.mvc.RequestPathClassifier;
 import org.codehaus.groovy.grails.web.util.WebUtils;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.core.OrderComparator;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.context.WebApplicationContext;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.multipart.MultipartException;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.LocaleResolver;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.ModelAndViewDefiningException;
 import org.springframework.web.servlet.View;
 import org.springframework.web.servlet.ViewResolver;
+import org.springframework.web.servlet.i18n.AcceptHeaderLocaleResolver;
+import org.springframework.web.util.NestedServletException;
 import org.springframework.web.util.UrlPathHelper;
 
 /**
@@ -89,6 +105,9 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
     private static final Log LOG = LogFactory.getLog(UrlMappingsFilter.class);
     private static final String GSP_SUFFIX = ".gsp";
     private static final String JSP_SUFFIX = ".jsp";
+    private static final String ASYNC_REQUEST_URI_ATTRIBUTE = "javax.servlet.async.request_uri";
+    private static final String CONTROLLER_HELPER_BEAN_NAME = "grailsControllerHelper";
+    private static final String CONTROLLER_HANDLER_BEAN_NAME = "mainSimpleController";
     private HandlerInterceptor[] handlerInterceptors = new HandlerInterceptor[0];
     private GrailsApplication application;
     private GrailsConfig grailsConfig;
@@ -97,6 +116,13 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
     private MimeTypeResolver mimeTypeResolver;
     private UrlConverter urlConverter;
     private Boolean allowHeaderForWrongHttpMethod;
+    private boolean directDispatch;
+    private WebApplicationContext webApplicationContext;
+    private AbstractGrailsControllerHelper controllerHelper;
+    private Object controllerHandler;
+    private LocaleResolver localeResolver;
+    private MultipartResolver multipartResolver;
+    private List<HandlerExceptionResolver> handlerExceptionResolvers = Collections.emptyList();
     final DynamicMethodInvocation redirectDynamicMethod = new RedirectDynamicMethod();
 
 
@@ -120,12 +146,43 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
             mimeTypeResolver = mimeTypeResolvers.values().iterator().next();
         }
         this.allowHeaderForWrongHttpMethod = grailsConfig.get(WebUtils.SEND_ALLOW_HEADER_FOR_INVALID_HTTP_METHOD, Boolean.TRUE);
+        if (grailsConfig.get(WebUtils.DIRECT_CONTROLLER_DISPATCH, Boolean.FALSE)) {
+            initDirectDispatch(applicationContext);
+        }
         createStackTraceFilterer();
     }
 
+    /**
+     * Looks up the beans needed to execute controller actions within this filter instead of
+     * forwarding the request to the Grails dispatcher servlet
+     */
+    private void initDirectDispatch(WebApplicationContext applicationContext) {
+        if (!applicationContext.containsBean(CONTROLLER_HELPER_BEAN_NAME)) {
+            LOG.warn("Direct controller dispatch is enabled but no [" + CONTROLLER_HELPER_BEAN_NAME + "] bean is available, requests will be forwarded.");
+            return;
+        }
+        webApplicationContext = applicationContext;
+        controllerHelper = applicationContext.getBean(CONTROLLER_HELPER_BEAN_NAME, AbstractGrailsControllerHelper.class);
+        controllerHandler = applicationContext.containsBean(CONTROLLER_HANDLER_BEAN_NAME) ? applicationContext.getBean(CONTROLLER_HANDLER_BEAN_NAME) : this;
+        localeResolver = applicationContext.containsBean(DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME) ?
+                applicationContext.getBean(DispatcherServlet.LOCALE_RESOLVER_BEAN_NAME, LocaleResolver.class) : new AcceptHeaderLocaleResolver();
+        if (applicationContext.containsBean(DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)) {
+            multipartResolver = applicationContext.getBean(DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME, MultipartResolver.class);
+        }
+        handlerExceptionResolvers = new ArrayList<HandlerExceptionResolver>(applicationContext.getBeansOfType(HandlerExceptionResolver.class).values());
+        Collections.sort(handlerExceptionResolvers, OrderComparator.INSTANCE);
+        directDispatch = true;
+    }
+
     @SuppressWarnings({ "unchecked", "rawtypes" })
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (request.getAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE) != null) {
+            // classified as a static resource or excluded path by the GrailsWebRequestFilter
+            processFilterChain(request, response, filterChain);
+            return;
+        }
+
         UrlMappingsHolder holder = WebUtils.lookupUrlMappings(getServletContext());
 
         String uri = urlHelper.getPathWithinApplication(request);
@@ -177,11 +234,12 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
                     // original request parameters.
                     webRequest.resetParams();
 
+                    GrailsClass controller;
                     try {
                         info.configure(webRequest);
                         UrlConverter urlConverterToUse = urlConverter;
                         GrailsApplication grailsApplicationToUse = application;
-                        GrailsClass controller = WebUtils.getConfiguredControllerForUrlMappingInfo(webRequest, info, urlConverterToUse, grailsApplicationToUse);
+                        controller = WebUtils.getConfiguredControllerForUrlMappingInfo(webRequest, info, urlConverterToUse, grailsApplicationToUse);
 
                         if(controller == null && info.getViewName()==null && info.getURI()==null) continue;
                     }
@@ -207,9 +265,17 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
                         if (info.isParsingRequest()) {
                             webRequest.informParameterCreationListeners();
                         }
-                        String forwardUrl = WebUtils.forwardRequestForUrlMappingInfo(request, response, info);
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Matched URI [" + uri + "] to URL mapping [" + info + "], forwarding to [" + forwardUrl + "] with response [" + response.getClass() + "]");
+                        if (controller instanceof GrailsControllerClass && canDispatchDirectly(request, info, (GrailsControllerClass)controller)) {
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("Matched URI [" + uri + "] to URL mapping [" + info + "], dispatching to controller [" + controller.getFullName() + "] with response [" + response.getClass() + "]");
+                            }
+                            dispatchToController(request, response, webRequest, info, (GrailsControllerClass)controller);
+                        }
+                        else {
+                            String forwardUrl = WebUtils.forwardRequestForUrlMappingInfo(request, response, info);
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("Matched URI [" + uri + "] to URL mapping [" + info + "], forwarding to [" + forwardUrl + "] with response [" + response.getClass() + "]");
+                            }
                         }
                     }
                     else {
@@ -336,6 +402,186 @@ public class UrlMappingsFilter extends OncePerRequestFilter {
         return request;
     }
 
+    private boolean canDispatchDirectly(HttpServletRequest request, UrlMappingInfo info, GrailsControllerClass controllerClass) {
+        if (!directDispatch || WebUtils.isIncludeRequest(request) || request.getAttribute(ASYNC_REQUEST_URI_ATTRIBUTE) != null) {
+            return false;
+        }
+        // web flows are handled by their own handler mapping in the dispatcher servlet
+        return controllerClass.getFlows().isEmpty() || !controllerClass.isFlowAction(controllerClass.getMethodActionName(getControllerUri(info)));
+    }
+
+    private String getControllerUri(UrlMappingInfo info) {
+        String uri = WebUtils.getControllerFeatureURI(urlConverter, info.getControllerName(), info.getActionName() == null ? "" : info.getActionName());
+        return uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri;
+    }
+
+    /**
+     * Executes the controller action for an already matched UrlMappingInfo within this filter. This replaces the
+     * RequestDispatcher forward to the Grails dispatcher servlet, which would resolve the controller and action from the URI again.
+     * Follows {@link org.codehaus.groovy.grails.web.servlet.GrailsDispatcherServlet#doDispatch(HttpServletRequest, HttpServletResponse)},
+     * resumed async requests, whose layout is applied by the dispatcher servlet, are still forwarded.
+     */
+    private void dispatchToController(HttpServletRequest request, HttpServletResponse response, GrailsWebRequest webRequest,
+            UrlMappingInfo info, GrailsControllerClass controllerClass) throws ServletException, IOException {
+
+        webRequest.removeAttribute(GrailsApplicationAttributes.MODEL_AND_VIEW, WebRequest.SCOPE_REQUEST);
+        webRequest.removeAttribute(GrailsApplicationAttributes.GRAILS_CONTROLLER_CLASS_AVAILABLE, WebRequest.SCOPE_REQUEST);
+
+        // the controller has to see the multipart request, as with the new web request of the dispatcher servlet
+        GrailsWebRequest dispatchRequest = webRequest;
+        if (request != webRequest.getCurrentRequest()) {
+            dispatchRequest = new GrailsWebRequest(request, response, webRequest.getAttributes());
+            dispatchRequest.addParametersFrom(webRequest.getParams());
+            WebUtils.storeGrailsWebRequest(dispatchRequest);
+        }
+        dispatchRequest.setActionName(info.getActionName());
+
+        final HttpServletRequest currentRequest = request;
+        request.setAttribute(DispatcherServlet.WEB_APPLICATION_CONTEXT_ATTRIBUTE, webApplicationContext);
+        request.setAttribute(DispatcherServlet.LOCALE_RESOLVER_ATTRIBUTE, localeResolver);
+        LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+        LocaleContextHolder.setLocaleContext(new LocaleContext() {
+            public Locale getLocale() {
+                return localeResolver.resolveLocale(currentRequest);
+            }
+        });
+
+        int interceptorIndex = -1;
+        try {
+            ModelAndView mv;
+            Exception handlerException = null;
+            boolean errorView = false;
+            try {
+                for (int i = 0; i < handlerInterceptors.length; i++) {
+                    if (!handlerInterceptors[i].preHandle(request, response, controllerHandler)) {
+                        triggerAfterCompletion(interceptorIndex, request, response, null);
+                        return;
+                    }
+                    interceptorIndex = i;
+                }
+
+                mv = controllerHelper.handleControllerRequest(controllerClass, getControllerUri(info), dispatchRequest, Collections.EMPTY_MAP);
+                if (request.getAttribute(GrailsApplicationAttributes.ASYNC_STARTED) != null) {
+                    request.setAttribute(GrailsApplicationAttributes.MODEL_AND_VIEW, mv);
+                    return;
+                }
+
+                for (int i = handlerInterceptors.length - 1; i >= 0; i--) {
+                    handlerInterceptors[i].postHandle(request, response, controllerHandler, mv);
+                }
+            }
+            catch (ModelAndViewDefiningException e) {
+                handlerException = e;
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("ModelAndViewDefiningException encountered", e);
+                }
+                mv = e.getModelAndView();
+            }
+            catch (Exception e) {
+                handlerException = e;
+                mv = processHandlerException(request, response, e);
+                errorView = mv != null;
+            }
+
+            if (mv != null && !mv.wasCleared()) {
+                try {
+                    render(mv, request, response);
+                    if (errorView) {
+                        WebUtils.clearErrorRequestAttributes(request);
+                    }
+                }
+                catch (Exception e) {
+                    // Only render the error view if we're not already trying to render it.
+                    // This prevents a recursion if the error page itself has errors.
+                    if (request.getAttribute(GrailsApplicationAttributes.RENDERING_ERROR_ATTRIBUTE) == null) {
+                        request.setAttribute(GrailsApplicationAttributes.RENDERING_ERROR_ATTRIBUTE, Boolean.TRUE);
+                        handlerException = e;
+                        mv = processHandlerException(request, response, e);
+                        if (mv != null) {
+                            render(mv, request, response);
+                        }
+                    }
+                    else {
+                        request.removeAttribute(GrailsApplicationAttributes.RENDERING_ERROR_ATTRIBUTE);
+                        LOG.warn("Recursive rendering of error view detected.", e);
+                        try {
+                            response.setContentType("text/plain");
+                            response.getWriter().write("Internal server error");
+                            response.flushBuffer();
+                        }
+                        catch (Exception e2) {
+                            LOG.error("Internal server error - problem rendering error view", e2);
+                        }
+                        dispatchRequest.setRenderView(false);
+                        return;
+                    }
+                }
+            }
+
+            triggerAfterCompletion(interceptorIndex, request, response, handlerException);
+        }
+        catch (Exception e) {
+            triggerAfterCompletion(interceptorIndex, request, response, e);
+            reapplySitemesh(request);
+            if (e instanceof ServletException) throw (ServletException)e;
+            if (e instanceof IOException) throw (IOException)e;
+            if (e instanceof RuntimeException) throw (RuntimeException)e;
+            throw new ServletException(e.getMessage(), e);
+        }
+        catch (Error err) {
+            ServletException e = new NestedServletException("Handler processing failed", err);
+            triggerAfterCompletion(interceptorIndex, request, response, e);
+            throw e;
+        }
+        finally {
+            if (multipartResolver != null && request instanceof MultipartHttpServletRequest) {
+                multipartResolver.cleanupMultipart((MultipartHttpServletRequest)request);
+            }
+            request.removeAttribute(MultipartHttpServletRequest.class.getName());
+            if (dispatchRequest != webRequest) {
+                dispatchRequest.requestCompleted();
+                WebUtils.storeGrailsWebRequest(webRequest);
+            }
+            LocaleContextHolder.setLocaleContext(previousLocaleContext);
+        }
+    }
+
+    private ModelAndView processHandlerException(HttpServletRequest request, HttpServletResponse response, Exception e) throws Exception {
+        for (HandlerExceptionResolver resolver : handlerExceptionResolvers) {
+            ModelAndView exMv = resolver.resolveException(request, response, controllerHandler, e);
+            if (exMv != null) {
+                if (exMv.isEmpty()) {
+                    return null;
+                }
+                WebUtils.exposeErrorRequestAttributes(request, e, getFilterName());
+                return exMv;
+            }
+        }
+        throw e;
+    }
+
+    private void render(ModelAndView mv, HttpServletRequest request, HttpServletResponse response) throws Exception {
+        Locale locale = localeResolver.resolveLocale(request);
+        response.setLocale(locale);
+        View view = mv.isReference() ? viewResolver.resolveViewName(mv.getViewName(), locale) : mv.getView();
+        if (view == null) {
+            throw new ServletException("Could not resolve view with name '" + mv.getViewName() + "' in filter [" + getFilterName() + "]");
+        }
+        view.render(mv.getModel(), request, response);
+    }
+
+    private void triggerAfterCompletion(int interceptorIndex, HttpServletRequest request, HttpServletResponse response, Exception ex) {
+        for (int i = interceptorIndex; i >= 0; i--) {
+            try {
+                handlerInterceptors[i].afterCompletion(request, response, controllerHandler, ex);
+            }
+            catch (Throwable e) {
+                filterer.filter(e, true);
+                LOG.error("HandlerInterceptor.afterCompletion threw exception", e);
+            }
+        }
+    }
+
     private boolean renderViewForUrlMappingInfo(HttpServletRequest request, HttpServletResponse response, UrlMappingInfo info, String viewName) {
         if (viewResolver != null) {
             View v;
@@ -1093,6 +1093,43 @@ class GrailsWebDataBinderSpec extends Specification {
         obj.listOfLong[0] == 42
         obj.listOfLong[1] == 2112
     }
+
+    void 'Test binding a List of Maps with ids looks up the instances in batches'() {
+        given:
+        def publisher = new Publisher(name: 'Some Publisher')
+        def a1 = new Author(name: 'Author One').save()
+        def a2 = new Author(name: 'Author Two').save()
+        def a3 = new Author(name: 'Author Three').save()
+        def getAllCalls = []
+        def getCalls = []
+        def getAll = Author.metaClass.getStaticMetaMethod('getAll', [ArrayList] as Class[])
+        def get = Author.metaClass.getStaticMetaMethod('get', [Long] as Class[])
+        Author.metaClass.static.getAll = { List ids ->
+            getAllCalls << ids
+            getAll.invoke(Author, [ids] as Object[])
+        }
+        Author.metaClass.static.get = { Serializable id ->
+            getCalls << id
+            get.invoke(Author, [id] as Object[])
+        }
+        binder.associationBatchSize = 2
+
+        when:
+        binder.bind publisher, new SimpleMapDataBindingSource(['authors': [
+                                [id: a1.id, name: 'First Author'],
+                                [id: a2.id],
+                                [id: a3.id]]])
+
+        then:
+        publisher.authors.size() == 3
+        publisher.authors.find { it.id == a1.id }.name == 'First Author'
+        publisher.authors.find { it.id == a2.id }.name == 'Author Two'
+        publisher.authors.find { it.id == a3.id }.name == 'Author Three'
+
+        and: 'the instances are looked up with one getAll call per batch and no get calls'
+        getAllCalls == [[a1.id, a2.id], [a3.id]]
+        getCalls.isEmpty()
+    }
 }
 
 @Entity
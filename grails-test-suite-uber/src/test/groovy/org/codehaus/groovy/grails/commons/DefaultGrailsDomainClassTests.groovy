@@ -40,6 +40,66 @@ class DefaultGrailsDomainClassTests extends GroovyTestCase {
         assertEquals(GrailsDomainClassProperty.FETCH_LAZY, otherDomain.getPropertyByName('anothers').getFetchMode())
     }
 
+    void testParallelInitialization() {
+        gcl.parseClass """
+                class Test {
+                    Long id
+                    Long version
+                    String name
+                    Set others
+                    static hasMany = [others:Other]
+                    static constraints = {
+                        name blank: false
+                    }
+                }
+                class Other {
+                    Long id
+                    Long version
+                    Test test
+                    static belongsTo = [test:Test]
+                }
+                class Another {
+                    Long id
+                    Long version
+                }
+                """
+
+        def ga = new DefaultGrailsApplication(gcl.loadedClasses, gcl)
+        ga.config = new ConfigSlurper().parse("grails.domain.parallelInitialization = true")
+        ga.initialise()
+        ga.refreshConstraints()
+
+        assertEquals 3, ga.domainClasses.size()
+
+        def testDomain = ga.getDomainClass("Test")
+        def others = testDomain.getPropertyByName('others')
+        assertTrue others.isOneToMany()
+        assertTrue others.isBidirectional()
+        assertEquals ga.getDomainClass("Other"), others.referencedDomainClass
+        assertFalse testDomain.constrainedProperties.name.blank
+    }
+
+    void testFirstMatchingArtefactHandlerWins() {
+        def serviceClass = gcl.parseClass """
+                class TestService {
+                }
+                """
+
+        for (parallel in [false, true]) {
+            def ga = new DefaultGrailsApplication(gcl.loadedClasses, gcl)
+            ga.config = new ConfigSlurper().parse("grails.domain.parallelInitialization = $parallel")
+            // another handler accepting the same classes as the service handler
+            ga.registerArtefactHandler(new ArtefactHandlerAdapter("OtherService", GrailsServiceClass, DefaultGrailsServiceClass, "Service"))
+            def matching = ga.artefactHandlers.findAll { it.isArtefact(serviceClass) }*.type
+            assertEquals 2, matching.size()
+
+            ga.initialise()
+
+            assertNotNull ga.getArtefact(matching[0], "TestService")
+            assertNull ga.getArtefact(matching[1], "TestService")
+        }
+    }
+
     void testPersistentProperties() {
         def cls = gcl.parseClass('''
 class Book {
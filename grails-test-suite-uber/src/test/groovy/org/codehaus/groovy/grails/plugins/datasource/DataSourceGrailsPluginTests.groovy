@@ -9,10 +9,13 @@ import javax.sql.DataSource
 import org.apache.tomcat.jdbc.pool.DataSource as TomcatDataSource
 import org.codehaus.groovy.grails.commons.spring.GrailsRuntimeConfigurator
 import org.codehaus.groovy.grails.commons.test.AbstractGrailsMockTests
+import org.springframework.jdbc.datasource.DataSourceTransactionManager
 import org.springframework.jdbc.datasource.DriverManagerDataSource
 import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy
 import org.springframework.jdbc.datasource.TransactionAwareDataSourceProxy
 import org.springframework.jndi.JndiObjectFactoryBean
+import org.springframework.transaction.support.TransactionCallback
+import org.springframework.transaction.support.TransactionTemplate
 
 class DataSourceGrailsPluginTests extends AbstractGrailsMockTests {
 
@@ -430,6 +433,71 @@ class DataSourceGrailsPluginTests extends AbstractGrailsMockTests {
         assert message.contains('Connection is broken')
     }
 
+    void testReadReplicas() {
+
+        def config = new ConfigSlurper().parse('''
+              dataSource {
+                    pooled = true
+                    driverClassName = "org.h2.Driver"
+                    url = "jdbc:h2:mem:primaryDb;DB_CLOSE_DELAY=-1"
+                    username = "sa"
+                    password = ""
+                    replicas {
+                        replica1 {
+                            url = "jdbc:h2:mem:replica1Db;DB_CLOSE_DELAY=-1"
+                        }
+                        replica2 {
+                            url = "jdbc:h2:mem:replica2Db;DB_CLOSE_DELAY=-1"
+                        }
+                    }
+              }
+        ''')
+
+        def bb = createBeanBuilder(config)
+
+        def beanDef = bb.getBeanDefinition('dataSourceUnproxied')
+        assertEquals ReadReplicaRoutingDataSource.name, beanDef.beanClassName
+
+        beanDef = bb.getBeanDefinition('dataSourcePrimary')
+        assertEquals TomcatDataSource.name, beanDef.beanClassName
+
+        beanDef = bb.getBeanDefinition('dataSourceReplica_replica2')
+        assertEquals TomcatDataSource.name, beanDef.beanClassName
+        assert beanDef.parentName == 'abstractGrailsDataSourceBean'
+        assertEquals "jdbc:h2:mem:replica2Db;DB_CLOSE_DELAY=-1", beanDef.propertyValues.getPropertyValue('url').value
+        assertTrue beanDef.propertyValues.getPropertyValue('defaultReadOnly').value
+
+        def ctx = bb.createApplicationContext()
+        try {
+            ['primary', 'replica1', 'replica2'].each { String name ->
+                def sql = Sql.newInstance("jdbc:h2:mem:${name}Db;DB_CLOSE_DELAY=-1", 'sa', '', 'org.h2.Driver')
+                sql.execute('create table db_name (name varchar(20))')
+                sql.execute('insert into db_name values (?)', [name])
+                sql.close()
+            }
+
+            def template = new TransactionTemplate(new DataSourceTransactionManager(ctx.dataSource))
+            def currentDbName = { new Sql(ctx.dataSource).firstRow('select name from db_name').name }
+
+            template.readOnly = true
+            assert (1..4).collect { template.execute(currentDbName as TransactionCallback) } ==
+                ['replica1', 'replica2', 'replica1', 'replica2']
+
+            template.readOnly = false
+            assert template.execute(currentDbName as TransactionCallback) == 'primary'
+            assert currentDbName() == 'primary'
+
+            def statistics = ctx.dataSourceUnproxied.statistics
+            assert statistics.replica1.connections == 2
+            assert statistics.replica2.connections == 2
+            assert statistics.primary.connections >= 2
+            assert statistics.replica1.active == 0
+        }
+        finally {
+            ctx.close()
+        }
+    }
+
     // doesn't actually test MVCC, mostly just that it's a valid URL
     void testMvccUrlOption() {
         def config = new ConfigSlurper().parse '''
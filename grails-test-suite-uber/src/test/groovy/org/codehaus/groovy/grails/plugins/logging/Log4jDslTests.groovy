@@ -21,6 +21,7 @@ import org.apache.log4j.Appender
 import org.apache.log4j.ConsoleAppender
 import org.apache.log4j.FileAppender
 import org.apache.log4j.HTMLLayout
+import org.apache.log4j.Layout
 import org.apache.log4j.Level
 import org.apache.log4j.LogManager
 import org.apache.log4j.Logger
@@ -28,6 +29,7 @@ import org.apache.log4j.SimpleLayout
 import org.apache.log4j.WriterAppender
 import org.apache.log4j.xml.XMLLayout
 import org.codehaus.groovy.grails.plugins.log4j.Log4jConfig
+import org.codehaus.groovy.grails.plugins.log4j.appenders.RingBufferAsyncAppender
 
 class   Log4jDslTests extends GroovyTestCase {
 
@@ -287,6 +289,37 @@ grails.war.deployed=true
         assertEquals '%c{2} %m%n', appender.layout.conversionPattern
     }
 
+    void testAsyncAppender() {
+
+        def writer = new StringWriter()
+        log4jConfig.configure {
+            appenders {
+                appender name: 'writerAppender', new WriterAppender(new SimpleLayout(), writer)
+                async name: 'asyncAppender', appender: 'writerAppender', bufferSize: 10, overflowPolicy: 'drop'
+            }
+
+            info asyncAppender: 'org.codehaus.groovy.grails.async', additivity: false
+        }
+
+        def logger = Logger.getLogger('org.codehaus.groovy.grails.async')
+        RingBufferAsyncAppender appender = logger.getAppender('asyncAppender')
+
+        assert appender
+        assertEquals 16, appender.bufferSize
+        assertEquals RingBufferAsyncAppender.DROP, appender.overflowPolicy
+        assert appender.getAppender('writerAppender')
+
+        logger.info 'first'
+        logger.debug 'ignored'
+        logger.warn 'second'
+        appender.close()
+
+        assertEquals "INFO - first${Layout.LINE_SEP}WARN - second${Layout.LINE_SEP}".toString(), writer.toString()
+        assertEquals 2, appender.dispatchedCount
+        assertEquals 0, appender.droppedCount
+        assertEquals 0, appender.queueDepth
+    }
+
     /**
      * Tests that you can configure the root loader via the argument
      * passed into the Log4J closure.
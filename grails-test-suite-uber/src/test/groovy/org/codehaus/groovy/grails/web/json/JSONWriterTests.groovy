@@ -0,0 +1,49 @@
+package org.codehaus.groovy.grails.web.json
+
+class JSONWriterTests extends GroovyTestCase {
+
+    void testValuesMatchJSONObjectFormatting() {
+        def values = ["plain", "quote \" and \\ backslash", "</script>", "tab\tnew\nline\u0001", "",
+                      1, -42L, Long.MIN_VALUE, (short)7, 1.50d, 2.0f, 10.250G, 12345678901234567890G,
+                      new Date(1234567890L), true, null]
+
+        def sw = new StringWriter()
+        def writer = new JSONWriter(sw)
+        writer.array()
+        values.each { writer.value(it) }
+        writer.endArray()
+
+        assertEquals "[" + values.collect { JSONObject.valueToString(it) }.join(",") + "]", sw.toString()
+    }
+
+    void testKeysAreEscaped() {
+        def sw = new StringWriter()
+        new JSONWriter(sw).object().key('a"b').value(1L).key("c").value(false).endObject()
+
+        assertEquals '{"a\\"b":1,"c":false}', sw.toString()
+    }
+
+    void testDeepNesting() {
+        def sw = new StringWriter()
+        def writer = new JSONWriter(sw)
+        50.times { writer.array() }
+        50.times { writer.endArray() }
+
+        assertEquals "[" * 50 + "]" * 50, sw.toString()
+    }
+
+    void testPrettyPrintArrays() {
+        def sw = new StringWriter()
+        new PrettyPrintJSONWriter(sw).array().value(1L).value("a").endArray()
+
+        def nl = PrettyPrintJSONWriter.NEWLINE
+        assertEquals "${nl}[${nl}  1,${nl}  \"a\"${nl}]".toString(), sw.toString()
+    }
+
+    void testNonFiniteNumbersAreRejected() {
+        def writer = new JSONWriter(new StringWriter()).array()
+        shouldFail(JSONException) {
+            writer.value(Double.NaN)
+        }
+    }
+}
@@ -16,16 +16,27 @@ package org.codehaus.groovy.grails.web.mapping.filter
 
 import grails.util.GrailsWebUtil
 
+import javax.servlet.http.HttpServletRequest
+import javax.servlet.http.HttpServletResponse
+
+import org.codehaus.groovy.grails.commons.GrailsControllerClass
 import org.codehaus.groovy.grails.support.MockApplicationContext
 import org.codehaus.groovy.grails.web.mapping.AbstractGrailsMappingTests
 import org.codehaus.groovy.grails.web.mapping.DefaultUrlMappingsHolder
 import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolder
 import org.codehaus.groovy.grails.web.multipart.ContentLengthAwareCommonsMultipartResolver
 import org.codehaus.groovy.grails.web.servlet.HttpHeaders
+import org.codehaus.groovy.grails.web.servlet.mvc.AbstractGrailsControllerHelper
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest
+import org.codehaus.groovy.grails.web.servlet.mvc.MixedGrailsControllerHelper
 import org.springframework.core.io.ByteArrayResource
 import org.springframework.mock.web.MockFilterConfig
 import org.springframework.web.context.WebApplicationContext
 import org.springframework.web.servlet.DispatcherServlet
+import org.springframework.web.servlet.HandlerInterceptor
+import org.springframework.web.servlet.ModelAndView
+import org.springframework.web.servlet.ModelAndViewDefiningException
+import org.springframework.web.servlet.View
 import org.springframework.web.servlet.ViewResolver
 import org.springframework.web.servlet.view.InternalResourceView
 
@@ -134,6 +145,85 @@ mappings {
         assertEquals "/test.dispatch", response.forwardedUrl
     }
 
+    void testDirectDispatchFallsBackToForwardWithoutControllerHelper() {
+        def mappings = evaluator.evaluateMappings(new ByteArrayResource(defaultMappings.bytes))
+        appCtx.registerMockBean(UrlMappingsHolder.BEAN_ID, new DefaultUrlMappingsHolder(mappings))
+
+        gcl.parseClass(testController1)
+        def app = createGrailsApplication()
+        app.initialise()
+        app.getControllerClass("TestController").initialize()
+        app.config.grails.web.url.mapping.directDispatch = true
+        app.configChanged()
+        appCtx.registerMockBean("grailsApplication", app)
+
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, appCtx)
+
+        request.setRequestURI("/test/index")
+
+        filter = new UrlMappingsFilter()
+        filter.init(new MockFilterConfig(servletContext))
+
+        filter.doFilterInternal(request, response, null)
+
+        assertEquals "/grails/test/index.dispatch", response.forwardedUrl
+    }
+
+    void testDirectDispatchExecutesControllerAction() {
+        def helper = new RecordingControllerHelper(view: textView)
+        initDirectDispatch(helper)
+
+        request.setRequestURI("/test/index")
+        filter.doFilterInternal(request, response, null)
+
+        assertNull response.forwardedUrl
+        assertEquals "TestController", helper.controllerClass.name
+        assertEquals "/test/index", helper.uri
+        assertEquals "rendered index", response.contentAsString
+    }
+
+    void testDirectDispatchRendersModelAndViewDefiningException() {
+        def helper = new RecordingControllerHelper(view: textView)
+        appCtx.registerMockBean "interceptor", [
+            preHandle: { req, res, handler ->
+                throw new ModelAndViewDefiningException(new ModelAndView(textView, [name: "interceptor"]))
+            },
+            postHandle: { req, res, handler, mv -> },
+            afterCompletion: { req, res, handler, ex -> }] as HandlerInterceptor
+        initDirectDispatch(helper)
+
+        request.setRequestURI("/test/index")
+        filter.doFilterInternal(request, response, null)
+
+        assertNull response.forwardedUrl
+        assertNull helper.uri
+        assertEquals "rendered interceptor", response.contentAsString
+    }
+
+    private View getTextView() {
+        [getContentType: { "text/plain" },
+         render: { Map model, HttpServletRequest req, HttpServletResponse res -> res.writer << "rendered ${model.name}" }] as View
+    }
+
+    private void initDirectDispatch(AbstractGrailsControllerHelper helper) {
+        def mappings = evaluator.evaluateMappings(new ByteArrayResource(defaultMappings.bytes))
+        appCtx.registerMockBean(UrlMappingsHolder.BEAN_ID, new DefaultUrlMappingsHolder(mappings))
+        appCtx.registerMockBean("grailsControllerHelper", helper)
+
+        gcl.parseClass(testController1)
+        def app = createGrailsApplication()
+        app.initialise()
+        app.getControllerClass("TestController").initialize()
+        app.config.grails.web.url.mapping.directDispatch = true
+        app.configChanged()
+        appCtx.registerMockBean("grailsApplication", app)
+
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, appCtx)
+
+        filter = new UrlMappingsFilter()
+        filter.init(new MockFilterConfig(servletContext))
+    }
+
     def resourceMappingScript = '''
 mappings {
     "/tests"(resources:"book")
@@ -421,3 +511,15 @@ mappings {
         assertEquals "/foo.gsp", response.forwardedUrl
     }
 }
+
+class RecordingControllerHelper extends MixedGrailsControllerHelper {
+    View view
+    GrailsControllerClass controllerClass
+    String uri
+
+    ModelAndView handleControllerRequest(GrailsControllerClass controllerClass, String uri, GrailsWebRequest webRequest, Map params) {
+        this.controllerClass = controllerClass
+        this.uri = uri
+        new ModelAndView(view, [name: webRequest.actionName])
+    }
+}
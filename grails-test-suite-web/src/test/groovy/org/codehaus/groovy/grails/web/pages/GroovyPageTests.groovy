@@ -47,6 +47,20 @@ class GroovyPageTests extends AbstractGrailsControllerTests {
         assertTrue GroovyPage.isReservedName(GroovyPage.PAGE_SCOPE)
     }
 
+    void testLookupTagDescriptor() {
+        TagLibraryLookup lookup = appCtx.getBean("gspTagLibraryLookup")
+
+        TagDescriptor descriptor = lookup.lookupTagDescriptor(GroovyPage.DEFAULT_NAMESPACE, "isaid")
+        assertNotNull descriptor
+        assertEquals "isaid", descriptor.tagName
+        assertEquals "MyTagLib", descriptor.tagLibrary.getClass().name
+        assertSame descriptor.tagLibrary, lookup.lookupTagLibrary(GroovyPage.DEFAULT_NAMESPACE, "isaid")
+        assertFalse descriptor.returnsObject
+
+        assertNull lookup.lookupTagDescriptor(GroovyPage.DEFAULT_NAMESPACE, "doesNotExist")
+        assertNull lookup.lookupTagDescriptor("unknown", "isaid")
+    }
+
     void testRunPage() {
 
         String pageCode = "import org.codehaus.groovy.grails.web.pages.GroovyPage\n" +
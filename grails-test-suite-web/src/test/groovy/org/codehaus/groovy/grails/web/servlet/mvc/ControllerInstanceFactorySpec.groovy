@@ -0,0 +1,80 @@
+package org.codehaus.groovy.grails.web.servlet.mvc
+
+import org.codehaus.groovy.grails.commons.GrailsControllerClass
+import org.springframework.beans.factory.support.AbstractBeanDefinition
+import org.springframework.beans.factory.support.GenericBeanDefinition
+import org.springframework.context.ApplicationContextAware
+import org.springframework.context.ApplicationContext
+import org.springframework.context.support.GenericApplicationContext
+
+import spock.lang.Specification
+
+class ControllerInstanceFactorySpec extends Specification {
+
+    GenericApplicationContext context = new GenericApplicationContext()
+
+    void "Test prototype controllers are created with the precomputed injections"() {
+        given:
+            context.beanFactory.registerSingleton("bookService", new InstanceFactoryBookService())
+            registerController(InstanceFactoryBookController, "prototype")
+            context.refresh()
+            def factory = new ControllerInstanceFactory(context)
+            def controllerClass = controllerClass(InstanceFactoryBookController)
+
+        when:
+            def first = factory.getControllerInstance(controllerClass)
+            def second = factory.getControllerInstance(controllerClass)
+
+        then:
+            first instanceof InstanceFactoryBookController
+            !first.is(second)
+            first.bookService.is(context.getBean("bookService"))
+            second.bookService.is(context.getBean("bookService"))
+            first.title == null
+    }
+
+    void "Test singleton controllers are reused"() {
+        given:
+            registerController(InstanceFactoryBookController, "singleton")
+            context.refresh()
+            def factory = new ControllerInstanceFactory(context)
+            def controllerClass = controllerClass(InstanceFactoryBookController)
+
+        expect:
+            factory.getControllerInstance(controllerClass).is(factory.getControllerInstance(controllerClass))
+    }
+
+    void "Test controllers with container callbacks are created by the application context"() {
+        given:
+            registerController(InstanceFactoryAwareController, "prototype")
+            context.refresh()
+            def factory = new ControllerInstanceFactory(context)
+
+        when:
+            def controller = factory.getControllerInstance(controllerClass(InstanceFactoryAwareController))
+
+        then:
+            controller.applicationContext.is(context)
+    }
+
+    private void registerController(Class clazz, String scope) {
+        def beanDefinition = new GenericBeanDefinition(beanClass: clazz, scope: scope,
+            autowireMode: AbstractBeanDefinition.AUTOWIRE_BY_NAME)
+        context.registerBeanDefinition(clazz.name, beanDefinition)
+    }
+
+    private GrailsControllerClass controllerClass(Class clazz) {
+        [getFullName: { -> clazz.name }, getClazz: { -> clazz }] as GrailsControllerClass
+    }
+}
+
+class InstanceFactoryBookService {}
+
+class InstanceFactoryBookController {
+    def bookService
+    String title
+}
+
+class InstanceFactoryAwareController implements ApplicationContextAware {
+    ApplicationContext applicationContext
+}
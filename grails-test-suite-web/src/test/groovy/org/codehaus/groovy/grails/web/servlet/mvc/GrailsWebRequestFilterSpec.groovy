@@ -0,0 +1,120 @@
+package org.codehaus.groovy.grails.web.servlet.mvc
+
+import grails.web.CamelCaseUrlConverter
+import grails.web.UrlConverter
+
+import javax.servlet.FilterChain
+
+import org.codehaus.groovy.grails.commons.DefaultGrailsApplication
+import org.codehaus.groovy.grails.commons.spring.GrailsWebApplicationContext
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolder
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsReloadedEvent
+import org.codehaus.groovy.grails.web.mapping.filter.UrlMappingsFilter
+import org.springframework.mock.web.MockFilterConfig
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockHttpServletResponse
+import org.springframework.mock.web.MockServletContext
+import org.springframework.web.context.WebApplicationContext
+import org.springframework.web.context.request.RequestContextHolder
+
+import spock.lang.Specification
+
+class GrailsWebRequestFilterSpec extends Specification {
+
+    MockServletContext servletContext = new MockServletContext()
+    GrailsWebApplicationContext applicationContext
+    List excludePatterns = ['/css/**']
+    UrlMappingsHolder urlMappingsHolder = [getExcludePatterns: { excludePatterns }] as UrlMappingsHolder
+
+    void setup() {
+        def config = new ConfigObject()
+        config.grails.web.fastPath.enabled = true
+        config.grails.web.fastPath.patterns = ['/health']
+        config.grails.web.fastPath.staticResources = false
+        def application = new DefaultGrailsApplication()
+        application.config = config
+
+        applicationContext = new GrailsWebApplicationContext()
+        applicationContext.servletContext = servletContext
+        applicationContext.beanFactory.registerSingleton('grailsApplication', application)
+        applicationContext.beanFactory.registerSingleton(UrlMappingsHolder.BEAN_ID, urlMappingsHolder)
+        applicationContext.beanFactory.registerSingleton(UrlConverter.BEAN_NAME, new CamelCaseUrlConverter())
+        applicationContext.refresh()
+        application.mainContext = applicationContext
+        servletContext.setAttribute(WebApplicationContext.ROOT_WEB_APPLICATION_CONTEXT_ATTRIBUTE, applicationContext)
+    }
+
+    void cleanup() {
+        applicationContext.close()
+        RequestContextHolder.resetRequestAttributes()
+    }
+
+    void "Test classified paths are passed on without a GrailsWebRequest"() {
+        given:
+        def filter = createFilter()
+        def request = new MockHttpServletRequest(servletContext, 'GET', path)
+        def chainRequestAttributes
+        def chainPathClass
+        def chain = { req, res ->
+            chainRequestAttributes = RequestContextHolder.getRequestAttributes()
+            chainPathClass = req.getAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE)
+        } as FilterChain
+
+        when:
+        filter.doFilter(request, new MockHttpServletResponse(), chain)
+
+        then:
+        (chainRequestAttributes instanceof GrailsWebRequest) == webRequest
+        chainPathClass == pathClass
+        request.getAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE) == null
+
+        where:
+        path            | pathClass                            | webRequest
+        '/health'       | RequestPathClassifier.CONFIGURED     | false
+        '/css/main.css' | RequestPathClassifier.EXCLUDED       | false
+        '/book/list'    | null                                 | true
+    }
+
+    void "Test the URL mappings filter passes classified requests on"() {
+        given:
+        def filter = new UrlMappingsFilter()
+        filter.init(new MockFilterConfig(servletContext))
+        def request = new MockHttpServletRequest(servletContext, 'GET', '/health')
+        request.setAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE, RequestPathClassifier.CONFIGURED)
+        def response = new MockHttpServletResponse()
+        boolean passedOn = false
+
+        when:
+        filter.doFilter(request, response, { req, res -> passedOn = true } as FilterChain)
+
+        then:
+        passedOn
+        response.forwardedUrl == null
+    }
+
+    void "Test the classifier is rebuilt when the URL mappings are reloaded"() {
+        given:
+        def filter = createFilter()
+
+        when:
+        excludePatterns = ['/js/**']
+
+        then:
+        filter.requestPathClassifier.classify('/css/main.css') == RequestPathClassifier.EXCLUDED
+        filter.requestPathClassifier.classify('/js/app.js') == null
+
+        when:
+        applicationContext.publishEvent(new UrlMappingsReloadedEvent(urlMappingsHolder))
+
+        then:
+        filter.requestPathClassifier.classify('/css/main.css') == null
+        filter.requestPathClassifier.classify('/js/app.js') == RequestPathClassifier.EXCLUDED
+        filter.requestPathClassifier.classify('/health') == RequestPathClassifier.CONFIGURED
+    }
+
+    private GrailsWebRequestFilter createFilter() {
+        def filter = new GrailsWebRequestFilter()
+        filter.init(new MockFilterConfig(servletContext))
+        filter
+    }
+}
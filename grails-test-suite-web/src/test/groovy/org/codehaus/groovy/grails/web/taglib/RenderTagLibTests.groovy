@@ -17,8 +17,11 @@ package org.codehaus.groovy.grails.web.taglib
 
 import grails.util.GrailsUtil
 
+import java.util.concurrent.atomic.AtomicInteger
+
 import org.codehaus.groovy.grails.commons.UrlMappingsArtefactHandler
 import org.codehaus.groovy.grails.support.MockStringResourceLoader
+import org.codehaus.groovy.grails.support.PersistenceContextInterceptor
 import org.codehaus.groovy.grails.web.pages.FastStringWriter
 import org.codehaus.groovy.grails.web.pages.GroovyPageBinding
 import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes
@@ -26,6 +29,7 @@ import org.codehaus.groovy.grails.web.sitemesh.FactoryHolder
 import org.codehaus.groovy.grails.web.sitemesh.GSPSitemeshPage
 import org.codehaus.groovy.grails.web.sitemesh.GrailsLayoutDecoratorMapper
 import org.codehaus.groovy.grails.web.taglib.exceptions.GrailsTagException
+import org.springframework.transaction.support.TransactionSynchronizationManager
 import org.springframework.web.servlet.support.RequestContextUtils as RCU
 
 import com.opensymphony.module.sitemesh.RequestConstants
@@ -237,6 +241,115 @@ class RenderTagLibTests extends AbstractGrailsTagTests {
         assertOutputEquals '[book = The Stand it=The Stand foo=bar][book = The Shining it=The Shining foo=bar]', template, [books:['The Stand', 'The Shining']]
     }
 
+    void testRenderTagCachesOutput() {
+        appCtx.groovyPagesTemplateRenderer.clearCache()
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_cached.gsp', '[${name} ${calls.incrementAndGet()}]')
+        appCtx.groovyPagesTemplateEngine.groovyPageLocator.addResourceLoader(resourceLoader)
+
+        def calls = new java.util.concurrent.atomic.AtomicInteger()
+        def template = '<g:render template="/book/cached" model="[name: name, calls: calls]" cache="true" /><g:render template="/book/cached" model="[name: name, calls: calls]" cache="true" />'
+        assertOutputEquals '[one 1][one 1]', template, [name: 'one', calls: calls]
+        assertOutputEquals '[two 2][two 2]', template, [name: 'two', calls: calls]
+
+        template = '<g:render template="/book/cached" model="[name: name, calls: calls]" cacheKey="key" />'
+        assertOutputEquals '[three 3]', template, [name: 'three', calls: calls]
+        assertOutputEquals '[three 3]', template, [name: 'four', calls: calls]
+
+        def fragmentCache = appCtx.groovyPagesTemplateRenderer.fragmentCache
+        assertEquals 3, fragmentCache.hitCount
+        assertEquals 3, fragmentCache.missCount
+    }
+
+    void testRenderTagCollectionInParallel() {
+        def renderer = appCtx.groovyPagesTemplateRenderer
+        renderer.clearCache()
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_row.gsp', '[${it} ${foo}]')
+        appCtx.groovyPagesTemplateEngine.groovyPageLocator.addResourceLoader(resourceLoader)
+
+        renderer.parallelRenderingThreads = 4
+        renderer.afterPropertiesSet()
+        try {
+            def books = (1..50).collect { "Book $it".toString() }
+            def template = '<g:render template="/book/row" collection="${books}" model="[foo: \'bar\']" parallel="true" />'
+            assertOutputEquals books.collect { "[$it bar]" }.join(''), template, [books: books]
+        }
+        finally {
+            renderer.destroy()
+            renderer.parallelRenderingThreads = 0
+        }
+    }
+
+    void testRenderTagCollectionInParallelUsesPoolThreads() {
+        def renderer = appCtx.groovyPagesTemplateRenderer
+        renderer.clearCache()
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_thread.gsp', '[${it} ${Thread.currentThread().name.startsWith(\'gsp-render-\') ? \'pool\' : \'caller\'}]')
+        appCtx.groovyPagesTemplateEngine.groovyPageLocator.addResourceLoader(resourceLoader)
+
+        renderer.parallelRenderingThreads = 4
+        renderer.afterPropertiesSet()
+        try {
+            def template = '<g:render template="/book/thread" collection="${books}" parallel="true" />'
+            assertOutputEquals((1..20).collect { "[$it pool]" }.join(''), template, [books: 1..20])
+        }
+        finally {
+            renderer.destroy()
+            renderer.parallelRenderingThreads = 0
+        }
+    }
+
+    void testRenderTagCollectionInParallelOpensPersistenceContextPerTask() {
+        def renderer = appCtx.groovyPagesTemplateRenderer
+        renderer.clearCache()
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_lazy.gsp', '[${it.title} by ${it.author} ${Thread.currentThread().name.startsWith(\'gsp-render-\') ? \'pool\' : \'caller\'}]')
+        appCtx.groovyPagesTemplateEngine.groovyPageLocator.addResourceLoader(resourceLoader)
+
+        def interceptor = new SessionBindingInterceptor()
+        renderer.persistenceContextInterceptors = [interceptor]
+        renderer.parallelRenderingThreads = 4
+        renderer.afterPropertiesSet()
+        // the session opened for the request
+        TransactionSynchronizationManager.bindResource(LazyAuthorBook.SESSION_KEY, new Object())
+        try {
+            def books = (1..10).collect { new LazyAuthorBook(title: "Book $it") }
+            def template = '<g:render template="/book/lazy" collection="${books}" parallel="true" />'
+            assertOutputEquals books.collect { "[$it.title by Stephen King pool]" }.join(''), template, [books: books]
+            assertEquals 10, interceptor.initCount.get()
+            assertEquals 10, interceptor.flushCount.get()
+            assertEquals 10, interceptor.destroyCount.get()
+        }
+        finally {
+            TransactionSynchronizationManager.unbindResource(LazyAuthorBook.SESSION_KEY)
+            renderer.destroy()
+            renderer.parallelRenderingThreads = 0
+            renderer.persistenceContextInterceptors = null
+        }
+    }
+
+    void testRenderTagCollectionInTransactionRendersSequentially() {
+        def renderer = appCtx.groovyPagesTemplateRenderer
+        renderer.clearCache()
+        def resourceLoader = new MockStringResourceLoader()
+        resourceLoader.registerMockResource('/book/_thread.gsp', '[${it} ${Thread.currentThread().name.startsWith(\'gsp-render-\') ? \'pool\' : \'caller\'}]')
+        appCtx.groovyPagesTemplateEngine.groovyPageLocator.addResourceLoader(resourceLoader)
+
+        renderer.parallelRenderingThreads = 4
+        renderer.afterPropertiesSet()
+        TransactionSynchronizationManager.initSynchronization()
+        try {
+            def template = '<g:render template="/book/thread" collection="${books}" parallel="true" />'
+            assertOutputEquals((1..5).collect { "[$it caller]" }.join(''), template, [books: 1..5])
+        }
+        finally {
+            TransactionSynchronizationManager.clearSynchronization()
+            renderer.destroy()
+            renderer.parallelRenderingThreads = 0
+        }
+    }
+
     void testRenderTagBeforeAndAfterModel() {
 
         def resourceLoader = new MockStringResourceLoader()
@@ -631,3 +744,49 @@ class RenderTagLibTests extends AbstractGrailsTagTests {
         assertOutputEquals '<layoutapplied> - Hello world!</layoutapplied>', template
     }
 }
+
+/**
+ * Loads its author like a lazy association, which only works in a thread a session is bound to.
+ */
+class LazyAuthorBook {
+    static final Object SESSION_KEY = new Object()
+
+    String title
+
+    String getAuthor() {
+        if (!TransactionSynchronizationManager.hasResource(SESSION_KEY)) {
+            throw new IllegalStateException('could not initialize proxy - no Session')
+        }
+        'Stephen King'
+    }
+}
+
+/**
+ * Binds a session to the thread like the Hibernate persistence context interceptor.
+ */
+class SessionBindingInterceptor implements PersistenceContextInterceptor {
+    AtomicInteger initCount = new AtomicInteger()
+    AtomicInteger flushCount = new AtomicInteger()
+    AtomicInteger destroyCount = new AtomicInteger()
+
+    void init() {
+        initCount.incrementAndGet()
+        TransactionSynchronizationManager.bindResource(LazyAuthorBook.SESSION_KEY, new Object())
+    }
+
+    void destroy() {
+        destroyCount.incrementAndGet()
+        TransactionSynchronizationManager.unbindResource(LazyAuthorBook.SESSION_KEY)
+    }
+
+    void flush() {
+        flushCount.incrementAndGet()
+    }
+
+    void disconnect() {}
+    void reconnect() {}
+    void clear() {}
+    void setReadOnly() {}
+    void setReadWrite() {}
+    boolean isOpen() { TransactionSynchronizationManager.hasResource(LazyAuthorBook.SESSION_KEY) }
+}
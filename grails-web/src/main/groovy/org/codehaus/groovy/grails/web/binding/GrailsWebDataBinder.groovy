@@ -66,6 +66,14 @@ class GrailsWebDataBinder extends SimpleDataBinder {
     boolean convertEmptyStringsToNull = true
     protected List<DataBindingListener> listeners = []
 
+    /**
+     * The maximum number of identifiers looked up with one getAll call when associations are prefetched,
+     * 0 to look up each associated instance with get
+     */
+    int associationBatchSize = 100
+
+    protected static final ThreadLocal<Map<Class, Map<String, Object>>> PREFETCHED_INSTANCES = new ThreadLocal<Map<Class, Map<String, Object>>>()
+
     GrailsWebDataBinder(GrailsApplication grailsApplication) {
         this.grailsApplication = grailsApplication
         this.conversionService = new SpringConversionServiceAdapter()
@@ -98,7 +106,19 @@ class GrailsWebDataBinder extends SimpleDataBinder {
         boolean bind = listenerWrapper.beforeBinding(object, bindingResult)
 
         if (bind) {
-            super.doBind object, source, filter, whiteList, blackList, listenerWrapper, bindingResult
+            // the instances are prefetched for the outermost object, nested objects are bound within its binding
+            boolean prefetch = associationBatchSize > 0 && source.dataSourceAware && PREFETCHED_INSTANCES.get() == null
+            if (prefetch) {
+                PREFETCHED_INSTANCES.set(prefetchPersistentInstances(object, source, filter, whiteList, blackList))
+            }
+            try {
+                super.doBind object, source, filter, whiteList, blackList, listenerWrapper, bindingResult
+            }
+            finally {
+                if (prefetch) {
+                    PREFETCHED_INSTANCES.remove()
+                }
+            }
         }
 
         listenerWrapper.afterBinding object, bindingResult
@@ -188,11 +208,113 @@ class GrailsWebDataBinder extends SimpleDataBinder {
     }
 
     protected getPersistentInstance(Class<?> type, id) {
+        Map<String, Object> prefetched = PREFETCHED_INSTANCES.get()?.get(type)
+        if (prefetched != null && id != null) {
+            String key = id.toString()
+            if (prefetched.containsKey(key)) {
+                return prefetched.get(key)
+            }
+        }
         try {
             InvokerHelper.invokeStaticMethod type, 'get', id
         } catch (Exception exc) {}
     }
 
+    /**
+     * Gathers the identifiers of the instances referenced by the collection properties of the binding source
+     * and looks them up with one getAll call per associated type and batch, instead of one get call each.
+     *
+     * @return The instances found, by associated type and identifier. Identifiers that weren't found map to null
+     */
+    protected Map<Class, Map<String, Object>> prefetchPersistentInstances(obj, DataBindingSource source, String filter, List whiteList, List blackList) {
+        Map<Class, Set<String>> identifiersByType = [:]
+        for (String key in source.propertyNames) {
+            if (filter && !key.startsWith(filter + '.')) {
+                continue
+            }
+            String propName = filter ? key.substring(filter.length() + 1) : key
+            def descriptor = getIndexedPropertyReferenceDescriptor propName
+            String collectionName = descriptor ? descriptor.propertyName : propName
+            MetaProperty metaProperty = obj.metaClass.getMetaProperty collectionName
+            if (metaProperty == null || !isOkToBind(collectionName, whiteList, blackList)) {
+                continue
+            }
+            if (!Collection.isAssignableFrom(metaProperty.type) && !(descriptor && Map.isAssignableFrom(metaProperty.type))) {
+                continue
+            }
+            Class referencedType = getReferencedTypeForCollection(collectionName, obj)
+            if (referencedType == null || !isDomainClass(referencedType)) {
+                continue
+            }
+
+            def val = source.getPropertyValue key
+            Collection items
+            if (descriptor) {
+                items = [val]
+            } else if (val instanceof Collection) {
+                items = (Collection)val
+            } else if (val instanceof Object[]) {
+                items = Arrays.asList((Object[])val)
+            } else {
+                continue
+            }
+            for (item in items) {
+                def idValue = getIdentifierValueFrom(item)
+                if (idValue != null && idValue != 'null' && idValue != '') {
+                    Set<String> identifiers = identifiersByType.get(referencedType)
+                    if (identifiers == null) {
+                        identifiers = new LinkedHashSet<String>()
+                        identifiersByType.put referencedType, identifiers
+                    }
+                    identifiers.add idValue.toString()
+                }
+            }
+        }
+
+        Map<Class, Map<String, Object>> instances = [:]
+        for (Map.Entry<Class, Set<String>> entry in identifiersByType.entrySet()) {
+            if (entry.value.size() > 1) {
+                def found = getPersistentInstances(entry.key, new ArrayList<String>(entry.value))
+                if (found != null) {
+                    instances.put entry.key, found
+                }
+            }
+        }
+        instances
+    }
+
+    /**
+     * @return The instances by identifier or null if the instances of the type can't be looked up with getAll
+     */
+    protected Map<String, Object> getPersistentInstances(Class<?> type, List<String> identifiers) {
+        def domainClass = (GrailsDomainClass)grailsApplication?.getArtefact(DomainClassArtefactHandler.TYPE, type.name)
+        Class identifierType = domainClass?.identifier?.type
+        if (identifierType == null) {
+            return null
+        }
+
+        Map<String, Object> instances = [:]
+        try {
+            for (int start = 0; start < identifiers.size(); start += associationBatchSize) {
+                List<String> batch = identifiers.subList(start, Math.min(start + associationBatchSize, identifiers.size()))
+                List ids = []
+                for (String id in batch) {
+                    ids << convert(identifierType, id)
+                }
+                def found = InvokerHelper.invokeStaticMethod(type, 'getAll', [ids] as Object[])
+                if (!(found instanceof List) || ((List)found).size() != batch.size()) {
+                    return null
+                }
+                for (int i = 0; i < batch.size(); i++) {
+                    instances.put batch[i], ((List)found)[i]
+                }
+            }
+        } catch (Exception e) {
+            return null
+        }
+        instances
+    }
+
     /**
      * @param obj any object
      * @param propName the name of a property on obj
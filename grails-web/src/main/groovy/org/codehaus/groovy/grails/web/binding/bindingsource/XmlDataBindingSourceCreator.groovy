@@ -18,6 +18,8 @@ package org.codehaus.groovy.grails.web.binding.bindingsource
 import groovy.transform.CompileStatic
 import groovy.util.slurpersupport.GPathResult
 
+import javax.xml.stream.XMLStreamException
+
 import org.codehaus.groovy.grails.web.mime.MimeType
 import org.grails.databinding.CollectionDataBindingSource
 import org.grails.databinding.DataBindingSource
@@ -27,6 +29,7 @@ import org.grails.databinding.bindingsource.DataBindingSourceCreationException
 import org.grails.databinding.bindingsource.InvalidRequestBodyException
 import org.grails.databinding.xml.GPathResultCollectionDataBindingSource
 import org.grails.databinding.xml.GPathResultMap
+import org.grails.databinding.xml.StaxCollectionDataBindingSource
 import org.xml.sax.SAXParseException
 
 /**
@@ -39,6 +42,14 @@ import org.xml.sax.SAXParseException
 @CompileStatic
 class XmlDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceCreator {
 
+    /**
+     * When true request bodies bound to collections are read with StAX one element at a time
+     * instead of being parsed into a GPathResult. Malformed XML then fails with an
+     * InvalidRequestBodyException when the element containing the error is read, after the
+     * preceding elements were bound
+     */
+    boolean streamingCollectionBinding = false
+
     @Override
     MimeType[] getMimeTypes() {
         [MimeType.XML, MimeType.TEXT_XML] as MimeType[]
@@ -72,6 +83,15 @@ class XmlDataBindingSourceCreator extends AbstractRequestBodyDataBindingSourceCr
 
     @Override
     protected CollectionDataBindingSource createCollectionBindingSource(Reader reader) {
+        if(streamingCollectionBinding) {
+            // malformed XML is only found when the element containing the error is read
+            return new StaxCollectionDataBindingSource(reader) {
+                @Override
+                protected RuntimeException createReadException(XMLStreamException e) {
+                    new InvalidRequestBodyException(e)
+                }
+            }
+        }
         def gpath = new XmlSlurper().parse(reader)
         return new GPathResultCollectionDataBindingSource(gpath)
     }
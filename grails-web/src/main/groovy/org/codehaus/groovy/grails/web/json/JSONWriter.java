@@ -4,7 +4,7 @@ import static org.codehaus.groovy.grails.web.json.JSONWriter.Mode.*;
 
 import java.io.IOException;
 import java.io.Writer;
-import java.util.Stack;
+import java.util.Date;
 /*
 Copyright (c) 2006 JSON.org
 
@@ -61,6 +61,8 @@ SOFTWARE.
  */
 public class JSONWriter {
 
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
     /**
      * The comma flag determines if a comma should be output before the next
      * value.
@@ -75,7 +77,17 @@ public class JSONWriter {
     /**
      * The Mode stack.
      */
-    private Stack<Mode> stack = new Stack<Mode>();
+    private Mode[] stack = new Mode[16];
+
+    /**
+     * The number of modes on the stack.
+     */
+    private int stackSize;
+
+    /**
+     * Buffer for writing integral numbers without creating a String.
+     */
+    private final char[] numberBuffer = new char[20];
 
     /**
      * The writer that will receive the output.
@@ -100,22 +112,39 @@ public class JSONWriter {
         if (s == null) {
             throw new JSONException("Null pointer");
         }
-        if (this.mode == OBJECT || this.mode == ARRAY) {
-            try {
-                if (this.comma && this.mode == ARRAY) {
-                    this.comma();
-                }
-                this.writer.write(s);
-            } catch (IOException e) {
-                throw new JSONException(e);
-            }
-            if (this.mode == OBJECT) {
-                this.mode = KEY;
-            }
-            this.comma = true;
-            return this;
+        if (this.mode != OBJECT && this.mode != ARRAY) {
+            throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + s + "' but was " + this.mode);
+        }
+        startValue();
+        try {
+            this.writer.write(s);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        endValue();
+        return this;
+    }
+
+    /**
+     * Called before a value is written, checks the mode and writes any separator that precedes the value.
+     */
+    protected void startValue() {
+        if (this.mode != OBJECT && this.mode != ARRAY) {
+            throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY but was " + this.mode);
+        }
+        if (this.comma && this.mode == ARRAY) {
+            this.comma();
         }
-        throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + s + "' but was " + this.mode);
+    }
+
+    /**
+     * Called after a value has been written.
+     */
+    protected void endValue() {
+        if (this.mode == OBJECT) {
+            this.mode = KEY;
+        }
+        this.comma = true;
     }
 
     protected void comma() {
@@ -201,7 +230,7 @@ public class JSONWriter {
                 if (this.comma) {
                     this.comma();
                 }
-                this.writer.write(JSONObject.quote(s));
+                this.writeQuoted(s);
                 this.writer.write(':');
                 this.comma = false;
                 this.mode = OBJECT;
@@ -242,11 +271,12 @@ public class JSONWriter {
      * @param c The scope to close.
      */
     protected void pop(Mode c) {
-        if (this.stack.size() == 0 || this.stack.pop() != c) {
+        if (this.stackSize == 0 || this.stack[--this.stackSize] != c) {
             throw new JSONException("Nesting error.");
         }
-        if (this.stack.size() > 0)
-            this.mode = this.stack.peek();
+        this.stack[this.stackSize] = null;
+        if (this.stackSize > 0)
+            this.mode = this.stack[this.stackSize - 1];
         else
             this.mode = DONE;
 
@@ -258,7 +288,12 @@ public class JSONWriter {
      * @param c The scope to open.
      */
     protected void push(Mode c) {
-        this.stack.push(c);
+        if (this.stackSize == this.stack.length) {
+            Mode[] newStack = new Mode[this.stack.length * 2];
+            System.arraycopy(this.stack, 0, newStack, 0, this.stackSize);
+            this.stack = newStack;
+        }
+        this.stack[this.stackSize++] = c;
         this.mode = c;
     }
 
@@ -291,7 +326,14 @@ public class JSONWriter {
      * @return this
      */
     public JSONWriter value(long l) {
-        return append(Long.toString(l));
+        startValue();
+        try {
+            writeLong(l);
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        endValue();
+        return this;
     }
 
 
@@ -303,7 +345,145 @@ public class JSONWriter {
      * @return this
      */
     public JSONWriter value(Object o) {
-        return append(JSONObject.valueToString(o));
+        if (o == null || o.equals(null)) {
+            return append("null");
+        }
+        if (o instanceof Boolean || o instanceof JSONObject || o instanceof JSONArray) {
+            return append(o.toString());
+        }
+        if (o instanceof Number) {
+            // checked before anything is written
+            JSONObject.testValidity(o);
+        }
+
+        startValue();
+        try {
+            if (o instanceof Number) {
+                writeNumber((Number) o);
+            }
+            else if (o instanceof Date) {
+                this.writer.write("new Date(");
+                writeLong(((Date) o).getTime());
+                this.writer.write(')');
+            }
+            else {
+                writeQuoted(o.toString());
+            }
+        } catch (IOException e) {
+            throw new JSONException(e);
+        }
+        endValue();
+        return this;
+    }
+
+    /**
+     * Writes a number in the same format as {@link JSONObject#numberToString(Number)}.
+     *
+     * @param n The number
+     * @throws IOException If writing fails
+     */
+    protected void writeNumber(Number n) throws IOException {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            writeLong(n.longValue());
+        }
+        else {
+            this.writer.write(JSONObject.numberToString(n));
+        }
+    }
+
+    /**
+     * Writes the decimal digits of a long value without creating a String.
+     *
+     * @param l The value
+     * @throws IOException If writing fails
+     */
+    protected void writeLong(long l) throws IOException {
+        if (l == Long.MIN_VALUE) {
+            this.writer.write(Long.toString(l));
+            return;
+        }
+        char[] buf = this.numberBuffer;
+        int pos = buf.length;
+        boolean negative = l < 0;
+        if (negative) {
+            l = -l;
+        }
+        do {
+            buf[--pos] = (char) ('0' + (int) (l % 10));
+            l /= 10;
+        } while (l != 0);
+        if (negative) {
+            buf[--pos] = '-';
+        }
+        this.writer.write(buf, pos, buf.length - pos);
+    }
+
+    /**
+     * Writes the string as a quoted JSON string, escaping straight into the writer.
+     * Produces the same output as {@link JSONObject#quote(String)}.
+     *
+     * @param string The string to quote
+     * @throws IOException If writing fails
+     */
+    protected void writeQuoted(String string) throws IOException {
+        Writer w = this.writer;
+        w.write('"');
+        int len = string.length();
+        int start = 0;
+        char c = 0;
+        for (int i = 0; i < len; i++) {
+            char b = c;
+            c = string.charAt(i);
+            String escape;
+            switch (c) {
+                case '\\':
+                    escape = "\\\\";
+                    break;
+                case '"':
+                    escape = "\\\"";
+                    break;
+                case '/':
+                    escape = b == '<' ? "\\/" : null;
+                    break;
+                case '\b':
+                    escape = "\\b";
+                    break;
+                case '\t':
+                    escape = "\\t";
+                    break;
+                case '\n':
+                    escape = "\\n";
+                    break;
+                case '\f':
+                    escape = "\\f";
+                    break;
+                case '\r':
+                    escape = "\\r";
+                    break;
+                default:
+                    escape = null;
+                    if (c < ' ') {
+                        if (i > start) {
+                            w.write(string, start, i - start);
+                        }
+                        w.write("\\u00");
+                        w.write(HEX_DIGITS[(c >> 4) & 0xF]);
+                        w.write(HEX_DIGITS[c & 0xF]);
+                        start = i + 1;
+                    }
+            }
+            if (escape != null) {
+                if (i > start) {
+                    w.write(string, start, i - start);
+                }
+                w.write(escape);
+                start = i + 1;
+            }
+        }
+        if (len > start) {
+            w.write(string, start, len - start);
+        }
+        w.write('"');
     }
 
     /**
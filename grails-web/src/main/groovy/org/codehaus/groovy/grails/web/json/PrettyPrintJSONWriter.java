@@ -71,33 +71,12 @@ public class PrettyPrintJSONWriter extends JSONWriter {
     }
 
     @Override
-    protected JSONWriter append(String s) {
-        if (s == null) {
-            throw new JSONException("Null pointer");
+    protected void startValue() {
+        super.startValue();
+        if (mode == ARRAY) {
+            newline();
+            indent();
         }
-
-        if (mode == OBJECT || mode == ARRAY) {
-            try {
-                if (comma && mode == ARRAY) {
-                    comma();
-                }
-                if (mode == ARRAY) {
-                    newline();
-                    indent();
-                }
-                writer.write(s);
-            }
-            catch (IOException e) {
-                throw new JSONException(e);
-            }
-            if (mode == OBJECT) {
-                mode = KEY;
-            }
-            comma = true;
-            return this;
-        }
-
-        throw new JSONException("Value out of sequence: expected mode to be OBJECT or ARRAY when writing '" + s + "' but was " + this.mode);
     }
 
     @Override
@@ -148,7 +127,7 @@ public class PrettyPrintJSONWriter extends JSONWriter {
                 }
                 newline();
                 indent();
-                writer.write(JSONObject.quote(s));
+                writeQuoted(s);
                 writer.write(": ");
                 comma = false;
                 mode = OBJECT;
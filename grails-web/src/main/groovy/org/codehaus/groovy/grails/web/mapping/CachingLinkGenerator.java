@@ -15,6 +15,9 @@
  */
 package org.codehaus.groovy.grails.web.mapping;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
@@ -25,6 +28,9 @@ import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
 /**
  * A link generator that uses a LRU cache to cache generated links.
  *
+ * Links with an id or params are created from a {@link LinkTemplate} cached for the other attributes and the
+ * parameter names, so that links to many different entities don't each need a cache entry.
+ *
  * @since 2.0
  * @author Graeme Rocher
  */
@@ -34,6 +40,7 @@ public class CachingLinkGenerator extends DefaultLinkGenerator {
     private static final int DEFAULT_MAX_WEIGHTED_CAPACITY = 5000;
     public static final String LINK_PREFIX = "link";
     public static final String RESOURCE_PREFIX = "resource";
+    public static final String TEMPLATE_PREFIX = "template";
     public static final String USED_ATTRIBUTES_SUFFIX = "-used-attributes";
     public static final String EMPTY_MAP_STRING = "[:]";
     private static final String OPENING_BRACKET = "[";
@@ -44,8 +51,10 @@ public class CachingLinkGenerator extends DefaultLinkGenerator {
     private static final String URL_ATTRIBUTE = "url";
     private static final String URI_ATTRIBUTE = "uri";
     private static final String BASE = "base";
+    private static final Object NO_TEMPLATE = new Object();
 
     private Map<String, Object> linkCache;
+    private boolean useTemplates = true;
 
     public CachingLinkGenerator(String serverBaseURL, String contextPath) {
         super(serverBaseURL, contextPath);
@@ -73,6 +82,13 @@ public class CachingLinkGenerator extends DefaultLinkGenerator {
             return super.link(attrs, encoding);
         }
 
+        if (useTemplates) {
+            String link = linkFromTemplate(attrs, encoding);
+            if (link != null) {
+                return link;
+            }
+        }
+
         final String key = makeKey(LINK_PREFIX, attrs);
         Object resourceLink = linkCache.get(key);
         if (resourceLink == null) {
@@ -82,6 +98,71 @@ public class CachingLinkGenerator extends DefaultLinkGenerator {
         return resourceLink.toString();
     }
 
+    /**
+     * Creates the link from a template when the attributes contain an id or params.
+     *
+     * @param attrs The link attributes
+     * @param encoding The encoding
+     * @return The link or null if it can't be created from a template
+     */
+    @SuppressWarnings("unchecked")
+    protected String linkFromTemplate(Map attrs, String encoding) {
+        if (encoding == null || attrs.get(URL_ATTRIBUTE) != null || attrs.get(URI_ATTRIBUTE) != null ||
+                attrs.get(ATTRIBUTE_RESOURCE) != null) {
+            return null;
+        }
+
+        List<Object> values = new ArrayList<Object>();
+        Map templateAttrs = new LinkedHashMap(attrs);
+        Object id = attrs.get(ATTRIBUTE_ID);
+        if (id != null) {
+            if (!isTemplateValue(id)) {
+                return null;
+            }
+            templateAttrs.put(ATTRIBUTE_ID, LinkTemplate.placeholder(values.size()));
+            values.add(id);
+        }
+        Object params = attrs.get(ATTRIBUTE_PARAMS);
+        if (params instanceof Map) {
+            Map templateParams = new LinkedHashMap();
+            for (Object o : ((Map)params).entrySet()) {
+                Map.Entry entry = (Map.Entry)o;
+                if (!isTemplateValue(entry.getValue())) {
+                    return null;
+                }
+                templateParams.put(entry.getKey(), LinkTemplate.placeholder(values.size()));
+                values.add(entry.getValue());
+            }
+            templateAttrs.put(ATTRIBUTE_PARAMS, templateParams);
+        }
+        if (values.isEmpty()) {
+            return null;
+        }
+
+        final String key = makeKey(TEMPLATE_PREFIX + encoding, templateAttrs);
+        Object template = linkCache.get(key);
+        if (template == null) {
+            try {
+                template = LinkTemplate.compile(super.link(templateAttrs, encoding), values.size(), encoding);
+            }
+            catch (RuntimeException e) {
+                // the link is generated from the actual values, which reports the problem if there is one
+                template = null;
+            }
+            if (template == null) {
+                template = NO_TEMPLATE;
+            }
+            linkCache.put(key, template);
+        }
+        return template == NO_TEMPLATE ? null : ((LinkTemplate)template).expand(values);
+    }
+
+    private boolean isTemplateValue(Object value) {
+        // null, empty and multiple values change the structure of the link
+        return (value instanceof CharSequence || value instanceof Number || value instanceof Boolean) &&
+                value.toString().length() > 0;
+    }
+
     private boolean isCacheable(Map attrs) {
         Object urlAttr = attrs.get(URL_ATTRIBUTE);
         if (urlAttr instanceof Map) {
@@ -172,4 +253,15 @@ public class CachingLinkGenerator extends DefaultLinkGenerator {
     public void clearCache() {
         linkCache.clear();
     }
+
+    public boolean isUseTemplates() {
+        return useTemplates;
+    }
+
+    /**
+     * @param useTemplates Whether links with an id or params are created from templates, true by default
+     */
+    public void setUseTemplates(boolean useTemplates) {
+        this.useTemplates = useTemplates;
+    }
 }
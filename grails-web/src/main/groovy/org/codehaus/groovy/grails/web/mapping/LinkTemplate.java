@@ -0,0 +1,169 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.mapping;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URLEncoder;
+import java.util.List;
+
+/**
+ * A link compiled from a link generated with placeholders in place of the variable values. The link is split
+ * into constant segments and the values are encoded the way the placeholders were encoded, so that a link for
+ * other values can be created without generating it again.
+ *
+ * A placeholder contains a space and a non ASCII character, so the way the URL creator encoded it (raw, as a
+ * query string value or as a path segment) and the charset it used can be told from the generated link.
+ *
+ * @since 2.3
+ */
+class LinkTemplate {
+
+    private static final char PLACEHOLDER_MARK = '\u00a7';
+
+    private static final int RAW = 0;
+    private static final int FORM_ENCODED = 1;
+    private static final int PATH_ENCODED = 2;
+
+    private final String encoding;
+    private final String[] segments;
+    private final int[] variables;
+    private final int[] forms;
+
+    private LinkTemplate(String encoding, String[] segments, int[] variables, int[] forms) {
+        this.encoding = encoding;
+        this.segments = segments;
+        this.variables = variables;
+        this.forms = forms;
+    }
+
+    /**
+     * @param index The index of the variable
+     * @return The placeholder used in place of the value of the variable
+     */
+    static String placeholder(int index) {
+        return PLACEHOLDER_MARK + String.valueOf(index) + ' ' + PLACEHOLDER_MARK;
+    }
+
+    /**
+     * Compiles a link generated with placeholders.
+     *
+     * @param link The link
+     * @param variableCount The number of placeholders
+     * @param encoding The encoding the link was generated with
+     * @return The template or null if each placeholder doesn't appear exactly once in one of the known forms
+     */
+    static LinkTemplate compile(String link, int variableCount, String encoding) {
+        int[] positions = new int[variableCount];
+        int[] lengths = new int[variableCount];
+        int[] variableForms = new int[variableCount];
+        try {
+            for (int i = 0; i < variableCount; i++) {
+                String raw = placeholder(i);
+                String formEncoded = URLEncoder.encode(raw, encoding);
+                String[] candidates = { raw, formEncoded, formEncoded.replace("+", "%20") };
+
+                int found = -1;
+                for (int form = 0; form < candidates.length; form++) {
+                    int position = link.indexOf(candidates[form]);
+                    if (position < 0) {
+                        continue;
+                    }
+                    if (found > -1 || link.indexOf(candidates[form], position + 1) > -1) {
+                        return null;
+                    }
+                    found = form;
+                    positions[i] = position;
+                    lengths[i] = candidates[form].length();
+                }
+                if (found < 0) {
+                    return null;
+                }
+                variableForms[i] = found;
+            }
+        }
+        catch (UnsupportedEncodingException e) {
+            return null;
+        }
+
+        // order the variables by their position in the link
+        int[] variables = new int[variableCount];
+        for (int i = 0; i < variableCount; i++) {
+            variables[i] = i;
+        }
+        for (int i = 1; i < variableCount; i++) {
+            int variable = variables[i];
+            int j = i - 1;
+            while (j >= 0 && positions[variables[j]] > positions[variable]) {
+                variables[j + 1] = variables[j];
+                j--;
+            }
+            variables[j + 1] = variable;
+        }
+
+        String[] segments = new String[variableCount + 1];
+        int[] forms = new int[variableCount];
+        int start = 0;
+        for (int i = 0; i < variableCount; i++) {
+            int variable = variables[i];
+            if (positions[variable] < start) {
+                return null;
+            }
+            segments[i] = link.substring(start, positions[variable]);
+            forms[i] = variableForms[variable];
+            start = positions[variable] + lengths[variable];
+        }
+        segments[variableCount] = link.substring(start);
+        return new LinkTemplate(encoding, segments, variables, forms);
+    }
+
+    /**
+     * Creates the link for the given values.
+     *
+     * @param values The values of the variables
+     * @return The link or null if a value can't be inserted the way the URL creator would have
+     */
+    String expand(List<Object> values) {
+        StringBuilder link = new StringBuilder(segments[0]);
+        try {
+            for (int i = 0; i < variables.length; i++) {
+                String value = values.get(variables[i]).toString();
+                switch (forms[i]) {
+                    case RAW:
+                        // URL creators insert raw values with String.replaceFirst
+                        if (value.indexOf('$') > -1 || value.indexOf('\\') > -1) {
+                            return null;
+                        }
+                        link.append(value);
+                        break;
+                    case FORM_ENCODED:
+                        link.append(URLEncoder.encode(value, encoding));
+                        break;
+                    case PATH_ENCODED:
+                        // values with slashes are split into several path segments
+                        if (value.indexOf('/') > -1) {
+                            return null;
+                        }
+                        link.append(URLEncoder.encode(value, encoding).replace("+", "%20"));
+                }
+                link.append(segments[i + 1]);
+            }
+        }
+        catch (UnsupportedEncodingException e) {
+            return null;
+        }
+        return link.toString();
+    }
+}
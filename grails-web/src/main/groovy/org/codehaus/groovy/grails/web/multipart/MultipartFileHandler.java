@@ -0,0 +1,57 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.multipart;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItemStream;
+import org.springframework.web.multipart.MultipartFile;
+
+/**
+ * Handles the file parts of a multipart request parsed by {@link StreamingMultipartResolver}, while the
+ * request body is read. A handler can pipe the content straight to its storage, digest it or reject the part
+ * by its size or content type without buffering it first.
+ *
+ * When a bean with the name {@link #BEAN_NAME} is defined it replaces the default handler, which buffers
+ * the parts like the commons multipart resolver.
+ *
+ * @since 2.3
+ */
+public interface MultipartFileHandler {
+
+    String BEAN_NAME = "multipartFileHandler";
+
+    /**
+     * Handles a file part. The stream of the part can only be read before this method returns.
+     *
+     * @param request The request
+     * @param part The part, with its field name, file name, content type and headers
+     * @return The file made available to the request or null to skip the part
+     * @throws IOException If the part can't be read
+     * @throws org.springframework.web.multipart.MultipartException To reject the request
+     */
+    MultipartFile handle(HttpServletRequest request, FileItemStream part) throws IOException;
+
+    /**
+     * Releases the resources of a file returned by {@link #handle(HttpServletRequest, FileItemStream)} once the
+     * request is complete.
+     *
+     * @param file The file
+     */
+    void cleanup(MultipartFile file);
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.multipart;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItem;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.apache.commons.fileupload.util.Streams;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.commons.CommonsMultipartFile;
+
+/**
+ * The default {@link MultipartFileHandler}, keeps small parts in memory and writes larger parts to temporary
+ * files, the same way {@link org.springframework.web.multipart.commons.CommonsMultipartResolver} does.
+ *
+ * @since 2.3
+ */
+public class SpoolingMultipartFileHandler implements MultipartFileHandler {
+
+    private final DiskFileItemFactory fileItemFactory;
+
+    public SpoolingMultipartFileHandler(DiskFileItemFactory fileItemFactory) {
+        this.fileItemFactory = fileItemFactory;
+    }
+
+    public MultipartFile handle(HttpServletRequest request, FileItemStream part) throws IOException {
+        FileItem fileItem = fileItemFactory.createItem(part.getFieldName(), part.getContentType(), false, part.getName());
+        InputStream in = part.openStream();
+        OutputStream out = fileItem.getOutputStream();
+        Streams.copy(in, out, true);
+        return new CommonsMultipartFile(fileItem);
+    }
+
+    public void cleanup(MultipartFile file) {
+        if (file instanceof CommonsMultipartFile) {
+            ((CommonsMultipartFile)file).getFileItem().delete();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.multipart;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.support.DefaultMultipartHttpServletRequest;
+
+/**
+ * A multipart request whose body is read by {@link StreamingMultipartResolver}, when the request is resolved or
+ * when its parameters or files are first accessed. When the body can't be read the error is thrown each time the
+ * parameters or files are accessed.
+ *
+ * @since 2.3
+ */
+public class StreamingMultipartHttpServletRequest extends DefaultMultipartHttpServletRequest {
+
+    private final StreamingMultipartResolver resolver;
+    private boolean resolved;
+    private MultipartException failure;
+
+    public StreamingMultipartHttpServletRequest(HttpServletRequest request, StreamingMultipartResolver resolver) {
+        super(request);
+        this.resolver = resolver;
+    }
+
+    /**
+     * @return Whether the body of the request has been read successfully
+     */
+    public boolean isResolved() {
+        return resolved && failure == null;
+    }
+
+    @Override
+    protected MultiValueMap<String, MultipartFile> getMultipartFiles() {
+        resolve();
+        return super.getMultipartFiles();
+    }
+
+    @Override
+    protected Map<String, String[]> getMultipartParameters() {
+        resolve();
+        return super.getMultipartParameters();
+    }
+
+    @Override
+    protected Map<String, String> getMultipartParameterContentTypes() {
+        resolve();
+        return super.getMultipartParameterContentTypes();
+    }
+
+    void resolve() throws MultipartException {
+        if (failure != null) {
+            throw failure;
+        }
+        if (resolved) {
+            return;
+        }
+        resolved = true;
+
+        Map<String, String[]> parameters = new HashMap<String, String[]>();
+        Map<String, String> parameterContentTypes = new HashMap<String, String>();
+        MultiValueMap<String, MultipartFile> files = new LinkedMultiValueMap<String, MultipartFile>();
+        try {
+            resolver.parseRequest((HttpServletRequest)getRequest(), parameters, parameterContentTypes, files);
+        }
+        catch (RuntimeException e) {
+            failure = e instanceof MultipartException ? (MultipartException)e :
+                new MultipartException("Could not read multipart servlet request", e);
+            // the parts read before the error won't be cleaned up with the request
+            resolver.cleanupFiles(files);
+            throw failure;
+        }
+        setMultipartParameters(parameters);
+        setMultipartParameterContentTypes(parameterContentTypes);
+        setMultipartFiles(files);
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.multipart;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.apache.commons.fileupload.FileItemIterator;
+import org.apache.commons.fileupload.FileItemStream;
+import org.apache.commons.fileupload.FileUploadBase;
+import org.apache.commons.fileupload.FileUploadException;
+import org.apache.commons.fileupload.disk.DiskFileItemFactory;
+import org.apache.commons.fileupload.servlet.ServletFileUpload;
+import org.apache.commons.fileupload.util.Streams;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationContextAware;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * A {@link MultipartResolver} that reads the parts of the request body in a single pass with the commons-fileupload
+ * streaming API instead of parsing them to file items first. Form fields become request parameters and file
+ * parts are passed to a {@link MultipartFileHandler} as they are read, so uploads can be stored, digested or
+ * rejected without being written to a temporary file first.
+ *
+ * The body is read when the request is resolved, so size limits and malformed bodies are reported by the
+ * dispatcher like with the other multipart resolvers. With resolveLazily the body is read when the parameters
+ * or files of the request are first accessed instead, so filters can reject a request by its headers before any
+ * of the body is read, and the error of a body that can't be read is thrown each time they are accessed.
+ * Enabled with
+ * <pre>
+ * grails.web.multipart.streaming = true
+ * grails.web.multipart.resolveLazily = false
+ * </pre>
+ *
+ * @since 2.3
+ */
+public class StreamingMultipartResolver implements MultipartResolver, ApplicationContextAware {
+
+    private static final Log LOG = LogFactory.getLog(StreamingMultipartResolver.class);
+
+    private final DiskFileItemFactory fileItemFactory = new DiskFileItemFactory();
+    private long maxUploadSize = -1;
+    private long maxUploadSizePerFile = -1;
+    private String defaultEncoding = WebUtils.DEFAULT_CHARACTER_ENCODING;
+    private boolean resolveLazily;
+    private MultipartFileHandler multipartFileHandler = new SpoolingMultipartFileHandler(fileItemFactory);
+
+    public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
+        if (applicationContext.containsBean(MultipartFileHandler.BEAN_NAME)) {
+            multipartFileHandler = applicationContext.getBean(MultipartFileHandler.BEAN_NAME, MultipartFileHandler.class);
+        }
+    }
+
+    public boolean isMultipart(HttpServletRequest request) {
+        return request != null && ServletFileUpload.isMultipartContent(request);
+    }
+
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        StreamingMultipartHttpServletRequest multipartRequest = new StreamingMultipartHttpServletRequest(request, this);
+        if (!resolveLazily) {
+            multipartRequest.resolve();
+        }
+        return multipartRequest;
+    }
+
+    public void cleanupMultipart(MultipartHttpServletRequest request) {
+        if (request instanceof StreamingMultipartHttpServletRequest && !((StreamingMultipartHttpServletRequest)request).isResolved()) {
+            return;
+        }
+        cleanupFiles(request.getMultiFileMap());
+    }
+
+    void cleanupFiles(MultiValueMap<String, MultipartFile> multipartFiles) {
+        for (List<MultipartFile> files : multipartFiles.values()) {
+            for (MultipartFile file : files) {
+                try {
+                    multipartFileHandler.cleanup(file);
+                }
+                catch (RuntimeException e) {
+                    LOG.warn("Error cleaning up multipart file [" + file.getName() + "]: " + e.getMessage(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads the parts of the request body.
+     *
+     * @param request The request
+     * @param parameters The map the form fields are added to
+     * @param parameterContentTypes The map the content types of the form fields are added to
+     * @param files The map the files returned by the {@link MultipartFileHandler} are added to
+     * @throws MultipartException If the request can't be read
+     */
+    protected void parseRequest(HttpServletRequest request, Map<String, String[]> parameters,
+            Map<String, String> parameterContentTypes, MultiValueMap<String, MultipartFile> files) throws MultipartException {
+        String encoding = request.getCharacterEncoding();
+        if (encoding == null) {
+            encoding = defaultEncoding;
+        }
+
+        ServletFileUpload fileUpload = new ServletFileUpload();
+        fileUpload.setSizeMax(maxUploadSize);
+        fileUpload.setFileSizeMax(maxUploadSizePerFile);
+        fileUpload.setHeaderEncoding(encoding);
+
+        MultiValueMap<String, String> values = new LinkedMultiValueMap<String, String>();
+        try {
+            FileItemIterator parts = fileUpload.getItemIterator(request);
+            while (parts.hasNext()) {
+                FileItemStream part = parts.next();
+                if (part.isFormField()) {
+                    InputStream in = part.openStream();
+                    values.add(part.getFieldName(), Streams.asString(in, encoding));
+                    parameterContentTypes.put(part.getFieldName(), part.getContentType());
+                }
+                else {
+                    MultipartFile file = multipartFileHandler.handle(request, part);
+                    if (file != null) {
+                        files.add(file.getName(), file);
+                    }
+                }
+            }
+        }
+        catch (FileUploadBase.UnknownSizeException e) {
+            // Safari sends multipart requests without a Content-Length header on redirects
+            LOG.warn(e.getMessage());
+            return;
+        }
+        catch (FileUploadException e) {
+            throw toMultipartException(e);
+        }
+        catch (IOException e) {
+            // limits are enforced while the parts are read
+            if (e instanceof FileUploadBase.FileUploadIOException && e.getCause() instanceof FileUploadException) {
+                throw toMultipartException((FileUploadException)e.getCause());
+            }
+            throw new MultipartException("Could not read multipart servlet request", e);
+        }
+
+        for (Map.Entry<String, List<String>> entry : values.entrySet()) {
+            List<String> fieldValues = entry.getValue();
+            parameters.put(entry.getKey(), fieldValues.toArray(new String[fieldValues.size()]));
+        }
+    }
+
+    private MultipartException toMultipartException(FileUploadException e) {
+        if (e instanceof FileUploadBase.SizeLimitExceededException) {
+            return new MaxUploadSizeExceededException(maxUploadSize, e);
+        }
+        if (e instanceof FileUploadBase.FileSizeLimitExceededException) {
+            return new MaxUploadSizeExceededException(maxUploadSizePerFile, e);
+        }
+        return new MultipartException("Could not parse multipart servlet request", e);
+    }
+
+    /**
+     * @param maxUploadSize The maximum size in bytes of the request body, -1 for no limit
+     */
+    public void setMaxUploadSize(long maxUploadSize) {
+        this.maxUploadSize = maxUploadSize;
+    }
+
+    /**
+     * @param maxUploadSizePerFile The maximum size in bytes of each file, -1 for no limit
+     */
+    public void setMaxUploadSizePerFile(long maxUploadSizePerFile) {
+        this.maxUploadSizePerFile = maxUploadSizePerFile;
+    }
+
+    /**
+     * @param maxInMemorySize The size in bytes up to which the default handler keeps files in memory
+     */
+    public void setMaxInMemorySize(int maxInMemorySize) {
+        fileItemFactory.setSizeThreshold(maxInMemorySize);
+    }
+
+    /**
+     * @param uploadTempDir The directory the default handler writes larger files to
+     */
+    public void setUploadTempDir(File uploadTempDir) {
+        fileItemFactory.setRepository(uploadTempDir);
+    }
+
+    /**
+     * @param resolveLazily Whether the body is read when the parameters or files are first accessed instead of
+     * when the request is resolved
+     */
+    public void setResolveLazily(boolean resolveLazily) {
+        this.resolveLazily = resolveLazily;
+    }
+
+    public void setDefaultEncoding(String defaultEncoding) {
+        this.defaultEncoding = defaultEncoding;
+    }
+
+    public MultipartFileHandler getMultipartFileHandler() {
+        return multipartFileHandler;
+    }
+
+    public void setMultipartFileHandler(MultipartFileHandler multipartFileHandler) {
+        this.multipartFileHandler = multipartFileHandler;
+    }
+}
@@ -412,14 +412,14 @@ public abstract class GroovyPage extends Script {
         }
 
         try {
-            GroovyObject tagLib = getTagLib(tagNamespace, tagName);
+            TagDescriptor tagDescriptor = lookupCachedTagDescriptor(gspTagLibraryLookup, tagNamespace, tagName);
+            GroovyObject tagLib = tagDescriptor != null ? tagDescriptor.getTagLibrary() : null;
             if (tagLib != null || (gspTagLibraryLookup != null && gspTagLibraryLookup.hasNamespace(tagNamespace))) {
                 if (tagLib != null) {
-                    boolean returnsObject = gspTagLibraryLookup.doesTagReturnObject(tagNamespace, tagName);
                     Object tagLibClosure = tagLib.getProperty(tagName);
                     if (tagLibClosure instanceof Closure) {
-                        Map<String, Object> encodeAsForTag = gspTagLibraryLookup.getEncodeAsForTag(tagNamespace, tagName);
-                        invokeTagLibClosure(tagName, tagNamespace, (Closure)tagLibClosure, attrs, body, returnsObject, encodeAsForTag);
+                        invokeTagLibClosure(tagName, tagNamespace, (Closure)tagLibClosure, attrs, body,
+                                tagDescriptor.isReturnsObject(), tagDescriptor.getEncodeAs());
                     } else {
                         throw new GrailsTagException("Tag [" + tagName + "] does not exist in tag library [" + tagLib.getClass().getName() + "]", getGroovyPageFileName(), lineNumber);
                     }
@@ -531,15 +531,12 @@ public abstract class GroovyPage extends Script {
                 ">: " + e.getMessage(), e, getGroovyPageFileName(), lineNumber);
     }
 
-    private GroovyObject getTagLib(String namespace, String tagName) {
-        return lookupCachedTagLib(gspTagLibraryLookup, namespace, tagName);
-    }
-
     @SuppressWarnings("rawtypes")
     public final static Object captureTagOutput(TagLibraryLookup gspTagLibraryLookup, String namespace,
                                                 String tagName, Map attrs, Object body, GrailsWebRequest webRequest) {
 
-        GroovyObject tagLib = lookupCachedTagLib(gspTagLibraryLookup, namespace, tagName);
+        TagDescriptor tagDescriptor = lookupCachedTagDescriptor(gspTagLibraryLookup, namespace, tagName);
+        GroovyObject tagLib = tagDescriptor != null ? tagDescriptor.getTagLibrary() : null;
 
         if (tagLib == null) {
             throw new GrailsTagException("Tag [" + tagName + "] does not exist. No corresponding tag library found.");
@@ -558,8 +555,7 @@ public abstract class GroovyPage extends Script {
             if (outputStack == null) {
                 outputStack = GroovyPageOutputStack.currentStack(webRequest, true, tagOutput, true, true);
             }
-            Map<String, Object> defaultEncodeAs = gspTagLibraryLookup.getEncodeAsForTag(namespace, tagName);
-            Map<String, Object> codecSettings = createCodecSettings(namespace, tagName, attrs, defaultEncodeAs);
+            Map<String, Object> codecSettings = createCodecSettings(namespace, tagName, attrs, tagDescriptor.getEncodeAs());
 
             GroovyPageOutputStackAttributes.Builder builder = WithCodecHelper.createOutputStackAttributesBuilder(codecSettings, webRequest.getAttributes().getGrailsApplication());
             builder.topWriter(tagOutput);
@@ -597,7 +593,7 @@ public abstract class GroovyPage extends Script {
 
                 Encoder taglibEncoder = outputStack.getTaglibEncoder();
 
-                boolean returnsObject = gspTagLibraryLookup.doesTagReturnObject(namespace, tagName);
+                boolean returnsObject = tagDescriptor.isReturnsObject();
 
                 if (returnsObject && bodyResult != null && !(bodyResult instanceof Writer)) {
                     if (taglibEncoder != null) {
@@ -633,10 +629,10 @@ public abstract class GroovyPage extends Script {
         return codecSettings;
     }
 
-    private final static GroovyObject lookupCachedTagLib(TagLibraryLookup gspTagLibraryLookup,
+    private final static TagDescriptor lookupCachedTagDescriptor(TagLibraryLookup gspTagLibraryLookup,
                String namespace, String tagName) {
 
-        return gspTagLibraryLookup != null ? gspTagLibraryLookup.lookupTagLibrary(namespace, tagName) : null;
+        return gspTagLibraryLookup != null ? gspTagLibraryLookup.lookupTagDescriptor(namespace, tagName) : null;
     }
 
     public final static Closure<?> createOutputCapturingClosure(Object wrappedInstance, final Object body1,
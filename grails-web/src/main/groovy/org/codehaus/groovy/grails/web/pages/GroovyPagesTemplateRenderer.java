@@ -22,18 +22,29 @@ import groovy.text.Template;
 import java.io.IOException;
 import java.io.Writer;
 import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang.StringUtils;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.codehaus.groovy.grails.commons.GrailsDomainClass;
 import org.codehaus.groovy.grails.io.support.GrailsResourceUtils;
+import org.codehaus.groovy.grails.support.PersistenceContextInterceptor;
 import org.codehaus.groovy.grails.support.encoding.EncodedAppenderWriterFactory;
 import org.codehaus.groovy.grails.support.encoding.Encoder;
 import org.codehaus.groovy.grails.web.pages.discovery.GrailsConventionGroovyPageLocator;
@@ -41,9 +52,13 @@ import org.codehaus.groovy.grails.web.pages.discovery.GroovyPageScriptSource;
 import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
 import org.codehaus.groovy.grails.web.taglib.exceptions.GrailsTagException;
 import org.codehaus.groovy.grails.web.util.CodecPrintWriter;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
 import org.codehaus.groovy.grails.web.util.WithCodecHelper;
 import org.codehaus.groovy.runtime.InvokerHelper;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.InitializingBean;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.Assert;
 import org.springframework.util.ReflectionUtils;
 
@@ -53,12 +68,29 @@ import org.springframework.util.ReflectionUtils;
  * This is an internal Grails service and should not be used by plugins directly.
  * The implementation was moved from RenderTagLib, ported to Java and then refactored.
  *
+ * The output of a template is cached when the tag has a cacheKey attribute or a cache attribute
+ * with the value true. The cached output is used when the same template is rendered with the
+ * same cacheKey, or without a cacheKey when the model, bean, collection, var and encodeAs
+ * attributes are equal. Output caching is disabled in development mode.
+ *
+ * When the number of threads for parallel rendering is configured, the elements of a collection
+ * are rendered concurrently if the tag has the attribute parallel="true", see {@link ParallelTemplateRenderingTask}.
+ *
  * @author Lari Hotari
  * @author Graeme Rocher
  *
  * @since 2.0
  */
-public class GroovyPagesTemplateRenderer implements InitializingBean {
+public class GroovyPagesTemplateRenderer implements InitializingBean, DisposableBean {
+    private static final Log LOG = LogFactory.getLog(GroovyPagesTemplateRenderer.class);
+
+    public static final String CONFIG_FRAGMENT_CACHE_MAX_SIZE = "grails.gsp.fragmentCache.maxSize";
+    public static final String CONFIG_FRAGMENT_CACHE_TIME_TO_LIVE = "grails.gsp.fragmentCache.timeToLive";
+    public static final String CACHE_KEY_ATTRIBUTE_NAME = "cacheKey";
+    public static final String CACHE_ATTRIBUTE_NAME = "cache";
+    public static final String CONFIG_PARALLEL_RENDERING_THREADS = "grails.gsp.parallelRendering.threads";
+    public static final String PARALLEL_ATTRIBUTE_NAME = "parallel";
+
     private GrailsConventionGroovyPageLocator groovyPageLocator;
     private GroovyPagesTemplateEngine groovyPagesTemplateEngine;
     private ConcurrentMap<String,TemplateRendererCacheEntry> templateCache = new ConcurrentHashMap<String,TemplateRendererCacheEntry>();
@@ -68,6 +100,12 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
     private Method generateViewMethod;
     private boolean reloadEnabled;
     private boolean disableCache = Environment.isDevelopmentMode();
+    private int fragmentCacheMaxSize = RenderedFragmentCache.DEFAULT_MAX_SIZE;
+    private long fragmentCacheTimeToLive;
+    private RenderedFragmentCache fragmentCache;
+    private int parallelRenderingThreads;
+    private ExecutorService parallelRenderingExecutor;
+    private volatile Collection<PersistenceContextInterceptor> persistenceContextInterceptors;
 
     public void afterPropertiesSet() throws Exception {
         if (scaffoldingTemplateGenerator != null) {
@@ -76,10 +114,37 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
                 GrailsDomainClass.class, String.class, Writer.class});
         }
         reloadEnabled = groovyPagesTemplateEngine.isReloadEnabled();
+        fragmentCache = new RenderedFragmentCache(fragmentCacheMaxSize, fragmentCacheTimeToLive);
+        if (parallelRenderingThreads > 0) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("gsp-render-");
+            threadFactory.setDaemon(true);
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(parallelRenderingThreads, parallelRenderingThreads,
+                    60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(parallelRenderingThreads * 100), threadFactory,
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            parallelRenderingExecutor = executor;
+        }
+    }
+
+    public void destroy() {
+        if (parallelRenderingExecutor != null) {
+            parallelRenderingExecutor.shutdownNow();
+            parallelRenderingExecutor = null;
+        }
     }
 
     public void clearCache() {
         templateCache.clear();
+        if (fragmentCache != null) {
+            fragmentCache.clear();
+        }
+    }
+
+    /**
+     * @return the cache for rendered template output, which also provides the cache statistics
+     */
+    public RenderedFragmentCache getFragmentCache() {
+        return fragmentCache;
     }
 
     public void render(GrailsWebRequest webRequest, GroovyPageBinding pageScope, Map<String, Object> attrs, Object body, Writer out) throws IOException {
@@ -99,7 +164,40 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
             throw new GrailsTagException("Template not found for name [" + templateName + "] and path [" + uri + "]");
         }
 
-        makeTemplate(webRequest, t, attrs, body, out);
+        Object fragmentKey = createFragmentKey(t, attrs, body);
+        if (fragmentKey == null) {
+            makeTemplate(webRequest, pageScope, t, attrs, body, out);
+            return;
+        }
+
+        StreamCharBuffer output = fragmentCache.get(fragmentKey);
+        if (output == null) {
+            StreamCharBuffer buffer = new StreamCharBuffer();
+            makeTemplate(webRequest, pageScope, t, attrs, body, buffer.getWriter());
+            output = fragmentCache.put(fragmentKey, buffer);
+        }
+        output.writeTo(out);
+    }
+
+    private Object createFragmentKey(Template t, Map<String, Object> attrs, Object body) {
+        if (disableCache || fragmentCache == null) {
+            return null;
+        }
+        Object encodeAs = attrs.get(GroovyPage.ENCODE_AS_ATTRIBUTE_NAME);
+        Object cacheKey = attrs.get(CACHE_KEY_ATTRIBUTE_NAME);
+        if (cacheKey != null) {
+            return RenderedFragmentCache.createKey(t, cacheKey, encodeAs);
+        }
+        Object cache = attrs.get(CACHE_ATTRIBUTE_NAME);
+        if (!(Boolean.TRUE.equals(cache) || "true".equals(cache))) {
+            return null;
+        }
+        if (body != null && body != GroovyPage.EMPTY_BODY_CLOSURE) {
+            // the output of a body can't be compared
+            return null;
+        }
+        return RenderedFragmentCache.createKey(t, attrs.get("model"), attrs.get("bean"), attrs.get("collection"),
+                attrs.get("var"), encodeAs);
     }
 
     private Template findAndCacheTemplate(GrailsWebRequest webRequest, GroovyPageBinding pageScope, String templateName,
@@ -162,7 +260,7 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
     }
 
     @SuppressWarnings({ "rawtypes", "unchecked" })
-    private void makeTemplate(GrailsWebRequest webRequest, Template t, Map<String, Object> attrs, Object body, Writer out) throws IOException {
+    private void makeTemplate(GrailsWebRequest webRequest, GroovyPageBinding pageScope, Template t, Map<String, Object> attrs, Object body, Writer out) throws IOException {
 
         Writer newOut = wrapWriterWithEncoder(webRequest, attrs, out);
         boolean writerWrapped = (newOut != out);
@@ -183,6 +281,7 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
             }
         }
         if (attrs.containsKey("collection")) {
+            List<Map> models = isParallel(webRequest, attrs) ? new ArrayList<Map>() : null;
             String key = null;
             Iterator<?> iterator = InvokerHelper.asIterator(attrs.get("collection"));
             while (iterator.hasNext()) {
@@ -199,7 +298,14 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
                     itmap.put("it", it);
                     itmap.put(key, it);
                 }
-                t.make(itmap).writeTo(out);
+                if (models != null) {
+                    models.add(itmap);
+                } else {
+                    t.make(itmap).writeTo(out);
+                }
+            }
+            if (models != null) {
+                renderInParallel(webRequest, pageScope, t, models, out);
             }
         } else {
             t.make(b).writeTo(out);
@@ -210,6 +316,85 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
         }
     }
 
+    private boolean isParallel(GrailsWebRequest webRequest, Map<String, Object> attrs) {
+        if (parallelRenderingExecutor == null) {
+            return false;
+        }
+        Object parallel = attrs.get(PARALLEL_ATTRIBUTE_NAME);
+        if (!(Boolean.TRUE.equals(parallel) || "true".equals(parallel))) {
+            return false;
+        }
+        // a nested render would wait for tasks queued behind the task rendering it
+        if (webRequest.getCurrentRequest().getAttribute(ParallelTemplateRenderingTask.PARALLEL_RENDERING_ATTRIBUTE) != null) {
+            return false;
+        }
+        // a transaction can't span threads, the tasks would read outside of it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            LOG.warn("Rendering collection sequentially instead of in parallel because a transaction is active " +
+                    "in the requesting thread");
+            return false;
+        }
+        return true;
+    }
+
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private void renderInParallel(GrailsWebRequest webRequest, GroovyPageBinding pageScope, Template t, List<Map> models, Writer out) throws IOException {
+        Map<String, Object> pageScopeVariables = ParallelTemplateRenderingTask.collectPageScopeVariables(pageScope);
+        Collection<PersistenceContextInterceptor> interceptors = getPersistenceContextInterceptors(webRequest);
+        List<Future<StreamCharBuffer>> results = new ArrayList<Future<StreamCharBuffer>>(models.size());
+        try {
+            for (Map model : models) {
+                results.add(parallelRenderingExecutor.submit(
+                        new ParallelTemplateRenderingTask(webRequest, pageScopeVariables, pageScope, t, model, interceptors)));
+            }
+            // the tasks read the encoding state registry of the request, it's only modified once they are done
+            List<StreamCharBuffer> buffers = new ArrayList<StreamCharBuffer>(results.size());
+            for (Future<StreamCharBuffer> result : results) {
+                buffers.add(getRenderedBuffer(result));
+            }
+            for (StreamCharBuffer buffer : buffers) {
+                buffer.writeTo(out);
+            }
+        } finally {
+            for (Future<StreamCharBuffer> result : results) {
+                result.cancel(true);
+            }
+        }
+    }
+
+    private Collection<PersistenceContextInterceptor> getPersistenceContextInterceptors(GrailsWebRequest webRequest) {
+        Collection<PersistenceContextInterceptor> interceptors = persistenceContextInterceptors;
+        if (interceptors == null) {
+            interceptors = new ArrayList<PersistenceContextInterceptor>(
+                    webRequest.getApplicationContext().getBeansOfType(PersistenceContextInterceptor.class).values());
+            persistenceContextInterceptors = interceptors;
+        }
+        return interceptors;
+    }
+
+    private StreamCharBuffer getRenderedBuffer(Future<StreamCharBuffer> result) throws IOException {
+        try {
+            return result.get();
+        }
+        catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GrailsTagException("Interrupted while rendering template in parallel", e);
+        }
+        catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException)cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException)cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            throw new GrailsTagException("Error rendering template in parallel: " + cause.getMessage(), cause);
+        }
+    }
+
     private Writer wrapWriterWithEncoder(GrailsWebRequest webRequest, Map<String, Object> attrs, Writer out) {
         Object encodeAs = attrs.get(GroovyPage.ENCODE_AS_ATTRIBUTE_NAME);
         if (encodeAs != null) {
@@ -277,6 +462,16 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
         return String.valueOf(val);
     }
 
+    /**
+     * Sets the interceptors that open a persistence context for each element rendered in parallel, by default
+     * all PersistenceContextInterceptor beans of the application context are used.
+     *
+     * @param persistenceContextInterceptors the interceptors
+     */
+    public void setPersistenceContextInterceptors(Collection<PersistenceContextInterceptor> persistenceContextInterceptors) {
+        this.persistenceContextInterceptors = persistenceContextInterceptors;
+    }
+
     public void setGroovyPageLocator(GrailsConventionGroovyPageLocator locator) {
         groovyPageLocator = locator;
     }
@@ -285,6 +480,24 @@ public class GroovyPagesTemplateRenderer implements InitializingBean {
         groovyPagesTemplateEngine = engine;
     }
 
+    public void setFragmentCacheMaxSize(int maxSize) {
+        fragmentCacheMaxSize = maxSize;
+    }
+
+    /**
+     * @param timeToLive the time in seconds rendered template output is cached for, 0 for no expiry
+     */
+    public void setFragmentCacheTimeToLive(long timeToLive) {
+        fragmentCacheTimeToLive = timeToLive * 1000;
+    }
+
+    /**
+     * @param threads the number of threads used for rendering collections with parallel="true", 0 disables parallel rendering
+     */
+    public void setParallelRenderingThreads(int threads) {
+        parallelRenderingThreads = threads;
+    }
+
     public void setScaffoldingTemplateGenerator(Object generator) {
         scaffoldingTemplateGenerator = generator;
     }
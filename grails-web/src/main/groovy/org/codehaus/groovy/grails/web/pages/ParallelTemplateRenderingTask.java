@@ -0,0 +1,410 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import groovy.lang.Binding;
+import groovy.text.Template;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.codehaus.groovy.grails.support.PersistenceContextInterceptor;
+import org.codehaus.groovy.grails.support.encoding.DefaultEncodingStateRegistry;
+import org.codehaus.groovy.grails.support.encoding.Encoder;
+import org.codehaus.groovy.grails.support.encoding.EncodingState;
+import org.codehaus.groovy.grails.support.encoding.EncodingStateImpl;
+import org.codehaus.groovy.grails.support.encoding.EncodingStateRegistry;
+import org.codehaus.groovy.grails.web.servlet.GrailsApplicationAttributes;
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsParameterMap;
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+import org.springframework.context.i18n.LocaleContext;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Renders a template for one element of a collection in another thread. Used by
+ * {@link GroovyPagesTemplateRenderer} when g:render has the attribute parallel="true".
+ *
+ * Each task gets its own copy of the {@link GrailsWebRequest}: request attributes set while rendering,
+ * such as the page scope and the output stack, are only visible to the task and the variables of the page
+ * scope are copied when the task is created. The template is rendered to a {@link StreamCharBuffer} that
+ * is written to the page by the requesting thread.
+ *
+ * The template must not modify the response, doing so fails with an IllegalStateException. The model
+ * is shared between the threads so it must only be read. Request scoped beans are created for each task.
+ *
+ * Resources bound to the requesting thread, such as the Hibernate session opened for the request, aren't
+ * available to the tasks. A task running in a pool thread opens its own persistence context with the given
+ * {@link PersistenceContextInterceptor}s, so queries and instances loaded by the template work. Instances of
+ * the model loaded in the requesting thread still belong to the session of the request, which must not be
+ * used by several threads, so their lazy associations should be fetched before the collection is rendered or
+ * the template should load what it needs itself. Collections are rendered sequentially while a transaction
+ * is active in the requesting thread.
+ *
+ * @since 2.3
+ */
+public class ParallelTemplateRenderingTask implements Callable<StreamCharBuffer> {
+    /** Request attribute that is set while rendering in parallel, nested g:render tags are rendered sequentially */
+    public static final String PARALLEL_RENDERING_ATTRIBUTE = "org.codehaus.groovy.grails.GSP_PARALLEL_RENDERING";
+
+    private final GrailsWebRequest webRequest;
+    private final GrailsParameterMap params;
+    private final Map<String, Object> pageScopeVariables;
+    private final GroovyPageBinding pageScope;
+    private final LocaleContext localeContext;
+    private final Template template;
+    private final Map<String, Object> model;
+    private final Collection<PersistenceContextInterceptor> persistenceContextInterceptors;
+    private final Thread requestingThread;
+
+    /**
+     * Creates a task, this must be called by the requesting thread.
+     *
+     * @param webRequest the current request
+     * @param pageScopeVariables the variables of the page scope, see {@link #collectPageScopeVariables(GroovyPageBinding)}
+     * @param pageScope the page scope of the rendering page
+     * @param template the template
+     * @param model the model of the element
+     * @param persistenceContextInterceptors the interceptors that open a persistence context in the pool thread
+     */
+    public ParallelTemplateRenderingTask(GrailsWebRequest webRequest, Map<String, Object> pageScopeVariables,
+            GroovyPageBinding pageScope, Template template, Map<String, Object> model,
+            Collection<PersistenceContextInterceptor> persistenceContextInterceptors) {
+        this.webRequest = webRequest;
+        params = (GrailsParameterMap)webRequest.getParams().clone();
+        this.pageScopeVariables = pageScopeVariables;
+        this.pageScope = pageScope;
+        localeContext = LocaleContextHolder.getLocaleContext();
+        this.template = template;
+        this.model = model;
+        this.persistenceContextInterceptors = persistenceContextInterceptors;
+        requestingThread = Thread.currentThread();
+    }
+
+    /**
+     * Copies the variables of the page scope and its parent page scopes.
+     *
+     * @param pageScope the page scope
+     * @return the variables
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> collectPageScopeVariables(GroovyPageBinding pageScope) {
+        Map<String, Object> variables = new HashMap<String, Object>();
+        if (pageScope != null) {
+            Binding parent = pageScope.getParent();
+            if (parent instanceof GroovyPageBinding) {
+                variables.putAll(collectPageScopeVariables((GroovyPageBinding)parent));
+            }
+            variables.putAll(pageScope.getVariablesMap());
+        }
+        return variables;
+    }
+
+    public StreamCharBuffer call() throws Exception {
+        TaskRequest request = new TaskRequest(webRequest.getCurrentRequest());
+        TaskWebRequest taskWebRequest = new TaskWebRequest(request, new TaskResponse(webRequest.getCurrentResponse()),
+                webRequest);
+        request.setAttribute(GrailsApplicationAttributes.WEB_REQUEST, taskWebRequest);
+        request.setAttribute(PARALLEL_RENDERING_ATTRIBUTE, Boolean.TRUE);
+        taskWebRequest.addParametersFrom(params);
+        taskWebRequest.setFilteringEncoder(webRequest.getFilteringEncoder());
+        taskWebRequest.setSkipFilteringCodec(webRequest.isSkipFilteringCodec());
+
+        GroovyPageBinding taskPageScope = new GroovyPageBinding(new GroovyPageRequestBinding(taskWebRequest));
+        taskPageScope.setRoot(true);
+        if (pageScope != null) {
+            taskPageScope.setPluginContextPath(pageScope.getPluginContextPath());
+            taskPageScope.setPagePlugin(pageScope.getPagePlugin());
+        }
+        taskPageScope.addMap(pageScopeVariables);
+        request.setAttribute(GrailsApplicationAttributes.PAGE_SCOPE, taskPageScope);
+
+        StreamCharBuffer buffer = new StreamCharBuffer();
+        taskWebRequest.setOut(buffer.getWriter());
+
+        RequestAttributes previousRequestAttributes = RequestContextHolder.getRequestAttributes();
+        LocaleContext previousLocaleContext = LocaleContextHolder.getLocaleContext();
+        // the task may run in the requesting thread when the executor is busy, it then uses the request's context
+        boolean poolThread = Thread.currentThread() != requestingThread;
+        try {
+            RequestContextHolder.setRequestAttributes(taskWebRequest);
+            LocaleContextHolder.setLocaleContext(localeContext);
+            if (poolThread) {
+                for (PersistenceContextInterceptor interceptor : persistenceContextInterceptors) {
+                    interceptor.init();
+                }
+            }
+            template.make(model).writeTo(buffer.getWriter());
+            if (poolThread) {
+                for (PersistenceContextInterceptor interceptor : persistenceContextInterceptors) {
+                    interceptor.flush();
+                }
+            }
+        }
+        finally {
+            if (poolThread) {
+                for (PersistenceContextInterceptor interceptor : persistenceContextInterceptors) {
+                    interceptor.destroy();
+                }
+            }
+            RequestContextHolder.setRequestAttributes(previousRequestAttributes);
+            LocaleContextHolder.setLocaleContext(previousLocaleContext);
+        }
+        return buffer;
+    }
+
+    /**
+     * A GrailsWebRequest with an encoding state registry that also sees the strings encoded by the requesting thread.
+     */
+    private static class TaskWebRequest extends GrailsWebRequest {
+        private final EncodingStateRegistry encodingStateRegistry;
+
+        TaskWebRequest(HttpServletRequest request, HttpServletResponse response, GrailsWebRequest parent) {
+            super(request, response, parent.getServletContext(), parent.getApplicationContext());
+            encodingStateRegistry = new TaskEncodingStateRegistry(parent.getEncodingStateRegistry());
+        }
+
+        @Override
+        public EncodingStateRegistry getEncodingStateRegistry() {
+            return encodingStateRegistry;
+        }
+    }
+
+    /**
+     * Keeps the attributes set by the task, attributes of the requesting thread are read from the original request.
+     */
+    private static class TaskRequest extends HttpServletRequestWrapper {
+        private final Map<String, Object> attributes = new HashMap<String, Object>();
+        private final Set<String> removedAttributes = new HashSet<String>();
+
+        TaskRequest(HttpServletRequest request) {
+            super(request);
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            Object value = attributes.get(name);
+            if (value != null || removedAttributes.contains(name)) {
+                return value;
+            }
+            return super.getAttribute(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            if (value == null) {
+                removeAttribute(name);
+                return;
+            }
+            attributes.put(name, value);
+            removedAttributes.remove(name);
+        }
+
+        @Override
+        public void removeAttribute(String name) {
+            attributes.remove(name);
+            removedAttributes.add(name);
+        }
+
+        @Override
+        @SuppressWarnings("rawtypes")
+        public Enumeration getAttributeNames() {
+            Set<String> names = new HashSet<String>();
+            for (Enumeration e = super.getAttributeNames(); e.hasMoreElements();) {
+                names.add((String)e.nextElement());
+            }
+            names.removeAll(removedAttributes);
+            names.addAll(attributes.keySet());
+            return Collections.enumeration(names);
+        }
+    }
+
+    /**
+     * The response is shared by the rendering threads so it can't be modified.
+     */
+    private static class TaskResponse extends HttpServletResponseWrapper {
+        TaskResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        private IllegalStateException notAllowed(String method) {
+            return new IllegalStateException("Cannot call " + method +
+                    " on the response while rendering a template with parallel=\"true\"");
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            throw notAllowed("getOutputStream");
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            throw notAllowed("getWriter");
+        }
+
+        @Override
+        public void addCookie(Cookie cookie) {
+            throw notAllowed("addCookie");
+        }
+
+        @Override
+        public void sendError(int sc) {
+            throw notAllowed("sendError");
+        }
+
+        @Override
+        public void sendError(int sc, String msg) {
+            throw notAllowed("sendError");
+        }
+
+        @Override
+        public void sendRedirect(String location) {
+            throw notAllowed("sendRedirect");
+        }
+
+        @Override
+        public void setStatus(int sc) {
+            throw notAllowed("setStatus");
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            throw notAllowed("setHeader");
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            throw notAllowed("addHeader");
+        }
+
+        @Override
+        public void setDateHeader(String name, long date) {
+            throw notAllowed("setDateHeader");
+        }
+
+        @Override
+        public void addDateHeader(String name, long date) {
+            throw notAllowed("addDateHeader");
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            throw notAllowed("setIntHeader");
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            throw notAllowed("addIntHeader");
+        }
+
+        @Override
+        public void setContentType(String type) {
+            throw notAllowed("setContentType");
+        }
+
+        @Override
+        public void setCharacterEncoding(String charset) {
+            throw notAllowed("setCharacterEncoding");
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            throw notAllowed("setContentLength");
+        }
+
+        @Override
+        public void setLocale(Locale loc) {
+            throw notAllowed("setLocale");
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            throw notAllowed("flushBuffer");
+        }
+
+        @Override
+        public void reset() {
+            throw notAllowed("reset");
+        }
+
+        @Override
+        public void resetBuffer() {
+            throw notAllowed("resetBuffer");
+        }
+    }
+
+    /**
+     * Registers strings encoded by the task locally and only reads the registry of the requesting thread.
+     */
+    private static class TaskEncodingStateRegistry implements EncodingStateRegistry {
+        private final EncodingStateRegistry parent;
+        private final EncodingStateRegistry local = new DefaultEncodingStateRegistry();
+
+        TaskEncodingStateRegistry(EncodingStateRegistry parent) {
+            this.parent = parent;
+        }
+
+        public EncodingState getEncodingStateFor(CharSequence string) {
+            EncodingState localState = local.getEncodingStateFor(string);
+            EncodingState parentState = parent.getEncodingStateFor(string);
+            if (parentState.getEncoders() == null || parentState.getEncoders().isEmpty()) {
+                return localState;
+            }
+            if (localState.getEncoders() == null || localState.getEncoders().isEmpty()) {
+                return parentState;
+            }
+            Set<Encoder> encoders = new HashSet<Encoder>(parentState.getEncoders());
+            encoders.addAll(localState.getEncoders());
+            return new EncodingStateImpl(encoders);
+        }
+
+        public boolean shouldEncodeWith(Encoder encoderToApply, CharSequence string) {
+            return encoderToApply != DefaultEncodingStateRegistry.NONE_ENCODER &&
+                    DefaultEncodingStateRegistry.shouldEncodeWith(encoderToApply, getEncodingStateFor(string));
+        }
+
+        public boolean isEncodedWith(Encoder encoder, CharSequence string) {
+            if (local.isEncodedWith(encoder, string)) {
+                return true;
+            }
+            // DefaultEncodingStateRegistry.isEncodedWith modifies the registry
+            Set<Encoder> encoders = parent.getEncodingStateFor(string).getEncoders();
+            return encoders != null && encoders.contains(encoder);
+        }
+
+        public void registerEncodedWith(Encoder encoder, CharSequence escaped) {
+            local.registerEncodedWith(encoder, escaped);
+        }
+    }
+}
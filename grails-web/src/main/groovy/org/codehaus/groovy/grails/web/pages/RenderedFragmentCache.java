@@ -0,0 +1,277 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import groovy.lang.MetaClass;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.codehaus.groovy.grails.commons.DomainClassArtefactHandler;
+import org.codehaus.groovy.grails.commons.GrailsDomainClassProperty;
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+import com.googlecode.concurrentlinkedhashmap.EvictionListener;
+
+/**
+ * Size bounded cache for the output of rendered templates used by {@link GroovyPagesTemplateRenderer}.
+ *
+ * The output is stored as a {@link StreamCharBuffer} snapshot that isn't modified after it has been
+ * cached. The snapshot keeps the encoding state of the rendered content and prefers being appended
+ * as a sub chunk when it's written to another buffer, so a cache hit doesn't copy the content.
+ *
+ * @since 2.3
+ */
+public class RenderedFragmentCache {
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    private static final Object NOT_CACHEABLE = new Object();
+
+    private final ConcurrentMap<Object, Entry> cache;
+    private final long timeToLive;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * @param maxSize the maximum number of cached fragments
+     * @param timeToLive the time in milliseconds a fragment is cached for, 0 or less for no expiry
+     */
+    public RenderedFragmentCache(int maxSize, long timeToLive) {
+        this.timeToLive = timeToLive;
+        cache = new ConcurrentLinkedHashMap.Builder<Object, Entry>()
+                .maximumWeightedCapacity(maxSize > 0 ? maxSize : DEFAULT_MAX_SIZE)
+                .listener(new EvictionListener<Object, Entry>() {
+                    public void onEviction(Object key, Entry value) {
+                        evictions.incrementAndGet();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Creates a key for a fragment. The key doesn't keep the values it was created from: simple values are
+     * copied, saved domain instances are identified by their class, id and version and other objects are
+     * weakly referenced, so a key only matches while they are in use.
+     *
+     * @param template the compiled template, a reloaded template won't match fragments rendered by the previous version
+     * @param parts the values the output depends on, compared with equals
+     * @return the key or null if the output can't be cached, like for domain instances that haven't been saved
+     */
+    public static Object createKey(Object template, Object... parts) {
+        Object[] keyParts = new Object[parts.length + 1];
+        keyParts[0] = new WeakKeyPart(template, true);
+        for (int i = 0; i < parts.length; i++) {
+            keyParts[i + 1] = toKeyPart(parts[i]);
+            if (keyParts[i + 1] == NOT_CACHEABLE) {
+                return null;
+            }
+        }
+        return new FragmentKey(keyParts);
+    }
+
+    private static Object toKeyPart(Object value) {
+        if (value == null || value instanceof String || value instanceof Number || value instanceof Boolean ||
+                value instanceof Character || value instanceof Enum || value instanceof Class) {
+            return value;
+        }
+        if (value instanceof CharSequence) {
+            return value.toString();
+        }
+        if (value instanceof Date) {
+            return new ArrayList<Object>(Arrays.asList(Date.class, ((Date)value).getTime()));
+        }
+        if (value instanceof Map) {
+            Map<Object, Object> map = new HashMap<Object, Object>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>)value).entrySet()) {
+                Object key = toKeyPart(entry.getKey());
+                Object part = toKeyPart(entry.getValue());
+                if (key == NOT_CACHEABLE || part == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+                map.put(key, part);
+            }
+            return map;
+        }
+        if (value instanceof Collection || value instanceof Object[]) {
+            Collection<?> values = value instanceof Collection ? (Collection<?>)value : Arrays.asList((Object[])value);
+            List<Object> list = new ArrayList<Object>(values.size());
+            for (Object element : values) {
+                Object part = toKeyPart(element);
+                if (part == NOT_CACHEABLE) {
+                    return NOT_CACHEABLE;
+                }
+                list.add(part);
+            }
+            return list;
+        }
+        if (DomainClassArtefactHandler.isDomainClass(value.getClass())) {
+            MetaClass metaClass = InvokerHelper.getMetaClass(value);
+            Object id = metaClass.getProperty(value, GrailsDomainClassProperty.IDENTITY);
+            if (id == null) {
+                return NOT_CACHEABLE;
+            }
+            Object version = metaClass.hasProperty(value, GrailsDomainClassProperty.VERSION) != null ?
+                    metaClass.getProperty(value, GrailsDomainClassProperty.VERSION) : null;
+            return new ArrayList<Object>(Arrays.asList(value.getClass().getName(), toKeyPart(id), toKeyPart(version)));
+        }
+        return new WeakKeyPart(value, false);
+    }
+
+    /**
+     * @param key the key
+     * @return the cached output or null if there's no valid cached output for the key
+     */
+    public StreamCharBuffer get(Object key) {
+        Entry entry = cache.get(key);
+        if (entry != null && entry.isExpired(timeToLive)) {
+            if (cache.remove(key, entry)) {
+                evictions.incrementAndGet();
+            }
+            entry = null;
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.output;
+    }
+
+    /**
+     * Caches a snapshot of the rendered output.
+     *
+     * @param key the key
+     * @param output the rendered output
+     * @return the snapshot that was cached, it should be used instead of the output
+     */
+    public StreamCharBuffer put(Object key, StreamCharBuffer output) {
+        StreamCharBuffer snapshot = output.clone();
+        snapshot.setPreferSubChunkWhenWritingToOtherBuffer(true);
+        // the snapshot is appended to the buffers of many requests at the same time, it mustn't keep track of them
+        snapshot.setNotifyParentBuffersEnabled(false);
+        cache.put(key, new Entry(snapshot));
+        return snapshot;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    public int size() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    private static final class Entry {
+        final StreamCharBuffer output;
+        final long created = System.currentTimeMillis();
+
+        Entry(StreamCharBuffer output) {
+            this.output = output;
+        }
+
+        boolean isExpired(long timeToLive) {
+            return timeToLive > 0 && System.currentTimeMillis() - created >= timeToLive;
+        }
+    }
+
+    private static final class FragmentKey {
+        private final Object[] parts;
+        // calculated once so that a model changed after rendering can't match the cached output
+        private final int hash;
+
+        FragmentKey(Object[] parts) {
+            this.parts = parts;
+            hash = Arrays.deepHashCode(parts);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof FragmentKey)) {
+                return false;
+            }
+            FragmentKey other = (FragmentKey)obj;
+            return hash == other.hash && Arrays.deepEquals(parts, other.parts);
+        }
+    }
+
+    /**
+     * A value that is compared with equals, or by identity, while it hasn't been garbage collected.
+     */
+    private static final class WeakKeyPart {
+        private final WeakReference<Object> value;
+        private final boolean identity;
+        private final int hash;
+
+        WeakKeyPart(Object value, boolean identity) {
+            this.value = new WeakReference<Object>(value);
+            this.identity = identity;
+            hash = identity ? System.identityHashCode(value) : value.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof WeakKeyPart)) {
+                return false;
+            }
+            WeakKeyPart other = (WeakKeyPart)obj;
+            Object referent = value.get();
+            Object otherReferent = other.value.get();
+            if (referent == null || otherReferent == null || hash != other.hash || identity != other.identity) {
+                return false;
+            }
+            return identity ? referent == otherReferent : referent.equals(otherReferent);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.pages;
+
+import groovy.lang.GroovyObject;
+
+import java.util.Map;
+
+/**
+ * Describes a tag registered with {@link TagLibraryLookup}: the tag library bean, whether the tag returns
+ * an object and the codec settings of the tag merged with the defaults of its tag library.
+ *
+ * A descriptor is created when the tag library is registered and replaced when it's registered again,
+ * so everything needed to invoke a tag is resolved with a single lookup.
+ *
+ * @since 2.3
+ */
+public class TagDescriptor {
+    private final String namespace;
+    private final String tagName;
+    private final GroovyObject tagLibrary;
+    private final boolean returnsObject;
+    private final Map<String, Object> encodeAs;
+
+    public TagDescriptor(String namespace, String tagName, GroovyObject tagLibrary, boolean returnsObject, Map<String, Object> encodeAs) {
+        this.namespace = namespace;
+        this.tagName = tagName;
+        this.tagLibrary = tagLibrary;
+        this.returnsObject = returnsObject;
+        this.encodeAs = encodeAs;
+    }
+
+    public String getNamespace() {
+        return namespace;
+    }
+
+    public String getTagName() {
+        return tagName;
+    }
+
+    /**
+     * @return The tag library bean that declares the tag
+     */
+    public GroovyObject getTagLibrary() {
+        return tagLibrary;
+    }
+
+    public boolean isReturnsObject() {
+        return returnsObject;
+    }
+
+    /**
+     * @return The canonical codec settings of the tag or null if the tag has none
+     */
+    public Map<String, Object> getEncodeAs() {
+        return encodeAs;
+    }
+}
@@ -46,10 +46,23 @@ public class TagLibraryLookup implements ApplicationContextAware, GrailsApplicat
 
     protected ApplicationContext applicationContext;
     protected GrailsApplication grailsApplication;
+    /**
+     * @deprecated Still filled for subclasses, lookups use the {@link #tagDescriptors}. Will be removed in the next release.
+     */
+    @Deprecated
     protected Map<String, Map<String, Object>> tagNamespaces = new HashMap<String, Map<String, Object>>();
     protected Map<String, NamespacedTagDispatcher> namespaceDispatchers = new HashMap<String, NamespacedTagDispatcher>();
+    /**
+     * @deprecated Still filled for subclasses, lookups use the {@link #tagDescriptors}. Will be removed in the next release.
+     */
+    @Deprecated
     protected Map<String, Set<String>> tagsThatReturnObjectForNamespace = new HashMap<String, Set<String>>();
+    /**
+     * @deprecated Still filled for subclasses, lookups use the {@link #tagDescriptors}. Will be removed in the next release.
+     */
+    @Deprecated
     protected Map<String, Map<String,Map<String, Object>>> encodeAsForTagNamespaces = new HashMap<String, Map<String,Map<String, Object>>>();
+    protected Map<String, Map<String, TagDescriptor>> tagDescriptors = new HashMap<String, Map<String, TagDescriptor>>();
 
     public void afterPropertiesSet() throws Exception {
         if (grailsApplication == null || applicationContext == null) {
@@ -112,19 +125,63 @@ public class TagLibraryLookup implements ApplicationContextAware, GrailsApplicat
             defaultEncodeAsForTagLib = Collections.unmodifiableMap(WithCodecHelper.makeSettingsCanonical(taglib.getDefaultEncodeAs()));
         }
 
+        Map<String, TagDescriptor> descriptors = tagDescriptors.get(namespace);
+        if (descriptors == null) {
+            descriptors = new HashMap<String, TagDescriptor>();
+            tagDescriptors.put(namespace, descriptors);
+        }
+
         for (String tagName : taglib.getTagNames()) {
             Object codecInfo = taglib.getEncodeAsForTag(tagName);
             Map<String, Object> codecInfoMap = WithCodecHelper.mergeSettingsAndMakeCanonical(codecInfo, defaultEncodeAsForTagLib);
             if (codecInfoMap != null) {
                 encodeAsForTagNamespace.put(tagName, codecInfoMap);
             }
+            descriptors.put(tagName, createTagDescriptor(namespace, tagName, taglib, tags.get(tagName),
+                    tagsThatReturnObject.contains(tagName), codecInfoMap));
         }
     }
 
+    /**
+     * Stores the value passed to {@link #createTagDescriptor(String, String, GrailsTagLibClass, Object, boolean, Map)}
+     * for a tag of a tag library that is being registered, by default the tag library bean.
+     *
+     * @param tags The values of the tags of the tag library keyed by tag name
+     * @param name The tag name
+     * @param taglib The tag library class
+     */
     protected void putTagLib(Map<String, Object> tags, String name, GrailsTagLibClass taglib) {
         tags.put(name, applicationContext.getBean(taglib.getFullName()));
     }
 
+    /**
+     * Creates the descriptor of a tag when its tag library is registered.
+     *
+     * @param namespace The namespace
+     * @param tagName The tag name
+     * @param taglib The tag library class
+     * @param tagLibrary The value stored for the tag by {@link #putTagLib(Map, String, GrailsTagLibClass)}
+     * @param returnsObject Whether the tag returns an object
+     * @param encodeAs The merged codec settings of the tag
+     * @return The descriptor
+     */
+    protected TagDescriptor createTagDescriptor(String namespace, String tagName, GrailsTagLibClass taglib,
+            Object tagLibrary, boolean returnsObject, Map<String, Object> encodeAs) {
+        return new TagDescriptor(namespace, tagName, (GroovyObject)tagLibrary, returnsObject, encodeAs);
+    }
+
+    /**
+     * Looks up the descriptor of a tag, which holds everything needed to invoke it.
+     *
+     * @param namespace The tag library namespace
+     * @param tagName The tag name
+     * @return The descriptor or null if the tag wasn't found
+     */
+    public TagDescriptor lookupTagDescriptor(String namespace, String tagName) {
+        Map<String, TagDescriptor> descriptors = tagDescriptors.get(namespace);
+        return descriptors != null ? descriptors.get(tagName) : null;
+    }
+
     /**
      * Looks up a tag library for the given namespace and tag name.
      *
@@ -133,21 +190,18 @@ public class TagLibraryLookup implements ApplicationContextAware, GrailsApplicat
      * @return The tag library or null if it wasn't found
      */
     public GroovyObject lookupTagLibrary(String namespace, String tagName) {
-        Map<String, Object>tags = tagNamespaces.get(namespace);
-        if (tags == null) {
-            return null;
-        }
-        return (GroovyObject)tags.get(tagName);
+        TagDescriptor descriptor = lookupTagDescriptor(namespace, tagName);
+        return descriptor != null ? descriptor.getTagLibrary() : null;
     }
 
     public boolean doesTagReturnObject(String namespace, String tagName) {
-        Set<String> tagsThatReturnObject = tagsThatReturnObjectForNamespace.get(namespace);
-        return tagsThatReturnObject != null && tagsThatReturnObject.contains(tagName);
+        TagDescriptor descriptor = lookupTagDescriptor(namespace, tagName);
+        return descriptor != null && descriptor.isReturnsObject();
     }
 
     public Map<String, Object> getEncodeAsForTag(String namespace, String tagName) {
-        Map<String,Map<String, Object>> encodeAsForTagNamespace = encodeAsForTagNamespaces.get(namespace);
-        return encodeAsForTagNamespace != null ? encodeAsForTagNamespace.get(tagName) : null;
+        TagDescriptor descriptor = lookupTagDescriptor(namespace, tagName);
+        return descriptor != null ? descriptor.getEncodeAs() : null;
     }
 
     /**
@@ -67,6 +67,7 @@ public class DefaultGrailsApplicationAttributes implements GrailsApplicationAttr
     private GroovyPagesUriService groovyPagesUriService;
     private MessageSource messageSource;
     private GrailsPluginManager pluginManager;
+    private FlashScopeStorage flashScopeStorage;
 
     public DefaultGrailsApplicationAttributes(ServletContext context) {
         this.context = context;
@@ -87,6 +88,9 @@ public class DefaultGrailsApplicationAttributes implements GrailsApplicationAttr
             grailsApplication = fetchBeanFromAppCtx(GrailsApplication.APPLICATION_ID);
             groovyPagesUriService = fetchBeanFromAppCtx(GroovyPagesUriService.BEAN_ID);
             messageSource = fetchBeanFromAppCtx("messageSource");
+            if (appContext.containsBean(FlashScopeStorage.BEAN_NAME)) {
+                flashScopeStorage = fetchBeanFromAppCtx(FlashScopeStorage.BEAN_NAME);
+            }
         }
         else {
             LOG.warn("ApplicationContext not found in " + APPLICATION_CONTEXT + " attribute of servlet context.");
@@ -161,6 +165,10 @@ public class DefaultGrailsApplicationAttributes implements GrailsApplicationAttr
         }
 
         HttpServletRequest servletRequest = (HttpServletRequest) request;
+        if (flashScopeStorage != null) {
+            return flashScopeStorage.getFlashScope(servletRequest);
+        }
+
         HttpSession session = servletRequest.getSession(false);
         FlashScope fs;
         if (session != null) {
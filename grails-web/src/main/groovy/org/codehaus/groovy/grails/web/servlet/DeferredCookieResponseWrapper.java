@@ -0,0 +1,112 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * Holds back cookies that are written several times in a request, like the cookie of the flash scope, so that
+ * only the last value is sent. The cookies are added to the response before it can be committed: on a redirect
+ * or error, when the body is written or flushed, and when the request completes.
+ *
+ * Once the body is being written a deferred cookie is added straight away, as the response may be committed
+ * any time.
+ *
+ * @since 2.3
+ */
+public class DeferredCookieResponseWrapper extends HttpServletResponseWrapper {
+
+    private final Map<String, Cookie> deferredCookies = new LinkedHashMap<String, Cookie>();
+    private boolean writing;
+
+    public DeferredCookieResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Adds the cookie when the response is about to be committed, replacing a cookie with the same name that was
+     * deferred before.
+     *
+     * @param cookie The cookie
+     */
+    public void deferCookie(Cookie cookie) {
+        if (writing) {
+            super.addCookie(cookie);
+        }
+        else {
+            deferredCookies.put(cookie.getName(), cookie);
+        }
+    }
+
+    /**
+     * Adds the deferred cookies to the response.
+     */
+    public void writeDeferredCookies() {
+        for (Cookie cookie : deferredCookies.values()) {
+            super.addCookie(cookie);
+        }
+        deferredCookies.clear();
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        writeDeferredCookies();
+        super.sendRedirect(location);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        writeDeferredCookies();
+        super.sendError(sc);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        writeDeferredCookies();
+        super.sendError(sc, msg);
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        startWriting();
+        return super.getWriter();
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        startWriting();
+        return super.getOutputStream();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        writeDeferredCookies();
+        super.flushBuffer();
+    }
+
+    private void startWriting() {
+        writeDeferredCookies();
+        writing = true;
+    }
+}
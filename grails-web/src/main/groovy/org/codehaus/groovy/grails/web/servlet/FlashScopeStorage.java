@@ -0,0 +1,46 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Keeps the {@link FlashScope} between requests. When a bean with the name {@link #BEAN_NAME} is defined
+ * it is used instead of the HTTP session.
+ *
+ * @since 2.3
+ */
+public interface FlashScopeStorage {
+
+    String BEAN_NAME = "grailsFlashScopeStorage";
+
+    /**
+     * Obtains the flash scope of the request, restoring the values stored by the previous request.
+     *
+     * @param request The request
+     * @return The flash scope, never null
+     */
+    FlashScope getFlashScope(HttpServletRequest request);
+
+    /**
+     * Stores the flash scope for the next request. Called each time the values for the next request change,
+     * while the response can still be modified.
+     *
+     * @param request The request
+     * @param flashScope The flash scope
+     */
+    void store(HttpServletRequest request, FlashScope flashScope);
+}
@@ -34,6 +34,9 @@ import org.springframework.web.context.request.RequestContextHolder;
 /**
  * Grails implementation of Flash scope (@see org.codehaus.groovy.grails.web.servlet.FlashScope).
  *
+ * Without a {@link FlashScopeStorage} the flash scope is stored in the HTTP session, which is created
+ * when the first value is added.
+ *
  * @author Graeme Rocher
  */
 @SuppressWarnings({"unchecked","rawtypes"})
@@ -44,6 +47,27 @@ public class GrailsFlashScope implements FlashScope {
     private Map next = new ConcurrentHashMap();
     public static final String ERRORS_PREFIX = "org.codehaus.groovy.grails.ERRORS_";
     private static final String ERRORS_PROPERTY = "errors";
+    private transient FlashScopeStorage storage;
+
+    public GrailsFlashScope() {
+        // stored in the session
+    }
+
+    /**
+     * @param storage The storage notified when the values for the next request change
+     */
+    public GrailsFlashScope(FlashScopeStorage storage) {
+        this.storage = storage;
+    }
+
+    /**
+     * Restores the values a storage kept for the next request, without notifying the storage.
+     *
+     * @param values The values
+     */
+    public void restore(Map values) {
+        next.putAll(values);
+    }
 
     public void next() {
         current.clear();
@@ -92,6 +116,7 @@ public class GrailsFlashScope implements FlashScope {
     public void clear() {
         current.clear();
         next.clear();
+        storeIfNecessary();
     }
 
     public boolean isEmpty() {
@@ -148,22 +173,26 @@ public class GrailsFlashScope implements FlashScope {
             return current.remove(key);
         }
 
-        return next.remove(key);
+        Object removed = next.remove(key);
+        if (removed != null) {
+            storeIfNecessary();
+        }
+        return removed;
     }
 
     public Object put(Object key, Object value) {
-        // create the session if it doesn't exist
-        registerWithSessionIfNecessary();
+        if (storage == null) {
+            // create the session if it doesn't exist
+            registerWithSessionIfNecessary();
+        }
         if (current.containsKey(key)) {
             current.remove(key);
         }
         storeErrorsIfPossible(next,value);
 
-        if (value == null) {
-            return next.remove(key);
-        }
-
-        return next.put(key,value);
+        Object previous = value == null ? next.remove(key) : next.put(key,value);
+        storeIfNecessary();
+        return previous;
     }
 
     private void storeErrorsIfPossible(Map scope,Object value) {
@@ -196,6 +225,13 @@ public class GrailsFlashScope implements FlashScope {
         }
     }
 
+    private void storeIfNecessary() {
+        if (storage != null) {
+            GrailsWebRequest webRequest = (GrailsWebRequest)RequestContextHolder.currentRequestAttributes();
+            storage.store(webRequest.getCurrentRequest(), this);
+        }
+    }
+
     private void registerWithSessionIfNecessary() {
         GrailsWebRequest webRequest = (GrailsWebRequest)RequestContextHolder.currentRequestAttributes();
         HttpSession session = webRequest.getCurrentRequest().getSession(true);
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet;
+
+import java.util.Map;
+import java.util.UUID;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+
+import org.codehaus.groovy.grails.web.servlet.mvc.GrailsWebRequest;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * Keeps flash scopes in memory, identified by a cookie instead of the HTTP session. The flash scopes are only
+ * available on the node that stored them, so this storage is meant for tests and single node deployments.
+ *
+ * @since 2.3
+ */
+public class InMemoryFlashScopeStorage implements FlashScopeStorage {
+
+    public static final String DEFAULT_COOKIE_NAME = "GRAILS_FLASH_ID";
+    private static final int DEFAULT_MAX_SIZE = 10000;
+    private static final String ID_ATTRIBUTE = InMemoryFlashScopeStorage.class.getName() + ".ID";
+
+    private final Map<String, FlashScope> flashScopes;
+    private String cookieName = DEFAULT_COOKIE_NAME;
+
+    public InMemoryFlashScopeStorage() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * @param maxSize The maximum number of flash scopes kept, the least recently used are removed first
+     */
+    public InMemoryFlashScopeStorage(int maxSize) {
+        flashScopes = new ConcurrentLinkedHashMap.Builder<String, FlashScope>()
+                .maximumWeightedCapacity(maxSize)
+                .build();
+    }
+
+    public FlashScope getFlashScope(HttpServletRequest request) {
+        FlashScope flashScope = (FlashScope)request.getAttribute(GrailsApplicationAttributes.FLASH_SCOPE);
+        if (flashScope != null) {
+            return flashScope;
+        }
+
+        String id = findId(request);
+        if (id != null) {
+            // stored again when values for the next request are added
+            flashScope = flashScopes.remove(id);
+        }
+        if (flashScope == null) {
+            flashScope = new GrailsFlashScope(this);
+        }
+        request.setAttribute(GrailsApplicationAttributes.FLASH_SCOPE, flashScope);
+        return flashScope;
+    }
+
+    public void store(HttpServletRequest request, FlashScope flashScope) {
+        String id = findId(request);
+        if (id == null) {
+            id = UUID.randomUUID().toString();
+            request.setAttribute(ID_ATTRIBUTE, id);
+            Cookie cookie = new Cookie(cookieName, id);
+            cookie.setPath(getCookiePath(request));
+            cookie.setHttpOnly(true);
+            GrailsWebRequest.lookup(request).getCurrentResponse().addCookie(cookie);
+        }
+        flashScopes.put(id, flashScope);
+    }
+
+    /**
+     * @return The number of flash scopes kept
+     */
+    public int size() {
+        return flashScopes.size();
+    }
+
+    public void clear() {
+        flashScopes.clear();
+    }
+
+    public String getCookieName() {
+        return cookieName;
+    }
+
+    public void setCookieName(String cookieName) {
+        this.cookieName = cookieName;
+    }
+
+    protected String findId(HttpServletRequest request) {
+        String id = (String)request.getAttribute(ID_ATTRIBUTE);
+        if (id != null) {
+            return id;
+        }
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (cookieName.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    protected String getCookiePath(HttpServletRequest request) {
+        String contextPath = request.getContextPath();
+        return contextPath == null || contextPath.length() == 0 ? "/" : contextPath;
+    }
+}
@@ -75,8 +75,10 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
     private static final String PROPERTY_CHAIN_MODEL = "chainModel";
     private static final String FORWARD_IN_PROGRESS = "org.codehaus.groovy.grails.FORWARD_IN_PROGRESS";
     private static final String FORWARD_CALLED = "org.codehaus.groovy.grails.FORWARD_CALLED";
+    public static final String CONFIG_FAST_INSTANTIATION = "grails.controllers.fastInstantiation";
     private Collection<ActionResultTransformer> actionResultTransformers = Collections.emptyList();
     protected boolean developmentMode = Environment.isDevelopmentMode();
+    private ControllerInstanceFactory controllerInstanceFactory;
 
     public ServletContext getServletContext() {
         return servletContext;
@@ -100,9 +102,21 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
      * @see org.codehaus.groovy.grails.web.servlet.mvc.GrailsControllerHelper#getControllerInstance(org.codehaus.groovy.grails.commons.GrailsControllerClass)
      */
     public GroovyObject getControllerInstance(GrailsControllerClass controllerClass) {
+        if (controllerInstanceFactory != null) {
+            return controllerInstanceFactory.getControllerInstance(controllerClass);
+        }
         return (GroovyObject)applicationContext.getBean(controllerClass.getFullName());
     }
 
+    /**
+     * Discards cached controller instantiation plans, called when controller beans are re-registered.
+     */
+    public void resetControllerInstanceFactory() {
+        if (controllerInstanceFactory != null) {
+            controllerInstanceFactory.reset();
+        }
+    }
+
     /**
      * If in Proxy's are used in the Groovy context, unproxy (is that a word?) them by setting
      * the adaptee as the value in the map so that they can be used in non-groovy view technologies
@@ -129,7 +143,6 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
         Assert.notNull(originalUri, "Controller URI [" + originalUri + "] cannot be null!");
 
         HttpServletRequest request = grailsWebRequest.getCurrentRequest();
-        HttpServletResponse response = grailsWebRequest.getCurrentResponse();
 
         String uri = originalUri;
         if (uri.endsWith("/")) {
@@ -160,6 +173,25 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
             throw new UnknownControllerException("No controller found for URI [" + uri + "]!");
         }
 
+        return handleControllerRequest(controllerClass, uri, grailsWebRequest, params);
+    }
+
+    /**
+     * Executes the action mapped to the given URI of an already resolved controller class.
+     * Used by {@link #handleURI(String, GrailsWebRequest, Map)} and when the URL mappings filter dispatches
+     * matched requests directly to the controller without forwarding.
+     *
+     * @param controllerClass The controller class
+     * @param uri The controller URI (/controller/action) without a trailing slash
+     * @param grailsWebRequest The current web request
+     * @param params Additional parameters
+     * @return The ModelAndView or null if the response has been handled
+     */
+    @SuppressWarnings("rawtypes")
+    public ModelAndView handleControllerRequest(GrailsControllerClass controllerClass, String uri, GrailsWebRequest grailsWebRequest, Map params) {
+        HttpServletRequest request = grailsWebRequest.getCurrentRequest();
+        HttpServletResponse response = grailsWebRequest.getCurrentResponse();
+
         String actionName = controllerClass.getMethodActionName(uri);
         if (controllerClass.isFlowAction(actionName)) {
             // direct access to flow action not allowed
@@ -441,6 +473,7 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
     public void setApplicationContext(ApplicationContext applicationContext) throws BeansException {
         this.applicationContext = applicationContext;
         this.actionResultTransformers = applicationContext.getBeansOfType(ActionResultTransformer.class).values();
+        initControllerInstanceFactory();
     }
 
     public void setServletContext(ServletContext servletContext) {
@@ -450,5 +483,16 @@ public abstract class AbstractGrailsControllerHelper implements ApplicationConte
 
     public void setGrailsApplication(GrailsApplication application) {
         this.application = application;
+        initControllerInstanceFactory();
+    }
+
+    private void initControllerInstanceFactory() {
+        if (applicationContext == null || application == null || developmentMode) {
+            return;
+        }
+        Object fastInstantiation = application.getFlatConfig().get(CONFIG_FAST_INSTANTIATION);
+        if (fastInstantiation instanceof Boolean && (Boolean)fastInstantiation) {
+            controllerInstanceFactory = new ControllerInstanceFactory(applicationContext);
+        }
     }
 }
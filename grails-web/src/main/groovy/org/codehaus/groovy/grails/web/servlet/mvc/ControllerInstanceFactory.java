@@ -0,0 +1,236 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+import groovy.lang.GroovyObject;
+
+import java.beans.PropertyDescriptor;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.groovy.grails.commons.GrailsControllerClass;
+import org.codehaus.groovy.grails.plugins.PluginManagerAware;
+import org.codehaus.groovy.grails.plugins.support.aware.ClassLoaderAware;
+import org.codehaus.groovy.grails.plugins.support.aware.GrailsApplicationAware;
+import org.codehaus.groovy.grails.plugins.support.aware.GrailsConfigurationAware;
+import org.codehaus.groovy.grails.web.servlet.mvc.exceptions.ControllerExecutionException;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.Aware;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * Creates controller instances without going through the full Spring prototype bean creation on
+ * every request.
+ *
+ * <p>For each controller class an injection plan is computed once: the no-arg constructor and the
+ * setters that Spring would call when autowiring the controller by name, together with the resolved
+ * singleton beans. New instances are then created with a plain constructor call followed by the setter
+ * calls. Singleton scoped controllers are looked up once and reused.</p>
+ *
+ * <p>Controllers that need more than autowiring by name (Spring or Grails "Aware" interfaces, lifecycle
+ * callbacks, annotation based injection or bean post processors that proxy the instance) are always
+ * created through the application context.</p>
+ *
+ * @since 2.3
+ */
+public class ControllerInstanceFactory {
+
+    private static final Log LOG = LogFactory.getLog(ControllerInstanceFactory.class);
+    private static final Class<?>[] CONTAINER_CALLBACK_TYPES = {
+        Aware.class, InitializingBean.class, DisposableBean.class, GrailsApplicationAware.class,
+        GrailsConfigurationAware.class, ClassLoaderAware.class, PluginManagerAware.class };
+    private static final String[] INJECTION_ANNOTATION_PACKAGES = {
+        "org.springframework.beans.factory.annotation.", "javax.annotation.", "javax.inject." };
+
+    private final ApplicationContext applicationContext;
+    private final Map<Class<?>, InstantiationPlan> plans = new ConcurrentHashMap<Class<?>, InstantiationPlan>();
+
+    public ControllerInstanceFactory(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    /**
+     * Returns a controller instance for the given controller class.
+     *
+     * @param controllerClass The controller class
+     * @return A new instance for prototype scoped controllers, the shared instance otherwise
+     */
+    public GroovyObject getControllerInstance(GrailsControllerClass controllerClass) {
+        InstantiationPlan plan = plans.get(controllerClass.getClazz());
+        if (plan == null) {
+            plan = createPlan(controllerClass);
+            plans.put(controllerClass.getClazz(), plan);
+        }
+        return plan.getInstance();
+    }
+
+    /**
+     * Discards the computed plans, for example after the controller beans have been re-registered.
+     */
+    public void reset() {
+        plans.clear();
+    }
+
+    protected InstantiationPlan createPlan(GrailsControllerClass controllerClass) {
+        String beanName = controllerClass.getFullName();
+        Class<?> clazz = controllerClass.getClazz();
+
+        if (applicationContext.isSingleton(beanName)) {
+            return new SingletonPlan((GroovyObject)applicationContext.getBean(beanName));
+        }
+
+        if (!applicationContext.isPrototype(beanName) || !isPlainAutowiredClass(clazz)) {
+            return new BeanFactoryPlan(beanName);
+        }
+
+        // an instance created by Spring tells whether a post processor replaced it with a proxy
+        Object sample = applicationContext.getBean(beanName);
+        if (sample.getClass() != clazz) {
+            return new BeanFactoryPlan(beanName);
+        }
+
+        Constructor<?> constructor;
+        try {
+            constructor = clazz.getDeclaredConstructor();
+        }
+        catch (NoSuchMethodException e) {
+            return new BeanFactoryPlan(beanName);
+        }
+        ReflectionUtils.makeAccessible(constructor);
+
+        List<PropertyInjection> injections = new ArrayList<PropertyInjection>();
+        for (PropertyDescriptor pd : BeanUtils.getPropertyDescriptors(clazz)) {
+            Method writeMethod = pd.getWriteMethod();
+            String propertyName = pd.getName();
+            if (writeMethod == null || BeanUtils.isSimpleProperty(pd.getPropertyType()) ||
+                    !applicationContext.containsBean(propertyName)) {
+                continue;
+            }
+            ReflectionUtils.makeAccessible(writeMethod);
+            Object singleton = applicationContext.isSingleton(propertyName) ? applicationContext.getBean(propertyName) : null;
+            injections.add(new PropertyInjection(writeMethod, propertyName, singleton));
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Controller [" + beanName + "] is created with " + injections.size() + " property injections");
+        }
+        return new ConstructorPlan(constructor, injections.toArray(new PropertyInjection[injections.size()]));
+    }
+
+    private boolean isPlainAutowiredClass(Class<?> clazz) {
+        for (Class<?> callbackType : CONTAINER_CALLBACK_TYPES) {
+            if (callbackType.isAssignableFrom(clazz)) {
+                return false;
+            }
+        }
+        for (Class<?> c = clazz; c != null && c != Object.class; c = c.getSuperclass()) {
+            if (hasInjectionAnnotation(c.getDeclaredFields()) || hasInjectionAnnotation(c.getDeclaredMethods())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean hasInjectionAnnotation(AccessibleObject[] members) {
+        for (AccessibleObject member : members) {
+            for (Annotation annotation : member.getAnnotations()) {
+                String annotationName = annotation.annotationType().getName();
+                for (String packageName : INJECTION_ANNOTATION_PACKAGES) {
+                    if (annotationName.startsWith(packageName)) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    protected interface InstantiationPlan {
+        GroovyObject getInstance();
+    }
+
+    private static class SingletonPlan implements InstantiationPlan {
+        private final GroovyObject instance;
+
+        SingletonPlan(GroovyObject instance) {
+            this.instance = instance;
+        }
+
+        public GroovyObject getInstance() {
+            return instance;
+        }
+    }
+
+    private class BeanFactoryPlan implements InstantiationPlan {
+        private final String beanName;
+
+        BeanFactoryPlan(String beanName) {
+            this.beanName = beanName;
+        }
+
+        public GroovyObject getInstance() {
+            return (GroovyObject)applicationContext.getBean(beanName);
+        }
+    }
+
+    private class ConstructorPlan implements InstantiationPlan {
+        private final Constructor<?> constructor;
+        private final PropertyInjection[] injections;
+
+        ConstructorPlan(Constructor<?> constructor, PropertyInjection[] injections) {
+            this.constructor = constructor;
+            this.injections = injections;
+        }
+
+        public GroovyObject getInstance() {
+            Object instance;
+            try {
+                instance = constructor.newInstance();
+            }
+            catch (Exception e) {
+                throw new ControllerExecutionException("Unable to create controller instance of " + constructor.getDeclaringClass().getName(), e);
+            }
+            for (PropertyInjection injection : injections) {
+                Object value = injection.singleton != null ? injection.singleton : applicationContext.getBean(injection.beanName);
+                ReflectionUtils.invokeMethod(injection.setter, instance, value);
+            }
+            return (GroovyObject)instance;
+        }
+    }
+
+    private static class PropertyInjection {
+        final Method setter;
+        final String beanName;
+        final Object singleton;
+
+        PropertyInjection(Method setter, String beanName, Object singleton) {
+            this.setter = setter;
+            this.beanName = beanName;
+            this.singleton = singleton;
+        }
+    }
+}
@@ -16,7 +16,6 @@
 package org.codehaus.groovy.grails.web.servlet.mvc;
 
 import java.io.UnsupportedEncodingException;
-import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 import java.util.Iterator;
@@ -43,7 +42,6 @@ import org.grails.databinding.DataBindingSource;
 import org.grails.databinding.SimpleMapDataBindingSource;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.MessageSource;
-import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.multipart.MultipartHttpServletRequest;
 
@@ -62,6 +60,9 @@ public class GrailsParameterMap extends TypeConvertingMap implements Cloneable {
 
     private static final Log LOG = LogFactory.getLog(GrailsParameterMap.class);
     private static final Map<String, String> CACHED_DATE_FORMATS  = new ConcurrentHashMap<String, String>();
+    // assembling a date doesn't use the format or change the state of the editor
+    private static final StructuredDateEditor STRUCTURED_DATE_EDITOR =
+            new StructuredDateEditor(new SimpleDateFormat(GrailsDataBinder.DEFAULT_DATE_FORMAT), true);
 
     private final HttpServletRequest request;
     public static final String REQUEST_BODY_PARSED = "org.codehaus.groovy.grails.web.REQUEST_BODY_PARSED";
@@ -270,11 +271,8 @@ public class GrailsParameterMap extends TypeConvertingMap implements Cloneable {
             }
         }
 
-        DateFormat dateFormat = new SimpleDateFormat(GrailsDataBinder.DEFAULT_DATE_FORMAT,
-                LocaleContextHolder.getLocale());
-        StructuredDateEditor editor = new StructuredDateEditor(dateFormat, true);
         try {
-            return (Date)editor.assemble(Date.class, dateParams);
+            return (Date)STRUCTURED_DATE_EDITOR.assemble(Date.class, dateParams);
         }
         catch (IllegalArgumentException e) {
             return null;
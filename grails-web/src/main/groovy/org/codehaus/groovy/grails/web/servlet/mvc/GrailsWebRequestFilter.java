@@ -17,18 +17,30 @@ package org.codehaus.groovy.grails.web.servlet.mvc;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.codehaus.groovy.grails.commons.GrailsApplication;
+import org.codehaus.groovy.grails.commons.cfg.GrailsConfig;
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsHolder;
+import org.codehaus.groovy.grails.web.mapping.UrlMappingsReloadedEvent;
+import org.codehaus.groovy.grails.web.servlet.DeferredCookieResponseWrapper;
 import org.codehaus.groovy.grails.web.servlet.FlashScope;
+import org.codehaus.groovy.grails.web.servlet.FlashScopeStorage;
 import org.codehaus.groovy.grails.web.util.WebUtils;
 import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.i18n.LocaleContextHolder;
 import org.springframework.web.context.support.WebApplicationContextUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
 
 /**
  * Binds a {@link GrailsWebRequestFilter} to the currently executing thread.
@@ -37,7 +49,19 @@ import org.springframework.web.filter.OncePerRequestFilter;
  * @since 0.4
  */
 public class GrailsWebRequestFilter extends OncePerRequestFilter {
+
+    /** Whether requests for the paths classified by a {@link RequestPathClassifier} bypass Grails */
+    public static final String FAST_PATH_ENABLED = "grails.web.fastPath.enabled";
+    /** A list of patterns, or a map of path classes to lists of patterns, of the paths bypassing Grails */
+    public static final String FAST_PATH_PATTERNS = "grails.web.fastPath.patterns";
+    /** Whether the files and directories at the root of the web application bypass Grails, true by default */
+    public static final String FAST_PATH_STATIC_RESOURCES = "grails.web.fastPath.staticResources";
+
     Collection<ParameterCreationListener> paramListenerBeans;
+    private UrlPathHelper urlHelper = new UrlPathHelper();
+    private GrailsApplication application;
+    private volatile RequestPathClassifier requestPathClassifier;
+    private boolean deferCookies;
 
     /* (non-Javadoc)
      * @see org.springframework.web.filter.OncePerRequestFilter#doFilterInternal(
@@ -47,8 +71,29 @@ public class GrailsWebRequestFilter extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
 
+        RequestPathClassifier classifier = getRequestPathClassifier();
+        if (classifier != null) {
+            String pathClass = classifier.classify(urlHelper.getPathWithinApplication(request));
+            classifier.count(pathClass);
+            if (pathClass != null) {
+                // the request attribute tells the URL mappings filter to pass the request on too
+                request.setAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE, pathClass);
+                try {
+                    filterChain.doFilter(request, response);
+                }
+                finally {
+                    request.removeAttribute(RequestPathClassifier.PATH_CLASS_ATTRIBUTE);
+                }
+                return;
+            }
+        }
+
+        // the flash scope and token stores may keep their state in cookies that change several times per request
+        DeferredCookieResponseWrapper cookieResponse = deferCookies ? new DeferredCookieResponseWrapper(response) : null;
+        HttpServletResponse filteredResponse = cookieResponse == null ? response : cookieResponse;
+
         LocaleContextHolder.setLocale(request.getLocale());
-        GrailsWebRequest webRequest = new GrailsWebRequest(request, response, getServletContext());
+        GrailsWebRequest webRequest = new GrailsWebRequest(request, filteredResponse, getServletContext());
         configureParameterCreationListeners(webRequest);
 
         if (logger.isDebugEnabled()) {
@@ -66,9 +111,12 @@ public class GrailsWebRequestFilter extends OncePerRequestFilter {
 
             // Pass control on to the next filter (or the servlet if
             // there are no more filters in the chain).
-            filterChain.doFilter(request, response);
+            filterChain.doFilter(request, filteredResponse);
         }
         finally {
+            if (cookieResponse != null) {
+                cookieResponse.writeDeferredCookies();
+            }
             webRequest.requestCompleted();
             WebUtils.clearGrailsWebRequest();
             LocaleContextHolder.setLocale(null);
@@ -105,11 +153,111 @@ public class GrailsWebRequestFilter extends OncePerRequestFilter {
     }
 
     public void initialize() {
+        urlHelper.setUrlDecode(false);
         ApplicationContext appCtx = WebApplicationContextUtils.getRequiredWebApplicationContext(getServletContext());
         if (appCtx != null) {
             paramListenerBeans=appCtx.getBeansOfType(ParameterCreationListener.class).values();
+            deferCookies = appCtx.containsBean(FlashScopeStorage.BEAN_NAME) || appCtx.containsBean(SynchronizerTokensStore.BEAN_NAME);
+            if (appCtx.containsBean(GrailsApplication.APPLICATION_ID)) {
+                application = appCtx.getBean(GrailsApplication.APPLICATION_ID, GrailsApplication.class);
+                requestPathClassifier = createRequestPathClassifier(appCtx);
+                registerUrlMappingsReloadListener(appCtx);
+            }
         } else {
             logger.warn("appCtx not found in servletContext");
         }
     }
+
+    /**
+     * @return The classifier of the paths bypassing Grails or null if no path bypasses Grails
+     */
+    public RequestPathClassifier getRequestPathClassifier() {
+        return requestPathClassifier;
+    }
+
+    /**
+     * Rebuilds the classifier when the URL mappings, and with them the exclusions, are reloaded.
+     */
+    private void registerUrlMappingsReloadListener(final ApplicationContext appCtx) {
+        if (!(appCtx instanceof ConfigurableApplicationContext) || !new GrailsConfig(application).get(FAST_PATH_ENABLED, Boolean.FALSE)) {
+            return;
+        }
+        ((ConfigurableApplicationContext)appCtx).addApplicationListener(new ApplicationListener<UrlMappingsReloadedEvent>() {
+            public void onApplicationEvent(UrlMappingsReloadedEvent event) {
+                requestPathClassifier = createRequestPathClassifier(appCtx);
+            }
+        });
+    }
+
+    /**
+     * Compiles the paths bypassing Grails from the URL mapping exclusions, the static resources of the web
+     * application and the configured patterns.
+     */
+    protected RequestPathClassifier createRequestPathClassifier(ApplicationContext appCtx) {
+        GrailsConfig config = new GrailsConfig(application);
+        if (!config.get(FAST_PATH_ENABLED, Boolean.FALSE)) {
+            return null;
+        }
+
+        RequestPathClassifier classifier = new RequestPathClassifier();
+
+        Object patterns = config.get(FAST_PATH_PATTERNS);
+        if (patterns instanceof Map) {
+            for (Object entry : ((Map<?, ?>)patterns).entrySet()) {
+                addPatterns(classifier, ((Map.Entry<?, ?>)entry).getValue(), String.valueOf(((Map.Entry<?, ?>)entry).getKey()));
+            }
+        }
+        else {
+            addPatterns(classifier, patterns, RequestPathClassifier.CONFIGURED);
+        }
+
+        if (appCtx.containsBean(UrlMappingsHolder.BEAN_ID)) {
+            UrlMappingsHolder urlMappings = appCtx.getBean(UrlMappingsHolder.BEAN_ID, UrlMappingsHolder.class);
+            List<?> excludePatterns = urlMappings.getExcludePatterns();
+            if (excludePatterns != null) {
+                for (Object excludePattern : excludePatterns) {
+                    classifier.addExcludePattern(String.valueOf(excludePattern), RequestPathClassifier.EXCLUDED);
+                }
+            }
+        }
+
+        if (config.get(FAST_PATH_STATIC_RESOURCES, Boolean.TRUE)) {
+            Set<String> resourcePaths = getServletContext().getResourcePaths("/");
+            if (resourcePaths != null) {
+                for (String resourcePath : resourcePaths) {
+                    if (resourcePath.equals("/WEB-INF/") || resourcePath.equals("/META-INF/") ||
+                            resourcePath.endsWith(".gsp") || resourcePath.endsWith(".jsp")) {
+                        continue;
+                    }
+                    if (resourcePath.endsWith("/")) {
+                        classifier.addExcludePattern(resourcePath + "**", RequestPathClassifier.STATIC);
+                    }
+                    else {
+                        classifier.addExcludePattern(resourcePath, RequestPathClassifier.STATIC);
+                    }
+                }
+            }
+        }
+
+        if (classifier.isEmpty()) {
+            return null;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Requests for static resources, excluded and configured paths bypass Grails");
+        }
+        // exposed for monitoring the request counts
+        getServletContext().setAttribute(RequestPathClassifier.class.getName(), classifier);
+        return classifier;
+    }
+
+    private void addPatterns(RequestPathClassifier classifier, Object patterns, String pathClass) {
+        if (patterns instanceof Collection) {
+            for (Object pattern : (Collection<?>)patterns) {
+                classifier.addPattern(String.valueOf(pattern), pathClass);
+            }
+        }
+        else if (patterns instanceof CharSequence) {
+            classifier.addPattern(patterns.toString(), pathClass);
+        }
+    }
 }
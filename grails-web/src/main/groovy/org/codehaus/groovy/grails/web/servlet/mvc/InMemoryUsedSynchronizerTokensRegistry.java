@@ -0,0 +1,58 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+import java.util.concurrent.ConcurrentMap;
+
+import com.googlecode.concurrentlinkedhashmap.ConcurrentLinkedHashMap;
+
+/**
+ * Remembers the used synchronizer tokens in memory. Only the requests served by this node are seen, so a token
+ * can be used once on each node until it expires. The oldest tokens are forgotten first when more are used within
+ * the time a token lives than are remembered.
+ *
+ * @since 2.3
+ */
+public class InMemoryUsedSynchronizerTokensRegistry implements UsedSynchronizerTokensRegistry {
+
+    public static final int DEFAULT_MAX_USED_TOKENS = 100000;
+
+    private final ConcurrentMap<String, Long> usedTokens;
+
+    public InMemoryUsedSynchronizerTokensRegistry() {
+        this(DEFAULT_MAX_USED_TOKENS);
+    }
+
+    /**
+     * @param maxUsedTokens The maximum number of used tokens remembered, the oldest are forgotten first
+     */
+    public InMemoryUsedSynchronizerTokensRegistry(int maxUsedTokens) {
+        usedTokens = new ConcurrentLinkedHashMap.Builder<String, Long>()
+                .maximumWeightedCapacity(maxUsedTokens)
+                .build();
+    }
+
+    public boolean markUsed(String token, long expiresAt) {
+        return usedTokens.putIfAbsent(token, expiresAt) == null;
+    }
+
+    /**
+     * @return The number of used tokens remembered
+     */
+    public int size() {
+        return usedTokens.size();
+    }
+}
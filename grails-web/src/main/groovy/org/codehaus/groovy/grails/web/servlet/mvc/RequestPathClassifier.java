@@ -0,0 +1,234 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Classifies request paths that don't need Grails, like static resources and health checks, so that
+ * {@link GrailsWebRequestFilter} can pass them on without binding a {@link GrailsWebRequest}. The patterns are
+ * compiled into hash lookups by path, first path segment and file extension when they are added, only patterns
+ * with wildcards in other places are matched one after the other.
+ *
+ * The patterns are added while the filter is initialized, after that the classifier is only read.
+ *
+ * @since 2.3
+ */
+public class RequestPathClassifier {
+
+    /** The request attribute holding the class of a request that bypasses Grails */
+    public static final String PATH_CLASS_ATTRIBUTE = RequestPathClassifier.class.getName() + ".PATH_CLASS";
+
+    /** The class of the paths excluded by the URL mappings */
+    public static final String EXCLUDED = "excluded";
+    /** The class of the paths of the static resources of the web application */
+    public static final String STATIC = "static";
+    /** The class of the paths configured with a list of patterns */
+    public static final String CONFIGURED = "configured";
+    /** The class the requests handled by Grails are counted as */
+    public static final String GRAILS = "grails";
+
+    private final Map<String, String> paths = new HashMap<String, String>();
+    private final Map<String, List<String[]>> prefixesBySegment = new HashMap<String, List<String[]>>();
+    private final List<String[]> otherPrefixes = new ArrayList<String[]>();
+    private final Map<String, String> extensions = new HashMap<String, String>();
+    private final List<String[]> antPatterns = new ArrayList<String[]>();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final ConcurrentMap<String, AtomicLong> counts = new ConcurrentHashMap<String, AtomicLong>();
+
+    /**
+     * Adds a pattern with the semantics of the URL mapping exclusions: a pattern ending with <code>*</code> or
+     * <code>**</code> matches the paths starting with the rest of the pattern, other patterns match one path.
+     *
+     * @param pattern The pattern
+     * @param pathClass The class of the matching paths
+     */
+    public void addExcludePattern(String pattern, String pathClass) {
+        if (pattern.endsWith("**")) {
+            addPrefix(pattern.substring(0, pattern.length() - 2), pathClass);
+        }
+        else if (pattern.endsWith("*")) {
+            addPrefix(pattern.substring(0, pattern.length() - 1), pathClass);
+        }
+        else {
+            addPath(pattern, pathClass);
+        }
+    }
+
+    /**
+     * Adds an Ant-style pattern, like <code>/health</code>, <code>/assets/**</code> or <code>**&#47;*.css</code>.
+     *
+     * @param pattern The pattern
+     * @param pathClass The class of the matching paths
+     */
+    public void addPattern(String pattern, String pathClass) {
+        if (!pathMatcher.isPattern(pattern)) {
+            addPath(pattern, pathClass);
+            return;
+        }
+
+        if (pattern.endsWith("/**") && !pathMatcher.isPattern(pattern.substring(0, pattern.length() - 3))) {
+            addPath(pattern.substring(0, pattern.length() - 3), pathClass);
+            addPrefix(pattern.substring(0, pattern.length() - 2), pathClass);
+            return;
+        }
+
+        String extension = null;
+        for (String any : new String[] { "/**/*.", "**/*.", "*." }) {
+            if (pattern.startsWith(any)) {
+                extension = pattern.substring(any.length() - 1);
+                break;
+            }
+        }
+        if (extension != null && !pathMatcher.isPattern(extension) && extension.indexOf('/') == -1) {
+            if (!extensions.containsKey(extension)) {
+                extensions.put(extension, pathClass);
+            }
+            return;
+        }
+
+        antPatterns.add(new String[] { pattern, pathClass });
+    }
+
+    private void addPath(String path, String pathClass) {
+        if (!paths.containsKey(path)) {
+            paths.put(path, pathClass);
+        }
+    }
+
+    private void addPrefix(String prefix, String pathClass) {
+        String[] entry = { prefix, pathClass };
+        int segmentEnd = prefix.startsWith("/") ? prefix.indexOf('/', 1) : -1;
+        if (segmentEnd > 1) {
+            String segment = prefix.substring(1, segmentEnd);
+            List<String[]> prefixes = prefixesBySegment.get(segment);
+            if (prefixes == null) {
+                prefixes = new ArrayList<String[]>(1);
+                prefixesBySegment.put(segment, prefixes);
+            }
+            prefixes.add(entry);
+        }
+        else {
+            otherPrefixes.add(entry);
+        }
+    }
+
+    /**
+     * @return Whether no patterns were added
+     */
+    public boolean isEmpty() {
+        return paths.isEmpty() && prefixesBySegment.isEmpty() && otherPrefixes.isEmpty() &&
+                extensions.isEmpty() && antPatterns.isEmpty();
+    }
+
+    /**
+     * Finds the class of the path.
+     *
+     * @param path The path within the application
+     * @return The class of the path or null if the request is handled by Grails
+     */
+    public String classify(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        String pathClass = paths.get(path);
+        if (pathClass != null) {
+            return pathClass;
+        }
+
+        if (!prefixesBySegment.isEmpty() && path.length() > 1) {
+            int segmentEnd = path.indexOf('/', 1);
+            if (segmentEnd > 1) {
+                pathClass = findPrefix(prefixesBySegment.get(path.substring(1, segmentEnd)), path);
+                if (pathClass != null) {
+                    return pathClass;
+                }
+            }
+        }
+        pathClass = findPrefix(otherPrefixes, path);
+        if (pathClass != null) {
+            return pathClass;
+        }
+
+        if (!extensions.isEmpty()) {
+            int dot = path.lastIndexOf('.');
+            if (dot > path.lastIndexOf('/')) {
+                pathClass = extensions.get(path.substring(dot));
+                if (pathClass != null) {
+                    return pathClass;
+                }
+            }
+        }
+
+        for (String[] antPattern : antPatterns) {
+            if (pathMatcher.match(antPattern[0], path)) {
+                return antPattern[1];
+            }
+        }
+        return null;
+    }
+
+    private String findPrefix(List<String[]> prefixes, String path) {
+        if (prefixes != null) {
+            for (String[] prefix : prefixes) {
+                if (path.startsWith(prefix[0])) {
+                    return prefix[1];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Counts a request.
+     *
+     * @param pathClass The class of the request path, null for requests handled by Grails
+     */
+    public void count(String pathClass) {
+        String key = pathClass == null ? GRAILS : pathClass;
+        AtomicLong count = counts.get(key);
+        if (count == null) {
+            AtomicLong newCount = new AtomicLong();
+            count = counts.putIfAbsent(key, newCount);
+            if (count == null) {
+                count = newCount;
+            }
+        }
+        count.incrementAndGet();
+    }
+
+    /**
+     * @return The number of requests counted by path class
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> result = new LinkedHashMap<String, Long>();
+        for (Map.Entry<String, AtomicLong> entry : counts.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().get());
+        }
+        return Collections.unmodifiableMap(result);
+    }
+}
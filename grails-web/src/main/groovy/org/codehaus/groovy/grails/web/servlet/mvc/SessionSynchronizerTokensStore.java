@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpSession;
+
+/**
+ * Keeps the tokens holder in the HTTP session, the default when no other store is defined.
+ *
+ * @since 2.3
+ */
+public class SessionSynchronizerTokensStore implements SynchronizerTokensStore {
+
+    public SynchronizerTokensHolder load(HttpServletRequest request) {
+        HttpSession session = request.getSession(false);
+        return session == null ? null : (SynchronizerTokensHolder)session.getAttribute(SynchronizerTokensHolder.HOLDER);
+    }
+
+    public SynchronizerTokensHolder loadOrCreate(HttpServletRequest request) {
+        return SynchronizerTokensHolder.store(request.getSession(true));
+    }
+
+    public void save(HttpServletRequest request, SynchronizerTokensHolder tokensHolder) {
+        // the holder in the session is updated in place
+        if (tokensHolder.isEmpty()) {
+            HttpSession session = request.getSession(false);
+            if (session != null) {
+                session.removeAttribute(SynchronizerTokensHolder.HOLDER);
+            }
+        }
+    }
+
+    public boolean useToken(HttpServletRequest request, SynchronizerTokensHolder tokensHolder, String url, String token) {
+        // the holder is shared by the requests of the session
+        synchronized (tokensHolder) {
+            boolean valid = tokensHolder.isValid(url, token);
+            tokensHolder.resetToken(url, token);
+            save(request, tokensHolder);
+            return valid;
+        }
+    }
+}
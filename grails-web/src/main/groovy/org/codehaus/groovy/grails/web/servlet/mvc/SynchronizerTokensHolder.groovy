@@ -17,6 +17,7 @@ package org.codehaus.groovy.grails.web.servlet.mvc
 
 import java.util.concurrent.CopyOnWriteArraySet
 
+import javax.servlet.http.HttpServletRequest
 import javax.servlet.http.HttpSession
 
 /**
@@ -31,6 +32,8 @@ class SynchronizerTokensHolder implements Serializable {
     public static final String TOKEN_KEY = "SYNCHRONIZER_TOKEN"
     public static final String TOKEN_URI = "SYNCHRONIZER_URI"
 
+    private static final SynchronizerTokensStore SESSION_STORE = new SessionSynchronizerTokensStore()
+
     Map<String, Set<UUID>> currentTokens= [:]
 
     boolean isValid(String url, String token) {
@@ -85,4 +88,18 @@ class SynchronizerTokensHolder implements Serializable {
         }
         return tokensHolder
     }
+
+    /**
+     * Finds the store for the tokens holder of the request.
+     *
+     * @param request The request
+     * @return The {@link SynchronizerTokensStore#BEAN_NAME} bean if defined, otherwise a store using the HTTP session
+     */
+    static SynchronizerTokensStore lookupStore(HttpServletRequest request) {
+        def applicationContext = GrailsWebRequest.lookup(request)?.applicationContext
+        if (applicationContext?.containsBean(SynchronizerTokensStore.BEAN_NAME)) {
+            return applicationContext.getBean(SynchronizerTokensStore.BEAN_NAME, SynchronizerTokensStore)
+        }
+        return SESSION_STORE
+    }
 }
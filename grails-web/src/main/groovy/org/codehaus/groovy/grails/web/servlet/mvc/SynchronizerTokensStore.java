@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Keeps the {@link SynchronizerTokensHolder} used to handle double-submits between requests. When a bean with
+ * the name {@link #BEAN_NAME} is defined it is used instead of the HTTP session.
+ *
+ * @since 2.3
+ */
+public interface SynchronizerTokensStore {
+
+    String BEAN_NAME = "grailsSynchronizerTokensStore";
+
+    /**
+     * @param request The request
+     * @return The tokens holder or null if there are no tokens for the client
+     */
+    SynchronizerTokensHolder load(HttpServletRequest request);
+
+    /**
+     * @param request The request
+     * @return The tokens holder, created if there are no tokens for the client
+     */
+    SynchronizerTokensHolder loadOrCreate(HttpServletRequest request);
+
+    /**
+     * Saves the tokens holder after tokens were generated or reset. An empty holder is removed.
+     *
+     * @param request The request
+     * @param tokensHolder The tokens holder
+     */
+    void save(HttpServletRequest request, SynchronizerTokensHolder tokensHolder);
+
+    /**
+     * Removes a token that was accepted and saves the tokens holder. A token must only be accepted once, also by
+     * concurrent requests and when the client sends tokens it was given earlier again.
+     *
+     * @param request The request
+     * @param tokensHolder The tokens holder of the request
+     * @param url The URL of the form
+     * @param token The token
+     * @return Whether the token was valid and hadn't been used before
+     */
+    boolean useToken(HttpServletRequest request, SynchronizerTokensHolder tokensHolder, String url, String token);
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.codehaus.groovy.grails.web.servlet.mvc;
+
+/**
+ * Remembers the synchronizer tokens that were accepted, for stores that keep the tokens on the client and can't
+ * tell a token that was sent again from one that wasn't used yet. When several nodes serve the requests of a
+ * client, the bean with the name {@link #BEAN_NAME} must be backed by a store the nodes share.
+ *
+ * @since 2.3
+ */
+public interface UsedSynchronizerTokensRegistry {
+
+    String BEAN_NAME = "grailsUsedSynchronizerTokensRegistry";
+
+    /**
+     * Records that a token was accepted.
+     *
+     * @param token The token
+     * @param expiresAt The time in milliseconds after which the token is rejected anyway and can be forgotten
+     * @return Whether the token hadn't been recorded before
+     */
+    boolean markUsed(String token, long expiresAt);
+}
@@ -17,8 +17,6 @@ package org.codehaus.groovy.grails.web.util;
 
 import groovy.lang.GroovyObjectSupport;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -27,12 +25,15 @@ import java.util.Date;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.lang.builder.HashCodeBuilder;
 import org.codehaus.groovy.grails.web.binding.GrailsDataBinder;
 import org.codehaus.groovy.runtime.DefaultGroovyMethods;
+import org.grails.databinding.converters.CompiledDateFormat;
+import org.grails.databinding.converters.DateParser;
 
 /**
  * An category for use with maps that want type conversion capabilities
@@ -371,11 +372,7 @@ public abstract class AbstractTypeConvertingMap extends GroovyObjectSupport impl
     public Date getDate(String name, String format) {
         Object value = get(name);
         if (value != null) {
-            try {
-                return new SimpleDateFormat(format).parse(value.toString());
-            } catch (ParseException e) {
-                // ignore
-            }
+            return CompiledDateFormat.forPattern(format).parse(value.toString(), Locale.getDefault());
         }
         return null;
     }
@@ -413,9 +410,9 @@ public abstract class AbstractTypeConvertingMap extends GroovyObjectSupport impl
     }
 
     private Date getDate(String name, Collection<String> formats) {
-        for (String format : formats) {
-            Date date = getDate(name,format);
-            if (date != null) return date;
+        Object value = get(name);
+        if (value != null) {
+            return new DateParser(formats).parse(value.toString(), Locale.getDefault());
         }
         return null;
     }
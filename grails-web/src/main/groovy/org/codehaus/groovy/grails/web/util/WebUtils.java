@@ -82,6 +82,7 @@ public class WebUtils extends org.springframework.web.util.WebUtils {
     public static final String ENABLE_FILE_EXTENSIONS = "grails.mime.file.extensions";
     public static final String DISPATCH_ACTION_PARAMETER = "_action_";
     public static final String SEND_ALLOW_HEADER_FOR_INVALID_HTTP_METHOD = "grails.http.invalid.method.allow.header";
+    public static final String DIRECT_CONTROLLER_DISPATCH = "grails.web.url.mapping.directDispatch";
 
     public static ViewResolver lookupViewResolver(ServletContext servletContext) {
         WebApplicationContext wac = WebApplicationContextUtils
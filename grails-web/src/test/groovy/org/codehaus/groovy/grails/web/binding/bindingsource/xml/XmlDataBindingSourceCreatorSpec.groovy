@@ -0,0 +1,40 @@
+package org.codehaus.groovy.grails.web.binding.bindingsource.xml
+
+import org.codehaus.groovy.grails.web.binding.bindingsource.XmlDataBindingSourceCreator
+import org.codehaus.groovy.grails.web.mime.MimeType
+import org.grails.databinding.bindingsource.InvalidRequestBodyException
+import org.grails.databinding.xml.StaxCollectionDataBindingSource
+
+import spock.lang.Specification
+
+class XmlDataBindingSourceCreatorSpec extends Specification {
+
+    void 'Test streaming collection binding reads the elements as they are iterated'() {
+        given:
+        def creator = new XmlDataBindingSourceCreator(streamingCollectionBinding: true)
+        def body = new ByteArrayInputStream('<list><item><a>1</a></item><item><a>2</a></item></list>'.bytes)
+
+        when:
+        def source = creator.createCollectionDataBindingSource(MimeType.XML, Object, body)
+
+        then:
+        source instanceof StaxCollectionDataBindingSource
+        source.dataBindingSources.iterator().collect { it['a'] } == ['1', '2']
+    }
+
+    void 'Test malformed XML in a streamed collection is an invalid request body'() {
+        given:
+        def creator = new XmlDataBindingSourceCreator(streamingCollectionBinding: true)
+        def body = new ByteArrayInputStream('<list><item><a>1</a></item><item><a>3<b></item></list>'.bytes)
+        def iterator = creator.createCollectionDataBindingSource(MimeType.XML, Object, body).dataBindingSources.iterator()
+
+        expect: 'the elements before the error are read'
+        iterator.next()['a'] == '1'
+
+        when:
+        iterator.next()
+
+        then:
+        thrown InvalidRequestBodyException
+    }
+}
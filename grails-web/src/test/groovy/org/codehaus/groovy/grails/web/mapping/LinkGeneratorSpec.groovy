@@ -230,6 +230,40 @@ class LinkGeneratorSpec extends Specification {
     }
 
     
+    def "caching generator creates links with different ids and params from one template"() {
+        given:
+            def cachingGenerator = getGenerator(true)
+            int reverseMappings = 0
+            final callable = { String controller, String action, String namespace, String pluginName, String httpMethod, Map params ->
+                reverseMappings++
+                [createRelativeURL: { String c, String a, Map parameterValues, String encoding, String fragment ->
+                    def query = parameterValues.findAll { it.key != 'id' }.collect {
+                        URLEncoder.encode(it.key.toString(), encoding) + '=' + URLEncoder.encode(it.value.toString(), encoding)
+                    }
+                    "/$c/$a/${URLEncoder.encode(parameterValues.id.toString(), encoding).replace('+', '%20')}${query ? '?' + query.join('&') : ''}".toString()
+                }] as UrlCreator
+            }
+            cachingGenerator.urlMappingsHolder = [getReverseMapping: callable, getReverseMappingNoDefault: callable] as UrlMappingsHolder
+
+        when:
+            def first = cachingGenerator.link(controller: 'book', action: 'show', id: 1, params: [q: 'a b'])
+            def second = cachingGenerator.link(controller: 'book', action: 'show', id: 'x y', params: [q: 'c&d'])
+            def third = cachingGenerator.link(controller: 'book', action: 'show', id: 2)
+
+        then:
+            first == '/bar/book/show/1?q=a+b'
+            second == '/bar/book/show/x%20y?q=c%26d'
+            third == '/bar/book/show/2'
+            reverseMappings == 2
+
+        when: "a value can't be inserted into the template"
+            def fourth = cachingGenerator.link(controller: 'book', action: 'show', id: 'a/b')
+
+        then: "the link is generated"
+            fourth == '/bar/book/show/a%2Fb'
+            reverseMappings == 3
+    }
+
     void cleanup() {
         RequestContextHolder.setRequestAttributes(null)
     }
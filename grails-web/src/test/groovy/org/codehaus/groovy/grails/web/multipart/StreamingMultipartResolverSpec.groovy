@@ -0,0 +1,127 @@
+package org.codehaus.groovy.grails.web.multipart
+
+import javax.servlet.http.HttpServletRequest
+
+import org.apache.commons.fileupload.FileItemStream
+import org.springframework.mock.web.MockHttpServletRequest
+import org.springframework.mock.web.MockMultipartFile
+import org.springframework.web.multipart.MaxUploadSizeExceededException
+import org.springframework.web.multipart.MultipartFile
+
+import spock.lang.Specification
+
+class StreamingMultipartResolverSpec extends Specification {
+
+    StreamingMultipartResolver resolver = new StreamingMultipartResolver()
+
+    void "Test parameters and files are read when the request is resolved"() {
+        when:
+        def multipartRequest = resolver.resolveMultipart(multipartRequest())
+
+        then:
+        multipartRequest.resolved
+        multipartRequest.getParameter('title') == 'Report'
+        new String(multipartRequest.getFile('upload').bytes, 'UTF-8') == 'The report'
+
+        cleanup:
+        resolver.cleanupMultipart(multipartRequest)
+    }
+
+    void "Test parameters and files are read when first accessed when resolving lazily"() {
+        given:
+        resolver.resolveLazily = true
+        def request = multipartRequest()
+
+        when:
+        def multipartRequest = resolver.resolveMultipart(request)
+
+        then:
+        !multipartRequest.resolved
+
+        when:
+        def file = multipartRequest.getFile('upload')
+
+        then:
+        multipartRequest.resolved
+        multipartRequest.getParameter('title') == 'Report'
+        file.originalFilename == 'report.txt'
+        file.contentType == 'text/plain'
+        new String(file.bytes, 'UTF-8') == 'The report'
+
+        cleanup:
+        resolver.cleanupMultipart(multipartRequest)
+    }
+
+    void "Test file parts are passed to the handler"() {
+        given:
+        def handled = []
+        resolver.multipartFileHandler = new MultipartFileHandler() {
+            MultipartFile handle(HttpServletRequest request, FileItemStream part) {
+                handled << part.name
+                new MockMultipartFile(part.fieldName, part.name, part.contentType, part.openStream())
+            }
+
+            void cleanup(MultipartFile file) {}
+        }
+
+        when:
+        def multipartRequest = resolver.resolveMultipart(multipartRequest())
+
+        then:
+        new String(multipartRequest.getFile('upload').bytes, 'UTF-8') == 'The report'
+        handled == ['report.txt']
+    }
+
+    void "Test the size of the files is limited while they are read"() {
+        given:
+        resolver.maxUploadSizePerFile = 5
+
+        when:
+        resolver.resolveMultipart(multipartRequest())
+
+        then:
+        thrown MaxUploadSizeExceededException
+    }
+
+    void "Test the error of a lazily resolved request is thrown on each access"() {
+        given:
+        resolver.resolveLazily = true
+        resolver.maxUploadSizePerFile = 5
+        def multipartRequest = resolver.resolveMultipart(multipartRequest())
+
+        when:
+        multipartRequest.getFile('upload')
+
+        then:
+        thrown MaxUploadSizeExceededException
+
+        when:
+        multipartRequest.getParameter('title')
+
+        then:
+        thrown MaxUploadSizeExceededException
+        !multipartRequest.resolved
+
+        when:
+        resolver.cleanupMultipart(multipartRequest)
+
+        then:
+        notThrown Exception
+    }
+
+    private MockHttpServletRequest multipartRequest() {
+        String body = '--boundary\r\n' +
+            'Content-Disposition: form-data; name="title"\r\n\r\n' +
+            'Report\r\n' +
+            '--boundary\r\n' +
+            'Content-Disposition: form-data; name="upload"; filename="report.txt"\r\n' +
+            'Content-Type: text/plain\r\n\r\n' +
+            'The report\r\n' +
+            '--boundary--\r\n'
+        def request = new MockHttpServletRequest('POST', '/upload')
+        request.contentType = 'multipart/form-data; boundary=boundary'
+        request.characterEncoding = 'UTF-8'
+        request.content = body.getBytes('UTF-8')
+        request
+    }
+}
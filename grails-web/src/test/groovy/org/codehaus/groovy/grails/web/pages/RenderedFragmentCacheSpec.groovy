@@ -0,0 +1,72 @@
+package org.codehaus.groovy.grails.web.pages
+
+import org.codehaus.groovy.grails.web.util.StreamCharBuffer
+
+import spock.lang.Specification
+
+class RenderedFragmentCacheSpec extends Specification {
+
+    RenderedFragmentCache cache = new RenderedFragmentCache(10, 0)
+    Object template = new Object()
+
+    void "Test keys with equal simple values match"() {
+        expect:
+        RenderedFragmentCache.createKey(template, [name: 'one', ids: [1, 2]], 'html') ==
+            RenderedFragmentCache.createKey(template, [name: new StringBuilder('one'), ids: [1, 2] as Integer[]], 'html')
+        RenderedFragmentCache.createKey(template, [name: 'one'], 'html') !=
+            RenderedFragmentCache.createKey(template, [name: 'two'], 'html')
+        RenderedFragmentCache.createKey(template, [name: 'one']) != RenderedFragmentCache.createKey(new Object(), [name: 'one'])
+    }
+
+    void "Test saved domain instances are identified by class, id and version"() {
+        expect:
+        RenderedFragmentCache.createKey(template, [book: new FragmentCacheBook(id: 1, version: 0)]) ==
+            RenderedFragmentCache.createKey(template, [book: new FragmentCacheBook(id: 1, version: 0)])
+        RenderedFragmentCache.createKey(template, [book: new FragmentCacheBook(id: 1, version: 0)]) !=
+            RenderedFragmentCache.createKey(template, [book: new FragmentCacheBook(id: 1, version: 1)])
+        RenderedFragmentCache.createKey(template, [book: new FragmentCacheBook()]) == null
+    }
+
+    void "Test keys don't keep other model objects"() {
+        given:
+        def value = new FragmentCacheValue(name: 'one')
+
+        when:
+        def key = RenderedFragmentCache.createKey(template, [value: value])
+
+        then:
+        key == RenderedFragmentCache.createKey(template, [value: new FragmentCacheValue(name: 'one')])
+        !(key.@parts[1].value instanceof FragmentCacheValue)
+    }
+
+    void "Test cached output doesn't keep track of the buffers it's written to"() {
+        given:
+        def output = new StreamCharBuffer()
+        output.writer.write('cached')
+        def key = RenderedFragmentCache.createKey(template, 'key')
+
+        when:
+        def snapshot = cache.put(key, output)
+        def pages = (1..3).collect {
+            def page = new StreamCharBuffer()
+            cache.get(key).writeTo(page.writer)
+            page
+        }
+
+        then:
+        !snapshot.notifyParentBuffersEnabled
+        snapshot.@parentBuffers == null
+        pages*.toString() == ['cached', 'cached', 'cached']
+        cache.hitCount == 3
+    }
+}
+
+class FragmentCacheBook {
+    Long id
+    Long version
+}
+
+@groovy.transform.EqualsAndHashCode
+class FragmentCacheValue {
+    String name
+}
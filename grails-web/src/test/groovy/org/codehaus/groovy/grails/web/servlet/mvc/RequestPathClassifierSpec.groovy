@@ -0,0 +1,53 @@
+package org.codehaus.groovy.grails.web.servlet.mvc
+
+import spock.lang.Specification
+
+class RequestPathClassifierSpec extends Specification {
+
+    RequestPathClassifier classifier = new RequestPathClassifier()
+
+    void "Test exclude patterns keep the semantics of the URL mapping exclusions"() {
+        when:
+        classifier.addExcludePattern('/css/**', RequestPathClassifier.EXCLUDED)
+        classifier.addExcludePattern('/img*', RequestPathClassifier.EXCLUDED)
+        classifier.addExcludePattern('/robots.txt', RequestPathClassifier.EXCLUDED)
+
+        then:
+        classifier.classify('/css/main.css') == RequestPathClassifier.EXCLUDED
+        classifier.classify('/images/logo.png') == RequestPathClassifier.EXCLUDED
+        classifier.classify('/robots.txt') == RequestPathClassifier.EXCLUDED
+        classifier.classify('/css') == null
+        classifier.classify('/robots.txt/more') == null
+        classifier.classify('/book/list') == null
+    }
+
+    void "Test Ant-style patterns"() {
+        when:
+        classifier.addPattern('/health', RequestPathClassifier.CONFIGURED)
+        classifier.addPattern('/assets/**', 'assets')
+        classifier.addPattern('**/*.js', RequestPathClassifier.STATIC)
+        classifier.addPattern('/api/*/status', 'status')
+
+        then:
+        classifier.classify('/health') == RequestPathClassifier.CONFIGURED
+        classifier.classify('/assets') == 'assets'
+        classifier.classify('/assets/app/application.css') == 'assets'
+        classifier.classify('/plugins/jquery/jquery.js') == RequestPathClassifier.STATIC
+        classifier.classify('/api/books/status') == 'status'
+        classifier.classify('/healthy') == null
+        classifier.classify('/js.folder/index') == null
+        classifier.classify('/api/books/authors/status') == null
+    }
+
+    void "Test requests are counted by path class"() {
+        given:
+        classifier.addPattern('/health', RequestPathClassifier.CONFIGURED)
+
+        when:
+        ['/health', '/book/list', '/health'].each { classifier.count(classifier.classify(it)) }
+
+        then:
+        !classifier.empty
+        classifier.requestCounts == [configured: 2L, grails: 1L]
+    }
+}
@@ -380,7 +380,7 @@ def readPluginMetadataForDocs(DocPublisher publisher) {
 
 def readDocProperties(DocPublisher publisher) {
     ['copyright', 'license', 'authors', 'footer', 'images',
-     'css', 'style', 'encoding', 'logo', 'sponsorLogo'].each { readIfSet publisher, it }
+     'css', 'style', 'encoding', 'logo', 'sponsorLogo', 'threads', 'incremental'].each { readIfSet publisher, it }
 }
 
 def configureAliases() {